@@ -65,16 +65,11 @@ import androidx.preference.PreferenceManager;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.google.android.material.snackbar.Snackbar;
 import info.guardianproject.netcipher.proxy.OrbotHelper;
-import java.security.NoSuchAlgorithmException;
-import java.security.Security;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLEngine;
-import org.conscrypt.Conscrypt;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.behavior.BottomAppBarRefreshScrollBehavior;
@@ -83,8 +78,12 @@ import xyz.zedler.patrick.grocy.databinding.ActivityMainBinding;
 import xyz.zedler.patrick.grocy.fragment.BaseFragment;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.CompatibilityBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.SyncSavings;
+import xyz.zedler.patrick.grocy.helper.SyncWorker;
 import xyz.zedler.patrick.grocy.model.Language;
 import xyz.zedler.patrick.grocy.repository.MainRepository;
+import xyz.zedler.patrick.grocy.startup.StartupPipeline;
+import xyz.zedler.patrick.grocy.startup.StartupTrace;
 import xyz.zedler.patrick.grocy.util.ClickUtil;
 import xyz.zedler.patrick.grocy.util.ConfigUtil;
 import xyz.zedler.patrick.grocy.util.Constants;
@@ -99,6 +98,7 @@ import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.RestartUtil;
 import xyz.zedler.patrick.grocy.util.ViewUtil;
 import xyz.zedler.patrick.grocy.viewmodel.SettingsViewModel;
+import xyz.zedler.patrick.grocy.web.RequestQueueSingleton;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -129,11 +129,12 @@ public class MainActivity extends AppCompatActivity {
       return;
     }
 
+    long createStartTime = StartupTrace.now();
+    StartupPipeline.start(this);
+
     sharedPrefs = PreferenceManager.getDefaultSharedPreferences(this);
     debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
 
-    insertConscrypt();
-
     // DARK MODE
 
     // this has to be placed before super.onCreate(savedInstanceState);
@@ -243,6 +244,9 @@ public class MainActivity extends AppCompatActivity {
           return;
         }
         getCurrentFragment().updateConnectivity(netUtil.isOnline());
+        if (netUtil.isOnline() && !isServerUrlEmpty()) {
+          SyncWorker.syncNow(MainActivity.this);
+        }
       }
     };
     registerReceiver(
@@ -250,11 +254,6 @@ public class MainActivity extends AppCompatActivity {
         new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION)
     );
 
-    boolean useTor = sharedPrefs.getBoolean(NETWORK.TOR, SETTINGS_DEFAULT.NETWORK.TOR);
-    if (useTor && !OrbotHelper.get(this).init()) {
-      OrbotHelper.get(this).installOrbot(this);
-    }
-
     // API
 
     updateGrocyApi();
@@ -328,15 +327,26 @@ public class MainActivity extends AppCompatActivity {
       bundle.putStringArrayList(Constants.ARGUMENT.SUPPORTED_VERSIONS, supportedVersions);
       showBottomSheet(new CompatibilityBottomSheet(), bundle);
     };
-    if (!isServerUrlEmpty()) {
-      ConfigUtil.loadInfo(
-          new DownloadHelper(this, TAG),
-          grocyApi,
-          sharedPrefs,
-          onSuccessConfigLoad,
-          null
-      );
-    }
+    // not needed for the first frame
+    StartupPipeline.runAfterFirstFrame(this, () -> {
+      boolean useTor = sharedPrefs.getBoolean(NETWORK.TOR, SETTINGS_DEFAULT.NETWORK.TOR);
+      if (useTor && !OrbotHelper.get(this).init()) {
+        OrbotHelper.get(this).installOrbot(this);
+      }
+      if (!isServerUrlEmpty()) {
+        ConfigUtil.loadInfo(
+            new DownloadHelper(this, TAG),
+            grocyApi,
+            sharedPrefs,
+            onSuccessConfigLoad,
+            null
+        );
+        // screens opened later show the data synced in the background
+        SyncWorker.schedulePeriodic(this);
+        SyncWorker.syncNow(this);
+      }
+    });
+    StartupTrace.record("activity_create", createStartTime);
   }
 
   @Override
@@ -674,7 +684,9 @@ public class MainActivity extends AppCompatActivity {
   }
 
   public void clearOfflineDataAndRestart() {
+    SyncWorker.cancel(this);
     repository.clearAllTables();
+    RequestQueueSingleton.getInstance(getApplication()).clearCache();
     SharedPreferences.Editor editPrefs = sharedPrefs.edit();
     editPrefs.remove(PREF.DB_LAST_TIME_STOCK_ITEMS);
     editPrefs.remove(PREF.DB_LAST_TIME_STORES);
@@ -695,6 +707,7 @@ public class MainActivity extends AppCompatActivity {
     editPrefs.remove(PREF.DB_LAST_TIME_CHORES);
     editPrefs.remove(PREF.DB_LAST_TIME_CHORE_ENTRIES);
     editPrefs.remove(PREF.DB_LAST_TIME_USERS);
+    SyncSavings.reset(editPrefs);
 
     editPrefs.remove(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY);
     editPrefs.remove(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME);
@@ -812,28 +825,4 @@ public class MainActivity extends AppCompatActivity {
   public void executeOnStart() {
     onStart();
   }
-
-  private void insertConscrypt() {
-    Security.insertProviderAt(Conscrypt.newProvider(), 1);
-
-    try {
-      Conscrypt.Version version = Conscrypt.version();
-      if (debug) {
-        Log.i(TAG, "insertConscrypt: Using Conscrypt/" + version.major() + "."
-            + version.minor() + "." + version.patch() + " for TLS");
-      }
-      SSLEngine engine = SSLContext.getDefault().createSSLEngine();
-      if (debug) {
-        Log.i(TAG, "Enabled protocols: "
-            + Arrays.toString(engine.getEnabledProtocols()) + " }");
-      }
-      if (debug) {
-        Log.i(TAG, "Enabled ciphers: "
-            + Arrays.toString(engine.getEnabledCipherSuites()) + " }");
-      }
-    } catch (NoSuchAlgorithmException e) {
-      Log.e(TAG, "insertConscrypt: NoSuchAlgorithmException");
-      Log.e(TAG, e.getMessage() != null ? e.getMessage() : e.toString());
-    }
-  }
-}
\ No newline at end of file
+}
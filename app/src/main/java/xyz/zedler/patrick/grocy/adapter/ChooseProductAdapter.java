@@ -20,6 +20,7 @@
 package xyz.zedler.patrick.grocy.adapter;
 
 import android.annotation.SuppressLint;
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -32,8 +33,10 @@ import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
 import java.util.List;
 import xyz.zedler.patrick.grocy.R;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class ChooseProductAdapter extends
     RecyclerView.Adapter<ChooseProductAdapter.ViewHolder> {
@@ -42,11 +45,14 @@ public class ChooseProductAdapter extends
 
   private final List<Product> products;
   private final ChooseProductAdapterListener listener;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public ChooseProductAdapter(
+      Context context,
       List<Product> products,
       ChooseProductAdapterListener listener
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.products = new ArrayList<>(products);
     this.listener = listener;
   }
@@ -108,14 +114,20 @@ public class ChooseProductAdapter extends
   }
 
   public void updateData(List<Product> newProducts) {
-    DiffCallback diffCallback = new DiffCallback(
-        newProducts,
-        this.products
+    // the diff runs in the background, so it gets copies of the current data
+    List<Product> productsOld = new ArrayList<>(this.products);
+    listDiffHelper.submit(
+        () -> newProducts,
+        newItems -> new DiffCallback(
+            newItems,
+            productsOld
+        ),
+        (newItems, diffResult) -> {
+          this.products.clear();
+          this.products.addAll(newItems);
+          diffResult.dispatchUpdatesTo(this);
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.products.clear();
-    this.products.addAll(newProducts);
-    diffResult.dispatchUpdatesTo(this);
   }
 
   static class DiffCallback extends DiffUtil.Callback {
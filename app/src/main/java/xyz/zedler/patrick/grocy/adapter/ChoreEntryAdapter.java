@@ -36,12 +36,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowChoreEntryBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.Chore;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.util.Constants.DATE;
 import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class ChoreEntryAdapter extends
     RecyclerView.Adapter<ChoreEntryAdapter.ViewHolder> {
@@ -57,6 +59,7 @@ public class ChoreEntryAdapter extends
   private final ChoreEntryAdapterListener listener;
   private String sortMode;
   private boolean sortAscending;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public ChoreEntryAdapter(
       Context context,
@@ -68,6 +71,7 @@ public class ChoreEntryAdapter extends
       String sortMode,
       boolean sortAscending
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.context = context;
     this.linearLayoutManager = linearLayoutManager;
     this.choreEntries = new ArrayList<>(choreEntries);
@@ -130,12 +134,13 @@ public class ChoreEntryAdapter extends
     Integer days = null;
     boolean colorDays = false;
     if (date != null && !date.isEmpty() && !date.equals(DATE.NEVER_OVERDUE_WITH_TIME)) {
-      days = DateUtil.getDaysFromNowWithTime(date);
+      days = DateUtil.getDaysFromTodayWithTime(choreEntry.getNextExecutionEpochSecond());
     }
 
     if (days != null) {
       holder.binding.days.setVisibility(View.VISIBLE);
-      holder.binding.days.setText(new DateUtil(context).getHumanForDaysFromNow(date, true));
+      // date is neither empty nor never overdue here
+      holder.binding.days.setText(new DateUtil(context).getHumanFromToday(days));
       if (days <= 5) {
         colorDays = true;
       }
@@ -219,28 +224,38 @@ public class ChoreEntryAdapter extends
       boolean sortAscending
   ) {
 
-    ChoreEntryAdapter.DiffCallback diffCallback = new ChoreEntryAdapter.DiffCallback(
-        this.choreEntries,
-        newList,
-        this.choreHashMap,
-        choreHashMap,
-        this.usersHashMap,
-        usersHashMap,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<ChoreEntry> choreEntriesOld = new ArrayList<>(this.choreEntries);
+    HashMap<Integer, Chore> choreHashMapOld = new HashMap<>(this.choreHashMap);
+    HashMap<Integer, User> usersHashMapOld = new HashMap<>(this.usersHashMap);
+    String sortModeOld = this.sortMode;
+    boolean sortAscendingOld = this.sortAscending;
+    listDiffHelper.submit(
+        () -> newList,
+        newItems -> new ChoreEntryAdapter.DiffCallback(
+            choreEntriesOld,
+            newItems,
+            choreHashMapOld,
+            choreHashMap,
+            usersHashMapOld,
+            usersHashMap,
+            sortModeOld,
+            sortMode,
+            sortAscendingOld,
+            sortAscending
+        ),
+        (newItems, diffResult) -> {
+          this.choreEntries.clear();
+          this.choreEntries.addAll(newItems);
+          this.choreHashMap.clear();
+          this.choreHashMap.putAll(choreHashMap);
+          this.usersHashMap.clear();
+          this.usersHashMap.putAll(usersHashMap);
+          this.sortMode = sortMode;
+          this.sortAscending = sortAscending;
+          diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.choreEntries.clear();
-    this.choreEntries.addAll(newList);
-    this.choreHashMap.clear();
-    this.choreHashMap.putAll(choreHashMap);
-    this.usersHashMap.clear();
-    this.usersHashMap.putAll(usersHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
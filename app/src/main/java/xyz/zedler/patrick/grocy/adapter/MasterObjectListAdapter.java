@@ -35,8 +35,10 @@ import java.util.ArrayList;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowFilterChipsBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.HorizontalFilterBarMulti;
 import xyz.zedler.patrick.grocy.util.ObjectUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.view.InputChip;
 
 public class MasterObjectListAdapter extends
@@ -49,6 +51,7 @@ public class MasterObjectListAdapter extends
   private final MasterObjectListAdapterListener listener;
   private final String entity;
   private final HorizontalFilterBarMulti horizontalFilterBarMulti;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public MasterObjectListAdapter(
       Context context,
@@ -57,6 +60,7 @@ public class MasterObjectListAdapter extends
       MasterObjectListAdapterListener listener,
       HorizontalFilterBarMulti horizontalFilterBarMulti
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.context = context;
     this.objects = new ArrayList<>(objects);
     this.listener = listener;
@@ -189,15 +193,21 @@ public class MasterObjectListAdapter extends
   }
 
   public void updateData(ArrayList<Object> newObjects) {
-    DiffCallback diffCallback = new DiffCallback(
-        newObjects,
-        this.objects,
-        entity
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<Object> objectsOld = new ArrayList<>(this.objects);
+    listDiffHelper.submit(
+        () -> newObjects,
+        newItems -> new DiffCallback(
+            newItems,
+            objectsOld,
+            entity
+        ),
+        (newItems, diffResult) -> {
+          this.objects.clear();
+          this.objects.addAll(newItems);
+          diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, entity));
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.objects.clear();
-    this.objects.addAll(newObjects);
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, entity));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
@@ -82,8 +82,8 @@ public class MatchArrayAdapter extends ArrayAdapter<String> {
 
         // Initialize list with max. capacity to avoid growing.
         List<String> suggestions = new ArrayList<>(itemsAll.size());
+        String match = constraint.toString().toLowerCase();
         for (String item : itemsAll) {
-          String match = constraint.toString().toLowerCase();
           if (item.toLowerCase().contains(match)) {
             suggestions.add(item);
           }
@@ -99,10 +99,10 @@ public class MatchArrayAdapter extends ArrayAdapter<String> {
         @SuppressWarnings("unchecked")
         ArrayList<String> filteredList = (ArrayList<String>) results.values;
         if (results.count > 0) {
+          // notify once instead of after every added item
+          setNotifyOnChange(false);
           clear();
-          for (String item : filteredList) {
-            add(item);
-          }
+          addAll(filteredList);
           notifyDataSetChanged();
         }
       }
@@ -30,8 +30,7 @@ import androidx.annotation.NonNull;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.ExtractedResult;
+import xyz.zedler.patrick.grocy.helper.ProductSearchIndex;
 import xyz.zedler.patrick.grocy.model.Product;
 
 public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
@@ -39,7 +38,8 @@ public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
   final Context context;
   final int resource;
   final List<Product> items;
-  final HashMap<String, Product> tempItems;
+  final HashMap<Integer, Product> tempItems;
+  private boolean itemsIndexed = false;
 
   public MatchProductsArrayAdapter(Context context, int resource, List<Product> items) {
     super(context, resource, items);
@@ -48,7 +48,7 @@ public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
     this.items = items;
     tempItems = new HashMap<>(); // this makes the difference.
     for (Product product : items) {
-      tempItems.put(product.getName().toLowerCase(), product);
+      tempItems.put(product.getId(), product);
     }
   }
 
@@ -92,15 +92,22 @@ public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
         return new FilterResults();
       }
 
-      // Initialize suggestion list with max. capacity; growing is expensive.
-      ArrayList<Product> suggestions = new ArrayList<>(tempItems.keySet().size());
-      List<ExtractedResult> results = FuzzySearch.extractSorted(
-          constraint.toString().toLowerCase(),
-          tempItems.keySet(),
-          50
-      );
-      for (ExtractedResult result : results) {
-        suggestions.add(tempItems.get(result.getString()));
+      ProductSearchIndex searchIndex = ProductSearchIndex.getInstance();
+      if (!itemsIndexed) {
+        // usually already indexed after the last product sync, then nothing is updated here
+        searchIndex.putProducts(new ArrayList<>(tempItems.values()));
+        itemsIndexed = true;
+      }
+      // the shared index may contain products which are not offered here
+      ArrayList<Product> suggestions = new ArrayList<>();
+      for (int productId : searchIndex.search(constraint.toString(), 0)) {
+        Product product = tempItems.get(productId);
+        if (product != null) {
+          suggestions.add(product);
+        }
+        if (suggestions.size() == 50) {
+          break;
+        }
       }
       FilterResults filterResults = new FilterResults();
       filterResults.values = suggestions;
@@ -113,11 +120,11 @@ public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
     protected void publishResults(CharSequence constraint, FilterResults results) {
       List<Product> filterList = (ArrayList<Product>) results.values;
       if (results.count > 0) {
+        // notify once instead of after every added item
+        setNotifyOnChange(false);
         clear();
-        for (Product product : filterList) {
-          add(product);
-          notifyDataSetChanged();
-        }
+        addAll(filterList);
+        notifyDataSetChanged();
       }
     }
   };
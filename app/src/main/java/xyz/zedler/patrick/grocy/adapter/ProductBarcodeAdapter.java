@@ -20,6 +20,7 @@
 package xyz.zedler.patrick.grocy.adapter;
 
 import android.annotation.SuppressLint;
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -30,10 +31,12 @@ import java.util.ArrayList;
 import java.util.List;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowProductBarcodeBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class ProductBarcodeAdapter extends RecyclerView.Adapter<ProductBarcodeAdapter.ViewHolder> {
 
@@ -44,13 +47,16 @@ public class ProductBarcodeAdapter extends RecyclerView.Adapter<ProductBarcodeAd
   private final List<QuantityUnit> quantityUnits;
   private final List<Store> stores;
 
+  private final AsyncListDiffHelper listDiffHelper;
 
   public ProductBarcodeAdapter(
+      Context context,
       ArrayList<ProductBarcode> productBarcodes,
       ProductBarcodeAdapterListener listener,
       List<QuantityUnit> quantityUnits,
       List<Store> stores
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.productBarcodes = new ArrayList<>(productBarcodes);
     this.listener = listener;
     this.quantityUnits = quantityUnits;
@@ -145,14 +151,20 @@ public class ProductBarcodeAdapter extends RecyclerView.Adapter<ProductBarcodeAd
   }
 
   public void updateData(ArrayList<ProductBarcode> productBarcodesNew) {
-    DiffCallback diffCallback = new DiffCallback(
-        this.productBarcodes,
-        productBarcodesNew
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<ProductBarcode> productBarcodesOld = new ArrayList<>(this.productBarcodes);
+    listDiffHelper.submit(
+        () -> productBarcodesNew,
+        newItems -> new DiffCallback(
+            productBarcodesOld,
+            newItems
+        ),
+        (newItems, diffResult) -> {
+          this.productBarcodes.clear();
+          this.productBarcodes.addAll(newItems);
+          diffResult.dispatchUpdatesTo(this);
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.productBarcodes.clear();
-    this.productBarcodes.addAll(productBarcodesNew);
-    diffResult.dispatchUpdatesTo(this);
   }
 
   static class DiffCallback extends DiffUtil.Callback {
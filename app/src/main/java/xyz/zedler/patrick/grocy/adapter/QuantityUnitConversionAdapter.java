@@ -30,10 +30,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowQuantityUnitConversionBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class QuantityUnitConversionAdapter extends RecyclerView.Adapter<QuantityUnitConversionAdapter.ViewHolder> {
 
@@ -44,6 +46,7 @@ public class QuantityUnitConversionAdapter extends RecyclerView.Adapter<Quantity
   private final QuantityUnitConversionAdapterListener listener;
   private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
 
+  private final AsyncListDiffHelper listDiffHelper;
 
   public QuantityUnitConversionAdapter(
       Context context,
@@ -51,6 +54,7 @@ public class QuantityUnitConversionAdapter extends RecyclerView.Adapter<Quantity
       QuantityUnitConversionAdapterListener listener,
       HashMap<Integer, QuantityUnit> quantityUnitHashMap
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.pluralUtil = new PluralUtil(context);
     this.quantityUnitConversions = new ArrayList<>(quantityUnitConversions);
     this.listener = listener;
@@ -109,14 +113,21 @@ public class QuantityUnitConversionAdapter extends RecyclerView.Adapter<Quantity
   }
 
   public void updateData(ArrayList<QuantityUnitConversion> quantityUnitConversionsNew) {
-    DiffCallback diffCallback = new DiffCallback(
-        this.quantityUnitConversions,
-        quantityUnitConversionsNew
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<QuantityUnitConversion> quantityUnitConversionsOld
+        = new ArrayList<>(this.quantityUnitConversions);
+    listDiffHelper.submit(
+        () -> quantityUnitConversionsNew,
+        newItems -> new DiffCallback(
+            quantityUnitConversionsOld,
+            newItems
+        ),
+        (newItems, diffResult) -> {
+          this.quantityUnitConversions.clear();
+          this.quantityUnitConversions.addAll(newItems);
+          diffResult.dispatchUpdatesTo(this);
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.quantityUnitConversions.clear();
-    this.quantityUnitConversions.addAll(quantityUnitConversionsNew);
-    diffResult.dispatchUpdatesTo(this);
   }
 
   static class DiffCallback extends DiffUtil.Callback {
@@ -35,11 +35,13 @@ import java.util.ArrayList;
 
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowRecipeEditListEntryBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class RecipeEditIngredientListEntryAdapter extends
     RecyclerView.Adapter<RecipeEditIngredientListEntryAdapter.ViewHolder> {
@@ -55,6 +57,7 @@ public class RecipeEditIngredientListEntryAdapter extends
   private final RecipeEditIngredientListEntryAdapterListener listener;
 
   private final PluralUtil pluralUtil;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public RecipeEditIngredientListEntryAdapter(
       Context context,
@@ -64,6 +67,7 @@ public class RecipeEditIngredientListEntryAdapter extends
       ArrayList<QuantityUnit> quantityUnits,
       RecipeEditIngredientListEntryAdapterListener listener
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.context = context;
     this.linearLayoutManager = linearLayoutManager;
     this.recipePositions = new ArrayList<>(recipePositions);
@@ -154,22 +158,30 @@ public class RecipeEditIngredientListEntryAdapter extends
       ArrayList<QuantityUnit> newQuantityUnits
   ) {
 
-    RecipeEditIngredientListEntryAdapter.DiffCallback diffCallback = new RecipeEditIngredientListEntryAdapter.DiffCallback(
-        this.recipePositions,
-        newList,
-        this.products,
-        newProducts,
-        this.quantityUnits,
-        newQuantityUnits
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<RecipePosition> recipePositionsOld = new ArrayList<>(this.recipePositions);
+    ArrayList<Product> productsOld = new ArrayList<>(this.products);
+    ArrayList<QuantityUnit> quantityUnitsOld = new ArrayList<>(this.quantityUnits);
+    listDiffHelper.submit(
+        () -> newList,
+        newItems -> new RecipeEditIngredientListEntryAdapter.DiffCallback(
+            recipePositionsOld,
+            newItems,
+            productsOld,
+            newProducts,
+            quantityUnitsOld,
+            newQuantityUnits
+        ),
+        (newItems, diffResult) -> {
+          this.recipePositions.clear();
+          this.recipePositions.addAll(newItems);
+          this.products.clear();
+          this.products.addAll(newProducts);
+          this.quantityUnits.clear();
+          this.quantityUnits.addAll(newQuantityUnits);
+          diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.recipePositions.clear();
-    this.recipePositions.addAll(newList);
-    this.products.clear();
-    this.products.addAll(newProducts);
-    this.quantityUnits.clear();
-    this.quantityUnits.addAll(newQuantityUnits);
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
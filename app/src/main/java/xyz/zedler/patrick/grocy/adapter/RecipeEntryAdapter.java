@@ -47,10 +47,13 @@ import java.util.ArrayList;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowRecipeEntryBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
+import xyz.zedler.patrick.grocy.helper.IntMap;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataRecipesExtraField;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
 import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.UnitUtil;
 
 public class RecipeEntryAdapter extends
@@ -62,27 +65,29 @@ public class RecipeEntryAdapter extends
   private Context context;
   private final LinearLayoutManager linearLayoutManager;
   private final ArrayList<Recipe> recipes;
-  private final ArrayList<RecipeFulfillment> recipeFulfillments;
+  private IntMap<RecipeFulfillment> recipeFulfillments; // keyed by recipe id, never changed
   private final RecipesItemAdapterListener listener;
   private final GrocyApi grocyApi;
   private String sortMode;
   private boolean sortAscending;
   private String extraField;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public RecipeEntryAdapter(
       Context context,
       LinearLayoutManager linearLayoutManager,
       ArrayList<Recipe> recipes,
-      ArrayList<RecipeFulfillment> recipeFulfillments,
+      IntMap<RecipeFulfillment> recipeFulfillments,
       RecipesItemAdapterListener listener,
       String sortMode,
       boolean sortAscending,
       String extraField
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.context = context;
     this.linearLayoutManager = linearLayoutManager;
     this.recipes = new ArrayList<>(recipes);
-    this.recipeFulfillments = new ArrayList<>(recipeFulfillments);
+    this.recipeFulfillments = recipeFulfillments;
     this.listener = listener;
     this.grocyApi = new GrocyApi((Application) context.getApplicationContext());
     this.sortMode = sortMode;
@@ -130,7 +135,7 @@ public class RecipeEntryAdapter extends
     int position = viewHolder.getAdapterPosition();
 
     Recipe recipe = recipes.get(position);
-    RecipeFulfillment recipeFulfillment = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe.getId());
+    RecipeFulfillment recipeFulfillment = recipeFulfillments.get(recipe.getId());
     RecipeViewHolder holder = (RecipeViewHolder) viewHolder;
 
     // NAME
@@ -282,41 +287,50 @@ public class RecipeEntryAdapter extends
 
   public void updateData(
       ArrayList<Recipe> newList,
-      ArrayList<RecipeFulfillment> newRecipeFulfillments,
+      IntMap<RecipeFulfillment> newRecipeFulfillments,
       String sortMode,
       boolean sortAscending,
       String extraField
   ) {
 
-    RecipeEntryAdapter.DiffCallback diffCallback = new RecipeEntryAdapter.DiffCallback(
-        this.recipes,
-        newList,
-        this.recipeFulfillments,
-        newRecipeFulfillments,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending,
-        this.extraField,
-        extraField
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<Recipe> recipesOld = new ArrayList<>(this.recipes);
+    IntMap<RecipeFulfillment> recipeFulfillmentsOld = this.recipeFulfillments;
+    String sortModeOld = this.sortMode;
+    boolean sortAscendingOld = this.sortAscending;
+    String extraFieldOld = this.extraField;
+    listDiffHelper.submit(
+        () -> newList,
+        newItems -> new RecipeEntryAdapter.DiffCallback(
+            recipesOld,
+            newItems,
+            recipeFulfillmentsOld,
+            newRecipeFulfillments,
+            sortModeOld,
+            sortMode,
+            sortAscendingOld,
+            sortAscending,
+            extraFieldOld,
+            extraField
+        ),
+        (newItems, diffResult) -> {
+          this.recipes.clear();
+          this.recipes.addAll(newItems);
+          this.recipeFulfillments = newRecipeFulfillments;
+          this.sortMode = sortMode;
+          this.sortAscending = sortAscending;
+          this.extraField = extraField;
+          diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.recipes.clear();
-    this.recipes.addAll(newList);
-    this.recipeFulfillments.clear();
-    this.recipeFulfillments.addAll(newRecipeFulfillments);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.extraField = extraField;
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
 
     ArrayList<Recipe> oldItems;
     ArrayList<Recipe> newItems;
-    ArrayList<RecipeFulfillment> oldRecipeFulfillments;
-    ArrayList<RecipeFulfillment> newRecipeFulfillments;
+    IntMap<RecipeFulfillment> oldRecipeFulfillments;
+    IntMap<RecipeFulfillment> newRecipeFulfillments;
     String sortModeOld;
     String sortModeNew;
     boolean sortAscendingOld;
@@ -327,8 +341,8 @@ public class RecipeEntryAdapter extends
     public DiffCallback(
         ArrayList<Recipe> oldItems,
         ArrayList<Recipe> newItems,
-        ArrayList<RecipeFulfillment> oldRecipeFulfillments,
-        ArrayList<RecipeFulfillment> newRecipeFulfillments,
+        IntMap<RecipeFulfillment> oldRecipeFulfillments,
+        IntMap<RecipeFulfillment> newRecipeFulfillments,
         String sortModeOld,
         String sortModeNew,
         boolean sortAscendingOld,
@@ -382,8 +396,8 @@ public class RecipeEntryAdapter extends
         return false;
       }
 
-      RecipeFulfillment recipeFulfillmentOld = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(oldRecipeFulfillments, oldItem.getId());
-      RecipeFulfillment recipeFulfillmentNew = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(newRecipeFulfillments, newItem.getId());
+      RecipeFulfillment recipeFulfillmentOld = oldRecipeFulfillments.get(oldItem.getId());
+      RecipeFulfillment recipeFulfillmentNew = newRecipeFulfillments.get(newItem.getId());
       if (recipeFulfillmentOld == null && recipeFulfillmentNew != null
           || recipeFulfillmentOld != null && recipeFulfillmentNew == null
           || recipeFulfillmentOld != null && !recipeFulfillmentOld.equals(recipeFulfillmentNew)) {
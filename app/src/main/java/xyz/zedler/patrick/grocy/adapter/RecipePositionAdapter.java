@@ -42,6 +42,7 @@ import java.util.ArrayList;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowRecipeEntryBinding;
 import xyz.zedler.patrick.grocy.databinding.RowRecipePositionEntryBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.Recipe;
@@ -49,6 +50,7 @@ import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class RecipePositionAdapter extends
     RecyclerView.Adapter<RecipePositionAdapter.ViewHolder> {
@@ -64,6 +66,7 @@ public class RecipePositionAdapter extends
   private final RecipePositionsItemAdapterListener listener;
 
   private final PluralUtil pluralUtil;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public RecipePositionAdapter(
       Context context,
@@ -73,6 +76,7 @@ public class RecipePositionAdapter extends
       ArrayList<QuantityUnit> quantityUnits,
       RecipePositionsItemAdapterListener listener
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.context = context;
     this.linearLayoutManager = linearLayoutManager;
     this.recipePositions = new ArrayList<>(recipePositions);
@@ -174,22 +178,30 @@ public class RecipePositionAdapter extends
       ArrayList<QuantityUnit> newQuantityUnits
   ) {
 
-    RecipePositionAdapter.DiffCallback diffCallback = new RecipePositionAdapter.DiffCallback(
-        this.recipePositions,
-        newList,
-        this.products,
-        newProducts,
-        this.quantityUnits,
-        newQuantityUnits
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<RecipePosition> recipePositionsOld = new ArrayList<>(this.recipePositions);
+    ArrayList<Product> productsOld = new ArrayList<>(this.products);
+    ArrayList<QuantityUnit> quantityUnitsOld = new ArrayList<>(this.quantityUnits);
+    listDiffHelper.submit(
+        () -> newList,
+        newItems -> new RecipePositionAdapter.DiffCallback(
+            recipePositionsOld,
+            newItems,
+            productsOld,
+            newProducts,
+            quantityUnitsOld,
+            newQuantityUnits
+        ),
+        (newItems, diffResult) -> {
+          this.recipePositions.clear();
+          this.recipePositions.addAll(newItems);
+          this.products.clear();
+          this.products.addAll(newProducts);
+          this.quantityUnits.clear();
+          this.quantityUnits.addAll(newQuantityUnits);
+          diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.recipePositions.clear();
-    this.recipePositions.addAll(newList);
-    this.products.clear();
-    this.products.addAll(newProducts);
-    this.quantityUnits.clear();
-    this.quantityUnits.addAll(newQuantityUnits);
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
@@ -34,11 +34,14 @@ import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListBottomNotesBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListItemBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
+import xyz.zedler.patrick.grocy.helper.IntMap;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataShoppingListExtraField;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataShoppingListGrouping;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
@@ -52,6 +55,7 @@ import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.util.TextUtil;
 
@@ -61,37 +65,40 @@ public class ShoppingListItemAdapter extends
   private final static String TAG = ShoppingListItemAdapter.class.getSimpleName();
 
   private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private final ArrayList<Integer> missingProductIds;
+  // shared with the view model, they are replaced with new instances but never changed
+  private IntMap<Product> productHashMap;
+  private IntMap<ProductLastPurchased> productLastPurchasedHashMap;
+  private IntMap<QuantityUnit> quantityUnitHashMap;
+  private IntMap<Double> shoppingListItemAmountsHashMap;
+  private ArrayList<Integer> missingProductIds;
   private final ShoppingListItemAdapterListener listener;
   private final PluralUtil pluralUtil;
   private String groupingMode;
   private String extraField;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public ShoppingListItemAdapter(
       Context context,
       ArrayList<ShoppingListItem> shoppingListItems,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, String> productNamesHashMap,
-      HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
-      HashMap<Integer, QuantityUnit> quantityUnitHashMap,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Store> storeHashMap,
-      HashMap<Integer, Double> shoppingListItemAmountsHashMap,
+      IntMap<Product> productHashMap,
+      IntMap<String> productNamesHashMap,
+      IntMap<ProductLastPurchased> productLastPurchasedHashMap,
+      IntMap<QuantityUnit> quantityUnitHashMap,
+      IntMap<ProductGroup> productGroupHashMap,
+      IntMap<Store> storeHashMap,
+      IntMap<Double> shoppingListItemAmountsHashMap,
       ArrayList<Integer> missingProductIds,
       ShoppingListItemAdapterListener listener,
       String shoppingListNotes,
       String groupingMode,
       String extraField
   ) {
-    this.productHashMap = new HashMap<>(productHashMap);
-    this.productLastPurchasedHashMap = new HashMap<>(productLastPurchasedHashMap);
-    this.quantityUnitHashMap = new HashMap<>(quantityUnitHashMap);
-    this.shoppingListItemAmountsHashMap = new HashMap<>(shoppingListItemAmountsHashMap);
-    this.missingProductIds = new ArrayList<>(missingProductIds);
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
+    this.productHashMap = productHashMap;
+    this.productLastPurchasedHashMap = productLastPurchasedHashMap;
+    this.quantityUnitHashMap = quantityUnitHashMap;
+    this.shoppingListItemAmountsHashMap = shoppingListItemAmountsHashMap;
+    this.missingProductIds = missingProductIds;
     this.listener = listener;
     this.pluralUtil = new PluralUtil(context);
     this.groupingMode = groupingMode;
@@ -104,10 +111,10 @@ public class ShoppingListItemAdapter extends
   static ArrayList<GroupedListItem> getGroupedListItems(
       Context context,
       ArrayList<ShoppingListItem> shoppingListItems,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, String> productNamesHashMap,
-      HashMap<Integer, Store> storeHashMap,
+      Map<Integer, ProductGroup> productGroupHashMap,
+      Map<Integer, Product> productHashMap,
+      Map<Integer, String> productNamesHashMap,
+      Map<Integer, Store> storeHashMap,
       String shoppingListNotes,
       String groupingMode
   ) {
@@ -166,9 +173,9 @@ public class ShoppingListItemAdapter extends
 
   public static String getGroupName(
       ShoppingListItem shoppingListItem,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Store> storeHashMap,
+      Map<Integer, Product> productHashMap,
+      Map<Integer, ProductGroup> productGroupHashMap,
+      Map<Integer, Store> storeHashMap,
       String groupingMode
   ) {
     String groupName = null;
@@ -506,9 +513,9 @@ public class ShoppingListItemAdapter extends
       Context context,
       ShoppingListItem item,
       RowShoppingListItemBinding binding,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, QuantityUnit> quantityUnitHashMap,
-      HashMap<Integer, Double> shoppingListItemAmountsHashMap,
+      Map<Integer, Product> productHashMap,
+      Map<Integer, QuantityUnit> quantityUnitHashMap,
+      Map<Integer, Double> shoppingListItemAmountsHashMap,
       PluralUtil pluralUtil
   ) {
 
@@ -626,69 +633,76 @@ public class ShoppingListItemAdapter extends
   public void updateData(
       Context context,
       ArrayList<ShoppingListItem> shoppingListItems,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, String> productNamesHashMap,
-      HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
-      HashMap<Integer, QuantityUnit> quantityUnitHashMap,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Store> storeHashMap,
-      HashMap<Integer, Double> shoppingListItemAmountsHashMap,
+      IntMap<Product> productHashMap,
+      IntMap<String> productNamesHashMap,
+      IntMap<ProductLastPurchased> productLastPurchasedHashMap,
+      IntMap<QuantityUnit> quantityUnitHashMap,
+      IntMap<ProductGroup> productGroupHashMap,
+      IntMap<Store> storeHashMap,
+      IntMap<Double> shoppingListItemAmountsHashMap,
       ArrayList<Integer> missingProductIds,
       String shoppingListNotes,
       String groupingMode,
       String extraField
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, shoppingListItems,
-        productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
-        shoppingListNotes, groupingMode);
-    ShoppingListItemAdapter.DiffCallback diffCallback = new ShoppingListItemAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.productHashMap,
-        productHashMap,
-        this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.shoppingListItemAmountsHashMap,
-        shoppingListItemAmountsHashMap,
-        this.missingProductIds,
-        missingProductIds,
-        this.groupingMode,
-        groupingMode,
-        this.extraField,
-        extraField
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<GroupedListItem> groupedListItemsOld = new ArrayList<>(this.groupedListItems);
+    IntMap<Product> productHashMapOld = this.productHashMap;
+    IntMap<ProductLastPurchased> productLastPurchasedHashMapOld = this.productLastPurchasedHashMap;
+    IntMap<QuantityUnit> quantityUnitHashMapOld = this.quantityUnitHashMap;
+    IntMap<Double> shoppingListItemAmountsHashMapOld = this.shoppingListItemAmountsHashMap;
+    ArrayList<Integer> missingProductIdsOld = new ArrayList<>(this.missingProductIds);
+    String groupingModeOld = this.groupingMode;
+    String extraFieldOld = this.extraField;
+    listDiffHelper.submit(
+        () -> getGroupedListItems(context, shoppingListItems,
+            productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
+            shoppingListNotes, groupingMode),
+        newGroupedListItems -> new ShoppingListItemAdapter.DiffCallback(
+            groupedListItemsOld,
+            newGroupedListItems,
+            productHashMapOld,
+            productHashMap,
+            productLastPurchasedHashMapOld,
+            productLastPurchasedHashMap,
+            quantityUnitHashMapOld,
+            quantityUnitHashMap,
+            shoppingListItemAmountsHashMapOld,
+            shoppingListItemAmountsHashMap,
+            missingProductIdsOld,
+            missingProductIds,
+            groupingModeOld,
+            groupingMode,
+            extraFieldOld,
+            extraField
+        ),
+        (newGroupedListItems, diffResult) -> {
+          this.groupedListItems.clear();
+          this.groupedListItems.addAll(newGroupedListItems);
+          this.productHashMap = productHashMap;
+          this.quantityUnitHashMap = quantityUnitHashMap;
+          this.productLastPurchasedHashMap = productLastPurchasedHashMap;
+          this.shoppingListItemAmountsHashMap = shoppingListItemAmountsHashMap;
+          this.missingProductIds = missingProductIds;
+          this.groupingMode = groupingMode;
+          this.extraField = extraField;
+          diffResult.dispatchUpdatesTo(this);
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.shoppingListItemAmountsHashMap.clear();
-    this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
-    this.missingProductIds.clear();
-    this.missingProductIds.addAll(missingProductIds);
-    this.groupingMode = groupingMode;
-    this.extraField = extraField;
-    diffResult.dispatchUpdatesTo(this);
   }
 
   static class DiffCallback extends DiffUtil.Callback {
 
     ArrayList<GroupedListItem> oldItems;
     ArrayList<GroupedListItem> newItems;
-    HashMap<Integer, Product> productHashMapOld;
-    HashMap<Integer, Product> productHashMapNew;
-    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld;
-    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapOld;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapNew;
-    HashMap<Integer, Double> shoppingListItemAmountsHashMapOld;
-    HashMap<Integer, Double> shoppingListItemAmountsHashMapNew;
+    IntMap<Product> productHashMapOld;
+    IntMap<Product> productHashMapNew;
+    IntMap<ProductLastPurchased> productLastPurchasedHashMapOld;
+    IntMap<ProductLastPurchased> productLastPurchasedHashMapNew;
+    IntMap<QuantityUnit> quantityUnitHashMapOld;
+    IntMap<QuantityUnit> quantityUnitHashMapNew;
+    IntMap<Double> shoppingListItemAmountsHashMapOld;
+    IntMap<Double> shoppingListItemAmountsHashMapNew;
     ArrayList<Integer> missingProductIdsOld;
     ArrayList<Integer> missingProductIdsNew;
     String groupingModeOld;
@@ -699,14 +713,14 @@ public class ShoppingListItemAdapter extends
     public DiffCallback(
         ArrayList<GroupedListItem> oldItems,
         ArrayList<GroupedListItem> newItems,
-        HashMap<Integer, Product> productHashMapOld,
-        HashMap<Integer, Product> productHashMapNew,
-        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld,
-        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapOld,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapNew,
-        HashMap<Integer, Double> shoppingListItemAmountsHashMapOld,
-        HashMap<Integer, Double> shoppingListItemAmountsHashMapNew,
+        IntMap<Product> productHashMapOld,
+        IntMap<Product> productHashMapNew,
+        IntMap<ProductLastPurchased> productLastPurchasedHashMapOld,
+        IntMap<ProductLastPurchased> productLastPurchasedHashMapNew,
+        IntMap<QuantityUnit> quantityUnitHashMapOld,
+        IntMap<QuantityUnit> quantityUnitHashMapNew,
+        IntMap<Double> shoppingListItemAmountsHashMapOld,
+        IntMap<Double> shoppingListItemAmountsHashMapNew,
         ArrayList<Integer> missingProductIdsOld,
         ArrayList<Integer> missingProductIdsNew,
         String groupingModeOld,
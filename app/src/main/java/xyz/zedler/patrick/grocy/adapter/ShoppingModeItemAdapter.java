@@ -43,6 +43,7 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingBottomNotesBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingItemBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataShoppingListGrouping;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
@@ -54,6 +55,7 @@ import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.util.TextUtil;
 import xyz.zedler.patrick.grocy.util.UnitUtil;
@@ -73,6 +75,7 @@ public class ShoppingModeItemAdapter extends
   private final boolean useSmallerFonts;
   private final boolean showProductDescription;
   private final boolean showDoneItems;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public ShoppingModeItemAdapter(
       Context context,
@@ -92,6 +95,7 @@ public class ShoppingModeItemAdapter extends
       boolean showProductDescription,
       boolean showDoneItems
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.linearLayoutManager = linearLayoutManager;
     this.productHashMap = new HashMap<>(productHashMap);
     this.quantityUnitHashMap = new HashMap<>(quantityUnitHashMap);
@@ -493,33 +497,43 @@ public class ShoppingModeItemAdapter extends
       String shoppingListNotes,
       String groupingMode
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, shoppingListItems,
-        productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
-        shoppingListNotes, groupingMode, showDoneItems);
-    ShoppingModeItemAdapter.DiffCallback diffCallback = new ShoppingModeItemAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.productHashMap,
-        productHashMap,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.shoppingListItemAmountsHashMap,
-        shoppingListItemAmountsHashMap,
-        this.missingProductIds,
-        missingProductIds
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<GroupedListItem> groupedListItemsOld = new ArrayList<>(this.groupedListItems);
+    HashMap<Integer, Product> productHashMapOld = new HashMap<>(this.productHashMap);
+    HashMap<Integer, QuantityUnit> quantityUnitHashMapOld = new HashMap<>(this.quantityUnitHashMap);
+    HashMap<Integer, Double> shoppingListItemAmountsHashMapOld
+        = new HashMap<>(this.shoppingListItemAmountsHashMap);
+    ArrayList<Integer> missingProductIdsOld = new ArrayList<>(this.missingProductIds);
+    listDiffHelper.submit(
+        () -> getGroupedListItems(context, shoppingListItems,
+            productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
+            shoppingListNotes, groupingMode, showDoneItems),
+        newGroupedListItems -> new ShoppingModeItemAdapter.DiffCallback(
+            groupedListItemsOld,
+            newGroupedListItems,
+            productHashMapOld,
+            productHashMap,
+            quantityUnitHashMapOld,
+            quantityUnitHashMap,
+            shoppingListItemAmountsHashMapOld,
+            shoppingListItemAmountsHashMap,
+            missingProductIdsOld,
+            missingProductIds
+        ),
+        (newGroupedListItems, diffResult) -> {
+          this.groupedListItems.clear();
+          this.groupedListItems.addAll(newGroupedListItems);
+          this.productHashMap.clear();
+          this.productHashMap.putAll(productHashMap);
+          this.quantityUnitHashMap.clear();
+          this.quantityUnitHashMap.putAll(quantityUnitHashMap);
+          this.shoppingListItemAmountsHashMap.clear();
+          this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
+          this.missingProductIds.clear();
+          this.missingProductIds.addAll(missingProductIds);
+          diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.shoppingListItemAmountsHashMap.clear();
-    this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
-    this.missingProductIds.clear();
-    this.missingProductIds.addAll(missingProductIds);
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
@@ -37,6 +37,7 @@ import java.util.HashMap;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowStockEntryBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockEntriesGrouping;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockGrouping;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockSort;
@@ -56,6 +57,7 @@ import xyz.zedler.patrick.grocy.util.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 
 public class StockEntryAdapter extends
@@ -77,6 +79,7 @@ public class StockEntryAdapter extends
   private final DateUtil dateUtil;
   private final String currency;
   private final int dueSoonDays;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public StockEntryAdapter(
       Context context,
@@ -90,6 +93,7 @@ public class StockEntryAdapter extends
       boolean sortAscending,
       String groupingMode
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
     this.showDateTracking = sharedPrefs.getBoolean(PREF.FEATURE_STOCK_BBD_TRACKING, true);
     this.currency = sharedPrefs.getString(PREF.CURRENCY, "");
@@ -311,8 +315,8 @@ public class StockEntryAdapter extends
     // BEST BEFORE
 
     String date = stockEntry.getBestBeforeDate();
-    int daysInt = DateUtil.getDaysFromNow(date);
-    String days = date != null ? String.valueOf(DateUtil.getDaysFromNow(date)) : null;
+    int daysInt = DateUtil.getDaysFromToday(stockEntry.getBestBeforeEpochDay());
+    String days = date != null ? String.valueOf(daysInt) : null;
     boolean colorDays = false;
 
     if (!showDateTracking) {
@@ -321,7 +325,7 @@ public class StockEntryAdapter extends
       holder.binding.dueDate.setText(context.getString(
           R.string.property_due_date_fill,
           dateUtil.getLocalizedDate(date, DateUtil.FORMAT_SHORT) + "  "
-              + dateUtil.getHumanForDaysFromNow(date)
+              + dateUtil.getHumanForDaysFromNow(date, daysInt)
       ));
       holder.binding.dueDate.setVisibility(View.VISIBLE);
       if (daysInt <= dueSoonDays) {
@@ -415,16 +419,16 @@ public class StockEntryAdapter extends
     // PURCHASED DATE
 
     String purchaseDate = stockEntry.getPurchasedDate();
-    String purchaseDays = null;
+    Integer purchaseDays = null;
     if (purchaseDate != null) {
-      purchaseDays = String.valueOf(DateUtil.getDaysFromNow(purchaseDate));
+      purchaseDays = DateUtil.getDaysFromToday(stockEntry.getPurchasedEpochDay());
     }
     if (purchaseDays != null && !purchaseDate.equals(Constants.DATE.NEVER_OVERDUE)) {
       holder.binding.purchasedDate.setVisibility(View.VISIBLE);
       holder.binding.purchasedDate.setText(context.getString(
           R.string.property_purchased_date_fill,
           dateUtil.getLocalizedDate(purchaseDate, DateUtil.FORMAT_SHORT) + "  "
-              + dateUtil.getHumanForDaysFromNow(purchaseDate)
+              + dateUtil.getHumanForDaysFromNow(purchaseDate, purchaseDays)
       ));
     } else {
       holder.binding.purchasedDate.setVisibility(View.GONE);
@@ -472,42 +476,54 @@ public class StockEntryAdapter extends
       boolean sortAscending,
       String groupingMode
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, newList,
-        productHashMap, locationHashMap, storeHashMap, this.currency, this.dateUtil,
-        sortMode, sortAscending, groupingMode);
-    StockEntryAdapter.DiffCallback diffCallback = new StockEntryAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.productHashMap,
-        productHashMap,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.locationHashMap,
-        locationHashMap,
-        this.storeHashMap,
-        storeHashMap,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending,
-        this.groupingMode,
-        groupingMode
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<GroupedListItem> groupedListItemsOld = new ArrayList<>(this.groupedListItems);
+    HashMap<Integer, Product> productHashMapOld = new HashMap<>(this.productHashMap);
+    HashMap<Integer, QuantityUnit> quantityUnitHashMapOld = new HashMap<>(this.quantityUnitHashMap);
+    HashMap<Integer, Location> locationHashMapOld = new HashMap<>(this.locationHashMap);
+    HashMap<Integer, Store> storeHashMapOld = new HashMap<>(this.storeHashMap);
+    String sortModeOld = this.sortMode;
+    boolean sortAscendingOld = this.sortAscending;
+    String groupingModeOld = this.groupingMode;
+    listDiffHelper.submit(
+        () -> getGroupedListItems(context, newList,
+            productHashMap, locationHashMap, storeHashMap, this.currency, this.dateUtil,
+            sortMode, sortAscending, groupingMode),
+        newGroupedListItems -> new StockEntryAdapter.DiffCallback(
+            groupedListItemsOld,
+            newGroupedListItems,
+            productHashMapOld,
+            productHashMap,
+            quantityUnitHashMapOld,
+            quantityUnitHashMap,
+            locationHashMapOld,
+            locationHashMap,
+            storeHashMapOld,
+            storeHashMap,
+            sortModeOld,
+            sortMode,
+            sortAscendingOld,
+            sortAscending,
+            groupingModeOld,
+            groupingMode
+        ),
+        (newGroupedListItems, diffResult) -> {
+          this.groupedListItems.clear();
+          this.groupedListItems.addAll(newGroupedListItems);
+          this.productHashMap.clear();
+          this.productHashMap.putAll(productHashMap);
+          this.quantityUnitHashMap.clear();
+          this.quantityUnitHashMap.putAll(quantityUnitHashMap);
+          this.locationHashMap.clear();
+          this.locationHashMap.putAll(locationHashMap);
+          this.storeHashMap.clear();
+          this.storeHashMap.putAll(storeHashMap);
+          this.sortMode = sortMode;
+          this.sortAscending = sortAscending;
+          this.groupingMode = groupingMode;
+          diffResult.dispatchUpdatesTo(this);
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.locationHashMap.clear();
-    this.locationHashMap.putAll(locationHashMap);
-    this.storeHashMap.clear();
-    this.storeHashMap.putAll(storeHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.groupingMode = groupingMode;
-    diffResult.dispatchUpdatesTo(this);
   }
 
   static class DiffCallback extends DiffUtil.Callback {
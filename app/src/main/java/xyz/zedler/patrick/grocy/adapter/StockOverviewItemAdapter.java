@@ -35,6 +35,7 @@ import java.util.HashMap;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowStockItemBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockExtraField;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockGrouping;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockSort;
@@ -51,6 +52,7 @@ import xyz.zedler.patrick.grocy.util.Constants;
 import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 
 public class StockOverviewItemAdapter extends
@@ -75,6 +77,7 @@ public class StockOverviewItemAdapter extends
   private String extraField;
   private final DateUtil dateUtil;
   private final String currency;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public StockOverviewItemAdapter(
       Context context,
@@ -97,6 +100,7 @@ public class StockOverviewItemAdapter extends
       String groupingMode,
       String extraField
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.shoppingListItemsProductIds = new ArrayList<>(shoppingListItemsProductIds);
     this.quantityUnitHashMap = new HashMap<>(quantityUnitHashMap);
     this.productAveragePriceHashMap = new HashMap<>(productAveragePriceHashMap);
@@ -159,7 +163,7 @@ public class StockOverviewItemAdapter extends
           groupName += "  " + dateUtil.getHumanForDaysFromNow(groupName);
         }
       } else if (groupingMode.equals(FilterChipLiveDataStockGrouping.GROUPING_MIN_STOCK_AMOUNT)) {
-        groupName = stockItem.getProduct().getMinStockAmount();
+        groupName = NumUtil.trim(stockItem.getProduct().getMinStockAmount());
       } else if (groupingMode.equals(FilterChipLiveDataStockGrouping.GROUPING_PARENT_PRODUCT)
           && NumUtil.isStringInt(stockItem.getProduct().getParentProductId())) {
         int productId = Integer.parseInt(stockItem.getProduct().getParentProductId());
@@ -347,21 +351,21 @@ public class StockOverviewItemAdapter extends
     // BEST BEFORE
 
     String date = stockItem.getBestBeforeDate();
-    String days = null;
+    Integer days = null;
     boolean colorDays = false;
     if (date != null) {
-      days = String.valueOf(DateUtil.getDaysFromNow(date));
+      days = DateUtil.getDaysFromToday(stockItem.getBestBeforeEpochDay());
     }
 
     if (!showDateTracking) {
       holder.binding.linearDays.setVisibility(View.GONE);
     } else if (days != null && (sortMode.equals(FilterChipLiveDataStockSort.SORT_DUE_DATE)
-        || Integer.parseInt(days) <= daysExpiringSoon
+        || days <= daysExpiringSoon
         && !date.equals(Constants.DATE.NEVER_OVERDUE))
     ) {
       holder.binding.linearDays.setVisibility(View.VISIBLE);
-      holder.binding.textDays.setText(dateUtil.getHumanForDaysFromNow(date));
-      if (Integer.parseInt(days) <= daysExpiringSoon) {
+      holder.binding.textDays.setText(dateUtil.getHumanForDaysFromNow(date, days));
+      if (days <= daysExpiringSoon) {
         colorDays = true;
       }
     } else {
@@ -374,7 +378,7 @@ public class StockOverviewItemAdapter extends
           ResourcesCompat.getFont(context, R.font.jost_medium)
       );
       @ColorRes int color;
-      if (Integer.parseInt(days) >= 0) {
+      if (days >= 0) {
         color = R.color.retro_yellow_fg;
       } else if (stockItem.getDueTypeInt() == StockItem.DUE_TYPE_BEST_BEFORE) {
         color = R.color.retro_dirt_fg;
@@ -500,49 +504,66 @@ public class StockOverviewItemAdapter extends
       String groupingMode,
       String extraField
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, newList,
-        productGroupHashMap, productHashMap, locationHashMap, this.currency, this.dateUtil,
-        sortMode, sortAscending, groupingMode);
-    StockOverviewItemAdapter.DiffCallback diffCallback = new StockOverviewItemAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.shoppingListItemsProductIds,
-        shoppingListItemsProductIds,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.productAveragePriceHashMap,
-        productAveragePriceHashMap,
-        this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
-        this.missingItemsProductIds,
-        missingItemsProductIds,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending,
-        this.groupingMode,
-        groupingMode,
-        this.extraField,
-        extraField
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<GroupedListItem> groupedListItemsOld = new ArrayList<>(this.groupedListItems);
+    ArrayList<String> shoppingListItemsProductIdsOld
+        = new ArrayList<>(this.shoppingListItemsProductIds);
+    HashMap<Integer, QuantityUnit> quantityUnitHashMapOld = new HashMap<>(this.quantityUnitHashMap);
+    HashMap<Integer, String> productAveragePriceHashMapOld
+        = new HashMap<>(this.productAveragePriceHashMap);
+    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld
+        = new HashMap<>(this.productLastPurchasedHashMap);
+    ArrayList<Integer> missingItemsProductIdsOld = new ArrayList<>(this.missingItemsProductIds);
+    String sortModeOld = this.sortMode;
+    boolean sortAscendingOld = this.sortAscending;
+    String groupingModeOld = this.groupingMode;
+    String extraFieldOld = this.extraField;
+    listDiffHelper.submit(
+        () -> getGroupedListItems(context, newList,
+            productGroupHashMap, productHashMap, locationHashMap, this.currency, this.dateUtil,
+            sortMode, sortAscending, groupingMode),
+        newGroupedListItems -> new StockOverviewItemAdapter.DiffCallback(
+            groupedListItemsOld,
+            newGroupedListItems,
+            shoppingListItemsProductIdsOld,
+            shoppingListItemsProductIds,
+            quantityUnitHashMapOld,
+            quantityUnitHashMap,
+            productAveragePriceHashMapOld,
+            productAveragePriceHashMap,
+            productLastPurchasedHashMapOld,
+            productLastPurchasedHashMap,
+            missingItemsProductIdsOld,
+            missingItemsProductIds,
+            sortModeOld,
+            sortMode,
+            sortAscendingOld,
+            sortAscending,
+            groupingModeOld,
+            groupingMode,
+            extraFieldOld,
+            extraField
+        ),
+        (newGroupedListItems, diffResult) -> {
+          this.groupedListItems.clear();
+          this.groupedListItems.addAll(newGroupedListItems);
+          this.shoppingListItemsProductIds.clear();
+          this.shoppingListItemsProductIds.addAll(shoppingListItemsProductIds);
+          this.quantityUnitHashMap.clear();
+          this.quantityUnitHashMap.putAll(quantityUnitHashMap);
+          this.productAveragePriceHashMap.clear();
+          this.productAveragePriceHashMap.putAll(productAveragePriceHashMap);
+          this.productLastPurchasedHashMap.clear();
+          this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
+          this.missingItemsProductIds.clear();
+          this.missingItemsProductIds.addAll(missingItemsProductIds);
+          this.sortMode = sortMode;
+          this.sortAscending = sortAscending;
+          this.groupingMode = groupingMode;
+          this.extraField = extraField;
+          diffResult.dispatchUpdatesTo(this);
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.shoppingListItemsProductIds.clear();
-    this.shoppingListItemsProductIds.addAll(shoppingListItemsProductIds);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.productAveragePriceHashMap.clear();
-    this.productAveragePriceHashMap.putAll(productAveragePriceHashMap);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.missingItemsProductIds.clear();
-    this.missingItemsProductIds.addAll(missingItemsProductIds);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.groupingMode = groupingMode;
-    this.extraField = extraField;
-    diffResult.dispatchUpdatesTo(this);
   }
 
   static class DiffCallback extends DiffUtil.Callback {
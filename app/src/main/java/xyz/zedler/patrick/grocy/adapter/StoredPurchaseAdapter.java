@@ -26,12 +26,14 @@ import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.appcompat.content.res.AppCompatResources;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowStoredPurchasesItemBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.PendingProductBarcode;
@@ -40,6 +42,7 @@ import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
 import xyz.zedler.patrick.grocy.util.DateUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class StoredPurchaseAdapter extends
     RecyclerView.Adapter<StoredPurchaseAdapter.ViewHolder> {
@@ -51,6 +54,7 @@ public class StoredPurchaseAdapter extends
   private final HashMap<Integer, List<PendingProductBarcode>> productBarcodeHashMap;
   private final PendingPurchaseAdapterListener listener;
   private final DateUtil dateUtil;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public StoredPurchaseAdapter(
       Context context,
@@ -58,6 +62,7 @@ public class StoredPurchaseAdapter extends
       HashMap<Integer, List<PendingProductBarcode>> productBarcodeHashMap,
       PendingPurchaseAdapterListener listener
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.dateUtil = new DateUtil(context);
     this.groupedListItems = new ArrayList<>(groupedListItems);
     this.productBarcodeHashMap = productBarcodeHashMap;
@@ -192,8 +197,74 @@ public class StoredPurchaseAdapter extends
   }
 
   public void updateData(List<GroupedListItem> newList) {
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newList);
-    notifyDataSetChanged();
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<GroupedListItem> groupedListItemsOld = new ArrayList<>(this.groupedListItems);
+    listDiffHelper.submit(
+        () -> newList,
+        newItems -> new DiffCallback(groupedListItemsOld, newItems),
+        (newItems, diffResult) -> {
+          this.groupedListItems.clear();
+          this.groupedListItems.addAll(newItems);
+          diffResult.dispatchUpdatesTo(this);
+        }
+    );
+  }
+
+  static class DiffCallback extends DiffUtil.Callback {
+
+    List<GroupedListItem> oldItems;
+    List<GroupedListItem> newItems;
+
+    public DiffCallback(
+        List<GroupedListItem> oldItems,
+        List<GroupedListItem> newItems
+    ) {
+      this.newItems = newItems;
+      this.oldItems = oldItems;
+    }
+
+    @Override
+    public int getOldListSize() {
+      return oldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+      return newItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+      return compare(oldItemPosition, newItemPosition, false);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+      return compare(oldItemPosition, newItemPosition, true);
+    }
+
+    private boolean compare(int oldItemPos, int newItemPos, boolean compareContent) {
+      GroupedListItem newItem = newItems.get(newItemPos);
+      GroupedListItem oldItem = oldItems.get(oldItemPos);
+      if (newItem.getClass() != oldItem.getClass()) {
+        return false;
+      }
+      if (newItem instanceof StoredPurchase) {
+        StoredPurchase newPurchase = (StoredPurchase) newItem;
+        StoredPurchase oldPurchase = (StoredPurchase) oldItem;
+        return compareContent ? newPurchase.equals(oldPurchase)
+            : newPurchase.getId() == oldPurchase.getId();
+      }
+      Product newProduct = newItem instanceof PendingProductInfo
+          ? ((PendingProductInfo) newItem).getProduct() : (Product) newItem;
+      Product oldProduct = oldItem instanceof PendingProductInfo
+          ? ((PendingProductInfo) oldItem).getProduct() : (Product) oldItem;
+      if (newProduct.getClass() != oldProduct.getClass()
+          || newProduct.getId() != oldProduct.getId()) {
+        return false;
+      }
+      // headers show the divider and barcodes, which aren't part of the product
+      return !compareContent || newItem instanceof PendingProductInfo;
+    }
   }
 }
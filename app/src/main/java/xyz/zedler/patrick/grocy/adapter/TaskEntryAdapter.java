@@ -38,11 +38,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowTaskEntryBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncListDiffHelper;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class TaskEntryAdapter extends
     RecyclerView.Adapter<TaskEntryAdapter.ViewHolder> {
@@ -58,6 +60,7 @@ public class TaskEntryAdapter extends
   private final TasksItemAdapterListener listener;
   private String sortMode;
   private boolean sortAscending;
+  private final AsyncListDiffHelper listDiffHelper;
 
   public TaskEntryAdapter(
       Context context,
@@ -69,6 +72,7 @@ public class TaskEntryAdapter extends
       String sortMode,
       boolean sortAscending
   ) {
+    this.listDiffHelper = new AsyncListDiffHelper(PrefsUtil.isDebuggingEnabled(context));
     this.context = context;
     this.linearLayoutManager = linearLayoutManager;
     this.tasks = new ArrayList<>(tasks);
@@ -143,12 +147,12 @@ public class TaskEntryAdapter extends
     Integer days = null;
     boolean colorDays = false;
     if (date != null && !date.isEmpty()) {
-      days = DateUtil.getDaysFromNow(date);
+      days = DateUtil.getDaysFromToday(task.getDueEpochDay());
     }
 
     if (days != null && !task.isDone()) {
       holder.binding.days.setVisibility(View.VISIBLE);
-      holder.binding.days.setText(new DateUtil(context).getHumanForDaysFromNow(date));
+      holder.binding.days.setText(new DateUtil(context).getHumanForDaysFromNow(date, days));
       if (days <= 5) {
         colorDays = true;
       }
@@ -231,28 +235,39 @@ public class TaskEntryAdapter extends
       boolean sortAscending
   ) {
 
-    TaskEntryAdapter.DiffCallback diffCallback = new TaskEntryAdapter.DiffCallback(
-        this.tasks,
-        newList,
-        this.taskCategoriesHashMap,
-        taskCategoriesHashMap,
-        this.usersHashMap,
-        usersHashMap,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending
+    // the diff runs in the background, so it gets copies of the current data
+    ArrayList<Task> tasksOld = new ArrayList<>(this.tasks);
+    HashMap<Integer, TaskCategory> taskCategoriesHashMapOld
+        = new HashMap<>(this.taskCategoriesHashMap);
+    HashMap<Integer, User> usersHashMapOld = new HashMap<>(this.usersHashMap);
+    String sortModeOld = this.sortMode;
+    boolean sortAscendingOld = this.sortAscending;
+    listDiffHelper.submit(
+        () -> newList,
+        newItems -> new TaskEntryAdapter.DiffCallback(
+            tasksOld,
+            newItems,
+            taskCategoriesHashMapOld,
+            taskCategoriesHashMap,
+            usersHashMapOld,
+            usersHashMap,
+            sortModeOld,
+            sortMode,
+            sortAscendingOld,
+            sortAscending
+        ),
+        (newItems, diffResult) -> {
+          this.tasks.clear();
+          this.tasks.addAll(newItems);
+          this.taskCategoriesHashMap.clear();
+          this.taskCategoriesHashMap.putAll(taskCategoriesHashMap);
+          this.usersHashMap.clear();
+          this.usersHashMap.putAll(usersHashMap);
+          this.sortMode = sortMode;
+          this.sortAscending = sortAscending;
+          diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+        }
     );
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.tasks.clear();
-    this.tasks.addAll(newList);
-    this.taskCategoriesHashMap.clear();
-    this.taskCategoriesHashMap.putAll(taskCategoriesHashMap);
-    this.usersHashMap.clear();
-    this.usersHashMap.putAll(usersHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
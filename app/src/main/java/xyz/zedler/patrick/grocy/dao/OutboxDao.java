@@ -0,0 +1,68 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Update;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
+
+@Dao
+public interface OutboxDao {
+
+  @Query("SELECT * FROM outbox_table WHERE state = 0 ORDER BY id")
+  List<OutboxOperation> getPendingOperationsNow();
+
+  @Query("SELECT * FROM outbox_table WHERE state = 0 AND group_key LIKE :groupKeyPrefix || '%' "
+      + "ORDER BY id")
+  List<OutboxOperation> getPendingOperationsNow(String groupKeyPrefix);
+
+  @Query("SELECT COUNT(*) FROM outbox_table WHERE state = 0 AND group_key = :groupKey")
+  Single<Integer> countPendingOperations(String groupKey);
+
+  @Query("SELECT COUNT(*) FROM outbox_table WHERE state = 1")
+  int countFailedOperationsNow();
+
+  @Insert(onConflict = OnConflictStrategy.IGNORE)
+  long insertNow(OutboxOperation operation);
+
+  @Update
+  void updateNow(OutboxOperation operation);
+
+  @Query("DELETE FROM outbox_table WHERE id = :id")
+  void deleteNow(long id);
+
+  @Query("DELETE FROM outbox_table WHERE state = 0 AND coalesce_key = :coalesceKey")
+  void deletePendingCoalesced(String coalesceKey);
+
+  // method 2 is Request.Method.PUT, edits of an object are obsolete after it was deleted
+  @Query("DELETE FROM outbox_table WHERE state = 0 AND group_key = :groupKey AND method = 2")
+  void deletePendingEdits(String groupKey);
+
+  @Query("UPDATE outbox_table SET state = 0 WHERE state = 1")
+  void resetFailedOperationsNow();
+
+  @Query("DELETE FROM outbox_table WHERE state = 1")
+  void deleteFailedOperationsNow();
+}
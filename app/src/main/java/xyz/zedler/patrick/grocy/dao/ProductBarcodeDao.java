@@ -33,10 +33,19 @@ public interface ProductBarcodeDao {
   @Query("SELECT * FROM product_barcode_table")
   Single<List<ProductBarcode>> getProductBarcodes();
 
+  @Query("SELECT * FROM product_barcode_table WHERE id IN (:ids)")
+  Single<List<ProductBarcode>> getProductBarcodes(List<Integer> ids);
+
+  @Query("SELECT id FROM product_barcode_table")
+  Single<List<Integer>> getProductBarcodeIds();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertProductBarcodes(List<ProductBarcode> productBarcodes);
 
   @Query("DELETE FROM product_barcode_table")
   Single<Integer> deleteProductBarcodes();
 
+  @Query("DELETE FROM product_barcode_table WHERE id IN (:ids)")
+  Single<Integer> deleteProductBarcodes(List<Integer> ids);
+
 }
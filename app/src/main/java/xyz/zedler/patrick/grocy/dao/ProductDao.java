@@ -33,10 +33,22 @@ public interface ProductDao {
   @Query("SELECT * FROM product_table")
   Single<List<Product>> getProducts();
 
+  @Query("SELECT * FROM product_table WHERE id IN (:ids)")
+  Single<List<Product>> getProducts(List<Integer> ids);
+
+  @Query("SELECT * FROM product_table WHERE id = :id")
+  Product getProductNow(int id);
+
+  @Query("SELECT id FROM product_table")
+  Single<List<Integer>> getProductIds();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertProducts(List<Product> products);
 
   @Query("DELETE FROM product_table")
   Single<Integer> deleteProducts();
 
+  @Query("DELETE FROM product_table WHERE id IN (:ids)")
+  Single<Integer> deleteProducts(List<Integer> ids);
+
 }
@@ -48,4 +48,7 @@ public interface ShoppingListItemDao {
   @Query("DELETE FROM shopping_list_item_table")
   Single<Integer> deleteShoppingListItems();
 
+  @Query("DELETE FROM shopping_list_item_table WHERE id = :itemId")
+  Single<Integer> deleteShoppingListItem(int itemId);
+
 }
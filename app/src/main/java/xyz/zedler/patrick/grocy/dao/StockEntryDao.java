@@ -36,7 +36,16 @@ public interface StockEntryDao {
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertStockEntries(List<StockEntry> stockEntries);
 
+  @Insert(onConflict = OnConflictStrategy.REPLACE)
+  void insertStockEntriesNow(List<StockEntry> stockEntries);
+
   @Query("DELETE FROM stock_entry_table")
   Single<Integer> deleteStockEntries();
 
+  @Query("DELETE FROM stock_entry_table WHERE product_id = :productId")
+  void deleteStockEntriesNow(int productId);
+
+  @Query("DELETE FROM stock_entry_table WHERE id = :id")
+  void deleteStockEntryNow(int id);
+
 }
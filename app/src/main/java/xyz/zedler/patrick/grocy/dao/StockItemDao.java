@@ -33,10 +33,28 @@ public interface StockItemDao {
   @Query("SELECT * FROM stock_item_table")
   Single<List<StockItem>> getStockItems();
 
+  @Query("SELECT * FROM stock_item_table WHERE product_id IN (:productIds)")
+  Single<List<StockItem>> getStockItems(List<Integer> productIds);
+
+  @Query("SELECT * FROM stock_item_table WHERE product_id = :productId")
+  StockItem getStockItemNow(int productId);
+
+  @Query("SELECT product_id FROM stock_item_table")
+  Single<List<Integer>> getStockItemProductIds();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertStockItems(List<StockItem> stockItems);
 
+  @Insert(onConflict = OnConflictStrategy.REPLACE)
+  long insertStockItemNow(StockItem stockItem);
+
   @Query("DELETE FROM stock_item_table")
   Single<Integer> deleteStockItems();
 
+  @Query("DELETE FROM stock_item_table WHERE product_id = :productId")
+  void deleteStockItemNow(int productId);
+
+  @Query("DELETE FROM stock_item_table WHERE product_id IN (:productIds)")
+  Single<Integer> deleteStockItems(List<Integer> productIds);
+
 }
@@ -0,0 +1,51 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockOverviewView;
+
+@Dao
+public interface StockOverviewDao {
+
+  @Query("SELECT * FROM (" + StockOverviewView.STOCK_ITEMS_WITH_FLAGS + " UNION ALL "
+      + StockOverviewView.MISSING_ITEMS_NOT_IN_STOCK + ")")
+  Single<List<StockItem>> getStockOverviewItems();
+
+  // status values of FilterChipLiveDataStockStatus, -1 = NO_FILTER for group and location
+  @Query("SELECT product_id FROM " + StockOverviewView.VIEW_NAME
+      + " WHERE IFNULL(hide_on_stock_overview, '0') != '1'"
+      + " AND (:productGroupId = -1 OR product_group_id = :productGroupId)"
+      + " AND (:locationId = -1 OR product_id IN (SELECT product_id"
+      + " FROM stock_current_location_table WHERE location_id = :locationId))"
+      + " AND (:status = 0"
+      + " OR :status = 1 AND item_due"
+      + " OR :status = 2 AND item_overdue"
+      + " OR :status = 3 AND item_expired"
+      + " OR :status = 4 AND item_missing"
+      + " OR :status = 5 AND (NOT item_missing OR item_missing_partly_in_stock)"
+      + " OR :status = 6 AND amount_opened > 0)")
+  Single<List<Integer>> getFilteredProductIds(int status, int productGroupId, int locationId);
+
+}
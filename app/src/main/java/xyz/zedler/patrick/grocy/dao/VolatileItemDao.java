@@ -36,10 +36,16 @@ public interface VolatileItemDao {
   @Query("SELECT product_id FROM volatile_item_table WHERE volatile_type == :volatileType")
   List<Integer> getVolatileProductIds(int volatileType);
 
+  @Query("SELECT COUNT(*) FROM volatile_item_table WHERE volatile_type == :volatileType")
+  int countVolatileItemsNow(int volatileType);
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertVolatileItems(List<VolatileItem> volatileItems);
 
   @Query("DELETE FROM volatile_item_table")
   Single<Integer> deleteVolatileItems();
 
+  @Query("DELETE FROM volatile_item_table WHERE product_id = :productId")
+  void deleteVolatileItemsNow(int productId);
+
 }
@@ -23,10 +23,14 @@ import android.content.Context;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 import xyz.zedler.patrick.grocy.dao.ChoreDao;
 import xyz.zedler.patrick.grocy.dao.ChoreEntryDao;
 import xyz.zedler.patrick.grocy.dao.LocationDao;
 import xyz.zedler.patrick.grocy.dao.MissingItemDao;
+import xyz.zedler.patrick.grocy.dao.OutboxDao;
+import xyz.zedler.patrick.grocy.dao.OverviewCountsDao;
 import xyz.zedler.patrick.grocy.dao.PendingProductBarcodeDao;
 import xyz.zedler.patrick.grocy.dao.PendingProductDao;
 import xyz.zedler.patrick.grocy.dao.ProductAveragePriceDao;
@@ -45,6 +49,7 @@ import xyz.zedler.patrick.grocy.dao.ShoppingListItemDao;
 import xyz.zedler.patrick.grocy.dao.StockEntryDao;
 import xyz.zedler.patrick.grocy.dao.StockItemDao;
 import xyz.zedler.patrick.grocy.dao.StockLocationDao;
+import xyz.zedler.patrick.grocy.dao.StockOverviewDao;
 import xyz.zedler.patrick.grocy.dao.StoreDao;
 import xyz.zedler.patrick.grocy.dao.StoredPurchaseDao;
 import xyz.zedler.patrick.grocy.dao.TaskCategoryDao;
@@ -55,6 +60,7 @@ import xyz.zedler.patrick.grocy.model.Chore;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.PendingProductBarcode;
 import xyz.zedler.patrick.grocy.model.Recipe;
@@ -74,12 +80,14 @@ import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockEntry;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StockLocation;
+import xyz.zedler.patrick.grocy.model.StockOverviewView;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 
 @Database(
     entities = {
@@ -110,13 +118,177 @@ import xyz.zedler.patrick.grocy.model.VolatileItem;
         Server.class,
         Recipe.class,
         RecipeFulfillment.class,
-        RecipePosition.class
+        RecipePosition.class,
+        OutboxOperation.class
     },
-    version = 39
+    views = {
+        StockOverviewView.class
+    },
+    version = 43
 )
 public abstract class AppDatabase extends RoomDatabase {
 
-  private static AppDatabase INSTANCE;
+  private static volatile AppDatabase INSTANCE;
+
+  // columns shared by products and pending products, numbers and ids typed
+  private final static String PRODUCT_COLUMNS = "`description` TEXT, `product_group_id` TEXT, "
+      + "`active` TEXT, `location_id` TEXT, `shopping_location_id` TEXT, "
+      + "`qu_id_purchase` INTEGER NOT NULL, `qu_id_stock` INTEGER NOT NULL, "
+      + "`qu_factor_purchase_to_stock` REAL NOT NULL, `min_stock_amount` REAL NOT NULL, "
+      + "`default_best_before_days` TEXT, `default_best_before_days_after_open` TEXT, "
+      + "`default_best_before_days_after_freezing` TEXT, "
+      + "`default_best_before_days_after_thawing` TEXT, `picture_file_name` TEXT, "
+      + "`enable_tare_weight_handling` TEXT, `tare_weight` TEXT, "
+      + "`not_check_stock_fulfillment_for_recipes` TEXT, `parent_product_id` TEXT, "
+      + "`calories` TEXT, `cumulate_min_stock_amount_of_sub_products` TEXT, "
+      + "`treat_opened_as_out_of_stock` TEXT, `due_type` TEXT, `quick_consume_amount` TEXT, "
+      + "`hide_on_stock_overview` TEXT, `no_own_stock` TEXT, `default_consume_location_id` TEXT";
+
+  private final static String PRODUCT_SELECT = "`description`, `product_group_id`, `active`, "
+      + "`location_id`, `shopping_location_id`, "
+      + "CAST(IFNULL(NULLIF(`qu_id_purchase`, ''), -1) AS INTEGER), "
+      + "CAST(IFNULL(NULLIF(`qu_id_stock`, ''), -1) AS INTEGER), "
+      + "CAST(IFNULL(NULLIF(`qu_factor_purchase_to_stock`, ''), 1) AS REAL), "
+      + "CAST(IFNULL(NULLIF(`min_stock_amount`, ''), 0) AS REAL), "
+      + "`default_best_before_days`, `default_best_before_days_after_open`, "
+      + "`default_best_before_days_after_freezing`, `default_best_before_days_after_thawing`, "
+      + "`picture_file_name`, `enable_tare_weight_handling`, `tare_weight`, "
+      + "`not_check_stock_fulfillment_for_recipes`, `parent_product_id`, `calories`, "
+      + "`cumulate_min_stock_amount_of_sub_products`, `treat_opened_as_out_of_stock`, "
+      + "`due_type`, `quick_consume_amount`, `hide_on_stock_overview`, `no_own_stock`, "
+      + "`default_consume_location_id`";
+
+  // amounts and ids of stock items, products and shopping list items as REAL/INTEGER columns,
+  // indices for the frequent lookups
+  static final Migration MIGRATION_39_40 = new Migration(39, 40) {
+    @Override
+    public void migrate(SupportSQLiteDatabase database) {
+      recreateTable(database, "stock_item_table",
+          "`amount` REAL NOT NULL, `amount_aggregated` REAL NOT NULL, `value` TEXT, "
+              + "`best_before_date` TEXT, `amount_opened` REAL NOT NULL, "
+              + "`amount_opened_aggregated` REAL NOT NULL, "
+              + "`is_aggregated_amount` INTEGER NOT NULL, `due_type` INTEGER NOT NULL, "
+              + "`product_id` INTEGER NOT NULL, `item_due` INTEGER NOT NULL, "
+              + "`item_overdue` INTEGER NOT NULL, `item_expired` INTEGER NOT NULL, "
+              + "`item_missing` INTEGER NOT NULL, "
+              + "`item_missing_partly_in_stock` INTEGER NOT NULL, PRIMARY KEY(`product_id`)",
+          "CAST(IFNULL(NULLIF(`amount`, ''), 0) AS REAL), "
+              + "CAST(IFNULL(NULLIF(`amount_aggregated`, ''), 0) AS REAL), "
+              + "`value`, `best_before_date`, "
+              + "CAST(IFNULL(NULLIF(`amount_opened`, ''), 0) AS REAL), "
+              + "CAST(IFNULL(NULLIF(`amount_opened_aggregated`, ''), 0) AS REAL), "
+              + "CAST(IFNULL(NULLIF(`is_aggregated_amount`, ''), 0) AS INTEGER), "
+              + "CAST(IFNULL(NULLIF(`due_type`, ''), 1) AS INTEGER), "
+              + "`product_id`, `item_due`, `item_overdue`, `item_expired`, `item_missing`, "
+              + "`item_missing_partly_in_stock`"
+      );
+      recreateTable(database, "product_table",
+          "`id` INTEGER NOT NULL, `name` TEXT, " + PRODUCT_COLUMNS + ", PRIMARY KEY(`id`)",
+          "`id`, `name`, " + PRODUCT_SELECT
+      );
+      recreateTable(database, "pending_product_table",
+          "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `name` TEXT NOT NULL, "
+              + "`name_is_from_off` INTEGER NOT NULL, " + PRODUCT_COLUMNS,
+          "`id`, `name`, `name_is_from_off`, " + PRODUCT_SELECT
+      );
+      recreateTable(database, "shopping_list_item_table",
+          "`id` INTEGER NOT NULL, `note` TEXT, `amount` REAL NOT NULL, "
+              + "`shopping_list_id` INTEGER NOT NULL, `qu_id` TEXT, `done` INTEGER NOT NULL, "
+              + "`done_synced` INTEGER NOT NULL, `product_id` TEXT, "
+              + "`row_created_timestamp` TEXT, PRIMARY KEY(`id`)",
+          "`id`, `note`, CAST(IFNULL(NULLIF(`amount`, ''), 0) AS REAL), "
+              + "CAST(IFNULL(NULLIF(`shopping_list_id`, ''), 1) AS INTEGER), `qu_id`, "
+              + "CAST(IFNULL(NULLIF(`done`, ''), 0) AS INTEGER), `done_synced`, `product_id`, "
+              + "`row_created_timestamp`"
+      );
+
+      createIndex(database, "shopping_list_item_table", "shopping_list_id");
+      createIndex(database, "shopping_list_item_table", "product_id");
+      createIndex(database, "product_barcode_table", "product_id");
+      createIndex(database, "product_barcode_table", "barcode");
+      createIndex(database, "product_table", "location_id");
+      createIndex(database, "stock_current_location_table", "location_id");
+      createIndex(database, "stock_entry_table", "product_id");
+      createIndex(database, "stock_entry_table", "location_id");
+      createIndex(database, "volatile_item_table", "product_id");
+      createIndex(database, "quantity_unit_conversion_table", "product_id");
+      createIndex(database, "recipe_pos_table", "recipe_id");
+      createIndex(database, "recipe_pos_table", "product_id");
+      createIndex(database, "pending_product_barcode_table", "barcode");
+    }
+  };
+
+  // stock overview filters are evaluated in SQL
+  static final Migration MIGRATION_40_41 = new Migration(40, 41) {
+    @Override
+    public void migrate(SupportSQLiteDatabase database) {
+      database.execSQL("CREATE VIEW `" + StockOverviewView.VIEW_NAME + "` AS "
+          + StockOverviewView.QUERY);
+    }
+  };
+
+  // outbox for write requests which are replayed when the server is reachable
+  static final Migration MIGRATION_41_42 = new Migration(41, 42) {
+    @Override
+    public void migrate(SupportSQLiteDatabase database) {
+      database.execSQL("CREATE TABLE IF NOT EXISTS `outbox_table` ("
+          + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `idempotency_key` TEXT NOT NULL, "
+          + "`method` INTEGER NOT NULL, `url` TEXT NOT NULL, `body` TEXT, "
+          + "`group_key` TEXT NOT NULL, `coalesce_key` TEXT, `created_time` INTEGER NOT NULL, "
+          + "`attempts` INTEGER NOT NULL, `state` INTEGER NOT NULL, `last_error` TEXT)");
+      database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_outbox_table_idempotency_key` "
+          + "ON `outbox_table` (`idempotency_key`)");
+      createIndex(database, "outbox_table", "group_key");
+      createIndex(database, "outbox_table", "coalesce_key");
+    }
+  };
+
+  // due dates as epoch days next to the date strings, the view selects the new column
+  static final Migration MIGRATION_42_43 = new Migration(42, 43) {
+    @Override
+    public void migrate(SupportSQLiteDatabase database) {
+      addEpochDayColumn(database, "stock_item_table", "best_before_epoch_day", "best_before_date");
+      addEpochDayColumn(database, "stock_entry_table", "best_before_epoch_day", "best_before_date");
+      addEpochDayColumn(database, "stock_entry_table", "purchased_epoch_day", "purchased_date");
+      addEpochDayColumn(database, "task_table", "due_epoch_day", "due_date");
+      database.execSQL("DROP VIEW IF EXISTS `" + StockOverviewView.VIEW_NAME + "`");
+      database.execSQL("CREATE VIEW `" + StockOverviewView.VIEW_NAME + "` AS "
+          + StockOverviewView.QUERY);
+    }
+  };
+
+  // same values as DateUtil.getEpochDay, '+0 days' turns 02-30 into 03-02 so it stays unset
+  private static void addEpochDayColumn(
+      SupportSQLiteDatabase database,
+      String table,
+      String column,
+      String dateColumn
+  ) {
+    database.execSQL("ALTER TABLE `" + table + "` ADD COLUMN `" + column
+        + "` INTEGER NOT NULL DEFAULT " + DateUtil.NO_EPOCH_DAY);
+    String day = "substr(`" + dateColumn + "`, 1, 10)";
+    database.execSQL("UPDATE `" + table + "` SET `" + column + "` = CAST(julianday(" + day
+        + ") - 2440587.5 AS INTEGER) WHERE date(" + day + ", '+0 days') = " + day);
+  }
+
+  // SQLite can't change the type of a column, so the rows are copied into a new table
+  private static void recreateTable(
+      SupportSQLiteDatabase database,
+      String table,
+      String columns,
+      String select
+  ) {
+    database.execSQL("CREATE TABLE `" + table + "_new` (" + columns + ")");
+    database.execSQL("INSERT INTO `" + table + "_new` SELECT " + select + " FROM `" + table + "`");
+    database.execSQL("DROP TABLE `" + table + "`");
+    database.execSQL("ALTER TABLE `" + table + "_new` RENAME TO `" + table + "`");
+  }
+
+  // same index name as generated by Room for @Index(column)
+  private static void createIndex(SupportSQLiteDatabase database, String table, String column) {
+    database.execSQL("CREATE INDEX IF NOT EXISTS `index_" + table + "_" + column + "` ON `"
+        + table + "` (`" + column + "`)");
+  }
 
   public abstract ShoppingListDao shoppingListDao();
 
@@ -144,6 +316,8 @@ public abstract class AppDatabase extends RoomDatabase {
 
   public abstract StockLocationDao stockLocationDao();
 
+  public abstract StockOverviewDao stockOverviewDao();
+
   public abstract TaskDao taskDao();
 
   public abstract TaskCategoryDao taskCategoryDao();
@@ -174,13 +348,23 @@ public abstract class AppDatabase extends RoomDatabase {
 
   public abstract ServerDao serverDao();
 
+  public abstract OutboxDao outboxDao();
+
+  public abstract OverviewCountsDao overviewCountsDao();
+
+  // called from the main thread and from the background initialization at the same time
   public static AppDatabase getAppDatabase(Context context) {
     if (INSTANCE == null) {
-      INSTANCE = Room.databaseBuilder(
-          context.getApplicationContext(),
-          AppDatabase.class,
-          "app_database"
-      ).fallbackToDestructiveMigration().build();
+      synchronized (AppDatabase.class) {
+        if (INSTANCE == null) {
+          INSTANCE = Room.databaseBuilder(
+              context.getApplicationContext(),
+              AppDatabase.class,
+              "app_database"
+          ).addMigrations(MIGRATION_39_40, MIGRATION_40_41, MIGRATION_41_42, MIGRATION_42_43)
+              .fallbackToDestructiveMigration().build();
+        }
+      }
     }
     return INSTANCE;
   }
@@ -76,7 +76,6 @@ public class AboutFragment extends BaseFragment implements View.OnClickListener
         R.id.linear_developers,
         R.id.linear_github,
         R.id.linear_license_conscrypt,
-        R.id.linear_license_fuzzywuzzy,
         R.id.linear_license_gson,
         R.id.linear_license_jost,
         R.id.linear_license_material_components,
@@ -135,13 +134,6 @@ public class AboutFragment extends BaseFragment implements View.OnClickListener
           R.string.license_conscrypt,
           R.string.url_conscrypt
       );
-    } else if (v.getId() == R.id.linear_license_fuzzywuzzy) {
-      ViewUtil.startIcon(binding.imageLicenseFuzzywuzzy);
-      showTextBottomSheet(
-          R.raw.license_gpl,
-          R.string.license_fuzzywuzzy,
-          R.string.url_fuzzywuzzy
-      );
     } else if (v.getId() == R.id.linear_license_gson) {
       ViewUtil.startIcon(binding.imageLicenseGson);
       showTextBottomSheet(
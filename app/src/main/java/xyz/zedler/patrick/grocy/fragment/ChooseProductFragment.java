@@ -132,7 +132,7 @@ public class ChooseProductFragment extends BaseFragment
         ((ChooseProductAdapter) binding.recycler.getAdapter()).updateData(products);
       } else {
         binding.recycler.setAdapter(new ChooseProductAdapter(
-            products, this
+            requireContext(), products, this
         ));
         binding.recycler.scheduleLayoutAnimation();
       }
@@ -118,7 +118,7 @@ public class OverviewStartFragment extends BaseFragment {
     });
 
     if (savedInstanceState == null) {
-      viewModel.loadFromDatabase(true);
+      viewModel.downloadData();
     }
 
     // UPDATE UI
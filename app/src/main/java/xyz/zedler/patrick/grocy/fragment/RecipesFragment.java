@@ -43,6 +43,7 @@ import xyz.zedler.patrick.grocy.behavior.SwipeBehavior;
 import xyz.zedler.patrick.grocy.databinding.FragmentRecipesBinding;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.RecipeBottomSheet;
 import xyz.zedler.patrick.grocy.helper.InfoFullscreenHelper;
+import xyz.zedler.patrick.grocy.helper.RecipeIndex;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -154,7 +155,7 @@ public class RecipesFragment extends BaseFragment implements
       if (binding.recycler.getAdapter() instanceof RecipeEntryAdapter) {
         ((RecipeEntryAdapter) binding.recycler.getAdapter()).updateData(
             items,
-            viewModel.getRecipeFulfillments(),
+            viewModel.getRecipeIndex().getFulfillments(),
             viewModel.getSortMode(),
             viewModel.isSortAscending(),
             viewModel.getExtraField()
@@ -165,7 +166,7 @@ public class RecipesFragment extends BaseFragment implements
                 requireContext(),
                 (LinearLayoutManager) binding.recycler.getLayoutManager(),
                 items,
-                viewModel.getRecipeFulfillments(),
+                viewModel.getRecipeIndex().getFulfillments(),
                 this,
                 viewModel.getSortMode(),
                 viewModel.isSortAscending(),
@@ -330,10 +331,13 @@ public class RecipesFragment extends BaseFragment implements
       swipeBehavior.recoverLatestSwipedItem();
     }
 
-    RecipeFulfillment recipeFulfillment = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(viewModel.getRecipeFulfillments(), recipe.getId());
-    ArrayList<RecipePosition> recipePositions = (ArrayList<RecipePosition>) RecipePosition.getRecipePositionsFromRecipeId(viewModel.getRecipePositions(), recipe.getId());
-    ArrayList<Product> products = Product.getProductsForRecipePositions(viewModel.getProducts(), recipePositions);
-    ArrayList<QuantityUnit> quantityUnits = QuantityUnit.getQuantityUnitsForRecipePositions(viewModel.getQuantityUnits(), recipePositions);
+    RecipeIndex recipeIndex = viewModel.getRecipeIndex();
+    RecipeFulfillment recipeFulfillment = recipeIndex.getFulfillment(recipe.getId());
+    ArrayList<RecipePosition> recipePositions
+        = new ArrayList<>(recipeIndex.getPositions(recipe.getId()));
+    ArrayList<Product> products = recipeIndex.getProductsForPositions(recipePositions);
+    ArrayList<QuantityUnit> quantityUnits
+        = recipeIndex.getQuantityUnitsForPositions(recipePositions);
 
     Bundle bundle = new Bundle();
     bundle.putParcelable(ARGUMENT.RECIPE, recipe);
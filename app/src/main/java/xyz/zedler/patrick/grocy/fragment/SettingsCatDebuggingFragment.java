@@ -19,7 +19,9 @@
 
 package xyz.zedler.patrick.grocy.fragment;
 
+import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.text.format.Formatter;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -31,6 +33,7 @@ import androidx.preference.PreferenceManager;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
 import xyz.zedler.patrick.grocy.databinding.FragmentSettingsCatDebuggingBinding;
+import xyz.zedler.patrick.grocy.helper.SyncSavings;
 import xyz.zedler.patrick.grocy.model.BottomSheetEvent;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
@@ -72,6 +75,15 @@ public class SettingsCatDebuggingFragment extends BaseFragment {
     binding.setClickUtil(new ClickUtil());
     binding.setLifecycleOwner(getViewLifecycleOwner());
 
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(activity);
+    binding.textSyncSavings.setText(getString(
+        R.string.setting_sync_savings_description,
+        SyncSavings.getRowsSaved(sharedPrefs),
+        SyncSavings.getRowsTotal(sharedPrefs),
+        Formatter.formatShortFileSize(activity, SyncSavings.getBytesSkipped(sharedPrefs)),
+        Formatter.formatShortFileSize(activity, SyncSavings.getBytesReceived(sharedPrefs))
+    ));
+
     viewModel.getEventHandler().observe(getViewLifecycleOwner(), event -> {
       if (event.getType() == Event.SNACKBAR_MESSAGE) {
         activity.showSnackbar(((SnackbarMessage) event).getSnackbar(
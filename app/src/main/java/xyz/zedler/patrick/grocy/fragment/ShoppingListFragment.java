@@ -36,7 +36,6 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.snackbar.Snackbar;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
@@ -50,6 +49,7 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.ShoppingListItemBotto
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.ShoppingListsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.TextEditBottomSheet;
 import xyz.zedler.patrick.grocy.helper.InfoFullscreenHelper;
+import xyz.zedler.patrick.grocy.helper.IntMap;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -255,7 +255,7 @@ public class ShoppingListFragment extends BaseFragment implements
     hideDisabledFeatures();
 
     if (savedInstanceState == null) {
-      viewModel.loadFromDatabase(true);
+      viewModel.downloadData();
     }
 
     updateUI(ShoppingListFragmentArgs.fromBundle(requireArguments()).getAnimateStart()
@@ -440,7 +440,7 @@ public class ShoppingListFragment extends BaseFragment implements
           return true;
         }
         ArrayList<ShoppingListItem> listItems = new ArrayList<>(shoppingListItemsSelected);
-        HashMap<Integer, String> productNamesHashMap = viewModel.getProductNamesHashMap();
+        IntMap<String> productNamesHashMap = viewModel.getProductNamesHashMap();
         if (productNamesHashMap == null) {
           showMessage(activity.getString(R.string.error_undefined));
           return true;
@@ -473,7 +473,7 @@ public class ShoppingListFragment extends BaseFragment implements
           return true;
         }
         ArrayList<ShoppingListItem> listItems = new ArrayList<>(shoppingListItemsSelected);
-        HashMap<Integer, String> productNamesHashMap = viewModel.getProductNamesHashMap();
+        IntMap<String> productNamesHashMap = viewModel.getProductNamesHashMap();
         if (productNamesHashMap == null) {
           showMessage(activity.getString(R.string.error_undefined));
           return true;
@@ -21,9 +21,7 @@ package xyz.zedler.patrick.grocy.fragment;
 
 import android.content.SharedPreferences;
 import android.os.Bundle;
-import android.os.Handler;
 import android.text.Spanned;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -34,8 +32,6 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
-import java.util.Timer;
-import java.util.TimerTask;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
 import xyz.zedler.patrick.grocy.adapter.ShoppingModeItemAdapter;
@@ -43,6 +39,7 @@ import xyz.zedler.patrick.grocy.adapter.ShoppingPlaceholderAdapter;
 import xyz.zedler.patrick.grocy.databinding.FragmentShoppingModeBinding;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.ShoppingListsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.TextEditBottomSheet;
+import xyz.zedler.patrick.grocy.helper.ChangeFeed;
 import xyz.zedler.patrick.grocy.helper.InfoFullscreenHelper;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
@@ -54,7 +51,6 @@ import xyz.zedler.patrick.grocy.util.ClickUtil;
 import xyz.zedler.patrick.grocy.util.Constants;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.SHOPPING_MODE;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS_DEFAULT;
-import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.viewmodel.ShoppingModeViewModel;
 
 public class ShoppingModeFragment extends BaseFragment implements
@@ -68,11 +64,8 @@ public class ShoppingModeFragment extends BaseFragment implements
   private ClickUtil clickUtil;
   private FragmentShoppingModeBinding binding;
   private InfoFullscreenHelper infoFullscreenHelper;
-  private Timer timer;
-  private TimerTask timerTask;
-  private Handler handler;
-
-  private boolean debug = false;
+  private ChangeFeed changeFeed;
+  private ChangeFeed.ChangeListener changeListener;
 
   @Override
   public View onCreateView(
@@ -114,8 +107,8 @@ public class ShoppingModeFragment extends BaseFragment implements
     infoFullscreenHelper = new InfoFullscreenHelper(binding.frame);
     clickUtil = new ClickUtil();
     sharedPrefs = PreferenceManager.getDefaultSharedPreferences(activity);
-    debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
-    handler = new Handler();
+    changeFeed = ChangeFeed.getInstance(activity.getApplication());
+    changeListener = dbChangedTime -> viewModel.downloadData(dbChangedTime);
 
     if (savedInstanceState == null) {
       binding.recycler.scrollTo(0, 0);
@@ -232,24 +225,13 @@ public class ShoppingModeFragment extends BaseFragment implements
   @Override
   public void onPause() {
     super.onPause();
-    if (timer != null) {
-      timer.cancel();
-    }
+    changeFeed.unsubscribe(changeListener);
   }
 
   @Override
   public void onResume() {
     super.onResume();
-    int seconds = sharedPrefs.getInt(
-        Constants.SETTINGS.SHOPPING_MODE.UPDATE_INTERVAL,
-        Constants.SETTINGS_DEFAULT.SHOPPING_MODE.UPDATE_INTERVAL
-    );
-    if (seconds == 0) {
-      return;
-    }
-    timer = new Timer();
-    initTimerTask();
-    timer.schedule(timerTask, 2000, seconds * 1000L);
+    changeFeed.subscribe(changeListener);
   }
 
   private void updateUI() {
@@ -342,6 +324,7 @@ public class ShoppingModeFragment extends BaseFragment implements
     viewModel.setOfflineLive(!isOnline);
     if (isOnline) {
       viewModel.downloadData();
+      changeFeed.pollNow();
     }
   }
 
@@ -356,21 +339,6 @@ public class ShoppingModeFragment extends BaseFragment implements
     return !sharedPrefs.getBoolean(Constants.PREF.FEATURE_MULTIPLE_SHOPPING_LISTS, true);
   }
 
-  private void initTimerTask() {
-    if (timerTask != null) {
-      timerTask.cancel();
-    }
-    timerTask = new TimerTask() {
-      @Override
-      public void run() {
-        if (debug) {
-          Log.i(TAG, "auto sync shopping list (but may skip download)");
-        }
-        handler.post(() -> viewModel.downloadData());
-      }
-    };
-  }
-
   private void keepScreenOnIfNecessary(boolean keepOn) {
     if (activity == null) {
       activity = (MainActivity) requireActivity();
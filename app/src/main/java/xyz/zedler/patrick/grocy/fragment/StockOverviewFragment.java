@@ -274,7 +274,7 @@ public class StockOverviewFragment extends BaseFragment implements
     hideDisabledFeatures();
 
     if (savedInstanceState == null) {
-      viewModel.loadFromDatabase(true);
+      viewModel.downloadData();
     }
 
     updateUI();
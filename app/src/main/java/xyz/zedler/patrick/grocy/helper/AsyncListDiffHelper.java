@@ -0,0 +1,106 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.util.Log;
+import androidx.recyclerview.widget.DiffUtil;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.concurrent.Callable;
+
+/**
+ * Builds the new list of an adapter (grouping, sorting) and calculates the diff on a background
+ * thread, like AsyncListDiffer does. Only the result of the newest update is applied, a result
+ * which is still running or waiting when a newer list is submitted is dropped.
+ * <p>
+ * Must be used from the main thread. The diff callback is created and used in the background,
+ * so it must only get copies of the current items and maps of the adapter, which are made on
+ * the main thread before submit is called.
+ */
+public class AsyncListDiffHelper {
+
+  private final static String TAG = AsyncListDiffHelper.class.getSimpleName();
+
+  private final boolean debug;
+  private Disposable runningUpdate;
+
+  public AsyncListDiffHelper(boolean debug) {
+    this.debug = debug;
+  }
+
+  public <T> void submit(
+      Callable<T> newItemsFactory,
+      DiffCallbackFactory<T> diffCallbackFactory,
+      OnCalculatedListener<T> onCalculated
+  ) {
+    cancel();
+    runningUpdate = Single
+        .fromCallable(() -> {
+          T newItems = newItemsFactory.call();
+          DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(
+              diffCallbackFactory.create(newItems)
+          );
+          return new Update<>(newItems, diffResult);
+        })
+        .subscribeOn(Schedulers.computation())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(update -> {
+          runningUpdate = null;
+          onCalculated.onCalculated(update.newItems, update.diffResult);
+        }, throwable -> {
+          // not delivered to the global error handler, which would crash the app; the current
+          // items stay until the next update
+          runningUpdate = null;
+          if (debug) {
+            Log.e(TAG, "submit: ", throwable);
+          }
+        });
+  }
+
+  public void cancel() {
+    if (runningUpdate != null) {
+      runningUpdate.dispose();
+      runningUpdate = null;
+    }
+  }
+
+  public interface DiffCallbackFactory<T> {
+
+    DiffUtil.Callback create(T newItems);
+  }
+
+  public interface OnCalculatedListener<T> {
+
+    void onCalculated(T newItems, DiffUtil.DiffResult diffResult);
+  }
+
+  private static class Update<T> {
+
+    private final T newItems;
+    private final DiffUtil.DiffResult diffResult;
+
+    private Update(T newItems, DiffUtil.DiffResult diffResult) {
+      this.newItems = newItems;
+      this.diffResult = diffResult;
+    }
+  }
+}
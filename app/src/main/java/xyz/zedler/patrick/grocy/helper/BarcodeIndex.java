@@ -0,0 +1,160 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.ProductBarcode;
+
+/**
+ * Resolves scanned barcodes to product barcodes (pending ones included) in constant time, with
+ * open addressing and linear probing over normalized barcodes. UPC-A, EAN-13 and GTIN-14 codes
+ * of the same product are treated as equal by padding them to 14 digits.
+ * <p>
+ * The first barcode added for a code wins, like the first match of a list scan.
+ */
+public class BarcodeIndex {
+
+  private final static int MIN_CAPACITY = 16;
+
+  private String[] keys;
+  private ProductBarcode[] values;
+  private int size;
+
+  public BarcodeIndex() {
+    this(0);
+  }
+
+  public BarcodeIndex(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2) { // load factor at most 0.5
+      capacity <<= 1;
+    }
+    keys = new String[capacity];
+    values = new ProductBarcode[capacity];
+  }
+
+  public static BarcodeIndex of(@Nullable List<? extends ProductBarcode> barcodes) {
+    BarcodeIndex index = new BarcodeIndex(barcodes != null ? barcodes.size() : 0);
+    index.addAll(barcodes);
+    return index;
+  }
+
+  public void addAll(@Nullable List<? extends ProductBarcode> barcodes) {
+    if (barcodes == null) {
+      return;
+    }
+    for (ProductBarcode barcode : barcodes) {
+      add(barcode);
+    }
+  }
+
+  /**
+   * @return false if the barcode is empty or another barcode with the same code was added before
+   */
+  public boolean add(ProductBarcode barcode) {
+    String key = normalize(barcode.getBarcode());
+    if (key.isEmpty()) {
+      return false;
+    }
+    if ((size + 1) * 2 > keys.length) {
+      resize(keys.length << 1);
+    }
+    int slot = findSlot(keys, key);
+    if (keys[slot] != null) {
+      return false;
+    }
+    keys[slot] = key;
+    values[slot] = barcode;
+    size++;
+    return true;
+  }
+
+  @Nullable
+  public ProductBarcode get(@Nullable String barcode) {
+    String key = normalize(barcode);
+    if (key.isEmpty()) {
+      return null;
+    }
+    return values[findSlot(keys, key)];
+  }
+
+  public boolean contains(@Nullable String barcode) {
+    return get(barcode) != null;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Trims the code and pads numeric UPC-A, EAN-13 and GTIN-14 codes with leading zeros to 14
+   * digits, all other codes are only trimmed.
+   */
+  @NonNull
+  public static String normalize(@Nullable String barcode) {
+    if (barcode == null) {
+      return "";
+    }
+    String trimmed = barcode.trim();
+    int length = trimmed.length();
+    if (length < 12 || length > 14) {
+      return trimmed;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = trimmed.charAt(i);
+      if (c < '0' || c > '9') {
+        return trimmed;
+      }
+    }
+    if (length == 12) {
+      return "00" + trimmed;
+    } else if (length == 13) {
+      return "0" + trimmed;
+    }
+    return trimmed;
+  }
+
+  // slot of the key, or of the empty slot where it belongs
+  private static int findSlot(String[] keys, String key) {
+    int mask = keys.length - 1;
+    int hash = key.hashCode();
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (keys[slot] != null && !keys[slot].equals(key)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void resize(int capacity) {
+    String[] oldKeys = keys;
+    ProductBarcode[] oldValues = values;
+    keys = new String[capacity];
+    values = new ProductBarcode[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = findSlot(keys, oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
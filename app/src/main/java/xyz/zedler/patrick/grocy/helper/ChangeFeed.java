@@ -0,0 +1,183 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.app.Application;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.preference.PreferenceManager;
+import java.util.ArrayList;
+import java.util.Objects;
+import xyz.zedler.patrick.grocy.util.Constants;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Watches the db-changed-time of the server for all subscribed screens, so that only one request
+ * is running no matter how many screens want to know about changes. Grocy offers no push or
+ * long-poll endpoint, so the time is polled: right after a change with the interval of the
+ * shopping mode setting, then with a doubled interval after each poll without change, up to a
+ * maximum. Subscribers are only notified if the time has changed and can use it for their
+ * update items, which only download the entities changed since their last sync.
+ * <p>
+ * Only used from the main thread.
+ */
+public class ChangeFeed {
+
+  private final static String TAG = ChangeFeed.class.getSimpleName();
+
+  private final static long FIRST_POLL_DELAY_MILLIS = 2000;
+  private final static int MAX_INTERVAL_FACTOR = 12;
+
+  private static ChangeFeed instance;
+
+  private final Application application;
+  private final Handler handler;
+  private final ArrayList<ChangeListener> listeners;
+  private final Runnable pollRunnable;
+  private DownloadHelper dlHelper;
+  private String lastChangedTime;
+  private long minIntervalMillis;
+  private long intervalMillis;
+  private boolean isPolling;
+  private boolean debug;
+
+  private ChangeFeed(Application application) {
+    this.application = application;
+    handler = new Handler(Looper.getMainLooper());
+    listeners = new ArrayList<>();
+    pollRunnable = this::poll;
+  }
+
+  public static synchronized ChangeFeed getInstance(Application application) {
+    if (instance == null) {
+      instance = new ChangeFeed(application);
+    }
+    return instance;
+  }
+
+  /**
+   * Starts watching for changes with the first subscriber. Nothing is polled if the update
+   * interval of the shopping mode is set to 0.
+   */
+  public void subscribe(ChangeListener listener) {
+    if (listeners.contains(listener)) {
+      return;
+    }
+    listeners.add(listener);
+    if (listeners.size() == 1) {
+      start();
+    }
+  }
+
+  public void unsubscribe(ChangeListener listener) {
+    if (listeners.remove(listener) && listeners.isEmpty()) {
+      stop();
+    }
+  }
+
+  /**
+   * Polls right away and resets the interval, e.g. after the connection is back.
+   */
+  public void pollNow() {
+    if (!isPolling) {
+      return;
+    }
+    intervalMillis = minIntervalMillis;
+    handler.removeCallbacks(pollRunnable);
+    poll();
+  }
+
+  private void start() {
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(application);
+    debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+    int seconds = sharedPrefs.getInt(
+        Constants.SETTINGS.SHOPPING_MODE.UPDATE_INTERVAL,
+        Constants.SETTINGS_DEFAULT.SHOPPING_MODE.UPDATE_INTERVAL
+    );
+    if (seconds <= 0) {
+      return;
+    }
+    // new helper for each start, the server or API key may have changed in between
+    dlHelper = new DownloadHelper(application, TAG, null);
+    minIntervalMillis = seconds * 1000L;
+    intervalMillis = minIntervalMillis;
+    isPolling = true;
+    handler.postDelayed(pollRunnable, FIRST_POLL_DELAY_MILLIS);
+  }
+
+  private void stop() {
+    isPolling = false;
+    handler.removeCallbacks(pollRunnable);
+    if (dlHelper != null) {
+      dlHelper.destroy();
+      dlHelper = null;
+    }
+  }
+
+  private void poll() {
+    if (!isPolling) {
+      return;
+    }
+    DownloadHelper pollingHelper = dlHelper;
+    pollingHelper.getTimeDbChanged(
+        changedTime -> {
+          if (pollingHelper != dlHelper) {
+            return; // stopped in the meantime
+          }
+          boolean hasChanged = !Objects.equals(changedTime, lastChangedTime);
+          lastChangedTime = changedTime;
+          intervalMillis = hasChanged
+              ? minIntervalMillis
+              : Math.min(intervalMillis * 2, minIntervalMillis * MAX_INTERVAL_FACTOR);
+          if (debug) {
+            Log.i(TAG, "poll: changed=" + hasChanged + ", next in " + intervalMillis + " ms");
+          }
+          scheduleNextPoll();
+          if (hasChanged) {
+            for (ChangeListener listener : new ArrayList<>(listeners)) {
+              listener.onDbChanged(changedTime);
+            }
+          }
+        },
+        () -> {
+          if (pollingHelper != dlHelper) {
+            return;
+          }
+          intervalMillis = Math.min(intervalMillis * 2, minIntervalMillis * MAX_INTERVAL_FACTOR);
+          if (debug) {
+            Log.e(TAG, "poll: failed, next in " + intervalMillis + " ms");
+          }
+          scheduleNextPoll();
+        }
+    );
+  }
+
+  private void scheduleNextPoll() {
+    handler.removeCallbacks(pollRunnable);
+    handler.postDelayed(pollRunnable, intervalMillis);
+  }
+
+  public interface ChangeListener {
+
+    void onDbChanged(String dbChangedTime);
+  }
+}
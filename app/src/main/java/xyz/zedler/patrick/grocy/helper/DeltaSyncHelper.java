@@ -0,0 +1,331 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import io.reactivex.rxjava3.core.Single;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Compares a freshly downloaded entity list with the rows in the offline database and only
+ * writes the rows which were added, changed or removed on the server.
+ * <p>
+ * The Grocy API does not expose a row-updated timestamp, so edits and deletions can't be
+ * requested as a filtered query. Instead the lists are revalidated with the server (skips the
+ * database completely if nothing changed) and rows are diffed by id and content. The payload is
+ * streamed and diffed in bounded batches to keep the peak memory low.
+ */
+public class DeltaSyncHelper {
+
+  // below the limit of 999 bound variables per SQLite statement
+  private final static int BATCH_SIZE = 250;
+
+  /**
+   * Reads the server list with a JsonReader and diffs it in batches against the rows with the
+   * same ids, so neither the whole payload nor the whole table has to be held in memory.
+   * Blocking, must be called on a background thread. Each batch is written in its own short
+   * transaction, so the database isn't locked while the response is downloaded. Rows which are
+   * no longer on the server are only deleted after the whole list was read, so a broken stream
+   * only leaves already upserted server rows behind. The returned stats don't contain the bytes.
+   */
+  public static <T> SyncStats syncStreamed(
+      String entity,
+      Reader reader,
+      Gson gson,
+      Class<T> itemClass,
+      @Nullable List<T> collectedItems,
+      IdGetter<T> idGetter,
+      ContentComparator<T> comparator,
+      LocalItemsLoader<T> localItemsLoader,
+      Single<List<Integer>> localIdsSingle,
+      Upserter<T> upserter,
+      Deleter deleter,
+      TransactionRunner transactionRunner
+  ) throws IOException {
+    HashSet<Integer> serverIds = new HashSet<>();
+    ArrayList<T> batch = new ArrayList<>(BATCH_SIZE);
+    int total = 0;
+    int upserted = 0;
+    int unchanged = 0;
+    try (JsonReader jsonReader = gson.newJsonReader(reader)) {
+      jsonReader.beginArray();
+      while (jsonReader.hasNext()) {
+        T item = gson.fromJson(jsonReader, itemClass);
+        if (item == null) {
+          continue;
+        }
+        if (collectedItems != null) {
+          collectedItems.add(item);
+        }
+        serverIds.add(idGetter.getId(item));
+        batch.add(item);
+        total++;
+        if (batch.size() == BATCH_SIZE) {
+          DeltaResult<T> result = transactionRunner.runInTransaction(() -> syncBatch(
+              batch, idGetter, comparator, localItemsLoader, upserter
+          ));
+          upserted += result.upserts.size();
+          unchanged += result.unchanged;
+          batch.clear();
+        }
+      }
+      jsonReader.endArray();
+    }
+    if (!batch.isEmpty()) {
+      DeltaResult<T> result = transactionRunner.runInTransaction(
+          () -> syncBatch(batch, idGetter, comparator, localItemsLoader, upserter)
+      );
+      upserted += result.upserts.size();
+      unchanged += result.unchanged;
+    }
+    int deleted = transactionRunner.runInTransaction(() -> {
+      ArrayList<Integer> deletedIds = new ArrayList<>();
+      for (Integer localId : localIdsSingle.blockingGet()) {
+        if (!serverIds.contains(localId)) {
+          deletedIds.add(localId);
+        }
+      }
+      for (int i = 0; i < deletedIds.size(); i += BATCH_SIZE) {
+        deleter.delete(new ArrayList<>(
+            deletedIds.subList(i, Math.min(i + BATCH_SIZE, deletedIds.size()))
+        )).blockingGet();
+      }
+      return deletedIds.size();
+    });
+    return new SyncStats(entity, 0, 0, total, upserted, deleted, unchanged);
+  }
+
+  /**
+   * Only deserializes the list for listeners, the offline database is already up to date.
+   */
+  public static <T> SyncStats parseStreamed(
+      String entity,
+      Reader reader,
+      Gson gson,
+      Class<T> itemClass,
+      List<T> collectedItems
+  ) throws IOException {
+    try (JsonReader jsonReader = gson.newJsonReader(reader)) {
+      readArray(jsonReader, gson, itemClass, collectedItems);
+    }
+    return getSkippedStats(entity, 0, collectedItems.size());
+  }
+
+  public static <T> void readArray(
+      JsonReader jsonReader,
+      Gson gson,
+      Class<T> itemClass,
+      List<T> collectedItems
+  ) throws IOException {
+    jsonReader.beginArray();
+    while (jsonReader.hasNext()) {
+      T item = gson.fromJson(jsonReader, itemClass);
+      if (item != null) {
+        collectedItems.add(item);
+      }
+    }
+    jsonReader.endArray();
+  }
+
+  private static <T> DeltaResult<T> syncBatch(
+      List<T> batch,
+      IdGetter<T> idGetter,
+      ContentComparator<T> comparator,
+      LocalItemsLoader<T> localItemsLoader,
+      Upserter<T> upserter
+  ) {
+    ArrayList<Integer> ids = new ArrayList<>(batch.size());
+    for (T item : batch) {
+      ids.add(idGetter.getId(item));
+    }
+    List<T> localItems = localItemsLoader.load(ids).blockingGet();
+    DeltaResult<T> result = compute(localItems, batch, idGetter, comparator);
+    if (!result.upserts.isEmpty()) {
+      upserter.upsert(result.upserts).blockingGet();
+    }
+    return result;
+  }
+
+  public static <T> DeltaResult<T> compute(
+      List<T> localItems,
+      List<T> serverItems,
+      IdGetter<T> idGetter,
+      ContentComparator<T> comparator
+  ) {
+    HashMap<Integer, T> localItemsHashMap = new HashMap<>(localItems.size());
+    for (T localItem : localItems) {
+      localItemsHashMap.put(idGetter.getId(localItem), localItem);
+    }
+    ArrayList<T> upserts = new ArrayList<>();
+    HashSet<Integer> serverIds = new HashSet<>(serverItems.size());
+    int unchanged = 0;
+    for (T serverItem : serverItems) {
+      int id = idGetter.getId(serverItem);
+      serverIds.add(id);
+      T localItem = localItemsHashMap.get(id);
+      if (localItem != null && comparator.isSameContent(localItem, serverItem)) {
+        unchanged++;
+      } else {
+        upserts.add(serverItem);
+      }
+    }
+    ArrayList<Integer> deletedIds = new ArrayList<>();
+    for (Integer localId : localItemsHashMap.keySet()) {
+      if (!serverIds.contains(localId)) {
+        deletedIds.add(localId);
+      }
+    }
+    return new DeltaResult<>(upserts, deletedIds, unchanged);
+  }
+
+  public static SyncStats getSkippedStats(String entity, int responseBytes, int rowCount) {
+    return new SyncStats(entity, responseBytes, responseBytes, rowCount, 0, 0, rowCount);
+  }
+
+  public static class DeltaResult<T> {
+
+    public final ArrayList<T> upserts;
+    public final ArrayList<Integer> deletedIds;
+    public final int unchanged;
+
+    public DeltaResult(ArrayList<T> upserts, ArrayList<Integer> deletedIds, int unchanged) {
+      this.upserts = upserts;
+      this.deletedIds = deletedIds;
+      this.unchanged = unchanged;
+    }
+  }
+
+  public static class SyncStats {
+
+    private final String entity;
+    private final int bytesReceived;
+    private final int bytesSkipped;
+    private final int rowsTotal;
+    private final int rowsUpserted;
+    private final int rowsDeleted;
+    private final int rowsUnchanged;
+
+    public SyncStats(
+        String entity,
+        int bytesReceived,
+        int bytesSkipped,
+        int rowsTotal,
+        int rowsUpserted,
+        int rowsDeleted,
+        int rowsUnchanged
+    ) {
+      this.entity = entity;
+      this.bytesReceived = bytesReceived;
+      this.bytesSkipped = bytesSkipped;
+      this.rowsTotal = rowsTotal;
+      this.rowsUpserted = rowsUpserted;
+      this.rowsDeleted = rowsDeleted;
+      this.rowsUnchanged = rowsUnchanged;
+    }
+
+    public String getEntity() {
+      return entity;
+    }
+
+    public int getBytesReceived() {
+      return bytesReceived;
+    }
+
+    public int getBytesSkipped() {
+      return bytesSkipped;
+    }
+
+    public int getRowsTotal() {
+      return rowsTotal;
+    }
+
+    public int getRowsUpserted() {
+      return rowsUpserted;
+    }
+
+    public int getRowsDeleted() {
+      return rowsDeleted;
+    }
+
+    public int getRowsUnchanged() {
+      return rowsUnchanged;
+    }
+
+    public SyncStats withBytes(int bytesReceived, int bytesSkipped) {
+      return new SyncStats(
+          entity, bytesReceived, bytesSkipped, rowsTotal, rowsUpserted, rowsDeleted, rowsUnchanged
+      );
+    }
+
+    public int getRowsSaved() {
+      // rows which were not written compared to delete-all/insert-all
+      return rowsTotal - rowsUpserted;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+      return "SyncStats(" + entity + ": "
+          + "bytes=" + bytesReceived + ", bytesSkipped=" + bytesSkipped
+          + ", rows=" + rowsTotal + ", upserted=" + rowsUpserted
+          + ", deleted=" + rowsDeleted + ", unchanged=" + rowsUnchanged
+          + ", rowsSaved=" + getRowsSaved() + ")";
+    }
+  }
+
+  public interface IdGetter<T> {
+
+    int getId(T item);
+  }
+
+  public interface ContentComparator<T> {
+
+    boolean isSameContent(T localItem, T serverItem);
+  }
+
+  public interface LocalItemsLoader<T> {
+
+    Single<List<T>> load(List<Integer> ids);
+  }
+
+  public interface Upserter<T> {
+
+    Single<List<Long>> upsert(List<T> items);
+  }
+
+  public interface Deleter {
+
+    Single<Integer> delete(List<Integer> ids);
+  }
+
+  public interface TransactionRunner {
+
+    <V> V runInTransaction(Callable<V> callable);
+  }
+}
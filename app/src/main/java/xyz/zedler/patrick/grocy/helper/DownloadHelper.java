@@ -23,24 +23,39 @@ import android.app.Activity;
 import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 import androidx.preference.PreferenceManager;
 import com.android.volley.AuthFailureError;
+import com.android.volley.ClientError;
+import com.android.volley.NoConnectionError;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.Response;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
 import com.android.volley.VolleyError;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -50,12 +65,14 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.api.OpenBeautyFactsApi;
 import xyz.zedler.patrick.grocy.api.OpenFoodFactsApi;
+import xyz.zedler.patrick.grocy.dao.OutboxDao;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.model.Chore;
 import xyz.zedler.patrick.grocy.model.ChoreDetails;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
@@ -80,10 +97,15 @@ import xyz.zedler.patrick.grocy.model.VolatileItem;
 import xyz.zedler.patrick.grocy.util.Constants;
 import xyz.zedler.patrick.grocy.util.Constants.PREF;
 import xyz.zedler.patrick.grocy.util.DateUtil;
+import xyz.zedler.patrick.grocy.util.NetUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.web.CustomJsonArrayRequest;
 import xyz.zedler.patrick.grocy.web.CustomJsonObjectRequest;
+import xyz.zedler.patrick.grocy.web.CustomStreamRequest;
 import xyz.zedler.patrick.grocy.web.CustomStringRequest;
+import xyz.zedler.patrick.grocy.web.OutboxRequest;
+import xyz.zedler.patrick.grocy.web.RequestAuthContext;
 import xyz.zedler.patrick.grocy.web.RequestQueueSingleton;
 
 public class DownloadHelper {
@@ -97,10 +119,12 @@ public class DownloadHelper {
   private final SharedPreferences sharedPrefs;
   private final DateUtil dateUtil;
   private final AppDatabase appDatabase;
+  private final SyncCoordinator syncCoordinator;
 
   private final ArrayList<Queue> queueArrayList;
+  private final ArrayList<CustomStreamRequest> streamRequests = new ArrayList<>();
   private final String tag;
-  private final String apiKey;
+  private final RequestAuthContext authContext;
   private final String hassServerUrl;
   private final String hassLongLivedAccessToken;
   private final boolean debug;
@@ -118,10 +142,14 @@ public class DownloadHelper {
     debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
     dateUtil = new DateUtil(application);
     appDatabase = AppDatabase.getAppDatabase(application.getApplicationContext());
+    syncCoordinator = SyncCoordinator.getInstance();
     gson = new Gson();
     requestQueue = RequestQueueSingleton.getInstance(application).getRequestQueue();
     grocyApi = new GrocyApi(application);
-    apiKey = sharedPrefs.getString(Constants.PREF.API_KEY, "");
+    authContext = RequestAuthContext.getInstance(
+        grocyApi.getBaseUrl(),
+        sharedPrefs.getString(Constants.PREF.API_KEY, "")
+    );
     hassServerUrl = sharedPrefs.getString(
         Constants.PREF.HOME_ASSISTANT_SERVER_URL,
         null
@@ -156,10 +184,11 @@ public class DownloadHelper {
     gson = new Gson();
     dateUtil = new DateUtil(application);
     appDatabase = AppDatabase.getAppDatabase(application.getApplicationContext());
+    syncCoordinator = SyncCoordinator.getInstance();
     RequestQueueSingleton.getInstance(application).newRequestQueue();
     requestQueue = RequestQueueSingleton.getInstance(application).getRequestQueue();
     grocyApi = new GrocyApi(application, serverUrl);
-    this.apiKey = apiKey;
+    authContext = RequestAuthContext.getInstance(serverUrl, apiKey);
     this.hassServerUrl = hassServerUrl;
     this.hassLongLivedAccessToken = hassLongLivedAccessToken;
     uuidHelper = UUID.randomUUID().toString();
@@ -186,6 +215,11 @@ public class DownloadHelper {
       queue.reset(true);
     }
     requestQueue.cancelAll(uuidHelper);
+    syncCoordinator.cancelAll(uuidHelper);
+    for (CustomStreamRequest request : streamRequests) {
+      request.cancel();
+    }
+    streamRequests.clear();
   }
 
   private void onRequestLoading() {
@@ -202,31 +236,30 @@ public class DownloadHelper {
     }
   }
 
+  private void onNoProgressRequestFinished() {
+    if (onLoadingListener != null) {
+      onLoadingListener.onLoadingChanged(false);
+    }
+  }
+
+  // data on the server has changed, so cached times and running GETs are outdated
+  private void onChangingRequestFinished() {
+    syncCoordinator.invalidate();
+    onRequestFinished();
+  }
+
   public String getUuid() {
     return uuidHelper;
   }
 
+  // identical requests of other helpers which are still running are joined
   public void get(
       String url,
       String tag,
       OnStringResponseListener onResponse,
       OnErrorListener onError
   ) {
-    validateHassIngressSessionIfNecessary(sessionKey -> {
-      CustomStringRequest request = new CustomStringRequest(
-          Request.Method.GET,
-          url,
-          apiKey,
-          sessionKey,
-          onResponse::onResponse,
-          onError::onError,
-          this::onRequestFinished,
-          timeoutSeconds,
-          tag
-      );
-      onRequestLoading();
-      requestQueue.add(request);
-    });
+    get(url, tag, onResponse, onError, false);
   }
 
   // for requests without loading progress (set noLoadingProgress=true)
@@ -238,23 +271,27 @@ public class DownloadHelper {
       boolean noLoadingProgress
   ) {
     validateHassIngressSessionIfNecessary(sessionKey -> {
-      CustomStringRequest request = new CustomStringRequest(
-          Request.Method.GET,
+      if (!noLoadingProgress) {
+        onRequestLoading();
+      }
+      syncCoordinator.<String>get(
+          requestQueue,
           url,
-          apiKey,
-          sessionKey,
+          tag,
           onResponse::onResponse,
           onError::onError,
-          this::onRequestFinished,
-          timeoutSeconds,
-          tag,
-          noLoadingProgress,
-          onLoadingListener
+          noLoadingProgress ? this::onNoProgressRequestFinished : this::onRequestFinished,
+          (listener, errorListener) -> new CustomStringRequest(
+              Request.Method.GET,
+              url,
+              authContext,
+              listener,
+              errorListener,
+              null,
+              timeoutSeconds,
+              null
+          )
       );
-      if (!noLoadingProgress) {
-        onRequestLoading();
-      }
-      requestQueue.add(request);
     });
   }
 
@@ -278,8 +315,7 @@ public class DownloadHelper {
       CustomStringRequest request = new CustomStringRequest(
           Request.Method.GET,
           url,
-          apiKey,
-          sessionKey,
+          authContext,
           onResponse::onResponse,
           onError::onError,
           this::onRequestFinished,
@@ -298,16 +334,16 @@ public class DownloadHelper {
       OnJSONResponseListener onResponse,
       OnErrorListener onError
   ) {
+    syncCoordinator.invalidate();
     validateHassIngressSessionIfNecessary(sessionKey -> {
       CustomJsonObjectRequest request = new CustomJsonObjectRequest(
           Request.Method.POST,
           url,
-          apiKey,
-          sessionKey,
+          authContext,
           json,
           onResponse::onResponse,
           onError::onError,
-          this::onRequestFinished,
+          this::onChangingRequestFinished,
           timeoutSeconds,
           uuidHelper
       );
@@ -322,16 +358,16 @@ public class DownloadHelper {
       OnJSONArrayResponseListener onResponse,
       OnErrorListener onError
   ) {
+    syncCoordinator.invalidate();
     validateHassIngressSessionIfNecessary(sessionKey -> {
       CustomJsonArrayRequest request = new CustomJsonArrayRequest(
           Request.Method.POST,
           url,
-          apiKey,
-          sessionKey,
+          authContext,
           json,
           onResponse::onResponse,
           onError::onError,
-          this::onRequestFinished,
+          this::onChangingRequestFinished,
           timeoutSeconds,
           uuidHelper
       );
@@ -341,15 +377,15 @@ public class DownloadHelper {
   }
 
   public void post(String url, OnStringResponseListener onResponse, OnErrorListener onError) {
+    syncCoordinator.invalidate();
     validateHassIngressSessionIfNecessary(sessionKey -> {
       CustomStringRequest request = new CustomStringRequest(
           Request.Method.POST,
           url,
-          apiKey,
-          sessionKey,
+          authContext,
           onResponse::onResponse,
           onError::onError,
-          this::onRequestFinished,
+          this::onChangingRequestFinished,
           timeoutSeconds,
           uuidHelper
       );
@@ -384,16 +420,16 @@ public class DownloadHelper {
       OnJSONResponseListener onResponse,
       OnErrorListener onError
   ) {
+    syncCoordinator.invalidate();
     validateHassIngressSessionIfNecessary(sessionKey -> {
       CustomJsonObjectRequest request = new CustomJsonObjectRequest(
           Request.Method.PUT,
           url,
-          apiKey,
-          sessionKey,
+          authContext,
           json,
           onResponse::onResponse,
           onError::onError,
-          this::onRequestFinished,
+          this::onChangingRequestFinished,
           timeoutSeconds,
           uuidHelper
       );
@@ -408,15 +444,15 @@ public class DownloadHelper {
       OnStringResponseListener onResponse,
       OnErrorListener onError
   ) {
+    syncCoordinator.invalidate();
     validateHassIngressSessionIfNecessary(sessionKey -> {
       CustomStringRequest request = new CustomStringRequest(
           Request.Method.DELETE,
           url,
-          apiKey,
-          sessionKey,
+          authContext,
           onResponse::onResponse,
           onError::onError,
-          this::onRequestFinished,
+          this::onChangingRequestFinished,
           timeoutSeconds,
           tag
       );
@@ -433,6 +469,170 @@ public class DownloadHelper {
     delete(url, uuidHelper, onResponse, onError);
   }
 
+  /**
+   * Sends the operation directly if the server is reachable and no earlier operation of its group
+   * is still waiting in the outbox. Otherwise, or if no connection to the server could be made, it
+   * is queued and replayed by the OutboxWorker. Other errors are passed to onError, also timeouts
+   * because the server may have applied the operation already.
+   */
+  public void sendOrQueue(
+      OutboxOperation operation,
+      OnStringResponseListener onResponse,
+      Runnable onQueued,
+      OnErrorListener onError
+  ) {
+    if (!new NetUtil(application).isOnline()) {
+      queueOperation(operation, onQueued, onError);
+      return;
+    }
+    appDatabase.outboxDao().countPendingOperations(operation.getGroupKey())
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(pendingCount -> {
+          if (pendingCount > 0) { // keep the order of the actions
+            queueOperation(operation, onQueued, onError);
+            return;
+          }
+          sendOutboxOperation(operation, onResponse::onResponse, error -> {
+            if (isConnectionError(error)) {
+              if (debug) {
+                Log.i(tag, "sendOrQueue: queued after " + error + ": " + operation);
+              }
+              queueOperation(operation, onQueued, onError);
+            } else {
+              onError.onError(error);
+            }
+          });
+        }, throwable -> onError.onError(new VolleyError(throwable)));
+  }
+
+  public void postOrQueue(
+      OutboxOperation operation,
+      OnJSONResponseListener onResponse,
+      Runnable onQueued,
+      OnErrorListener onError
+  ) {
+    sendOrQueue(operation, response -> {
+      JSONObject json;
+      try {
+        json = response != null && !response.isEmpty()
+            ? new JSONObject(response) : new JSONObject();
+      } catch (JSONException e) {
+        if (debug) {
+          Log.e(tag, "postOrQueue: " + e);
+        }
+        json = new JSONObject();
+      }
+      onResponse.onResponse(json);
+    }, onQueued, onError);
+  }
+
+  public void postWithArrayOrQueue(
+      OutboxOperation operation,
+      OnJSONArrayResponseListener onResponse,
+      Runnable onQueued,
+      OnErrorListener onError
+  ) {
+    sendOrQueue(operation, response -> {
+      JSONArray json;
+      try {
+        json = response != null && !response.isEmpty()
+            ? new JSONArray(response) : new JSONArray();
+      } catch (JSONException e) {
+        if (debug) {
+          Log.e(tag, "postWithArrayOrQueue: " + e);
+        }
+        json = new JSONArray();
+      }
+      onResponse.onResponse(json);
+    }, onQueued, onError);
+  }
+
+  public void sendOutboxOperation(
+      OutboxOperation operation,
+      Response.Listener<String> onResponse,
+      Response.ErrorListener onError
+  ) {
+    syncCoordinator.invalidate();
+    validateHassIngressSessionIfNecessary(sessionKey -> {
+      OutboxRequest request = new OutboxRequest(
+          operation,
+          authContext,
+          onResponse,
+          onError,
+          this::onChangingRequestFinished,
+          timeoutSeconds,
+          uuidHelper
+      );
+      onRequestLoading();
+      requestQueue.add(request);
+    });
+  }
+
+  // replaces pending operations with the same coalesce key and edits of deleted objects
+  public void queueOperation(
+      OutboxOperation operation,
+      @Nullable Runnable onQueued,
+      OnErrorListener onError
+  ) {
+    OutboxDao outboxDao = appDatabase.outboxDao();
+    Completable.fromAction(() -> appDatabase.runInTransaction(() -> {
+      if (operation.getCoalesceKey() != null) {
+        outboxDao.deletePendingCoalesced(operation.getCoalesceKey());
+      }
+      if (operation.getMethod() == Request.Method.DELETE) {
+        outboxDao.deletePendingEdits(operation.getGroupKey());
+      }
+      outboxDao.insertNow(operation);
+    }))
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(() -> {
+          OutboxWorker.schedule(application);
+          if (onQueued != null) {
+            onQueued.run();
+          }
+        }, throwable -> onError.onError(new VolleyError(throwable)));
+  }
+
+  // the request didn't reach the server, so it can be sent again without being applied twice
+  public static boolean isConnectionError(VolleyError error) {
+    if (!(error instanceof NoConnectionError)) {
+      return false;
+    }
+    Throwable cause = error.getCause();
+    return cause instanceof UnknownHostException
+        || cause instanceof ConnectException
+        || cause instanceof NoRouteToHostException;
+  }
+
+  // for large entity lists which are deserialized from the stream while it is received
+  public void getStream(
+      String url,
+      OnStreamResponseListener onResponse,
+      OnErrorListener onError
+  ) {
+    validateHassIngressSessionIfNecessary(sessionKey -> {
+      onRequestLoading();
+      CustomStreamRequest request = new CustomStreamRequest(
+          RequestQueueSingleton.getInstance(application).getStreamClient(),
+          url,
+          authContext,
+          timeoutSeconds
+      );
+      streamRequests.add(request);
+      request.enqueue(response -> {
+        streamRequests.remove(request);
+        onRequestFinished();
+        onResponse.onResponse(response);
+      }, error -> {
+        streamRequests.remove(request);
+        onRequestFinished();
+        onError.onError(error);
+      });
+    });
+  }
+
   public QueueItem getProductGroups(
       OnProductGroupsResponseListener onResponseListener,
       OnErrorListener onErrorListener
@@ -533,6 +733,70 @@ public class DownloadHelper {
     }
   }
 
+  private <T> void syncEntityStreamed(
+      String entity,
+      String prefLastTime,
+      String dbChangedTime,
+      CustomStreamRequest.StreamResponse response,
+      Class<T> itemClass,
+      @Nullable ArrayList<T> collectedItems,
+      DeltaSyncHelper.IdGetter<T> idGetter,
+      DeltaSyncHelper.ContentComparator<T> comparator,
+      DeltaSyncHelper.LocalItemsLoader<T> localItemsLoader,
+      Single<List<Integer>> localIdsSingle,
+      DeltaSyncHelper.Upserter<T> upserter,
+      DeltaSyncHelper.Deleter deleter,
+      Runnable onFinished,
+      @Nullable OnErrorListener errorListener
+  ) {
+    boolean isUnchanged = response.isNotModified();
+    Single<DeltaSyncHelper.SyncStats> syncSingle;
+    if (isUnchanged && collectedItems == null) {
+      // the server has confirmed the last synced list, the offline database is up to date
+      syncSingle = Single.just(DeltaSyncHelper.getSkippedStats(entity, 0, 0));
+    } else if (isUnchanged) {
+      syncSingle = Single.fromCallable(() -> DeltaSyncHelper.parseStreamed(
+          entity, response.getReader(), gson, itemClass, collectedItems
+      ).withBytes(response.getBytesRead(), response.getBytesRead()));
+    } else {
+      // batches are written in short transactions while the stream is read
+      syncSingle = Single.fromCallable(() -> DeltaSyncHelper.syncStreamed(
+          entity,
+          response.getReader(),
+          gson,
+          itemClass,
+          collectedItems,
+          idGetter,
+          comparator,
+          localItemsLoader,
+          localIdsSingle,
+          upserter,
+          deleter,
+          appDatabase::runInTransaction
+      ).withBytes(response.getBytesRead(), 0));
+    }
+    syncSingle
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doFinally(response::close)
+        .subscribe(stats -> {
+          // the last sync time is only stored if the whole list was synced
+          sharedPrefs.edit().putString(prefLastTime, dbChangedTime).apply();
+          SyncSavings.record(sharedPrefs, stats);
+          if (debug) {
+            Log.i(tag, "syncEntityStreamed: " + stats);
+          }
+          onFinished.run();
+        }, throwable -> {
+          if (debug) {
+            Log.e(tag, "syncEntityStreamed: " + entity + ": " + throwable);
+          }
+          if (errorListener != null) {
+            errorListener.onError(new VolleyError(throwable));
+          }
+        });
+  }
+
   public QueueItem getQuantityUnits(
       OnQuantityUnitsResponseListener onResponseListener,
       OnErrorListener onErrorListener
@@ -869,33 +1133,38 @@ public class DownloadHelper {
             @Nullable OnErrorListener errorListener,
             @Nullable String uuid
         ) {
-          get(
+          getStream(
               grocyApi.getObjects(GrocyApi.ENTITY.PRODUCTS),
-              uuid,
               response -> {
-                Type type = new TypeToken<List<Product>>() {
-                }.getType();
-                ArrayList<Product> products = new Gson().fromJson(response, type);
-                if (debug) {
-                  Log.i(tag, "download Products: " + products);
-                }
-                Single.concat(
-                    appDatabase.productDao().deleteProducts(),
-                    appDatabase.productDao().insertProducts(products)
-                )
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .doFinally(() -> {
-                      sharedPrefs.edit()
-                          .putString(Constants.PREF.DB_LAST_TIME_PRODUCTS, dbChangedTime).apply();
+                ArrayList<Product> products = onResponseListener != null ? new ArrayList<>() : null;
+                syncEntityStreamed(
+                    ENTITY.PRODUCTS,
+                    PREF.DB_LAST_TIME_PRODUCTS,
+                    dbChangedTime,
+                    response,
+                    Product.class,
+                    products,
+                    Product::getId,
+                    Object::equals,
+                    appDatabase.productDao()::getProducts,
+                    appDatabase.productDao().getProductIds(),
+                    appDatabase.productDao()::insertProducts,
+                    appDatabase.productDao()::deleteProducts,
+                    () -> {
+                      if (debug) {
+                        Log.i(tag, "download Products: " + products);
+                      }
+                      ProductSearchIndex.getInstance().rebuildAsync(appDatabase, debug);
+                      SortUtil.invalidateProductNameKeys();
                       if (onResponseListener != null) {
                         onResponseListener.onResponse(products);
                       }
                       if (responseListener != null) {
-                        responseListener.onResponse(response);
+                        responseListener.onResponse(null);
                       }
-                    })
-                    .subscribe();
+                    },
+                    errorListener
+                );
               },
               error -> {
                 if (errorListener != null) {
@@ -1063,35 +1332,36 @@ public class DownloadHelper {
             @Nullable OnErrorListener errorListener,
             @Nullable String uuid
         ) {
-          get(
+          getStream(
               grocyApi.getObjects(GrocyApi.ENTITY.PRODUCT_BARCODES),
-              uuid,
               response -> {
-                Type type = new TypeToken<List<ProductBarcode>>() {
-                }.getType();
-                ArrayList<ProductBarcode> barcodes
-                    = new Gson().fromJson(response, type);
-                if (debug) {
-                  Log.i(tag, "download Barcodes: " + barcodes);
-                }
-                Single.concat(
-                    appDatabase.productBarcodeDao().deleteProductBarcodes(),
-                    appDatabase.productBarcodeDao().insertProductBarcodes(barcodes)
-                )
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .doFinally(() -> {
-                      sharedPrefs.edit()
-                          .putString(Constants.PREF.DB_LAST_TIME_PRODUCT_BARCODES, dbChangedTime)
-                          .apply();
+                ArrayList<ProductBarcode> barcodes = onResponseListener != null ? new ArrayList<>() : null;
+                syncEntityStreamed(
+                    ENTITY.PRODUCT_BARCODES,
+                    PREF.DB_LAST_TIME_PRODUCT_BARCODES,
+                    dbChangedTime,
+                    response,
+                    ProductBarcode.class,
+                    barcodes,
+                    ProductBarcode::getId,
+                    Object::equals,
+                    appDatabase.productBarcodeDao()::getProductBarcodes,
+                    appDatabase.productBarcodeDao().getProductBarcodeIds(),
+                    appDatabase.productBarcodeDao()::insertProductBarcodes,
+                    appDatabase.productBarcodeDao()::deleteProductBarcodes,
+                    () -> {
+                      if (debug) {
+                        Log.i(tag, "download Barcodes: " + barcodes);
+                      }
                       if (onResponseListener != null) {
                         onResponseListener.onResponse(barcodes);
                       }
                       if (responseListener != null) {
-                        responseListener.onResponse(response);
+                        responseListener.onResponse(null);
                       }
-                    })
-                    .subscribe();
+                    },
+                    errorListener
+                );
               },
               error -> {
                 if (errorListener != null) {
@@ -1269,33 +1539,36 @@ public class DownloadHelper {
             @Nullable OnErrorListener errorListener,
             @Nullable String uuid
         ) {
-          get(
+          getStream(
               grocyApi.getStock(),
-              uuid,
               response -> {
-                Type type = new TypeToken<List<StockItem>>() {
-                }.getType();
-                ArrayList<StockItem> stockItems = gson.fromJson(response, type);
-                if (debug) {
-                  Log.i(tag, "download StockItems: " + stockItems);
-                }
-                Single.concat(
-                    appDatabase.stockItemDao().deleteStockItems(),
-                    appDatabase.stockItemDao().insertStockItems(stockItems)
-                )
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .doFinally(() -> {
-                      sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_STOCK_ITEMS, dbChangedTime).apply();
+                ArrayList<StockItem> stockItems = onResponseListener != null ? new ArrayList<>() : null;
+                syncEntityStreamed(
+                    "stock",
+                    PREF.DB_LAST_TIME_STOCK_ITEMS,
+                    dbChangedTime,
+                    response,
+                    StockItem.class,
+                    stockItems,
+                    StockItem::getProductId,
+                    StockItem::hasSameStockValues,
+                    appDatabase.stockItemDao()::getStockItems,
+                    appDatabase.stockItemDao().getStockItemProductIds(),
+                    this::upsertStockItemsWithPendingOperations,
+                    appDatabase.stockItemDao()::deleteStockItems,
+                    () -> {
+                      if (debug) {
+                        Log.i(tag, "download StockItems: " + stockItems);
+                      }
                       if (onResponseListener != null) {
                         onResponseListener.onResponse(stockItems);
                       }
                       if (responseListener != null) {
-                        responseListener.onResponse(response);
+                        responseListener.onResponse(null);
                       }
-                    })
-                    .subscribe();
+                    },
+                    errorListener
+                );
               },
               error -> {
                 if (errorListener != null) {
@@ -1328,9 +1601,8 @@ public class DownloadHelper {
             @Nullable OnErrorListener errorListener,
             @Nullable String uuid
         ) {
-          get(
+          getStream(
               grocyApi.getStockVolatile(),
-              uuid,
               response -> {
                 if (debug) {
                   Log.i(tag, "updateVolatile: success");
@@ -1339,80 +1611,88 @@ public class DownloadHelper {
                 ArrayList<StockItem> overdueItems = new ArrayList<>();
                 ArrayList<StockItem> expiredItems = new ArrayList<>();
                 ArrayList<MissingItem> missingItems = new ArrayList<>();
-                try {
-                  Type typeStockItem = new TypeToken<List<StockItem>>() {
-                  }.getType();
-                  JSONObject jsonObject = new JSONObject(response);
-                  // Parse first part of volatile array: expiring products
-                  dueItems = gson.fromJson(
-                      jsonObject.getJSONArray("due_products").toString(), typeStockItem
-                  );
-                  // Parse second part of volatile array: overdue products
-                  overdueItems = gson.fromJson(
-                      jsonObject.getJSONArray("overdue_products").toString(), typeStockItem
-                  );
-                  // Parse third part of volatile array: expired products
-                  expiredItems = gson.fromJson(
-                      jsonObject.getJSONArray("expired_products").toString(), typeStockItem
-                  );
-                  // Parse fourth part of volatile array: missing products
-                  missingItems = gson.fromJson(
-                      jsonObject.getJSONArray("missing_products").toString(),
-                      new TypeToken<List<MissingItem>>() {
-                      }.getType()
-                  );
-                  if (debug) {
-                    Log.i(tag, "updateVolatile:\ndue = " + dueItems + "\noverdue: "
-                        + overdueItems + "\nexpired: " + expiredItems + "\nmissing: "
-                        + missingItems);
+                Single.fromCallable(() -> {
+                  // parse the four parts of the volatile object directly from the stream
+                  try (JsonReader jsonReader = gson.newJsonReader(response.getReader())) {
+                    jsonReader.beginObject();
+                    while (jsonReader.hasNext()) {
+                      switch (jsonReader.nextName()) {
+                        case "due_products":
+                          DeltaSyncHelper.readArray(jsonReader, gson, StockItem.class, dueItems);
+                          break;
+                        case "overdue_products":
+                          DeltaSyncHelper.readArray(
+                              jsonReader, gson, StockItem.class, overdueItems
+                          );
+                          break;
+                        case "expired_products":
+                          DeltaSyncHelper.readArray(
+                              jsonReader, gson, StockItem.class, expiredItems
+                          );
+                          break;
+                        case "missing_products":
+                          DeltaSyncHelper.readArray(
+                              jsonReader, gson, MissingItem.class, missingItems
+                          );
+                          break;
+                        default:
+                          jsonReader.skipValue();
+                      }
+                    }
+                    jsonReader.endObject();
+                    if (debug) {
+                      Log.i(tag, "updateVolatile:\ndue = " + dueItems + "\noverdue: "
+                          + overdueItems + "\nexpired: " + expiredItems + "\nmissing: "
+                          + missingItems);
+                    }
                   }
-                } catch (JSONException e) {
-                  if (debug) {
-                    Log.e(tag, "updateVolatile: " + e);
+                  ArrayList<VolatileItem> volatileItemsTogether = new ArrayList<>();
+                  for (StockItem stockItem : dueItems) {
+                    volatileItemsTogether.add(
+                        new VolatileItem(stockItem.getProductId(), VolatileItem.TYPE_DUE)
+                    );
                   }
-                }
-                ArrayList<VolatileItem> volatileItemsTogether = new ArrayList<>();
-                for (StockItem stockItem : dueItems) {
-                  volatileItemsTogether.add(
-                      new VolatileItem(stockItem.getProductId(), VolatileItem.TYPE_DUE)
-                  );
-                }
-                for (StockItem stockItem : overdueItems) {
-                  volatileItemsTogether.add(
-                      new VolatileItem(stockItem.getProductId(), VolatileItem.TYPE_OVERDUE)
-                  );
-                }
-                for (StockItem stockItem : expiredItems) {
-                  volatileItemsTogether.add(
-                      new VolatileItem(stockItem.getProductId(), VolatileItem.TYPE_EXPIRED)
-                  );
-                }
-                ArrayList<StockItem> finalDueItems = dueItems;
-                ArrayList<StockItem> finalOverdueItems = overdueItems;
-                ArrayList<StockItem> finalExpiredItems = expiredItems;
-                ArrayList<MissingItem> finalMissingItems = missingItems;
-                Single.concat(
-                    appDatabase.volatileItemDao().deleteVolatileItems(),
-                    appDatabase.volatileItemDao().insertVolatileItems(volatileItemsTogether),
-                    appDatabase.missingItemDao().deleteMissingItems(),
-                    appDatabase.missingItemDao().insertMissingItems(missingItems)
-                )
+                  for (StockItem stockItem : overdueItems) {
+                    volatileItemsTogether.add(
+                        new VolatileItem(stockItem.getProductId(), VolatileItem.TYPE_OVERDUE)
+                    );
+                  }
+                  for (StockItem stockItem : expiredItems) {
+                    volatileItemsTogether.add(
+                        new VolatileItem(stockItem.getProductId(), VolatileItem.TYPE_EXPIRED)
+                    );
+                  }
+                  return volatileItemsTogether;
+                })
+                    .flatMapPublisher(volatileItemsTogether -> Single.concat(
+                        appDatabase.volatileItemDao().deleteVolatileItems(),
+                        appDatabase.volatileItemDao().insertVolatileItems(volatileItemsTogether),
+                        appDatabase.missingItemDao().deleteMissingItems(),
+                        appDatabase.missingItemDao().insertMissingItems(missingItems)
+                    ))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
-                    .doFinally(() -> {
+                    .subscribe(result -> {}, throwable -> {
+                      // tables and sync time are kept, so the next sync tries again
+                      if (debug) {
+                        Log.e(tag, "updateVolatile: " + throwable);
+                      }
+                      if (errorListener != null) {
+                        errorListener.onError(new VolleyError(throwable));
+                      }
+                    }, () -> {
                       sharedPrefs.edit()
                           .putString(Constants.PREF.DB_LAST_TIME_VOLATILE, dbChangedTime)
                           .putString(Constants.PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime)
                           .apply();
                       if (onResponseListener != null) {
-                        onResponseListener.onResponse(finalDueItems, finalOverdueItems,
-                            finalExpiredItems, finalMissingItems);
+                        onResponseListener.onResponse(dueItems, overdueItems,
+                            expiredItems, missingItems);
                       }
                       if (responseListener != null) {
-                        responseListener.onResponse(response);
+                        responseListener.onResponse(null);
                       }
-                    })
-                    .subscribe();
+                    });
               },
               error -> {
                 if (errorListener != null) {
@@ -1456,49 +1736,56 @@ public class DownloadHelper {
             @Nullable OnErrorListener errorListener,
             @Nullable String uuid
         ) {
-          get(
+          getStream(
               grocyApi.getStockVolatile(),
-              uuid,
               response -> {
                 if (debug) {
                   Log.i(tag, "download Volatile (only missing): success");
                 }
                 ArrayList<MissingItem> missingItems = new ArrayList<>();
-                try {
-                  JSONObject jsonObject = new JSONObject(response);
-                  // Parse fourth part of volatile array: missing products
-                  missingItems = gson.fromJson(
-                      jsonObject.getJSONArray("missing_products").toString(),
-                      new TypeToken<List<MissingItem>>() {
-                      }.getType()
-                  );
-                  if (debug) {
-                    Log.i(tag, "download Volatile (only missing): missing = " + missingItems);
-                  }
-
-                } catch (JSONException e) {
-                  if (debug) {
-                    Log.e(tag, "download Volatile (only missing): " + e);
+                Single.fromCallable(() -> {
+                  try (JsonReader jsonReader = gson.newJsonReader(response.getReader())) {
+                    jsonReader.beginObject();
+                    while (jsonReader.hasNext()) {
+                      // only parse fourth part of volatile object: missing products
+                      if (jsonReader.nextName().equals("missing_products")) {
+                        DeltaSyncHelper.readArray(
+                            jsonReader, gson, MissingItem.class, missingItems
+                        );
+                      } else {
+                        jsonReader.skipValue();
+                      }
+                    }
+                    jsonReader.endObject();
+                    if (debug) {
+                      Log.i(tag, "download Volatile (only missing): missing = " + missingItems);
+                    }
                   }
-                }
-                ArrayList<MissingItem> finalMissingItems = missingItems;
-                Single.concat(
-                    appDatabase.missingItemDao().deleteMissingItems(),
-                    appDatabase.missingItemDao().insertMissingItems(missingItems)
-                )
+                  return missingItems;
+                })
+                    .flatMapPublisher(items -> Single.concat(
+                        appDatabase.missingItemDao().deleteMissingItems(),
+                        appDatabase.missingItemDao().insertMissingItems(items)
+                    ))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
-                    .doFinally(() -> {
+                    .subscribe(result -> {}, throwable -> {
+                      if (debug) {
+                        Log.e(tag, "download Volatile (only missing): " + throwable);
+                      }
+                      if (errorListener != null) {
+                        errorListener.onError(new VolleyError(throwable));
+                      }
+                    }, () -> {
                       sharedPrefs.edit()
                           .putString(Constants.PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply();
                       if (onResponseListener != null) {
-                        onResponseListener.onResponse(finalMissingItems);
+                        onResponseListener.onResponse(missingItems);
                       }
                       if (responseListener != null) {
-                        responseListener.onResponse(response);
+                        responseListener.onResponse(null);
                       }
-                    })
-                    .subscribe();
+                    });
               },
               error -> {
                 if (errorListener != null) {
@@ -1624,6 +1911,133 @@ public class DownloadHelper {
     return getProductDetails(productId, onResponseListener, null);
   }
 
+  /**
+   * Reloads the stock of one product after a stock action instead of syncing all stock data, to
+   * confirm or correct the locally estimated stock. Due status flags are only removed if the
+   * product is not in stock anymore, missing products are updated with the next sync.
+   *
+   * @param withStockEntries also replace the stored stock entries of the product
+   */
+  public void reconcileProductStock(
+      int productId,
+      boolean withStockEntries,
+      @Nullable Runnable onReconciled
+  ) {
+    reconcileProductStock(productId, withStockEntries, onReconciled, null);
+  }
+
+  public void reconcileProductStock(
+      int productId,
+      boolean withStockEntries,
+      @Nullable Runnable onReconciled,
+      @Nullable OnErrorListener onErrorListener
+  ) {
+    OnErrorListener onError = error -> {
+      if (debug) {
+        Log.e(tag, "reconcileProductStock: " + productId + ": " + error);
+      }
+      if (onErrorListener != null) {
+        onErrorListener.onError(error);
+      }
+    };
+    getProductDetails(productId, productDetails -> {
+      if (!withStockEntries) {
+        storeProductStock(productDetails, null, onReconciled, onError);
+        return;
+      }
+      getStockEntries(
+          productId,
+          stockEntries -> storeProductStock(
+              productDetails, stockEntries, onReconciled, onError
+          ),
+          onError
+      ).perform(uuidHelper);
+    }, onError).perform(uuidHelper);
+  }
+
+  private void storeProductStock(
+      ProductDetails productDetails,
+      @Nullable List<StockEntry> stockEntries,
+      @Nullable Runnable onStored,
+      OnErrorListener onError
+  ) {
+    StockItem stockItem = new StockItem(productDetails);
+    int productId = stockItem.getProductId();
+    Completable.fromAction(() -> appDatabase.runInTransaction(() -> {
+      applyPendingStockOperationsNow(Collections.singletonList(stockItem));
+      if (stockItem.hasStock()) {
+        appDatabase.stockItemDao().insertStockItemNow(stockItem);
+      } else {
+        appDatabase.stockItemDao().deleteStockItemNow(productId);
+        appDatabase.volatileItemDao().deleteVolatileItemsNow(productId);
+      }
+      if (stockEntries != null) {
+        appDatabase.stockEntryDao().deleteStockEntriesNow(productId);
+        appDatabase.stockEntryDao().insertStockEntriesNow(stockEntries);
+      }
+    }))
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(() -> {
+          if (debug) {
+            Log.i(tag, "reconcileProductStock: " + productId + ": " + stockItem.getAmount());
+          }
+          if (onStored != null) {
+            onStored.run();
+          }
+        }, throwable -> onError.onError(new VolleyError(throwable)));
+  }
+
+  // stock items from the server don't contain the queued actions yet
+  private Single<List<Long>> upsertStockItemsWithPendingOperations(List<StockItem> stockItems) {
+    return Single.fromCallable(() -> {
+      applyPendingStockOperationsNow(stockItems);
+      List<Long> rowIds = new ArrayList<>();
+      for (StockItem stockItem : stockItems) {
+        if (stockItem.hasStock()) {
+          rowIds.add(appDatabase.stockItemDao().insertStockItemNow(stockItem));
+        } else {
+          appDatabase.stockItemDao().deleteStockItemNow(stockItem.getProductId());
+        }
+      }
+      return rowIds;
+    });
+  }
+
+  /**
+   * Applies the consume and open actions which are still waiting in the outbox to the stock
+   * items, so the estimated stock isn't lost with a sync before the actions are sent.
+   */
+  private void applyPendingStockOperationsNow(List<StockItem> stockItems) {
+    List<OutboxOperation> operations = appDatabase.outboxDao()
+        .getPendingOperationsNow(OutboxOperation.GROUP_PRODUCT);
+    if (operations.isEmpty()) {
+      return;
+    }
+    HashMap<Integer, StockItem> stockItemHashMap = new HashMap<>();
+    for (StockItem stockItem : stockItems) {
+      stockItemHashMap.put(stockItem.getProductId(), stockItem);
+    }
+    for (OutboxOperation operation : operations) {
+      int productId = operation.getGroupObjectId(OutboxOperation.GROUP_PRODUCT);
+      StockItem stockItem = stockItemHashMap.get(productId);
+      if (stockItem == null || operation.getBody() == null) {
+        continue;
+      }
+      double amount;
+      try {
+        amount = new JSONObject(operation.getBody()).getDouble("amount");
+      } catch (JSONException e) {
+        continue;
+      }
+      if (operation.getUrl().equals(grocyApi.consumeProduct(productId))) {
+        stockItem.applyConsumeRequest(amount, appDatabase.productDao().getProductNow(productId));
+      } else if (operation.getUrl().equals(grocyApi.openProduct(productId))) {
+        stockItem.applyOpened(amount);
+      }
+    }
+  }
+
   public QueueItem getStockLocations(
       int productId,
       OnStockLocationsResponseListener onResponseListener,
@@ -1747,10 +2161,11 @@ public class DownloadHelper {
                 if (debug) {
                   Log.i(tag, "download ShoppingListItems: " + shoppingListItems);
                 }
-                Single.concat(
-                    appDatabase.shoppingListItemDao().deleteShoppingListItems(),
-                    appDatabase.shoppingListItemDao().insertShoppingListItems(shoppingListItems)
-                )
+                Completable.fromAction(() -> {
+                  applyPendingShoppingListItemChanges(shoppingListItems);
+                  appDatabase.shoppingListItemDao().deleteAll();
+                  appDatabase.shoppingListItemDao().insertAll(shoppingListItems);
+                })
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -1782,88 +2197,39 @@ public class DownloadHelper {
     }
   }
 
-  public QueueItem updateShoppingListItems(
-      String dbChangedTime,
-      OnShoppingListItemsWithSyncResponseListener onResponseListener
-  ) {
-    String lastTime = sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, null
-    );
-    if (lastTime == null || !lastTime.equals(dbChangedTime)) {
-      return new QueueItem() {
-        @Override
-        public void perform(
-            @Nullable OnStringResponseListener responseListener,
-            @Nullable OnErrorListener errorListener,
-            @Nullable String uuid
-        ) {
-          get(
-              grocyApi.getObjects(GrocyApi.ENTITY.SHOPPING_LIST),
-              uuid,
-              response -> {
-                Type type = new TypeToken<List<ShoppingListItem>>() {
-                }.getType();
-                ArrayList<ShoppingListItem> shoppingListItems = new Gson().fromJson(response, type);
-                if (debug) {
-                  Log.i(tag, "download ShoppingListItems: " + shoppingListItems);
-                }
-                ArrayList<ShoppingListItem> itemsToSync = new ArrayList<>();
-                HashMap<Integer, ShoppingListItem> serverItemsHashMap = new HashMap<>();
-                for (ShoppingListItem s : shoppingListItems) {
-                  serverItemsHashMap.put(s.getId(), s);
-                }
-
-                appDatabase.shoppingListItemDao().getShoppingListItems()
-                    .doOnSuccess(offlineItems -> {
-                      // compare server items with offline items and add modified to separate list
-                      for (ShoppingListItem offlineItem : offlineItems) {
-                        ShoppingListItem serverItem = serverItemsHashMap.get(offlineItem.getId());
-                        if (serverItem != null  // sync only items which are still on server
-                            && offlineItem.getDoneSynced() != -1
-                            && offlineItem.getDoneInt() != offlineItem.getDoneSynced()
-                            && offlineItem.getDoneInt() != serverItem.getDoneInt()
-                            || serverItem != null
-                            && serverItem.getDoneSynced() != -1  // server database hasn't changed
-                            && offlineItem.getDoneSynced() != -1
-                            && offlineItem.getDoneInt() != offlineItem.getDoneSynced()
-                        ) {
-                          itemsToSync.add(offlineItem);
-                        }
-                      }
-                    })
-                    .doFinally(() -> {
-                      appDatabase.shoppingListItemDao().deleteAll();
-                      appDatabase.shoppingListItemDao().insertAll(shoppingListItems);
-                    })
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .doFinally(() -> {
-                      sharedPrefs.edit()
-                          .putString(Constants.PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime)
-                          .apply();
-                      if (onResponseListener != null) {
-                        onResponseListener.onResponse(shoppingListItems, itemsToSync,
-                            serverItemsHashMap);
-                      }
-                      if (responseListener != null) {
-                        responseListener.onResponse(response);
-                      }
-                    })
-                    .subscribe();
-              },
-              error -> {
-                if (errorListener != null) {
-                  errorListener.onError(error);
-                }
-              }
-          );
+  // pending changes in the outbox stay visible until they are replayed
+  private void applyPendingShoppingListItemChanges(List<ShoppingListItem> shoppingListItems) {
+    List<OutboxOperation> operations = appDatabase.outboxDao()
+        .getPendingOperationsNow(OutboxOperation.GROUP_SHOPPING_LIST_ITEM);
+    if (operations.isEmpty()) {
+      return;
+    }
+    HashMap<Integer, ShoppingListItem> itemHashMap = new HashMap<>();
+    for (ShoppingListItem item : shoppingListItems) {
+      itemHashMap.put(item.getId(), item);
+    }
+    for (OutboxOperation operation : operations) {
+      ShoppingListItem item = itemHashMap.get(
+          operation.getGroupObjectId(OutboxOperation.GROUP_SHOPPING_LIST_ITEM)
+      );
+      if (item == null) {
+        continue;
+      }
+      if (operation.getMethod() == Request.Method.DELETE) {
+        shoppingListItems.remove(item);
+        itemHashMap.remove(item.getId());
+      } else if (operation.getMethod() == Request.Method.PUT && operation.getBody() != null) {
+        try {
+          JSONObject body = new JSONObject(operation.getBody());
+          if (body.has("done")) {
+            item.setDone(body.getInt("done"));
+          }
+        } catch (JSONException e) {
+          if (debug) {
+            Log.e(tag, "applyPendingShoppingListItemChanges: " + e);
+          }
         }
-      };
-    } else {
-      if (debug) {
-        Log.i(tag, "downloadData: skipped ShoppingListItems download");
       }
-      return null;
     }
   }
 
@@ -2667,13 +3033,21 @@ public class DownloadHelper {
       OnStringResponseListener onResponseListener,
       OnSimpleErrorListener onErrorListener
   ) {
+    String url = grocyApi.getDbChangedTime();
+    String cachedTime = syncCoordinator.getCachedDbChangedTime(url);
+    if (cachedTime != null) {
+      onResponseListener.onResponse(cachedTime);
+      return;
+    }
+    int generation = syncCoordinator.getGeneration();
     get(
-        grocyApi.getDbChangedTime(),
+        url,
         uuidHelper,
         response -> {
           try {
             JSONObject body = new JSONObject(response);
             String dateStr = body.getString("changed_time");
+            syncCoordinator.putDbChangedTime(url, dateStr, generation);
             onResponseListener.onResponse(dateStr);
           } catch (JSONException e) {
             if (debug) {
@@ -2875,6 +3249,7 @@ public class DownloadHelper {
         .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME, null);
 
     if (sessionKey != null && dateUtil.isTimeLessThanOneMinuteAway(sessionKeyTimeStr)) {
+      authContext.setIngressSessionKey(sessionKey);
       onSuccessListener.onResponse(sessionKey);
       return;
     }
@@ -2918,12 +3293,14 @@ public class DownloadHelper {
                   Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME,
                   dateUtil.getCurrentDateWithTimeStr()
               ).apply();
+              authContext.setIngressSessionKey(session);
               onSuccessListener.onResponse(session);
             } else if (isOk && sessionOld != null) {
               sharedPrefs.edit().putString(
                   Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME,
                   dateUtil.getCurrentDateWithTimeStr()
               ).apply();
+              authContext.setIngressSessionKey(sessionOld);
               onSuccessListener.onResponse(sessionOld);
             } else {
               Log.e(tag, "homeAssistantSessionAuth: " + hassUrlExtension + ": bad response: " + response);
@@ -2946,21 +3323,47 @@ public class DownloadHelper {
     );
   }
 
+  /**
+   * Runs its items by priority with a bounded number of concurrent requests. An item only starts
+   * after all items it depends on have finished. Failed items are retried on their own with
+   * exponential backoff; the other items keep running and the error listener is called once
+   * all items are done.
+   */
   public class Queue {
 
+    private final static int MAX_RETRIES = 2;
+    private final static int RETRY_BACKOFF_MILLIS = 1000;
+
     private final ArrayList<BaseQueueItem> queueItems;
+    private final HashSet<BaseQueueItem> finishedItems;
+    private final HashSet<BaseQueueItem> failedItems;
     private final OnQueueEmptyListener onQueueEmptyListener;
     private final OnErrorListener onErrorListener;
+    private final Handler handler;
     private final String uuidQueue;
+    private final QueueSlots slots;
+    private final Runnable onSlotAvailable = this::scheduleNextItems;
+    private OnQueueProgressListener onQueueProgressListener;
+    private VolleyError lastError;
     private int queueSize;
+    private int criticalSize;
+    private int criticalDoneCount;
+    private int runningCount;
     private boolean isRunning;
 
     public Queue(OnQueueEmptyListener onQueueEmptyListener, OnErrorListener onErrorListener) {
       this.onQueueEmptyListener = onQueueEmptyListener;
       this.onErrorListener = onErrorListener;
       queueItems = new ArrayList<>();
+      finishedItems = new HashSet<>();
+      failedItems = new HashSet<>();
+      handler = new Handler(Looper.getMainLooper());
       uuidQueue = UUID.randomUUID().toString();
+      slots = QueueSlots.forServer(sharedPrefs.getString(Constants.PREF.SERVER_URL, ""));
       queueSize = 0;
+      criticalSize = 0;
+      criticalDoneCount = 0;
+      runningCount = 0;
       isRunning = false;
     }
 
@@ -2971,10 +3374,18 @@ public class DownloadHelper {
         }
         this.queueItems.add(queueItem);
         queueSize++;
+        if (queueItem.getPriority() == BaseQueueItem.PRIORITY_CRITICAL) {
+          criticalSize++;
+        }
       }
       return this;
     }
 
+    public Queue setOnQueueProgressListener(OnQueueProgressListener onQueueProgressListener) {
+      this.onQueueProgressListener = onQueueProgressListener;
+      return this;
+    }
+
     public void start() {
       if (isRunning) {
         return;
@@ -2982,51 +3393,151 @@ public class DownloadHelper {
         isRunning = true;
       }
       if (queueItems.isEmpty()) {
+        isRunning = false;
         if (onQueueEmptyListener != null) {
           onQueueEmptyListener.execute();
         }
         return;
       }
-      while (!queueItems.isEmpty()) {
-        BaseQueueItem queueItem = queueItems.remove(0);
-        if (queueItem instanceof QueueItem) {
-          ((QueueItem) queueItem).perform(response -> {
-            queueSize--;
-            if (queueSize > 0) {
-              return;
-            }
-            isRunning = false;
-            if (onQueueEmptyListener != null) {
-              onQueueEmptyListener.execute();
-            }
-            reset(false);
-          }, error -> {
-            isRunning = false;
-            if (onErrorListener != null) {
-              onErrorListener.onError(error);
-            }
-            reset(true);
-          }, uuidQueue);
-        } else {
-          ((QueueItemJson) queueItem).perform(response -> {
-            queueSize--;
-            if (queueSize > 0) {
-              return;
-            }
-            isRunning = false;
-            if (onQueueEmptyListener != null) {
-              onQueueEmptyListener.execute();
-            }
-            reset(false);
-          }, error -> {
-            isRunning = false;
-            if (onErrorListener != null) {
-              onErrorListener.onError(error);
+      scheduleNextItems();
+    }
+
+    private void scheduleNextItems() {
+      boolean isWaitingForSlot = false;
+      while (isRunning) {
+        BaseQueueItem queueItem = pollNextReadyItem();
+        if (queueItem == null) {
+          break;
+        }
+        if (!slots.tryAcquire(onSlotAvailable)) {
+          queueItems.add(0, queueItem); // polled again when a slot is free
+          isWaitingForSlot = true;
+          break;
+        }
+        runningCount++;
+        performItem(queueItem, 0);
+      }
+      if (isRunning && runningCount == 0 && !isWaitingForSlot) {
+        onAllItemsDone();
+      }
+    }
+
+    @Nullable
+    private BaseQueueItem pollNextReadyItem() {
+      ArrayList<BaseQueueItem> skippedItems = new ArrayList<>();
+      BaseQueueItem nextItem = null;
+      for (int i = 0; i < queueItems.size(); i++) {
+        BaseQueueItem queueItem = queueItems.get(i);
+        boolean isReady = true;
+        boolean isBlocked = false;
+        for (BaseQueueItem dependency : queueItem.getDependencies()) {
+          if (failedItems.contains(dependency)) {
+            isBlocked = true;
+            break;
+          } else if (!finishedItems.contains(dependency)) {
+            isReady = false;
+          }
+        }
+        if (isBlocked) {
+          // dependency failed, so this item would only work with stale data
+          queueItems.remove(i);
+          failedItems.add(queueItem);
+          skippedItems.add(queueItem);
+          i--;
+          continue;
+        }
+        if (isReady && (nextItem == null || queueItem.getPriority() > nextItem.getPriority())) {
+          nextItem = queueItem;
+        }
+      }
+      if (nextItem != null) {
+        queueItems.remove(nextItem);
+      }
+      for (BaseQueueItem skippedItem : skippedItems) {
+        onItemFinished(skippedItem);
+      }
+      return nextItem;
+    }
+
+    private void performItem(BaseQueueItem queueItem, int attempt) {
+      OnErrorListener errorListener = error -> {
+        if (!isRunning) {
+          return;
+        }
+        if (attempt < MAX_RETRIES && isRetryable(error)) {
+          if (debug) {
+            Log.i(tag, "Queue: retry " + queueItem.getEntity() + " after error: " + error);
+          }
+          handler.postDelayed(() -> {
+            if (isRunning) {
+              performItem(queueItem, attempt + 1);
             }
-            reset(true);
-          }, uuidQueue);
+          }, (long) RETRY_BACKOFF_MILLIS << attempt);
+          return;
+        }
+        lastError = error;
+        failedItems.add(queueItem);
+        onItemDone(queueItem);
+      };
+      if (queueItem instanceof QueueItem) {
+        ((QueueItem) queueItem).perform(response -> {
+          if (!isRunning) {
+            return;
+          }
+          finishedItems.add(queueItem);
+          onItemDone(queueItem);
+        }, errorListener, uuidQueue);
+      } else {
+        ((QueueItemJson) queueItem).perform(response -> {
+          if (!isRunning) {
+            return;
+          }
+          finishedItems.add(queueItem);
+          onItemDone(queueItem);
+        }, errorListener, uuidQueue);
+      }
+    }
+
+    private void onItemDone(BaseQueueItem queueItem) {
+      runningCount--;
+      slots.release();
+      onItemFinished(queueItem);
+      scheduleNextItems();
+    }
+
+    // performed, failed or skipped because a dependency has failed
+    private void onItemFinished(BaseQueueItem queueItem) {
+      boolean criticalItemsFinished = false;
+      if (queueItem.getPriority() == BaseQueueItem.PRIORITY_CRITICAL) {
+        criticalDoneCount++;
+        criticalItemsFinished = criticalDoneCount == criticalSize;
+      }
+      if (onQueueProgressListener != null) {
+        onQueueProgressListener.onProgress(
+            queueItem.getEntity(),
+            finishedItems.size() + failedItems.size(),
+            queueSize,
+            criticalItemsFinished
+        );
+      }
+    }
+
+    private void onAllItemsDone() {
+      isRunning = false;
+      if (failedItems.isEmpty()) {
+        if (onQueueEmptyListener != null) {
+          onQueueEmptyListener.execute();
         }
+      } else if (onErrorListener != null) {
+        onErrorListener.onError(lastError);
       }
+      reset(false);
+    }
+
+    private boolean isRetryable(@Nullable VolleyError error) {
+      // no connection or client errors won't be fixed by trying again
+      return error instanceof TimeoutError
+          || error instanceof ServerError && !(error instanceof ClientError);
     }
 
     public int getSize() {
@@ -3040,9 +3551,23 @@ public class DownloadHelper {
     public void reset(boolean cancelAll) {
       if (cancelAll) {
         requestQueue.cancelAll(uuidQueue);
+        syncCoordinator.cancelAll(uuidQueue);
+      }
+      // callbacks of running items are ignored from now on, so their slots are released here
+      for (int i = 0; i < runningCount; i++) {
+        slots.release();
       }
+      slots.removeWaiting(onSlotAvailable);
+      isRunning = false;
+      handler.removeCallbacksAndMessages(null);
       queueItems.clear();
+      finishedItems.clear();
+      failedItems.clear();
+      lastError = null;
       queueSize = 0;
+      criticalSize = 0;
+      criticalDoneCount = 0;
+      runningCount = 0;
     }
   }
 
@@ -3057,6 +3582,46 @@ public class DownloadHelper {
 
   public abstract static class BaseQueueItem {
 
+    public final static int PRIORITY_LOW = 0;
+    public final static int PRIORITY_NORMAL = 1;
+    public final static int PRIORITY_HIGH = 2;
+    public final static int PRIORITY_CRITICAL = 3;
+
+    private final ArrayList<BaseQueueItem> dependencies = new ArrayList<>();
+    private int priority = PRIORITY_NORMAL;
+    private Class<?> entity;
+
+    public BaseQueueItem setPriority(int priority) {
+      this.priority = priority;
+      return this;
+    }
+
+    public int getPriority() {
+      return priority;
+    }
+
+    public BaseQueueItem setEntity(Class<?> entity) {
+      this.entity = entity;
+      return this;
+    }
+
+    @Nullable
+    public Class<?> getEntity() {
+      return entity;
+    }
+
+    public BaseQueueItem dependsOn(BaseQueueItem... queueItems) {
+      for (BaseQueueItem queueItem : queueItems) {
+        if (queueItem != null) {
+          dependencies.add(queueItem);
+        }
+      }
+      return this;
+    }
+
+    public ArrayList<BaseQueueItem> getDependencies() {
+      return dependencies;
+    }
   }
 
   public abstract static class QueueItem extends BaseQueueItem {
@@ -3089,70 +3654,52 @@ public class DownloadHelper {
 
   public void updateData(OnQueueEmptyListener onFinished,
       OnErrorListener errorListener, Class<?>... types) {
-    updateData(onFinished, errorListener, null, types);
+    updateData(onFinished, errorListener, null, null, types);
   }
 
   public void updateData(OnQueueEmptyListener onFinished,
       OnErrorListener errorListener, String dbChangedTime, Class<?>... types) {
+    updateData(onFinished, errorListener, null, dbChangedTime, types);
+  }
+
+  public void updateData(OnQueueEmptyListener onFinished, OnErrorListener errorListener,
+      OnQueueProgressListener progressListener, Class<?>... types) {
+    updateData(onFinished, errorListener, progressListener, null, types);
+  }
+
+  public void updateData(OnQueueEmptyListener onFinished, OnErrorListener errorListener,
+      @Nullable OnQueueProgressListener progressListener, @Nullable String dbChangedTime,
+      Class<?>... types) {
     if (dbChangedTime == null) {
       getTimeDbChanged(
-          time -> updateData(onFinished, errorListener, time, types),
+          time -> updateData(onFinished, errorListener, progressListener, time, types),
           () -> errorListener.onError(null)
       );
       return;
     }
-    DownloadHelper.Queue queue = newQueue(onFinished, errorListener);
+    LinkedHashMap<Class<?>, BaseQueueItem> queueItems = new LinkedHashMap<>();
     for (Class<?> type : types) {
-      if (type == ProductGroup.class) {
-        queue.append(updateProductGroups(dbChangedTime, null));
-      } else if (type == QuantityUnit.class) {
-        queue.append(updateQuantityUnits(dbChangedTime, null));
-      } else if (type == QuantityUnitConversion.class) {
-        queue.append(updateQuantityUnitConversions(dbChangedTime, null));
-      } else if (type == Location.class) {
-        queue.append(updateLocations(dbChangedTime, null));
-      } else if (type == StockLocation.class) {
-        queue.append(updateStockCurrentLocations(dbChangedTime, null));
-      } else if (type == Product.class) {
-        queue.append(updateProducts(dbChangedTime, null));
-      } else if (type == ProductLastPurchased.class) {
-        queue.append(updateProductsLastPurchased(dbChangedTime, null, true));
-      } else if (type == ProductAveragePrice.class) {
-        queue.append(updateProductsAveragePrice(dbChangedTime, null, true));
-      } else if (type == ProductBarcode.class) {
-        queue.append(updateProductBarcodes(dbChangedTime, null));
-      } else if (type == User.class) {
-        queue.append(updateUsers(dbChangedTime, null));
-      } else if (type == StockItem.class) {
-        queue.append(updateStockItems(dbChangedTime, null));
-      } else if (type == StockEntry.class) {
-        queue.append(updateStockEntries(dbChangedTime, null));
-      } else if (type == VolatileItem.class) {
-        queue.append(updateVolatile(dbChangedTime, null));
-      } else if (type == MissingItem.class) {
-        queue.append(updateMissingItems(dbChangedTime, null));
-      } else if (type == ShoppingListItem.class) {
-        queue.append(updateShoppingListItems(dbChangedTime,
-            (OnShoppingListItemsResponseListener) null));
-      } else if (type == ShoppingList.class) {
-        queue.append(updateShoppingLists(dbChangedTime, null));
-      } else if (type == Store.class) {
-        queue.append(updateStores(dbChangedTime, null));
-      } else if (type == Task.class) {
-        queue.append(updateTasks(dbChangedTime, null));
-      } else if (type == TaskCategory.class) {
-        queue.append(updateTaskCategories(dbChangedTime, null));
-      } else if (type == Chore.class) {
-        queue.append(updateChores(dbChangedTime, null));
-      } else if (type == ChoreEntry.class) {
-        queue.append(updateChoreEntries(dbChangedTime, null));
-      } else if (type == Recipe.class) {
-        queue.append(updateRecipes(dbChangedTime, null));
-      } else if (type == RecipeFulfillment.class) {
-        queue.append(updateRecipeFulfillments(dbChangedTime, null));
-      } else if (type == RecipePosition.class) {
-        queue.append(updateRecipePositions(dbChangedTime, null));
+      BaseQueueItem queueItem = getUpdateQueueItem(type, dbChangedTime);
+      if (queueItem == null) {
+        continue;
+      }
+      if (queueItem instanceof QueueItem) {
+        queueItem = syncCoordinator.shareEntitySync(
+            type.getName() + "@" + dbChangedTime, (QueueItem) queueItem
+        );
       }
+      queueItem.setEntity(type).setPriority(getSyncPriority(type));
+      queueItems.put(type, queueItem);
+    }
+    for (Map.Entry<Class<?>, BaseQueueItem> entry : queueItems.entrySet()) {
+      for (Class<?> dependency : getSyncDependencies(entry.getKey())) {
+        entry.getValue().dependsOn(queueItems.get(dependency));
+      }
+    }
+    DownloadHelper.Queue queue = newQueue(onFinished, errorListener);
+    queue.setOnQueueProgressListener(progressListener);
+    for (BaseQueueItem queueItem : queueItems.values()) {
+      queue.append(queueItem);
     }
     if (queue.isEmpty()) {
       onFinished.execute();
@@ -3161,6 +3708,88 @@ public class DownloadHelper {
     queue.start();
   }
 
+  @Nullable
+  private BaseQueueItem getUpdateQueueItem(Class<?> type, String dbChangedTime) {
+    if (type == ProductGroup.class) {
+      return updateProductGroups(dbChangedTime, null);
+    } else if (type == QuantityUnit.class) {
+      return updateQuantityUnits(dbChangedTime, null);
+    } else if (type == QuantityUnitConversion.class) {
+      return updateQuantityUnitConversions(dbChangedTime, null);
+    } else if (type == Location.class) {
+      return updateLocations(dbChangedTime, null);
+    } else if (type == StockLocation.class) {
+      return updateStockCurrentLocations(dbChangedTime, null);
+    } else if (type == Product.class) {
+      return updateProducts(dbChangedTime, null);
+    } else if (type == ProductLastPurchased.class) {
+      return updateProductsLastPurchased(dbChangedTime, null, true);
+    } else if (type == ProductAveragePrice.class) {
+      return updateProductsAveragePrice(dbChangedTime, null, true);
+    } else if (type == ProductBarcode.class) {
+      return updateProductBarcodes(dbChangedTime, null);
+    } else if (type == User.class) {
+      return updateUsers(dbChangedTime, null);
+    } else if (type == StockItem.class) {
+      return updateStockItems(dbChangedTime, null);
+    } else if (type == StockEntry.class) {
+      return updateStockEntries(dbChangedTime, null);
+    } else if (type == VolatileItem.class) {
+      return updateVolatile(dbChangedTime, null);
+    } else if (type == MissingItem.class) {
+      return updateMissingItems(dbChangedTime, null);
+    } else if (type == ShoppingListItem.class) {
+      return updateShoppingListItems(dbChangedTime, null);
+    } else if (type == ShoppingList.class) {
+      return updateShoppingLists(dbChangedTime, null);
+    } else if (type == Store.class) {
+      return updateStores(dbChangedTime, null);
+    } else if (type == Task.class) {
+      return updateTasks(dbChangedTime, null);
+    } else if (type == TaskCategory.class) {
+      return updateTaskCategories(dbChangedTime, null);
+    } else if (type == Chore.class) {
+      return updateChores(dbChangedTime, null);
+    } else if (type == ChoreEntry.class) {
+      return updateChoreEntries(dbChangedTime, null);
+    } else if (type == Recipe.class) {
+      return updateRecipes(dbChangedTime, null);
+    } else if (type == RecipeFulfillment.class) {
+      return updateRecipeFulfillments(dbChangedTime, null);
+    } else if (type == RecipePosition.class) {
+      return updateRecipePositions(dbChangedTime, null);
+    }
+    return null;
+  }
+
+  // main lists of the screens first, so they can be shown before the rest has arrived
+  private static int getSyncPriority(Class<?> type) {
+    if (type == StockItem.class || type == Product.class || type == ShoppingListItem.class
+        || type == Chore.class || type == Task.class || type == Recipe.class) {
+      return BaseQueueItem.PRIORITY_CRITICAL;
+    } else if (type == QuantityUnit.class || type == ProductGroup.class
+        || type == Location.class || type == VolatileItem.class || type == MissingItem.class
+        || type == ShoppingList.class) {
+      return BaseQueueItem.PRIORITY_HIGH;
+    } else if (type == ProductAveragePrice.class || type == ProductLastPurchased.class
+        || type == StockLocation.class || type == User.class) {
+      return BaseQueueItem.PRIORITY_LOW;
+    } else {
+      return BaseQueueItem.PRIORITY_NORMAL;
+    }
+  }
+
+  private static Class<?>[] getSyncDependencies(Class<?> type) {
+    if (type == ProductAveragePrice.class || type == ProductLastPurchased.class
+        || type == StockLocation.class) {
+      return new Class<?>[]{StockItem.class, Product.class};
+    } else if (type == RecipeFulfillment.class || type == RecipePosition.class) {
+      return new Class<?>[]{Recipe.class};
+    } else {
+      return new Class<?>[]{};
+    }
+  }
+
   public interface OnProductGroupsResponseListener {
 
     void onResponse(ArrayList<ProductGroup> productGroups);
@@ -3246,15 +3875,6 @@ public class DownloadHelper {
     void onResponse(ArrayList<ShoppingListItem> shoppingListItems);
   }
 
-  public interface OnShoppingListItemsWithSyncResponseListener {
-
-    void onResponse(
-        ArrayList<ShoppingListItem> shoppingListItems,
-        ArrayList<ShoppingListItem> itemsToSync,
-        HashMap<Integer, ShoppingListItem> serverItemHashMap
-    );
-  }
-
   public interface OnShoppingListsResponseListener {
 
     void onResponse(ArrayList<ShoppingList> shoppingLists);
@@ -3315,6 +3935,11 @@ public class DownloadHelper {
     void onResponse(String response);
   }
 
+  public interface OnStreamResponseListener {
+
+    void onResponse(CustomStreamRequest.StreamResponse response);
+  }
+
   public interface OnIntegerResponseListener {
 
     void onResponse(int response);
@@ -3350,6 +3975,17 @@ public class DownloadHelper {
     void execute();
   }
 
+  public interface OnQueueProgressListener {
+
+    // criticalItemsFinished is only true for the item which completes all critical items
+    void onProgress(
+        @Nullable Class<?> entity,
+        int finishedCount,
+        int totalCount,
+        boolean criticalItemsFinished
+    );
+  }
+
   public interface OnLoadingListener {
 
     void onLoadingChanged(boolean isLoading);
@@ -0,0 +1,181 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.app.Application;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductGroup;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.ShoppingList;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
+import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.util.RxJavaUtil;
+
+/**
+ * Process-wide snapshots of the stored entities, shared by all screens. A table is read when it
+ * is first observed and later only when Room reports a change of it, and a new snapshot with a
+ * higher version is published only if its rows really differ. Screens which are opened again
+ * get the last snapshot at once without querying the database.
+ * <p>
+ * Snapshots must not be changed, entities which are edited have to be cloned first.
+ */
+public class EntityStore {
+
+  private final static long RETRY_DELAY_SECONDS = 5;
+
+  private static EntityStore instance;
+
+  private final AppDatabase appDatabase;
+
+  private final Flowable<Snapshot<ShoppingListItem>> shoppingListItems;
+  private final Flowable<Snapshot<ShoppingList>> shoppingLists;
+  private final Flowable<Snapshot<ProductGroup>> productGroups;
+  private final Flowable<Snapshot<QuantityUnit>> quantityUnits;
+  private final Flowable<Snapshot<QuantityUnitConversion>> unitConversions;
+  private final Flowable<Snapshot<Product>> products;
+  private final Flowable<Snapshot<ProductLastPurchased>> productsLastPurchased;
+  private final Flowable<Snapshot<Store>> stores;
+  private final Flowable<Snapshot<MissingItem>> missingItems;
+
+  private EntityStore(Application application) {
+    appDatabase = AppDatabase.getAppDatabase(application);
+
+    shoppingListItems = observeTable(appDatabase.shoppingListItemDao().getShoppingListItems(),
+        ShoppingListItem::getId, "shopping_list_item_table");
+    shoppingLists = observeTable(appDatabase.shoppingListDao().getShoppingLists(),
+        ShoppingList::getId, "shopping_list_table");
+    productGroups = observeTable(appDatabase.productGroupDao().getProductGroups(),
+        ProductGroup::getId, "product_group_table");
+    quantityUnits = observeTable(appDatabase.quantityUnitDao().getQuantityUnits(),
+        QuantityUnit::getId, "quantity_unit_table");
+    unitConversions = observeTable(appDatabase.quantityUnitConversionDao().getConversions(),
+        QuantityUnitConversion::getId, "quantity_unit_conversion_table");
+    products = observeTable(appDatabase.productDao().getProducts(),
+        Product::getId, "product_table");
+    productsLastPurchased = observeTable(
+        appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
+        ProductLastPurchased::getProductId, "product_last_purchased_table");
+    stores = observeTable(appDatabase.storeDao().getStores(),
+        Store::getId, "store_table");
+    missingItems = observeTable(appDatabase.missingItemDao().getMissingItems(),
+        MissingItem::getId, "missing_item_table");
+  }
+
+  public static synchronized EntityStore getInstance(Application application) {
+    if (instance == null) {
+      instance = new EntityStore(application);
+    }
+    return instance;
+  }
+
+  public Flowable<Snapshot<ShoppingListItem>> getShoppingListItems() {
+    return shoppingListItems;
+  }
+
+  public Flowable<Snapshot<ShoppingList>> getShoppingLists() {
+    return shoppingLists;
+  }
+
+  public Flowable<Snapshot<ProductGroup>> getProductGroups() {
+    return productGroups;
+  }
+
+  public Flowable<Snapshot<QuantityUnit>> getQuantityUnits() {
+    return quantityUnits;
+  }
+
+  public Flowable<Snapshot<QuantityUnitConversion>> getUnitConversions() {
+    return unitConversions;
+  }
+
+  public Flowable<Snapshot<Product>> getProducts() {
+    return products;
+  }
+
+  public Flowable<Snapshot<ProductLastPurchased>> getProductsLastPurchased() {
+    return productsLastPurchased;
+  }
+
+  public Flowable<Snapshot<Store>> getStores() {
+    return stores;
+  }
+
+  public Flowable<Snapshot<MissingItem>> getMissingItems() {
+    return missingItems;
+  }
+
+  // stays connected to the database after the first subscriber, so the last snapshot is kept;
+  // a failed query is run again instead of ending the stream, which would replay the error
+  private <T> Flowable<Snapshot<T>> observeTable(
+      Single<List<T>> query,
+      IntMap.KeyFunction<T> keyFunction,
+      String tableName
+  ) {
+    AtomicLong version = new AtomicLong();
+    return RxJavaUtil.observeQuery(appDatabase, query, tableName)
+        .map(items -> new Snapshot<>(
+            version.incrementAndGet(),
+            Collections.unmodifiableList(items),
+            IntMap.of(items, keyFunction)
+        ))
+        .retryWhen(errors -> errors.delay(RETRY_DELAY_SECONDS, TimeUnit.SECONDS))
+        .replay(1)
+        .autoConnect();
+  }
+
+  public static class Snapshot<T> {
+
+    private final long version;
+    private final List<T> list;
+    private final IntMap<T> map;
+
+    Snapshot(long version, List<T> list, IntMap<T> map) {
+      this.version = version;
+      this.list = list;
+      this.map = map;
+    }
+
+    /**
+     * Increases with every change of the table, so values derived from a snapshot only have to
+     * be computed again if the version differs.
+     */
+    public long getVersion() {
+      return version;
+    }
+
+    public List<T> getList() {
+      return list;
+    }
+
+    public IntMap<T> getMap() {
+      return map;
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map with primitive int keys, so entities can be looked up by id without boxing the
+ * key, with open addressing and linear probing like {@link BarcodeIndex}. Null values are not
+ * stored.
+ * <p>
+ * It is a read-only {@link java.util.Map} for code which still expects boxed keys, instances
+ * can be shared between threads and screens without copying.
+ */
+public class IntMap<V> extends AbstractMap<Integer, V> {
+
+  private final static int MIN_CAPACITY = 16;
+
+  private final int[] keys;
+  private final Object[] values;
+  private final int size;
+  private Set<Entry<Integer, V>> entrySet;
+
+  private IntMap(int[] keys, Object[] values, int size) {
+    this.keys = keys;
+    this.values = values;
+    this.size = size;
+  }
+
+  public interface KeyFunction<T> {
+
+    int getKey(T item);
+  }
+
+  public interface ValueFunction<T, V> {
+
+    V getValue(T item);
+  }
+
+  public static <T> IntMap<T> of(@Nullable List<T> items, KeyFunction<T> keyFunction) {
+    return of(items, keyFunction, item -> item);
+  }
+
+  public static <T, V> IntMap<V> of(
+      @Nullable List<T> items,
+      KeyFunction<T> keyFunction,
+      ValueFunction<T, V> valueFunction
+  ) {
+    Builder<V> builder = new Builder<>(items != null ? items.size() : 0);
+    if (items != null) {
+      for (T item : items) {
+        builder.put(keyFunction.getKey(item), valueFunction.getValue(item));
+      }
+    }
+    return builder.build();
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public V get(int key) {
+    return (V) values[findSlot(keys, values, key)];
+  }
+
+  @Nullable
+  @Override
+  public V get(@Nullable Object key) {
+    return key instanceof Integer ? get((int) (Integer) key) : null;
+  }
+
+  public boolean containsKey(int key) {
+    return values[findSlot(keys, values, key)] != null;
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object key) {
+    return key instanceof Integer && containsKey((int) (Integer) key);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @NonNull
+  @Override
+  public Set<Entry<Integer, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  // slot of the key, or of the empty slot where it belongs
+  private static int findSlot(int[] keys, Object[] values, int key) {
+    int mask = keys.length - 1;
+    int hash = key * 0x9E3779B9;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (values[slot] != null && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Collects the entries of a new map, a later value for the same key replaces the earlier one.
+   * The builder can't be used anymore after {@link #build()}.
+   */
+  public static class Builder<V> {
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    public Builder(int expectedSize) {
+      int capacity = MIN_CAPACITY;
+      while (capacity < expectedSize * 2) { // load factor at most 0.5
+        capacity <<= 1;
+      }
+      keys = new int[capacity];
+      values = new Object[capacity];
+    }
+
+    public Builder<V> put(int key, @Nullable V value) {
+      if (value == null) {
+        return this;
+      }
+      if ((size + 1) * 2 > keys.length) {
+        resize(keys.length << 1);
+      }
+      int slot = findSlot(keys, values, key);
+      if (values[slot] == null) {
+        keys[slot] = key;
+        size++;
+      }
+      values[slot] = value;
+      return this;
+    }
+
+    public IntMap<V> build() {
+      IntMap<V> map = new IntMap<>(keys, values, size);
+      keys = null;
+      values = null;
+      return map;
+    }
+
+    private void resize(int capacity) {
+      int[] oldKeys = keys;
+      Object[] oldValues = values;
+      keys = new int[capacity];
+      values = new Object[capacity];
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldValues[i] != null) {
+          int slot = findSlot(keys, values, oldKeys[i]);
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+  }
+
+  private class EntrySet extends AbstractSet<Entry<Integer, V>> {
+
+    @NonNull
+    @Override
+    public Iterator<Entry<Integer, V>> iterator() {
+      return new Iterator<Entry<Integer, V>>() {
+        private int slot = nextSlot(0);
+
+        @Override
+        public boolean hasNext() {
+          return slot < values.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<Integer, V> next() {
+          if (slot >= values.length) {
+            throw new NoSuchElementException();
+          }
+          Entry<Integer, V> entry = new SimpleImmutableEntry<>(keys[slot], (V) values[slot]);
+          slot = nextSlot(slot + 1);
+          return entry;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    private int nextSlot(int from) {
+      int slot = from;
+      while (slot < values.length && values[slot] == null) {
+        slot++;
+      }
+      return slot;
+    }
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.RequestFuture;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import xyz.zedler.patrick.grocy.dao.OutboxDao;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
+import xyz.zedler.patrick.grocy.notification.OutboxNotificationReceiver;
+import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.NETWORK;
+import xyz.zedler.patrick.grocy.util.Constants.SETTINGS_DEFAULT;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Replays the operations of the outbox when the network is available. Each group is sent in
+ * queue order and stops at the first operation which couldn't reach the server, the groups
+ * are sent in parallel. Operations rejected by the server or with an unknown outcome (e.g. after
+ * a timeout) are kept as failed and shown in a notification, so they aren't applied twice.
+ * The later operations of their group are kept back with them, to keep the order.
+ * After stock actions were sent, the stock of the product is reloaded from the server.
+ */
+public class OutboxWorker extends Worker {
+
+  private final static String TAG = OutboxWorker.class.getSimpleName();
+  private final static String WORK_NAME = "outbox_replay";
+  private final static int MAX_PARALLEL_GROUPS = 4;
+
+  public OutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+    super(context, params);
+  }
+
+  // appended so operations queued while a replay is running are sent as well
+  public static void schedule(Context context) {
+    OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OutboxWorker.class)
+        .setConstraints(new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .build())
+        .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+        .build();
+    WorkManager.getInstance(context).enqueueUniqueWork(
+        WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request
+    );
+  }
+
+  @NonNull
+  @Override
+  public Result doWork() {
+    Context context = getApplicationContext();
+    boolean debug = PrefsUtil.isDebuggingEnabled(context);
+    OutboxDao outboxDao = AppDatabase.getAppDatabase(context).outboxDao();
+    List<OutboxOperation> operations = outboxDao.getPendingOperationsNow();
+    if (operations.isEmpty()) {
+      return Result.success();
+    }
+    int failedCountBefore = outboxDao.countFailedOperationsNow();
+
+    LinkedHashMap<String, List<OutboxOperation>> groups = new LinkedHashMap<>();
+    for (OutboxOperation operation : operations) {
+      List<OutboxOperation> group = groups.get(operation.getGroupKey());
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.put(operation.getGroupKey(), group);
+      }
+      group.add(operation);
+    }
+    if (debug) {
+      Log.i(TAG, "doWork: replaying " + operations.size() + " operations in "
+          + groups.size() + " groups");
+    }
+
+    // the helper and its sync coordinator may only be used on the main thread
+    Handler mainHandler = new Handler(Looper.getMainLooper());
+    DownloadHelper[] dlHelper = new DownloadHelper[1];
+    mainHandler.post(() -> dlHelper[0] = new DownloadHelper(context, TAG));
+    // longer than the request timeout, so the request fails before the future gives up
+    int timeout = 2 * PreferenceManager.getDefaultSharedPreferences(context)
+        .getInt(NETWORK.LOADING_TIMEOUT, SETTINGS_DEFAULT.NETWORK.LOADING_TIMEOUT);
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(groups.size(), MAX_PARALLEL_GROUPS)
+    );
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (List<OutboxOperation> group : groups.values()) {
+      results.add(executor.submit(
+          () -> replayGroup(mainHandler, dlHelper, outboxDao, group, timeout, debug)
+      ));
+    }
+    boolean retry = false;
+    try {
+      for (Future<Boolean> result : results) {
+        if (!result.get()) {
+          retry = true;
+        }
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      if (debug) {
+        Log.e(TAG, "doWork: " + e);
+      }
+      retry = true;
+    } finally {
+      // running groups finish their current operation, so its state is stored
+      executor.shutdown();
+      try {
+        if (!executor.awaitTermination(timeout, TimeUnit.SECONDS)) {
+          executor.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+      }
+      mainHandler.post(() -> dlHelper[0].destroy());
+    }
+
+    int failedCount = outboxDao.countFailedOperationsNow();
+    if (failedCount > failedCountBefore) {
+      OutboxNotificationReceiver.showFailedNotification(context, failedCount);
+    }
+    return retry ? Result.retry() : Result.success();
+  }
+
+  // returns false if the rest of the group has to be sent later
+  private static boolean replayGroup(
+      Handler mainHandler,
+      DownloadHelper[] dlHelper,
+      OutboxDao outboxDao,
+      List<OutboxOperation> group,
+      int timeout,
+      boolean debug
+  ) {
+    boolean complete = true;
+    int sentCount = 0;
+    for (int i = 0; i < group.size(); i++) {
+      OutboxOperation operation = group.get(i);
+      RequestFuture<String> future = RequestFuture.newFuture();
+      // posted after the creation of the helper, so it is always set here
+      mainHandler.post(() -> dlHelper[0].sendOutboxOperation(operation, future, future));
+      try {
+        future.get(timeout, TimeUnit.SECONDS); // this will block
+        outboxDao.deleteNow(operation.getId());
+        sentCount++;
+        if (debug) {
+          Log.i(TAG, "replayGroup: sent " + operation);
+        }
+      } catch (ExecutionException e) {
+        VolleyError error = e.getCause() instanceof VolleyError
+            ? (VolleyError) e.getCause() : null;
+        operation.setAttempts(operation.getAttempts() + 1);
+        operation.setLastError(String.valueOf(e.getCause()));
+        if (error != null && isRetryable(error)) {
+          outboxDao.updateNow(operation);
+          complete = false;
+          break;
+        }
+        // rejected, e.g. the amount isn't in stock anymore, sending it again won't help
+        // or no response, the server may have applied it already
+        operation.setState(OutboxOperation.STATE_FAILED);
+        outboxDao.updateNow(operation);
+        keepBackRemaining(outboxDao, group, i + 1);
+        if (debug) {
+          Log.e(TAG, "replayGroup: failed " + operation + ": " + e.getCause());
+        }
+        break;
+      } catch (InterruptedException | TimeoutException e) {
+        // the request may still reach the server
+        operation.setAttempts(operation.getAttempts() + 1);
+        operation.setLastError(e.toString());
+        operation.setState(OutboxOperation.STATE_FAILED);
+        outboxDao.updateNow(operation);
+        keepBackRemaining(outboxDao, group, i + 1);
+        break;
+      }
+    }
+    int productId = group.get(0).getGroupObjectId(OutboxOperation.GROUP_PRODUCT);
+    if (sentCount > 0 && productId != -1) {
+      reconcileProductStock(mainHandler, dlHelper, productId, timeout, debug);
+    }
+    return complete;
+  }
+
+  // later operations may depend on the failed one, so they are only sent again with it
+  private static void keepBackRemaining(
+      OutboxDao outboxDao,
+      List<OutboxOperation> group,
+      int fromIndex
+  ) {
+    for (OutboxOperation operation : group.subList(fromIndex, group.size())) {
+      operation.setState(OutboxOperation.STATE_FAILED);
+      operation.setLastError("not sent after an earlier operation of the group failed");
+      outboxDao.updateNow(operation);
+    }
+  }
+
+  // replaces the estimated stock with the one of the server, before the helper is destroyed
+  private static void reconcileProductStock(
+      Handler mainHandler,
+      DownloadHelper[] dlHelper,
+      int productId,
+      int timeout,
+      boolean debug
+  ) {
+    CountDownLatch latch = new CountDownLatch(1);
+    mainHandler.post(() -> dlHelper[0].reconcileProductStock(
+        productId, false, latch::countDown, error -> latch.countDown()
+    ));
+    try {
+      if (!latch.await(timeout, TimeUnit.SECONDS) && debug) {
+        Log.e(TAG, "reconcileProductStock: timeout for product " + productId);
+      }
+    } catch (InterruptedException e) {
+      if (debug) {
+        Log.e(TAG, "reconcileProductStock: " + e);
+      }
+    }
+  }
+
+  // the server didn't get or didn't process the request
+  private static boolean isRetryable(VolleyError error) {
+    if (DownloadHelper.isConnectionError(error)) {
+      return true;
+    }
+    if (error.networkResponse == null) {
+      return false;
+    }
+    int statusCode = error.networkResponse.statusCode;
+    return statusCode == 408 || statusCode == 429 || statusCode == 503;
+  }
+}
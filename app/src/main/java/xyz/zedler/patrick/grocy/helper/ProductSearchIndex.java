@@ -0,0 +1,387 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.Product;
+
+/**
+ * Search index over product names, so fuzzy search doesn't have to compare the query with every
+ * product name on each keystroke. Names are normalized (lowercase, without diacritics), their
+ * trigrams are kept in an inverted index and their words in a sorted map for prefix lookups.
+ * <p>
+ * The shared instance is rebuilt off the main thread after each product sync and only normalizes
+ * the names which have changed. Changes build a new immutable index which replaces the current
+ * one, so searches never wait for a rebuild. All methods are thread safe.
+ */
+public class ProductSearchIndex {
+
+  private final static String TAG = ProductSearchIndex.class.getSimpleName();
+
+  public final static int MIN_SCORE = 35;
+
+  private final static int SCORE_EXACT = 100;
+  private final static int SCORE_STARTS_WITH = 95;
+  private final static int SCORE_WORD_PREFIXES = 90;
+  private final static int SCORE_CONTAINS = 85;
+  private final static int SCORE_FUZZY_MAX = 80;
+
+  private final static Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private final static Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private static ProductSearchIndex instance;
+
+  // replaced as a whole, searches read it without locking
+  private volatile Snapshot snapshot;
+
+  public ProductSearchIndex() {
+    snapshot = new Snapshot(new HashMap<>());
+  }
+
+  public static synchronized ProductSearchIndex getInstance() {
+    if (instance == null) {
+      instance = new ProductSearchIndex();
+    }
+    return instance;
+  }
+
+  /**
+   * Reloads all products from the database off the main thread and replaces the indexed ones.
+   */
+  public void rebuildAsync(AppDatabase appDatabase, boolean debug) {
+    appDatabase.productDao().getProducts()
+        .subscribeOn(Schedulers.io())
+        .observeOn(Schedulers.computation())
+        .doOnSuccess(this::setProducts)
+        .ignoreElement()
+        .subscribe(
+            () -> {
+              if (debug) {
+                Log.i(TAG, "rebuildAsync: indexed " + size() + " products");
+              }
+            },
+            error -> {
+              if (debug) {
+                Log.e(TAG, "rebuildAsync: " + error);
+              }
+            }
+        );
+  }
+
+  /**
+   * Indexes the products off the main thread, the optional listener is called on the main thread
+   * when searches include them.
+   */
+  public void setProductsAsync(List<Product> products, @Nullable Runnable onIndexed) {
+    List<Product> snapshot = new ArrayList<>(products);
+    Completable.fromAction(() -> setProducts(snapshot))
+        .subscribeOn(Schedulers.computation())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(
+            () -> {
+              if (onIndexed != null) {
+                onIndexed.run();
+              }
+            },
+            error -> Log.e(TAG, "setProductsAsync: " + error)
+        );
+  }
+
+  /**
+   * Makes the index contain exactly the given products.
+   */
+  public synchronized void setProducts(List<Product> products) {
+    HashMap<Integer, Entry> current = snapshot.entries;
+    HashMap<Integer, Entry> entries = new HashMap<>();
+    for (Product product : products) {
+      entries.put(product.getId(), getEntry(current.get(product.getId()), product.getName()));
+    }
+    snapshot = new Snapshot(entries);
+  }
+
+  /**
+   * Adds the given products or updates them, other indexed products are kept.
+   */
+  public synchronized void putProducts(List<Product> products) {
+    HashMap<Integer, Entry> entries = new HashMap<>(snapshot.entries);
+    boolean changed = false;
+    for (Product product : products) {
+      Entry entry = entries.get(product.getId());
+      Entry newEntry = getEntry(entry, product.getName());
+      if (newEntry != entry) {
+        entries.put(product.getId(), newEntry);
+        changed = true;
+      }
+    }
+    if (changed) {
+      snapshot = new Snapshot(entries);
+    }
+  }
+
+  public void putProduct(Product product) {
+    putProducts(Collections.singletonList(product));
+  }
+
+  public synchronized void removeProduct(int productId) {
+    if (!snapshot.entries.containsKey(productId)) {
+      return;
+    }
+    HashMap<Integer, Entry> entries = new HashMap<>(snapshot.entries);
+    entries.remove(productId);
+    snapshot = new Snapshot(entries);
+  }
+
+  public int size() {
+    return snapshot.entries.size();
+  }
+
+  // the normalized name and trigrams are only computed again if the name has changed
+  private static Entry getEntry(@Nullable Entry entry, String name) {
+    if (entry != null && entry.rawName.equals(name)) {
+      return entry;
+    }
+    return new Entry(name);
+  }
+
+  /**
+   * Returns the ids of the matching products, best match first.
+   *
+   * @param limit maximum number of results, or 0 for all
+   */
+  public List<Integer> search(String query, int limit) {
+    List<Match> matches = searchScored(query, limit);
+    List<Integer> productIds = new ArrayList<>(matches.size());
+    for (Match match : matches) {
+      productIds.add(match.productId);
+    }
+    return productIds;
+  }
+
+  public List<Match> searchScored(String query, int limit) {
+    String normalized = normalize(query);
+    if (normalized.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Snapshot snapshot = this.snapshot;
+    HashMap<Integer, Entry> entries = snapshot.entries;
+    HashMap<Integer, Integer> scores = new HashMap<>();
+
+    // words of the query which are prefixes of the words in the product name
+    HashSet<Integer> wordPrefixMatches = null;
+    for (String queryWord : WHITESPACE.split(normalized)) {
+      HashSet<Integer> ids = new HashSet<>();
+      SortedMap<String, int[]> prefixed
+          = snapshot.wordIndex.subMap(queryWord, queryWord + Character.MAX_VALUE);
+      for (int[] wordIds : prefixed.values()) {
+        for (int productId : wordIds) {
+          ids.add(productId);
+        }
+      }
+      if (wordPrefixMatches == null) {
+        wordPrefixMatches = ids;
+      } else {
+        wordPrefixMatches.retainAll(ids);
+      }
+    }
+    for (int productId : wordPrefixMatches) {
+      scores.put(productId, scoreExactMatch(normalized, entries.get(productId)));
+    }
+
+    if (normalized.length() < 3) {
+      // too short for trigrams, the few names can be compared directly
+      for (Map.Entry<Integer, Entry> entry : entries.entrySet()) {
+        if (!scores.containsKey(entry.getKey())
+            && entry.getValue().name.contains(normalized)) {
+          scores.put(entry.getKey(), SCORE_CONTAINS);
+        }
+      }
+    } else {
+      List<String> queryTrigrams = trigrams(normalized);
+      HashMap<Integer, Integer> sharedCounts = new HashMap<>();
+      for (String trigram : queryTrigrams) {
+        int[] ids = snapshot.trigramIndex.get(trigram);
+        if (ids == null) {
+          continue;
+        }
+        for (int productId : ids) {
+          Integer count = sharedCounts.get(productId);
+          sharedCounts.put(productId, count != null ? count + 1 : 1);
+        }
+      }
+      for (Map.Entry<Integer, Integer> shared : sharedCounts.entrySet()) {
+        int productId = shared.getKey();
+        if (scores.containsKey(productId)) {
+          continue;
+        }
+        Entry entry = entries.get(productId);
+        int score;
+        if (entry.name.contains(normalized)) {
+          score = SCORE_CONTAINS;
+        } else {
+          double dice = 2.0 * shared.getValue()
+              / (queryTrigrams.size() + entry.trigrams.size());
+          score = (int) Math.round(dice * SCORE_FUZZY_MAX);
+        }
+        if (score >= MIN_SCORE) {
+          scores.put(productId, score);
+        }
+      }
+    }
+
+    List<Match> matches = new ArrayList<>(scores.size());
+    for (Map.Entry<Integer, Integer> score : scores.entrySet()) {
+      matches.add(new Match(score.getKey(), score.getValue(), entries.get(score.getKey()).name));
+    }
+    Collections.sort(matches, (m1, m2) -> m1.score != m2.score
+        ? Integer.compare(m2.score, m1.score) : m1.name.compareTo(m2.name));
+    if (limit > 0 && matches.size() > limit) {
+      return new ArrayList<>(matches.subList(0, limit));
+    }
+    return matches;
+  }
+
+  private static int scoreExactMatch(String query, Entry entry) {
+    if (entry.name.equals(query)) {
+      return SCORE_EXACT;
+    } else if (entry.name.startsWith(query)) {
+      return SCORE_STARTS_WITH;
+    } else {
+      return SCORE_WORD_PREFIXES;
+    }
+  }
+
+  @NonNull
+  public static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+    String withoutDiacritics = DIACRITICS.matcher(decomposed).replaceAll("");
+    return WHITESPACE.matcher(withoutDiacritics.toLowerCase().trim()).replaceAll(" ");
+  }
+
+  // distinct trigrams, padded so that word starts and ends weigh more
+  private static List<String> trigrams(String normalized) {
+    String padded = "  " + normalized + " ";
+    HashSet<String> trigrams = new HashSet<>();
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      trigrams.add(padded.substring(i, i + 3));
+    }
+    return new ArrayList<>(trigrams);
+  }
+
+  public static class Match {
+
+    public final int productId;
+    public final int score;
+    private final String name;
+
+    Match(int productId, int score, String name) {
+      this.productId = productId;
+      this.score = score;
+      this.name = name;
+    }
+  }
+
+  private static class Snapshot {
+
+    final HashMap<Integer, Entry> entries;
+    final HashMap<String, int[]> trigramIndex;
+    final TreeMap<String, int[]> wordIndex;
+
+    // takes ownership of the entries, which must not be changed anymore
+    Snapshot(HashMap<Integer, Entry> entries) {
+      this.entries = entries;
+      HashMap<String, ArrayList<Integer>> trigramIds = new HashMap<>();
+      HashMap<String, ArrayList<Integer>> wordIds = new HashMap<>();
+      for (Map.Entry<Integer, Entry> entry : entries.entrySet()) {
+        for (String trigram : entry.getValue().trigrams) {
+          addPosting(trigramIds, trigram, entry.getKey());
+        }
+        for (String word : entry.getValue().words) {
+          addPosting(wordIds, word, entry.getKey());
+        }
+      }
+      trigramIndex = new HashMap<>();
+      for (Map.Entry<String, ArrayList<Integer>> posting : trigramIds.entrySet()) {
+        trigramIndex.put(posting.getKey(), toArray(posting.getValue()));
+      }
+      wordIndex = new TreeMap<>();
+      for (Map.Entry<String, ArrayList<Integer>> posting : wordIds.entrySet()) {
+        wordIndex.put(posting.getKey(), toArray(posting.getValue()));
+      }
+    }
+
+    private static void addPosting(
+        HashMap<String, ArrayList<Integer>> postings,
+        String key,
+        int productId
+    ) {
+      ArrayList<Integer> ids = postings.get(key);
+      if (ids == null) {
+        ids = new ArrayList<>();
+        postings.put(key, ids);
+      }
+      // a word can occur twice in a name
+      if (ids.isEmpty() || ids.get(ids.size() - 1) != productId) {
+        ids.add(productId);
+      }
+    }
+
+    private static int[] toArray(ArrayList<Integer> ids) {
+      int[] array = new int[ids.size()];
+      for (int i = 0; i < array.length; i++) {
+        array[i] = ids.get(i);
+      }
+      return array;
+    }
+  }
+
+  private static class Entry {
+
+    final String rawName;
+    final String name;
+    final List<String> trigrams;
+    final String[] words;
+
+    Entry(String rawName) {
+      this.rawName = rawName != null ? rawName : "";
+      this.name = normalize(rawName);
+      this.trigrams = trigrams(name);
+      this.words = name.isEmpty() ? new String[0] : WHITESPACE.split(name);
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+
+/**
+ * Graph of all quantity unit conversions, built once per list of conversions instead of scanning
+ * the whole list each time a product is selected. Standard conversions are kept as adjacency
+ * lists by unit id, product specific conversions as overlays by product id, every conversion also
+ * adds its inverse.
+ * <p>
+ * Factors are resolved transitively with a breadth-first search from the stock unit of a product,
+ * which visits every unit only once, so cyclic conversions terminate and the shortest path wins.
+ * At the same depth, product specific conversions win over the purchase factor of the product
+ * and standard conversions, and given conversions over inverse ones. The factors are memoized per
+ * product, so the owner keeps one graph until its list of conversions is reloaded. All methods are
+ * thread safe.
+ */
+public class QuantityUnitConversionGraph {
+
+  private final static Edge[] NO_EDGES = new Edge[0];
+
+  private final IntMap<Edge[]> standardEdges;
+  private final IntMap<List<QuantityUnitConversion>> productConversions;
+  private final HashMap<Integer, Resolved> resolvedByProduct;
+
+  public QuantityUnitConversionGraph(@NonNull List<QuantityUnitConversion> conversions) {
+    HashMap<Integer, List<Edge>> given = new HashMap<>();
+    HashMap<Integer, List<Edge>> inverse = new HashMap<>();
+    HashMap<Integer, List<QuantityUnitConversion>> byProduct = new HashMap<>();
+    for (QuantityUnitConversion conversion : conversions) {
+      if (conversion.getFactor() == 0) {
+        continue;
+      }
+      int productId = conversion.getProductIdInt();
+      if (productId != -1) {
+        List<QuantityUnitConversion> list = byProduct.get(productId);
+        if (list == null) {
+          list = new ArrayList<>();
+          byProduct.put(productId, list);
+        }
+        list.add(conversion);
+        continue;
+      }
+      addEdge(given, conversion.getFromQuId(), conversion.getToQuId(), conversion.getFactor());
+      addEdge(
+          inverse, conversion.getToQuId(), conversion.getFromQuId(), 1 / conversion.getFactor()
+      );
+    }
+    standardEdges = toAdjacency(given, inverse);
+    IntMap.Builder<List<QuantityUnitConversion>> productBuilder
+        = new IntMap.Builder<>(byProduct.size());
+    for (Map.Entry<Integer, List<QuantityUnitConversion>> entry : byProduct.entrySet()) {
+      productBuilder.put(entry.getKey(), entry.getValue());
+    }
+    productConversions = productBuilder.build();
+    resolvedByProduct = new HashMap<>();
+  }
+
+  /**
+   * Factors of all units the stock unit of the product can be converted to, by unit id:
+   * 1 stock unit equals factor units. The stock unit itself is included with factor 1.
+   */
+  @NonNull
+  public synchronized IntMap<Double> getFactorsFromStock(@NonNull Product product) {
+    int quIdStock = product.getQuIdStockInt();
+    int quIdPurchase = product.getQuIdPurchaseInt();
+    double purchaseFactor = product.getQuFactorPurchaseToStockDouble();
+
+    Resolved resolved = resolvedByProduct.get(product.getId());
+    if (resolved != null && resolved.quIdStock == quIdStock
+        && resolved.quIdPurchase == quIdPurchase && resolved.purchaseFactor == purchaseFactor) {
+      return resolved.factors;
+    }
+
+    HashMap<Integer, List<Edge>> given = new HashMap<>();
+    HashMap<Integer, List<Edge>> inverse = new HashMap<>();
+    List<QuantityUnitConversion> overlay = productConversions.get(product.getId());
+    if (overlay != null) {
+      for (QuantityUnitConversion conversion : overlay) {
+        if (conversion.getFactor() == 0) {
+          continue;
+        }
+        addEdge(given, conversion.getFromQuId(), conversion.getToQuId(), conversion.getFactor());
+        addEdge(
+            inverse, conversion.getToQuId(), conversion.getFromQuId(), 1 / conversion.getFactor()
+        );
+      }
+    }
+    if (quIdPurchase != -1 && quIdPurchase != quIdStock && purchaseFactor != 0) {
+      addEdge(inverse, quIdStock, quIdPurchase, 1 / purchaseFactor);
+      addEdge(inverse, quIdPurchase, quIdStock, purchaseFactor);
+    }
+    IntMap<Edge[]> productEdges = toAdjacency(given, inverse);
+
+    // breadth-first, units which are already resolved are not visited again
+    HashMap<Integer, Double> factors = new HashMap<>();
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    factors.put(quIdStock, 1d);
+    queue.add(quIdStock);
+    while (!queue.isEmpty()) {
+      int quId = queue.poll();
+      double factor = factors.get(quId);
+      followEdges(productEdges.get(quId), factor, factors, queue);
+      followEdges(standardEdges.get(quId), factor, factors, queue);
+    }
+    IntMap.Builder<Double> builder = new IntMap.Builder<>(factors.size());
+    for (Map.Entry<Integer, Double> entry : factors.entrySet()) {
+      builder.put(entry.getKey(), entry.getValue());
+    }
+    resolved = new Resolved(quIdStock, quIdPurchase, purchaseFactor, builder.build());
+    resolvedByProduct.put(product.getId(), resolved);
+    return resolved.factors;
+  }
+
+  private static void followEdges(
+      Edge[] edges,
+      double factor,
+      HashMap<Integer, Double> factors,
+      ArrayDeque<Integer> queue
+  ) {
+    if (edges == null) {
+      return;
+    }
+    for (Edge edge : edges) {
+      if (!factors.containsKey(edge.toQuId)) {
+        factors.put(edge.toQuId, factor * edge.factor);
+        queue.add(edge.toQuId);
+      }
+    }
+  }
+
+  private static void addEdge(
+      HashMap<Integer, List<Edge>> edges,
+      int from,
+      int to,
+      double factor
+  ) {
+    List<Edge> list = edges.get(from);
+    if (list == null) {
+      list = new ArrayList<>();
+      edges.put(from, list);
+    }
+    list.add(new Edge(to, factor));
+  }
+
+  // given edges first, so they are followed before the inverse ones
+  private static IntMap<Edge[]> toAdjacency(
+      HashMap<Integer, List<Edge>> given,
+      HashMap<Integer, List<Edge>> inverse
+  ) {
+    IntMap.Builder<Edge[]> builder = new IntMap.Builder<>(given.size() + inverse.size());
+    for (Map.Entry<Integer, List<Edge>> entry : given.entrySet()) {
+      List<Edge> edges = new ArrayList<>(entry.getValue());
+      List<Edge> inverseEdges = inverse.get(entry.getKey());
+      if (inverseEdges != null) {
+        edges.addAll(inverseEdges);
+      }
+      builder.put(entry.getKey(), edges.toArray(NO_EDGES));
+    }
+    for (Map.Entry<Integer, List<Edge>> entry : inverse.entrySet()) {
+      if (!given.containsKey(entry.getKey())) {
+        builder.put(entry.getKey(), entry.getValue().toArray(NO_EDGES));
+      }
+    }
+    return builder.build();
+  }
+
+  private static class Edge {
+
+    final int toQuId;
+    final double factor;
+
+    Edge(int toQuId, double factor) {
+      this.toQuId = toQuId;
+      this.factor = factor;
+    }
+  }
+
+  private static class Resolved {
+
+    final int quIdStock;
+    final int quIdPurchase;
+    final double purchaseFactor;
+    final IntMap<Double> factors;
+
+    Resolved(int quIdStock, int quIdPurchase, double purchaseFactor, IntMap<Double> factors) {
+      this.quIdStock = quIdStock;
+      this.quIdPurchase = quIdPurchase;
+      this.purchaseFactor = purchaseFactor;
+      this.factors = factors;
+    }
+  }
+}
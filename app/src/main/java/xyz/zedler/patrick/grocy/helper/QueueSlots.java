@@ -0,0 +1,89 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Caps the queue items which run at the same time per server. The slots are shared by all
+ * queues of all DownloadHelpers, so parallel queues can't exceed the cap together. A queue which
+ * gets no slot is called again when a slot is released. Only used from the main thread.
+ */
+public class QueueSlots {
+
+  private final static int MAX_RUNNING_PER_SERVER = 4;
+
+  private final static HashMap<String, QueueSlots> instances = new HashMap<>();
+
+  private final Handler handler;
+  private final ArrayList<Runnable> waiting;
+  private int running;
+
+  private QueueSlots() {
+    handler = new Handler(Looper.getMainLooper());
+    waiting = new ArrayList<>();
+  }
+
+  public static QueueSlots forServer(String serverUrl) {
+    QueueSlots slots = instances.get(serverUrl);
+    if (slots == null) {
+      slots = new QueueSlots();
+      instances.put(serverUrl, slots);
+    }
+    return slots;
+  }
+
+  /**
+   * @param onAvailable called when a slot was released if none is free now
+   * @return true if a slot was taken, it has to be released again
+   */
+  public boolean tryAcquire(Runnable onAvailable) {
+    if (running < MAX_RUNNING_PER_SERVER) {
+      running++;
+      return true;
+    }
+    if (!waiting.contains(onAvailable)) {
+      waiting.add(onAvailable);
+    }
+    return false;
+  }
+
+  public void release() {
+    if (running > 0) {
+      running--;
+    }
+    if (waiting.isEmpty()) {
+      return;
+    }
+    // all waiting queues try again, the ones which are finished don't take the slot
+    ArrayList<Runnable> callbacks = new ArrayList<>(waiting);
+    waiting.clear();
+    for (Runnable callback : callbacks) {
+      handler.post(callback);
+    }
+  }
+
+  public void removeWaiting(Runnable onAvailable) {
+    waiting.remove(onAvailable);
+  }
+}
@@ -0,0 +1,347 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipePosition;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * Computes the fulfillment of all recipes from the stored stock, shopping list, recipe positions
+ * and unit conversions, so the recipes list is correct right after a stock change and offline,
+ * without waiting for the fulfillments of the server.
+ * <p>
+ * The shared instance remembers the last input. If only stock or shopping list amounts have
+ * changed, only the recipes which use the changed products are computed again. The due score
+ * and the product names are taken from the fulfillment of the server, as they depend on stock
+ * entries which are not stored. Only these fields of the server are compared, so a sync only
+ * computes the recipes again where they have changed.
+ */
+public class RecipeFulfillmentEngine {
+
+  private static RecipeFulfillmentEngine instance;
+
+  private List<Recipe> recipes;
+  private List<RecipePosition> recipePositions;
+  private List<Product> products;
+  private List<QuantityUnitConversion> conversions;
+  private List<ProductLastPurchased> productsLastPurchased;
+
+  private IntMap<Product> productMap;
+  private IntMap<List<RecipePosition>> positionsByRecipe;
+  private IntMap<int[]> recipeIdsByProduct;
+  private IntMap<RecipeFulfillment> serverFulfillmentMap;
+  private IntMap<Double> prices;
+  private QuantityUnitConversionGraph conversionGraph;
+
+  private IntMap<Double> stockAmounts;
+  private IntMap<Double> shoppingListAmounts;
+  private final HashMap<Integer, RecipeFulfillment> fulfillments = new HashMap<>();
+
+  public static synchronized RecipeFulfillmentEngine getInstance() {
+    if (instance == null) {
+      instance = new RecipeFulfillmentEngine();
+    }
+    return instance;
+  }
+
+  /**
+   * @return the fulfillment of every recipe, computed again only where the input has changed
+   */
+  public synchronized List<RecipeFulfillment> update(
+      List<Recipe> recipes,
+      List<RecipePosition> recipePositions,
+      List<Product> products,
+      List<QuantityUnitConversion> conversions,
+      List<ProductLastPurchased> productsLastPurchased,
+      List<RecipeFulfillment> serverFulfillments,
+      List<StockItem> stockItems,
+      List<ShoppingListItem> shoppingListItems
+  ) {
+    IntMap<Double> newStockAmounts = IntMap.of(
+        stockItems, StockItem::getProductId, StockItem::getAmountAggregatedDouble
+    );
+    IntMap<Double> newShoppingListAmounts = getShoppingListAmounts(shoppingListItems);
+    IntMap<RecipeFulfillment> newServerFulfillmentMap = IntMap.of(
+        serverFulfillments, RecipeFulfillment::getRecipeId
+    );
+
+    boolean definitionsChanged = !Objects.equals(recipes, this.recipes)
+        || !Objects.equals(recipePositions, this.recipePositions)
+        || !Objects.equals(products, this.products)
+        || !Objects.equals(conversions, this.conversions)
+        || !Objects.equals(productsLastPurchased, this.productsLastPurchased);
+
+    if (definitionsChanged) {
+      setDefinitions(recipes, recipePositions, products, conversions, productsLastPurchased);
+      serverFulfillmentMap = newServerFulfillmentMap;
+      stockAmounts = newStockAmounts;
+      shoppingListAmounts = newShoppingListAmounts;
+      fulfillments.clear();
+      for (Recipe recipe : recipes) {
+        fulfillments.put(recipe.getId(), compute(recipe));
+      }
+    } else {
+      HashSet<Integer> changedProductIds = new HashSet<>();
+      addChangedKeys(stockAmounts, newStockAmounts, changedProductIds);
+      addChangedKeys(shoppingListAmounts, newShoppingListAmounts, changedProductIds);
+      stockAmounts = newStockAmounts;
+      shoppingListAmounts = newShoppingListAmounts;
+      HashSet<Integer> affectedRecipeIds = new HashSet<>();
+      addChangedServerValues(serverFulfillmentMap, newServerFulfillmentMap, affectedRecipeIds);
+      serverFulfillmentMap = newServerFulfillmentMap;
+      for (int productId : changedProductIds) {
+        int[] recipeIds = recipeIdsByProduct.get(productId);
+        if (recipeIds == null) {
+          continue;
+        }
+        for (int recipeId : recipeIds) {
+          affectedRecipeIds.add(recipeId);
+        }
+      }
+      for (Recipe recipe : recipes) {
+        if (affectedRecipeIds.contains(recipe.getId())) {
+          fulfillments.put(recipe.getId(), compute(recipe));
+        }
+      }
+    }
+    return new ArrayList<>(fulfillments.values());
+  }
+
+  private void setDefinitions(
+      List<Recipe> recipes,
+      List<RecipePosition> recipePositions,
+      List<Product> products,
+      List<QuantityUnitConversion> conversions,
+      List<ProductLastPurchased> productsLastPurchased
+  ) {
+    this.recipes = recipes;
+    this.recipePositions = recipePositions;
+    this.products = products;
+    this.conversions = conversions;
+    this.productsLastPurchased = productsLastPurchased;
+
+    productMap = IntMap.of(products, Product::getId);
+    prices = IntMap.of(
+        productsLastPurchased,
+        ProductLastPurchased::getProductId,
+        p -> NumUtil.isStringDouble(p.getPrice()) ? NumUtil.toDouble(p.getPrice()) : null
+    );
+
+    HashMap<Integer, List<RecipePosition>> positionsGrouped = new HashMap<>();
+    HashMap<Integer, HashSet<Integer>> recipeIdsGrouped = new HashMap<>();
+    for (RecipePosition position : recipePositions) {
+      List<RecipePosition> positions = positionsGrouped.get(position.getRecipeId());
+      if (positions == null) {
+        positions = new ArrayList<>();
+        positionsGrouped.put(position.getRecipeId(), positions);
+      }
+      positions.add(position);
+      HashSet<Integer> recipeIds = recipeIdsGrouped.get(position.getProductId());
+      if (recipeIds == null) {
+        recipeIds = new HashSet<>();
+        recipeIdsGrouped.put(position.getProductId(), recipeIds);
+      }
+      recipeIds.add(position.getRecipeId());
+    }
+    IntMap.Builder<List<RecipePosition>> positions
+        = new IntMap.Builder<>(positionsGrouped.size());
+    for (Map.Entry<Integer, List<RecipePosition>> entry : positionsGrouped.entrySet()) {
+      positions.put(entry.getKey(), entry.getValue());
+    }
+    positionsByRecipe = positions.build();
+    IntMap.Builder<int[]> recipeIds = new IntMap.Builder<>(recipeIdsGrouped.size());
+    for (Map.Entry<Integer, HashSet<Integer>> entry : recipeIdsGrouped.entrySet()) {
+      int[] ids = new int[entry.getValue().size()];
+      int i = 0;
+      for (int id : entry.getValue()) {
+        ids[i++] = id;
+      }
+      recipeIds.put(entry.getKey(), ids);
+    }
+    recipeIdsByProduct = recipeIds.build();
+
+    conversionGraph = new QuantityUnitConversionGraph(conversions);
+  }
+
+  private RecipeFulfillment compute(Recipe recipe) {
+    double servingsFactor = 1;
+    Double baseServings = recipe.getBaseServings();
+    Double desiredServings = recipe.getDesiredServings();
+    if (baseServings != null && baseServings > 0 && desiredServings != null
+        && desiredServings > 0) {
+      servingsFactor = desiredServings / baseServings;
+    }
+
+    boolean needFulfilled = true;
+    boolean needFulfilledWithShoppingList = true;
+    int missingProductsCount = 0;
+    double costs = 0;
+    double calories = 0;
+    StringBuilder productNames = new StringBuilder();
+
+    List<RecipePosition> positions = positionsByRecipe.get(recipe.getId());
+    if (positions != null) {
+      for (RecipePosition position : positions) {
+        Product product = productMap.get(position.getProductId());
+        if (product == null) {
+          continue;
+        }
+        if (productNames.length() > 0) {
+          productNames.append(", ");
+        }
+        productNames.append(product.getName());
+
+        double amount = position.getAmount() * servingsFactor
+            * getFactorToStock(product, position.getQuantityUnitId());
+        Double price = prices.get(product.getId());
+        if (price != null) {
+          costs += price * amount * (position.getPriceFactor() > 0 ? position.getPriceFactor() : 1);
+        }
+        calories += product.getCaloriesDouble() * amount;
+
+        if (position.getNotCheckStockFulfillment() == 1) {
+          continue;
+        }
+        double neededAmount = position.getOnlyCheckSingleUnitInStock() == 1 ? 1 : amount;
+        double stockAmount = getAmount(stockAmounts, product.getId());
+        double shoppingListAmount = recipe.getNotCheckShoppingList() == 1
+            ? 0 : getAmount(shoppingListAmounts, product.getId());
+        if (stockAmount < neededAmount) {
+          needFulfilled = false;
+          missingProductsCount++;
+        }
+        if (stockAmount + shoppingListAmount < neededAmount) {
+          needFulfilledWithShoppingList = false;
+        }
+      }
+    }
+
+    RecipeFulfillment fulfillment = new RecipeFulfillment();
+    fulfillment.setRecipeId(recipe.getId());
+    fulfillment.setNeedFulfilled(needFulfilled);
+    fulfillment.setNeedFulfilledWithShoppingList(needFulfilledWithShoppingList);
+    fulfillment.setMissingProductsCount(missingProductsCount);
+    fulfillment.setCosts(costs);
+    fulfillment.setCostsPerServing(desiredServings != null && desiredServings > 0
+        ? costs / desiredServings : costs);
+    fulfillment.setCalories(calories);
+    RecipeFulfillment serverFulfillment = serverFulfillmentMap.get(recipe.getId());
+    if (serverFulfillment != null) {
+      fulfillment.setDueScore(serverFulfillment.getDueScore());
+      fulfillment.setProductNamesCommaSeparated(
+          serverFulfillment.getProductNamesCommaSeparated()
+      );
+    } else {
+      fulfillment.setProductNamesCommaSeparated(productNames.toString());
+    }
+    return fulfillment;
+  }
+
+  // factor to convert an amount in the given unit to the stock unit of the product
+  private double getFactorToStock(Product product, int quId) {
+    int quIdStock = product.getQuIdStockInt();
+    if (quId == quIdStock) {
+      return 1;
+    }
+    Double factor = conversionGraph.getFactorsFromStock(product).get(quId);
+    return factor != null ? 1 / factor : 1; // unknown, the amount is taken as it is
+  }
+
+  private static double getAmount(IntMap<Double> amounts, int productId) {
+    Double amount = amounts.get(productId);
+    return amount != null ? amount : 0;
+  }
+
+  @NonNull
+  private static IntMap<Double> getShoppingListAmounts(List<ShoppingListItem> items) {
+    HashMap<Integer, Double> amounts = new HashMap<>();
+    for (ShoppingListItem item : items) {
+      if (!item.hasProduct() || !item.isUndone()) {
+        continue;
+      }
+      Double amount = amounts.get(item.getProductIdInt());
+      amounts.put(item.getProductIdInt(), (amount != null ? amount : 0) + item.getAmountDouble());
+    }
+    IntMap.Builder<Double> builder = new IntMap.Builder<>(amounts.size());
+    for (Map.Entry<Integer, Double> entry : amounts.entrySet()) {
+      builder.put(entry.getKey(), entry.getValue());
+    }
+    return builder.build();
+  }
+
+  private static void addChangedKeys(
+      @Nullable IntMap<Double> oldAmounts,
+      IntMap<Double> newAmounts,
+      HashSet<Integer> changedKeys
+  ) {
+    if (oldAmounts == null) {
+      changedKeys.addAll(newAmounts.keySet());
+      return;
+    }
+    for (Map.Entry<Integer, Double> entry : newAmounts.entrySet()) {
+      if (!entry.getValue().equals(oldAmounts.get((int) entry.getKey()))) {
+        changedKeys.add(entry.getKey());
+      }
+    }
+    for (int key : oldAmounts.keySet()) {
+      if (!newAmounts.containsKey(key)) {
+        changedKeys.add(key);
+      }
+    }
+  }
+
+  // only the due score and the product names of the server are used
+  private static void addChangedServerValues(
+      IntMap<RecipeFulfillment> oldFulfillments,
+      IntMap<RecipeFulfillment> newFulfillments,
+      HashSet<Integer> changedRecipeIds
+  ) {
+    for (Map.Entry<Integer, RecipeFulfillment> entry : newFulfillments.entrySet()) {
+      RecipeFulfillment oldFulfillment = oldFulfillments.get((int) entry.getKey());
+      RecipeFulfillment newFulfillment = entry.getValue();
+      if (oldFulfillment == null
+          || oldFulfillment.getDueScore() != newFulfillment.getDueScore()
+          || !Objects.equals(oldFulfillment.getProductNamesCommaSeparated(),
+          newFulfillment.getProductNamesCommaSeparated())) {
+        changedRecipeIds.add(entry.getKey());
+      }
+    }
+    for (int key : oldFulfillments.keySet()) {
+      if (!newFulfillments.containsKey(key)) {
+        changedRecipeIds.add(key);
+      }
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipePosition;
+
+/**
+ * Joins recipes with their fulfillment, positions, products and quantity units by id, so the
+ * recipes list doesn't scan the lists for every recipe. The lowercased search text of each
+ * recipe (name and ingredient names) is prepared once instead of on each keystroke.
+ * <p>
+ * The index is built off the main thread after the recipes are loaded and not changed later.
+ */
+public class RecipeIndex {
+
+  private final IntMap<RecipeFulfillment> fulfillments;
+  private final IntMap<List<RecipePosition>> positions;
+  private final IntMap<Product> products;
+  private final IntMap<QuantityUnit> quantityUnits;
+  private final IntMap<String> searchTexts;
+
+  private RecipeIndex(
+      IntMap<RecipeFulfillment> fulfillments,
+      IntMap<List<RecipePosition>> positions,
+      IntMap<Product> products,
+      IntMap<QuantityUnit> quantityUnits,
+      IntMap<String> searchTexts
+  ) {
+    this.fulfillments = fulfillments;
+    this.positions = positions;
+    this.products = products;
+    this.quantityUnits = quantityUnits;
+    this.searchTexts = searchTexts;
+  }
+
+  public static RecipeIndex build(
+      List<Recipe> recipes,
+      List<RecipeFulfillment> recipeFulfillments,
+      List<RecipePosition> recipePositions,
+      List<Product> products,
+      List<QuantityUnit> quantityUnits
+  ) {
+    IntMap<RecipeFulfillment> fulfillments
+        = IntMap.of(recipeFulfillments, RecipeFulfillment::getRecipeId);
+    IntMap<Product> productMap = IntMap.of(products, Product::getId);
+
+    HashMap<Integer, List<RecipePosition>> positionsGrouped = new HashMap<>();
+    for (RecipePosition recipePosition : recipePositions) {
+      List<RecipePosition> positionsOfRecipe = positionsGrouped.get(recipePosition.getRecipeId());
+      if (positionsOfRecipe == null) {
+        positionsOfRecipe = new ArrayList<>();
+        positionsGrouped.put(recipePosition.getRecipeId(), positionsOfRecipe);
+      }
+      positionsOfRecipe.add(recipePosition);
+    }
+    IntMap.Builder<List<RecipePosition>> positions
+        = new IntMap.Builder<>(positionsGrouped.size());
+    for (Map.Entry<Integer, List<RecipePosition>> entry : positionsGrouped.entrySet()) {
+      positions.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+    }
+    IntMap<List<RecipePosition>> positionMap = positions.build();
+
+    IntMap.Builder<String> searchTexts = new IntMap.Builder<>(recipes.size());
+    for (Recipe recipe : recipes) {
+      StringBuilder searchText = new StringBuilder();
+      if (recipe.getName() != null) {
+        searchText.append(recipe.getName().toLowerCase());
+      }
+      RecipeFulfillment fulfillment = fulfillments.get(recipe.getId());
+      if (fulfillment != null && fulfillment.getProductNamesCommaSeparated() != null) {
+        searchText.append('\n').append(fulfillment.getProductNamesCommaSeparated().toLowerCase());
+      } else if (positionMap.containsKey(recipe.getId())) {
+        // without fulfillment from the server the names are taken from the positions
+        for (RecipePosition recipePosition : positionMap.get(recipe.getId())) {
+          Product product = productMap.get(recipePosition.getProductId());
+          if (product != null && product.getName() != null) {
+            searchText.append('\n').append(product.getName().toLowerCase());
+          }
+        }
+      }
+      searchTexts.put(recipe.getId(), searchText.toString());
+    }
+
+    return new RecipeIndex(
+        fulfillments,
+        positionMap,
+        productMap,
+        IntMap.of(quantityUnits, QuantityUnit::getId),
+        searchTexts.build()
+    );
+  }
+
+  @Nullable
+  public RecipeFulfillment getFulfillment(int recipeId) {
+    return fulfillments.get(recipeId);
+  }
+
+  /**
+   * @return fulfillments keyed by recipe id
+   */
+  public IntMap<RecipeFulfillment> getFulfillments() {
+    return fulfillments;
+  }
+
+  @NonNull
+  public List<RecipePosition> getPositions(int recipeId) {
+    List<RecipePosition> positionsOfRecipe = positions.get(recipeId);
+    return positionsOfRecipe != null ? positionsOfRecipe : Collections.emptyList();
+  }
+
+  @Nullable
+  public Product getProduct(int productId) {
+    return products.get(productId);
+  }
+
+  @Nullable
+  public QuantityUnit getQuantityUnit(int quantityUnitId) {
+    return quantityUnits.get(quantityUnitId);
+  }
+
+  public ArrayList<Product> getProductsForPositions(List<RecipePosition> recipePositions) {
+    ArrayList<Product> result = new ArrayList<>();
+    for (RecipePosition recipePosition : recipePositions) {
+      Product product = products.get(recipePosition.getProductId());
+      if (product != null) {
+        result.add(product);
+      }
+    }
+    return result;
+  }
+
+  public ArrayList<QuantityUnit> getQuantityUnitsForPositions(
+      List<RecipePosition> recipePositions
+  ) {
+    ArrayList<QuantityUnit> result = new ArrayList<>();
+    for (RecipePosition recipePosition : recipePositions) {
+      QuantityUnit quantityUnit = quantityUnits.get(recipePosition.getQuantityUnitId());
+      if (quantityUnit != null) {
+        result.add(quantityUnit);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param query has to be lowercase already
+   */
+  public boolean matchesSearch(int recipeId, String query) {
+    String searchText = searchTexts.get(recipeId);
+    return searchText != null && searchText.contains(query);
+  }
+}
@@ -0,0 +1,357 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.QueueItem;
+
+/**
+ * Shared by all DownloadHelper instances, so screens which are opened one after another don't
+ * download the same data again: identical GET requests which are still running are sent only
+ * once, the db-changed-time is cached for a few seconds and an entity sync which is already
+ * running is joined instead of started a second time.
+ * <p>
+ * Only used from the main thread, like the Volley callbacks which call it.
+ */
+public class SyncCoordinator {
+
+  private final static long DB_CHANGED_TIME_TTL_MILLIS = 5000;
+
+  private static SyncCoordinator instance;
+
+  // joinable by key, the lists also contain the ones which were invalidated
+  private final HashMap<String, InFlightRequest<?>> inFlightRequests;
+  private final ArrayList<InFlightRequest<?>> allInFlightRequests;
+  private final HashMap<String, RunningSync> runningSyncs;
+  private final ArrayList<RunningSync> allRunningSyncs;
+  private final HashMap<String, CachedTime> dbChangedTimes;
+  private int generation;
+
+  private SyncCoordinator() {
+    inFlightRequests = new HashMap<>();
+    allInFlightRequests = new ArrayList<>();
+    runningSyncs = new HashMap<>();
+    allRunningSyncs = new ArrayList<>();
+    dbChangedTimes = new HashMap<>();
+  }
+
+  public static synchronized SyncCoordinator getInstance() {
+    if (instance == null) {
+      instance = new SyncCoordinator();
+    }
+    return instance;
+  }
+
+  /**
+   * Sends the request built by the factory, or attaches the listeners to a running request with
+   * the same key. The tag of the caller is only used to detach it in {@link #cancelAll(String)},
+   * the shared request itself is cancelled when no caller is left.
+   */
+  public <T> void get(
+      RequestQueue requestQueue,
+      String key,
+      String tag,
+      Response.Listener<T> listener,
+      Response.ErrorListener errorListener,
+      @Nullable Runnable onFinished,
+      RequestFactory<T> requestFactory
+  ) {
+    @SuppressWarnings("unchecked")
+    InFlightRequest<T> inFlightRequest = (InFlightRequest<T>) inFlightRequests.get(key);
+    Waiter<T> waiter = new Waiter<>(tag, listener, errorListener, onFinished);
+    if (inFlightRequest != null) {
+      inFlightRequest.waiters.add(waiter);
+      return;
+    }
+    InFlightRequest<T> newRequest = new InFlightRequest<>();
+    newRequest.waiters.add(waiter);
+    newRequest.request = requestFactory.create(
+        response -> {
+          removeInFlightRequest(key, newRequest);
+          for (Waiter<T> w : new ArrayList<>(newRequest.waiters)) {
+            if (w.onFinished != null) {
+              w.onFinished.run();
+            }
+            w.listener.onResponse(response);
+          }
+          newRequest.waiters.clear();
+        },
+        error -> {
+          removeInFlightRequest(key, newRequest);
+          for (Waiter<T> w : new ArrayList<>(newRequest.waiters)) {
+            if (w.onFinished != null) {
+              w.onFinished.run();
+            }
+            w.errorListener.onErrorResponse(error);
+          }
+          newRequest.waiters.clear();
+        }
+    );
+    inFlightRequests.put(key, newRequest);
+    allInFlightRequests.add(newRequest);
+    requestQueue.add(newRequest.request);
+  }
+
+  private void removeInFlightRequest(String key, InFlightRequest<?> inFlightRequest) {
+    allInFlightRequests.remove(inFlightRequest);
+    if (inFlightRequests.get(key) == inFlightRequest) {
+      inFlightRequests.remove(key);
+    }
+  }
+
+  /**
+   * Detaches all callers with this tag from shared requests and entity syncs.
+   */
+  public void cancelAll(String tag) {
+    if (tag == null) {
+      return;
+    }
+    for (InFlightRequest<?> inFlightRequest : new ArrayList<>(allInFlightRequests)) {
+      for (Waiter<?> waiter : inFlightRequest.removeWaiters(tag)) {
+        if (waiter.onFinished != null) {
+          waiter.onFinished.run();
+        }
+      }
+      if (inFlightRequest.waiters.isEmpty()) {
+        allInFlightRequests.remove(inFlightRequest);
+        inFlightRequests.values().remove(inFlightRequest);
+        inFlightRequest.request.cancel();
+      }
+    }
+    for (RunningSync runningSync : new ArrayList<>(allRunningSyncs)) {
+      runningSync.onCancelled(tag);
+    }
+  }
+
+  /**
+   * Must be called before requests which change data on the server: the cached time is dropped
+   * and requests started earlier can't be joined anymore, because their response may be outdated.
+   */
+  public void invalidate() {
+    generation++;
+    dbChangedTimes.clear();
+    inFlightRequests.clear();
+    runningSyncs.clear();
+  }
+
+  @Nullable
+  public String getCachedDbChangedTime(String url) {
+    CachedTime cachedTime = dbChangedTimes.get(url);
+    if (cachedTime == null) {
+      return null;
+    }
+    if (SystemClock.elapsedRealtime() - cachedTime.timestamp > DB_CHANGED_TIME_TTL_MILLIS) {
+      dbChangedTimes.remove(url);
+      return null;
+    }
+    return cachedTime.time;
+  }
+
+  public int getGeneration() {
+    return generation;
+  }
+
+  /**
+   * The time is only cached if no data was changed since the request was started.
+   */
+  public void putDbChangedTime(String url, String time, int requestGeneration) {
+    if (requestGeneration != generation) {
+      return;
+    }
+    dbChangedTimes.put(url, new CachedTime(time, SystemClock.elapsedRealtime()));
+  }
+
+  /**
+   * Wraps the update item of an entity, so a second caller with the same db-changed-time waits
+   * for the running sync instead of downloading and writing the same rows again.
+   */
+  public QueueItem shareEntitySync(String key, QueueItem queueItem) {
+    return new QueueItem() {
+      @Override
+      public void perform(
+          @Nullable OnStringResponseListener responseListener,
+          @Nullable OnErrorListener errorListener,
+          @Nullable String uuid
+      ) {
+        SyncWaiter waiter = new SyncWaiter(uuid, queueItem, responseListener, errorListener);
+        RunningSync runningSync = runningSyncs.get(key);
+        if (runningSync != null) {
+          runningSync.waiters.add(waiter);
+          return;
+        }
+        runningSync = new RunningSync(key);
+        runningSync.waiters.add(waiter);
+        runningSyncs.put(key, runningSync);
+        allRunningSyncs.add(runningSync);
+        runningSync.start(waiter);
+      }
+    };
+  }
+
+  public interface RequestFactory<T> {
+
+    Request<?> create(Response.Listener<T> listener, Response.ErrorListener errorListener);
+  }
+
+  private static class InFlightRequest<T> {
+
+    private final ArrayList<Waiter<T>> waiters = new ArrayList<>();
+    private Request<?> request;
+
+    private ArrayList<Waiter<T>> removeWaiters(String tag) {
+      ArrayList<Waiter<T>> removed = new ArrayList<>();
+      for (Waiter<T> waiter : waiters) {
+        if (Objects.equals(tag, waiter.tag)) {
+          removed.add(waiter);
+        }
+      }
+      waiters.removeAll(removed);
+      return removed;
+    }
+  }
+
+  private static class Waiter<T> {
+
+    private final String tag;
+    private final Response.Listener<T> listener;
+    private final Response.ErrorListener errorListener;
+    private final Runnable onFinished;
+
+    private Waiter(
+        String tag,
+        Response.Listener<T> listener,
+        Response.ErrorListener errorListener,
+        @Nullable Runnable onFinished
+    ) {
+      this.tag = tag;
+      this.listener = listener;
+      this.errorListener = errorListener;
+      this.onFinished = onFinished;
+    }
+  }
+
+  private class RunningSync {
+
+    private final String key;
+    private final ArrayList<SyncWaiter> waiters = new ArrayList<>();
+    private SyncWaiter owner;
+
+    private RunningSync(String key) {
+      this.key = key;
+    }
+
+    /**
+     * Runs the update item of the given caller, so the requests are sent through its own helper.
+     */
+    private void start(SyncWaiter startedOwner) {
+      owner = startedOwner;
+      startedOwner.queueItem.perform(
+          response -> {
+            if (owner != startedOwner) {
+              return;
+            }
+            finish();
+            for (SyncWaiter waiter : waiters) {
+              if (waiter.responseListener != null) {
+                waiter.responseListener.onResponse(response);
+              }
+            }
+          },
+          error -> {
+            if (owner != startedOwner) {
+              return;
+            }
+            finish();
+            for (SyncWaiter waiter : waiters) {
+              if (waiter.errorListener != null) {
+                waiter.errorListener.onError(error);
+              }
+            }
+          },
+          startedOwner.tag
+      );
+    }
+
+    private void finish() {
+      allRunningSyncs.remove(this);
+      if (runningSyncs.get(key) == this) {
+        runningSyncs.remove(key);
+      }
+    }
+
+    private void onCancelled(String tag) {
+      ArrayList<SyncWaiter> removed = new ArrayList<>();
+      for (SyncWaiter waiter : waiters) {
+        if (Objects.equals(tag, waiter.tag)) {
+          removed.add(waiter);
+        }
+      }
+      waiters.removeAll(removed);
+      if (waiters.isEmpty()) {
+        owner = null;
+        finish();
+      } else if (removed.contains(owner)) {
+        // the helper of the cancelled caller is destroyed and its late callbacks are ignored,
+        // so the sync is started again with the item of the next remaining caller
+        start(waiters.get(0));
+      }
+    }
+  }
+
+  private static class SyncWaiter {
+
+    private final String tag;
+    private final QueueItem queueItem;
+    private final OnStringResponseListener responseListener;
+    private final OnErrorListener errorListener;
+
+    private SyncWaiter(
+        String tag,
+        QueueItem queueItem,
+        @Nullable OnStringResponseListener responseListener,
+        @Nullable OnErrorListener errorListener
+    ) {
+      this.tag = tag;
+      this.queueItem = queueItem;
+      this.responseListener = responseListener;
+      this.errorListener = errorListener;
+    }
+  }
+
+  private static class CachedTime {
+
+    private final String time;
+    private final long timestamp;
+
+    private CachedTime(String time, long timestamp) {
+      this.time = time;
+      this.timestamp = timestamp;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.content.SharedPreferences;
+import xyz.zedler.patrick.grocy.util.Constants.PREF;
+
+/**
+ * Totals of the incremental entity syncs since the last reset, kept in the preferences so the
+ * rows and bytes which were saved compared to rewriting every downloaded list can be checked
+ * without debug logging.
+ */
+public class SyncSavings {
+
+  public static synchronized void record(
+      SharedPreferences sharedPrefs,
+      DeltaSyncHelper.SyncStats stats
+  ) {
+    sharedPrefs.edit()
+        .putLong(PREF.SYNC_ROWS_TOTAL, getRowsTotal(sharedPrefs) + stats.getRowsTotal())
+        .putLong(PREF.SYNC_ROWS_SAVED, getRowsSaved(sharedPrefs) + stats.getRowsSaved())
+        .putLong(
+            PREF.SYNC_BYTES_RECEIVED,
+            getBytesReceived(sharedPrefs) + stats.getBytesReceived()
+        )
+        .putLong(PREF.SYNC_BYTES_SKIPPED, getBytesSkipped(sharedPrefs) + stats.getBytesSkipped())
+        .apply();
+  }
+
+  public static void reset(SharedPreferences.Editor editPrefs) {
+    editPrefs.remove(PREF.SYNC_ROWS_TOTAL);
+    editPrefs.remove(PREF.SYNC_ROWS_SAVED);
+    editPrefs.remove(PREF.SYNC_BYTES_RECEIVED);
+    editPrefs.remove(PREF.SYNC_BYTES_SKIPPED);
+  }
+
+  public static long getRowsTotal(SharedPreferences sharedPrefs) {
+    return sharedPrefs.getLong(PREF.SYNC_ROWS_TOTAL, 0);
+  }
+
+  // rows which were not written compared to delete-all/insert-all
+  public static long getRowsSaved(SharedPreferences sharedPrefs) {
+    return sharedPrefs.getLong(PREF.SYNC_ROWS_SAVED, 0);
+  }
+
+  public static long getBytesReceived(SharedPreferences sharedPrefs) {
+    return sharedPrefs.getLong(PREF.SYNC_BYTES_RECEIVED, 0);
+  }
+
+  // bytes of lists which were unchanged, so nothing had to be written
+  public static long getBytesSkipped(SharedPreferences sharedPrefs) {
+    return sharedPrefs.getLong(PREF.SYNC_BYTES_SKIPPED, 0);
+  }
+}
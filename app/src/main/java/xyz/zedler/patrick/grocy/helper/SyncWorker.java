@@ -0,0 +1,192 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductBarcode;
+import xyz.zedler.patrick.grocy.model.ProductGroup;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.ShoppingList;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockLocation;
+import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.Constants;
+import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.NETWORK;
+import xyz.zedler.patrick.grocy.util.Constants.SETTINGS_DEFAULT;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Runs the incremental entity sync into the database in the background, so screens opened
+ * later can show current data from the database right away. Their own sync afterwards only
+ * requests the db-changed-time if nothing has changed in between.
+ * <p>
+ * The periodic sync only runs on unmetered networks with enough battery, the one started when
+ * the app is launched or the connection is back only needs a network.
+ */
+public class SyncWorker extends Worker {
+
+  private final static String TAG = SyncWorker.class.getSimpleName();
+  private final static String WORK_NAME_PERIODIC = "sync_periodic";
+  private final static String WORK_NAME_NOW = "sync_now";
+  private final static int PERIODIC_INTERVAL_HOURS = 6;
+
+  // entities of the stock overview and the shopping list
+  private final static Class<?>[] SYNCED_TYPES = {
+      QuantityUnit.class,
+      QuantityUnitConversion.class,
+      ProductGroup.class,
+      Location.class,
+      Store.class,
+      Product.class,
+      ProductBarcode.class,
+      StockItem.class,
+      StockLocation.class,
+      VolatileItem.class,
+      MissingItem.class,
+      ShoppingList.class,
+      ShoppingListItem.class
+  };
+
+  public SyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+    super(context, params);
+  }
+
+  public static void schedulePeriodic(Context context) {
+    PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+        SyncWorker.class, PERIODIC_INTERVAL_HOURS, TimeUnit.HOURS
+    ).setConstraints(new Constraints.Builder()
+        .setRequiredNetworkType(NetworkType.UNMETERED)
+        .setRequiresBatteryNotLow(true)
+        .build()
+    ).build();
+    WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+        WORK_NAME_PERIODIC, ExistingPeriodicWorkPolicy.KEEP, request
+    );
+  }
+
+  // kept if a sync is already waiting for the network
+  public static void syncNow(Context context) {
+    OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SyncWorker.class)
+        .setConstraints(new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .build())
+        .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+        .build();
+    WorkManager.getInstance(context).enqueueUniqueWork(
+        WORK_NAME_NOW, ExistingWorkPolicy.KEEP, request
+    );
+  }
+
+  public static void cancel(Context context) {
+    WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME_PERIODIC);
+    WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME_NOW);
+  }
+
+  @NonNull
+  @Override
+  public Result doWork() {
+    SharedPreferences sharedPrefs = PreferenceManager
+        .getDefaultSharedPreferences(getApplicationContext());
+    String serverUrl = sharedPrefs.getString(Constants.PREF.SERVER_URL, null);
+    if (serverUrl == null || serverUrl.isEmpty()) {
+      return Result.success();
+    }
+    return sync(getApplicationContext(), SYNCED_TYPES) ? Result.success() : Result.retry();
+  }
+
+  /**
+   * Syncs the given entities like the screens do and blocks until they are stored in the
+   * database. Must not be called on the main thread, which sends the requests.
+   *
+   * @return false if the server couldn't be reached or the sync didn't finish in time
+   */
+  public static boolean sync(Context context, Class<?>... types) {
+    Application application = (Application) context.getApplicationContext();
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(application);
+    boolean debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+    int timeout = sharedPrefs.getInt(
+        NETWORK.LOADING_TIMEOUT, SETTINGS_DEFAULT.NETWORK.LOADING_TIMEOUT
+    );
+
+    Handler mainHandler = new Handler(Looper.getMainLooper());
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicBoolean success = new AtomicBoolean(false);
+    DownloadHelper[] dlHelper = new DownloadHelper[1];
+    mainHandler.post(() -> {
+      dlHelper[0] = new DownloadHelper(application, TAG, null);
+      dlHelper[0].updateData(
+          () -> {
+            success.set(true);
+            latch.countDown();
+          },
+          error -> {
+            if (debug) {
+              Log.e(TAG, "sync: " + error);
+            }
+            latch.countDown();
+          },
+          types
+      );
+    });
+    try {
+      // the entities depend on each other and are partly downloaded one after another
+      if (!latch.await(timeout * 4L, TimeUnit.SECONDS) && debug) {
+        Log.e(TAG, "sync: timeout");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    mainHandler.post(() -> {
+      if (dlHelper[0] != null) {
+        dlHelper[0].destroy();
+      }
+    });
+    if (debug) {
+      Log.i(TAG, "sync: finished, success=" + success.get());
+    }
+    return success.get();
+  }
+}
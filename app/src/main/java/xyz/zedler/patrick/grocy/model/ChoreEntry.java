@@ -31,6 +31,7 @@ import com.google.gson.annotations.SerializedName;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 
 @Entity(tableName = "chore_entry_table")
@@ -65,6 +66,12 @@ public class ChoreEntry implements Parcelable {
   @SerializedName("next_execution_assigned_to_user_id")
   private String nextExecutionAssignedToUserId;
 
+  @Ignore
+  private transient String nextExecutionEpochSecondSource;
+
+  @Ignore
+  private transient long nextExecutionEpochSecond;
+
   public ChoreEntry() {
   }  // for Room
 
@@ -139,6 +146,15 @@ public class ChoreEntry implements Parcelable {
     return nextEstimatedExecutionTime;
   }
 
+  public long getNextExecutionEpochSecond() {
+    if (nextExecutionEpochSecondSource == null
+        || !nextExecutionEpochSecondSource.equals(nextEstimatedExecutionTime)) {
+      nextExecutionEpochSecond = DateUtil.getEpochSecond(nextEstimatedExecutionTime);
+      nextExecutionEpochSecondSource = nextEstimatedExecutionTime;
+    }
+    return nextExecutionEpochSecond;
+  }
+
   public void setNextEstimatedExecutionTime(String nextEstimatedExecutionTime) {
     this.nextEstimatedExecutionTime = nextEstimatedExecutionTime;
   }
@@ -26,6 +26,7 @@ import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
+import java.util.Objects;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 
 @Entity(tableName = "missing_item_table")
@@ -134,4 +135,24 @@ public class MissingItem implements Parcelable {
   public String toString() {
     return "MissingItem(" + name + ')';
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    MissingItem missingItem = (MissingItem) o;
+    return id == missingItem.id &&
+        Objects.equals(name, missingItem.name) &&
+        Objects.equals(amountMissing, missingItem.amountMissing) &&
+        Objects.equals(isPartlyInStock, missingItem.isPartlyInStock);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, name, amountMissing, isPartlyInStock);
+  }
 }
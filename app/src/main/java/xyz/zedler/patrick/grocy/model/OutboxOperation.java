@@ -0,0 +1,277 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.android.volley.Request;
+import java.util.UUID;
+import org.json.JSONObject;
+
+/**
+ * A write request to the server which is stored until it could be sent. Operations with the
+ * same group key (e.g. all stock actions of one product) are replayed in the order they were
+ * queued, operations of different groups independently of each other.
+ * <p>
+ * A queued operation with the same coalesce key replaces the pending one, because only the last
+ * state matters (e.g. the done status of a shopping list item).
+ */
+@Entity(
+    tableName = "outbox_table",
+    indices = {
+        @Index(value = "idempotency_key", unique = true),
+        @Index(value = "group_key"),
+        @Index(value = "coalesce_key")
+    }
+)
+public class OutboxOperation {
+
+  public final static int STATE_PENDING = 0;
+  public final static int STATE_FAILED = 1;
+
+  @PrimaryKey(autoGenerate = true)
+  @ColumnInfo(name = "id")
+  private long id;
+
+  @NonNull
+  @ColumnInfo(name = "idempotency_key")
+  private String idempotencyKey;
+
+  @ColumnInfo(name = "method")
+  private int method;
+
+  @NonNull
+  @ColumnInfo(name = "url")
+  private String url;
+
+  @ColumnInfo(name = "body")
+  private String body;
+
+  @NonNull
+  @ColumnInfo(name = "group_key")
+  private String groupKey;
+
+  @ColumnInfo(name = "coalesce_key")
+  private String coalesceKey;
+
+  @ColumnInfo(name = "created_time")
+  private long createdTime;
+
+  @ColumnInfo(name = "attempts")
+  private int attempts;
+
+  @ColumnInfo(name = "state")
+  private int state;
+
+  @ColumnInfo(name = "last_error")
+  private String lastError;
+
+  public OutboxOperation(
+      @NonNull String idempotencyKey,
+      int method,
+      @NonNull String url,
+      String body,
+      @NonNull String groupKey,
+      String coalesceKey,
+      long createdTime
+  ) {
+    this.idempotencyKey = idempotencyKey;
+    this.method = method;
+    this.url = url;
+    this.body = body;
+    this.groupKey = groupKey;
+    this.coalesceKey = coalesceKey;
+    this.createdTime = createdTime;
+    this.state = STATE_PENDING;
+  }
+
+  @Ignore
+  public OutboxOperation(
+      int method,
+      @NonNull String url,
+      @Nullable JSONObject body,
+      @NonNull String groupKey,
+      @Nullable String coalesceKey
+  ) {
+    this(
+        UUID.randomUUID().toString(),
+        method,
+        url,
+        body != null ? body.toString() : null,
+        groupKey,
+        coalesceKey,
+        System.currentTimeMillis()
+    );
+  }
+
+  public static OutboxOperation post(String url, @Nullable JSONObject body, String groupKey) {
+    return new OutboxOperation(Request.Method.POST, url, body, groupKey, null);
+  }
+
+  public static OutboxOperation put(
+      String url,
+      JSONObject body,
+      String groupKey,
+      @Nullable String coalesceKey
+  ) {
+    return new OutboxOperation(Request.Method.PUT, url, body, groupKey, coalesceKey);
+  }
+
+  public static OutboxOperation delete(String url, String groupKey) {
+    return new OutboxOperation(Request.Method.DELETE, url, null, groupKey, null);
+  }
+
+  public final static String GROUP_PRODUCT = "product:";
+  public final static String GROUP_SHOPPING_LIST_ITEM = "shopping_list_item:";
+  public final static String GROUP_CHORE = "chore:";
+  public final static String GROUP_TASK = "task:";
+
+  public static String getProductGroupKey(int productId) {
+    return GROUP_PRODUCT + productId;
+  }
+
+  public static String getShoppingListItemGroupKey(int itemId) {
+    return GROUP_SHOPPING_LIST_ITEM + itemId;
+  }
+
+  public static String getChoreGroupKey(int choreId) {
+    return GROUP_CHORE + choreId;
+  }
+
+  public static String getTaskGroupKey(int taskId) {
+    return GROUP_TASK + taskId;
+  }
+
+  /**
+   * @return the object id of the group key with the given prefix, or -1
+   */
+  public int getGroupObjectId(String groupPrefix) {
+    if (!groupKey.startsWith(groupPrefix)) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(groupKey.substring(groupPrefix.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public void setId(long id) {
+    this.id = id;
+  }
+
+  @NonNull
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
+  public void setIdempotencyKey(@NonNull String idempotencyKey) {
+    this.idempotencyKey = idempotencyKey;
+  }
+
+  public int getMethod() {
+    return method;
+  }
+
+  public void setMethod(int method) {
+    this.method = method;
+  }
+
+  @NonNull
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(@NonNull String url) {
+    this.url = url;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  @NonNull
+  public String getGroupKey() {
+    return groupKey;
+  }
+
+  public void setGroupKey(@NonNull String groupKey) {
+    this.groupKey = groupKey;
+  }
+
+  public String getCoalesceKey() {
+    return coalesceKey;
+  }
+
+  public void setCoalesceKey(String coalesceKey) {
+    this.coalesceKey = coalesceKey;
+  }
+
+  public long getCreatedTime() {
+    return createdTime;
+  }
+
+  public void setCreatedTime(long createdTime) {
+    this.createdTime = createdTime;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public int getState() {
+    return state;
+  }
+
+  public void setState(int state) {
+    this.state = state;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "OutboxOperation(" + id + ", " + method + " " + url + ", " + groupKey + ")";
+  }
+}
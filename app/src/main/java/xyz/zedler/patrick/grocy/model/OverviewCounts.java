@@ -0,0 +1,302 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.room.ColumnInfo;
+import java.util.Objects;
+
+/**
+ * Counters of the overview start page, aggregated by SQLite in a single row so the stored items
+ * don't have to be loaded for them. The stock counters are the same as the stock overview would
+ * show with the status filters.
+ */
+public class OverviewCounts {
+
+  private final static String STOCK_COUNTS = "SELECT IFNULL(SUM(item_due), 0) AS items_due, "
+      + "IFNULL(SUM(item_overdue), 0) AS items_overdue, "
+      + "IFNULL(SUM(item_expired), 0) AS items_expired, "
+      + "IFNULL(SUM(NOT item_missing OR item_missing_partly_in_stock), 0) AS items_in_stock, "
+      + "TOTAL(CASE WHEN NOT item_missing OR item_missing_partly_in_stock "
+      + "THEN CAST(value AS REAL) END) AS stock_value "
+      + "FROM (" + StockOverviewView.STOCK_ITEMS_WITH_FLAGS + ")";
+
+  private final static String MISSING_COUNTS = "SELECT COUNT(*) AS items_missing, "
+      + "IFNULL(SUM(id IN (SELECT CAST(product_id AS INTEGER) FROM shopping_list_item_table "
+      + "WHERE product_id IS NOT NULL AND product_id != '')), 0) AS items_missing_shopping_list "
+      + "FROM missing_item_table";
+
+  private final static String TASK_COUNTS = "SELECT "
+      + "IFNULL(SUM(IFNULL(done, 0) != 1), 0) AS tasks_undone, "
+      + "IFNULL(SUM(IFNULL(done, 0) != 1 AND assigned_to_user_id = CAST(:userId AS TEXT)), 0) "
+      + "AS tasks_assigned FROM task_table";
+
+  // days like DateUtil.getDaysFromTodayWithTime (truncated), null for chores without next time
+  private final static String CHORE_DAYS = "SELECT CASE "
+      + "WHEN IFNULL(next_estimated_execution_time, '') = '' THEN NULL "
+      + "WHEN length(next_estimated_execution_time) < 19 THEN 0 "
+      + "ELSE IFNULL((CAST(strftime('%s', substr(next_estimated_execution_time, 1, 19)) "
+      + "AS INTEGER) - :todayEpochSecond) / 86400, 0) END AS days, "
+      + "next_execution_assigned_to_user_id AS assigned_to_user_id FROM chore_entry_table";
+
+  private final static String CHORE_COUNTS = "SELECT "
+      + "IFNULL(SUM(days < 0), 0) AS chores_overdue, "
+      + "IFNULL(SUM(days = 0), 0) AS chores_due_today, "
+      + "IFNULL(SUM(days >= 0 AND days <= 5), 0) AS chores_due_soon, "
+      + "IFNULL(SUM(assigned_to_user_id = CAST(:userId AS TEXT)), 0) AS chores_assigned "
+      + "FROM (" + CHORE_DAYS + ")";
+
+  public final static String QUERY = "SELECT * FROM (" + STOCK_COUNTS + "), ("
+      + MISSING_COUNTS + "), "
+      + "(SELECT COUNT(*) AS shopping_list_items FROM shopping_list_item_table), "
+      + "(SELECT COUNT(*) AS shopping_lists FROM shopping_list_table), "
+      + "(SELECT COUNT(*) AS products FROM product_table), "
+      + "(SELECT COUNT(*) AS stored_purchases FROM stored_purchase_table), "
+      + "(" + TASK_COUNTS + "), (" + CHORE_COUNTS + ")";
+
+  public final static String[] TABLES = {
+      "stock_item_table", "missing_item_table", "volatile_item_table",
+      "shopping_list_item_table", "shopping_list_table", "product_table",
+      "stored_purchase_table", "task_table", "chore_entry_table"
+  };
+
+  @ColumnInfo(name = "items_due")
+  private int itemsDue;
+
+  @ColumnInfo(name = "items_overdue")
+  private int itemsOverdue;
+
+  @ColumnInfo(name = "items_expired")
+  private int itemsExpired;
+
+  @ColumnInfo(name = "items_in_stock")
+  private int itemsInStock;
+
+  @ColumnInfo(name = "stock_value")
+  private double stockValue;
+
+  @ColumnInfo(name = "items_missing")
+  private int itemsMissing;
+
+  @ColumnInfo(name = "items_missing_shopping_list")
+  private int itemsMissingShoppingList;
+
+  @ColumnInfo(name = "shopping_list_items")
+  private int shoppingListItems;
+
+  @ColumnInfo(name = "shopping_lists")
+  private int shoppingLists;
+
+  @ColumnInfo(name = "products")
+  private int products;
+
+  @ColumnInfo(name = "stored_purchases")
+  private int storedPurchases;
+
+  @ColumnInfo(name = "tasks_undone")
+  private int tasksUndone;
+
+  @ColumnInfo(name = "tasks_assigned")
+  private int tasksAssigned;
+
+  @ColumnInfo(name = "chores_overdue")
+  private int choresOverdue;
+
+  @ColumnInfo(name = "chores_due_today")
+  private int choresDueToday;
+
+  @ColumnInfo(name = "chores_due_soon")
+  private int choresDueSoon;
+
+  @ColumnInfo(name = "chores_assigned")
+  private int choresAssigned;
+
+  public int getItemsDue() {
+    return itemsDue;
+  }
+
+  public void setItemsDue(int itemsDue) {
+    this.itemsDue = itemsDue;
+  }
+
+  public int getItemsOverdue() {
+    return itemsOverdue;
+  }
+
+  public void setItemsOverdue(int itemsOverdue) {
+    this.itemsOverdue = itemsOverdue;
+  }
+
+  public int getItemsExpired() {
+    return itemsExpired;
+  }
+
+  public void setItemsExpired(int itemsExpired) {
+    this.itemsExpired = itemsExpired;
+  }
+
+  public int getItemsInStock() {
+    return itemsInStock;
+  }
+
+  public void setItemsInStock(int itemsInStock) {
+    this.itemsInStock = itemsInStock;
+  }
+
+  public double getStockValue() {
+    return stockValue;
+  }
+
+  public void setStockValue(double stockValue) {
+    this.stockValue = stockValue;
+  }
+
+  public int getItemsMissing() {
+    return itemsMissing;
+  }
+
+  public void setItemsMissing(int itemsMissing) {
+    this.itemsMissing = itemsMissing;
+  }
+
+  public int getItemsMissingShoppingList() {
+    return itemsMissingShoppingList;
+  }
+
+  public void setItemsMissingShoppingList(int itemsMissingShoppingList) {
+    this.itemsMissingShoppingList = itemsMissingShoppingList;
+  }
+
+  public int getShoppingListItems() {
+    return shoppingListItems;
+  }
+
+  public void setShoppingListItems(int shoppingListItems) {
+    this.shoppingListItems = shoppingListItems;
+  }
+
+  public int getShoppingLists() {
+    return shoppingLists;
+  }
+
+  public void setShoppingLists(int shoppingLists) {
+    this.shoppingLists = shoppingLists;
+  }
+
+  public int getProducts() {
+    return products;
+  }
+
+  public void setProducts(int products) {
+    this.products = products;
+  }
+
+  public int getStoredPurchases() {
+    return storedPurchases;
+  }
+
+  public void setStoredPurchases(int storedPurchases) {
+    this.storedPurchases = storedPurchases;
+  }
+
+  public int getTasksUndone() {
+    return tasksUndone;
+  }
+
+  public void setTasksUndone(int tasksUndone) {
+    this.tasksUndone = tasksUndone;
+  }
+
+  public int getTasksAssigned() {
+    return tasksAssigned;
+  }
+
+  public void setTasksAssigned(int tasksAssigned) {
+    this.tasksAssigned = tasksAssigned;
+  }
+
+  public int getChoresOverdue() {
+    return choresOverdue;
+  }
+
+  public void setChoresOverdue(int choresOverdue) {
+    this.choresOverdue = choresOverdue;
+  }
+
+  public int getChoresDueToday() {
+    return choresDueToday;
+  }
+
+  public void setChoresDueToday(int choresDueToday) {
+    this.choresDueToday = choresDueToday;
+  }
+
+  public int getChoresDueSoon() {
+    return choresDueSoon;
+  }
+
+  public void setChoresDueSoon(int choresDueSoon) {
+    this.choresDueSoon = choresDueSoon;
+  }
+
+  public int getChoresAssigned() {
+    return choresAssigned;
+  }
+
+  public void setChoresAssigned(int choresAssigned) {
+    this.choresAssigned = choresAssigned;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    OverviewCounts that = (OverviewCounts) o;
+    return itemsDue == that.itemsDue
+        && itemsOverdue == that.itemsOverdue
+        && itemsExpired == that.itemsExpired
+        && itemsInStock == that.itemsInStock
+        && Double.compare(that.stockValue, stockValue) == 0
+        && itemsMissing == that.itemsMissing
+        && itemsMissingShoppingList == that.itemsMissingShoppingList
+        && shoppingListItems == that.shoppingListItems
+        && shoppingLists == that.shoppingLists
+        && products == that.products
+        && storedPurchases == that.storedPurchases
+        && tasksUndone == that.tasksUndone
+        && tasksAssigned == that.tasksAssigned
+        && choresOverdue == that.choresOverdue
+        && choresDueToday == that.choresDueToday
+        && choresDueSoon == that.choresDueSoon
+        && choresAssigned == that.choresAssigned;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        itemsDue, itemsOverdue, itemsExpired, itemsInStock, stockValue, itemsMissing,
+        itemsMissingShoppingList, shoppingListItems, shoppingLists, products, storedPurchases,
+        tasksUndone, tasksAssigned, choresOverdue, choresDueToday, choresDueSoon, choresAssigned
+    );
+  }
+}
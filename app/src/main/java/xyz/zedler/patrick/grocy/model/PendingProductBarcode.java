@@ -23,11 +23,12 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import java.util.List;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 
-@Entity(tableName = "pending_product_barcode_table")
+@Entity(tableName = "pending_product_barcode_table", indices = {@Index("barcode")})
 public class PendingProductBarcode extends ProductBarcode {
 
     @PrimaryKey(autoGenerate = true)
@@ -26,8 +26,10 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,8 +41,9 @@ import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
+import xyz.zedler.patrick.grocy.web.LenientNumberAdapterFactory;
 
-@Entity(tableName = "product_table")
+@Entity(tableName = "product_table", indices = {@Index("location_id")})
 public class Product extends GroupedListItem implements Parcelable {
 
   @PrimaryKey
@@ -74,19 +77,23 @@ public class Product extends GroupedListItem implements Parcelable {
 
   @ColumnInfo(name = "qu_id_purchase")
   @SerializedName("qu_id_purchase")
-  private String quIdPurchase; // quantity unit
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private int quIdPurchase = -1; // quantity unit
 
   @ColumnInfo(name = "qu_id_stock")
   @SerializedName("qu_id_stock")
-  private String quIdStock; // quantity unit
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private int quIdStock = -1; // quantity unit
 
   @ColumnInfo(name = "qu_factor_purchase_to_stock")
   @SerializedName("qu_factor_purchase_to_stock")
-  private String quFactorPurchaseToStock; // quantity unit
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private double quFactorPurchaseToStock = 1; // quantity unit
 
   @ColumnInfo(name = "min_stock_amount")
   @SerializedName("min_stock_amount")
-  private String minStockAmount;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private double minStockAmount;
 
   @ColumnInfo(name = "default_best_before_days")
   @SerializedName("default_best_before_days")
@@ -197,17 +204,16 @@ public class Product extends GroupedListItem implements Parcelable {
       locationId = "1";
     }
     storeId = null;
-    minStockAmount = String.valueOf(0);
+    minStockAmount = 0;
     accumulateSubProductsMinStockAmount = "0";
     treatOpenedAsOutOfStock = presetTreatOpened ? "1" : "0";
     dueDateType = "1";
     defaultDueDays = String.valueOf(presetDefaultDueDays);
     defaultDueDaysAfterOpen = "0";
     productGroupId = presetProductGroupId == -1 ? null : String.valueOf(presetProductGroupId);
-    String presetQuIdStr = presetQuId == -1 ? null : String.valueOf(presetQuId);
-    quIdStock = presetQuIdStr;
-    quIdPurchase = presetQuIdStr;
-    quFactorPurchaseToStock = "1";
+    quIdStock = presetQuId;
+    quIdPurchase = presetQuId;
+    quFactorPurchaseToStock = 1;
     enableTareWeightHandling = "0";
     tareWeight = "0";
     notCheckStockFulfillmentForRecipes = "0";
@@ -229,10 +235,10 @@ public class Product extends GroupedListItem implements Parcelable {
     active = parcel.readString();
     locationId = parcel.readString();
     storeId = parcel.readString();
-    quIdPurchase = parcel.readString();
-    quIdStock = parcel.readString();
-    quFactorPurchaseToStock = parcel.readString();
-    minStockAmount = parcel.readString();
+    quIdPurchase = parcel.readInt();
+    quIdStock = parcel.readInt();
+    quFactorPurchaseToStock = parcel.readDouble();
+    minStockAmount = parcel.readDouble();
     defaultDueDays = parcel.readString();
     defaultDueDaysAfterOpen = parcel.readString();
     defaultDueDaysAfterFreezing = parcel.readString();
@@ -261,10 +267,10 @@ public class Product extends GroupedListItem implements Parcelable {
     dest.writeString(active);
     dest.writeString(locationId);
     dest.writeString(storeId);
-    dest.writeString(quIdPurchase);
-    dest.writeString(quIdStock);
-    dest.writeString(quFactorPurchaseToStock);
-    dest.writeString(minStockAmount);
+    dest.writeInt(quIdPurchase);
+    dest.writeInt(quIdStock);
+    dest.writeDouble(quFactorPurchaseToStock);
+    dest.writeDouble(minStockAmount);
     dest.writeString(defaultDueDays);
     dest.writeString(defaultDueDaysAfterOpen);
     dest.writeString(defaultDueDaysAfterFreezing);
@@ -365,64 +371,64 @@ public class Product extends GroupedListItem implements Parcelable {
     this.storeId = storeId;
   }
 
-  public String getQuIdPurchase() {
+  public int getQuIdPurchase() {
     return quIdPurchase;
   }
 
   public int getQuIdPurchaseInt() {
-    return NumUtil.isStringInt(quIdPurchase) ? Integer.parseInt(quIdPurchase) : -1;
-  }
-
-  public void setQuIdPurchase(String quIdPurchase) {
-    this.quIdPurchase = quIdPurchase;
+    return quIdPurchase;
   }
 
   public void setQuIdPurchase(int quIdPurchase) {
-    this.quIdPurchase = String.valueOf(quIdPurchase);
+    this.quIdPurchase = quIdPurchase;
   }
 
   public int getQuIdStockInt() {
-    return NumUtil.isStringInt(quIdStock) ? Integer.parseInt(quIdStock) : -1;
-  }
-
-  public String getQuIdStock() {
     return quIdStock;
   }
 
-  public void setQuIdStock(String quIdStock) {
-    this.quIdStock = quIdStock;
+  public int getQuIdStock() {
+    return quIdStock;
   }
 
   public void setQuIdStock(int quIdStock) {
-    this.quIdStock = String.valueOf(quIdStock);
+    this.quIdStock = quIdStock;
   }
 
   public double getQuFactorPurchaseToStockDouble() {
-    return NumUtil.isStringDouble(quFactorPurchaseToStock)
-        ? Double.parseDouble(quFactorPurchaseToStock)
-        : 1;
+    return quFactorPurchaseToStock;
   }
 
-  public String getQuFactorPurchaseToStock() {
+  public double getQuFactorPurchaseToStock() {
     return quFactorPurchaseToStock;
   }
 
-  public void setQuFactorPurchaseToStock(String quFactorPurchaseToStock) {
+  public void setQuFactorPurchaseToStock(double quFactorPurchaseToStock) {
     this.quFactorPurchaseToStock = quFactorPurchaseToStock;
   }
 
-  public String getMinStockAmount() {
+  public void setQuFactorPurchaseToStock(String quFactorPurchaseToStock) {
+    this.quFactorPurchaseToStock = NumUtil.isStringDouble(quFactorPurchaseToStock)
+        ? NumUtil.toDouble(quFactorPurchaseToStock) : 1;
+  }
+
+  public double getMinStockAmount() {
     return minStockAmount;
   }
 
   public double getMinStockAmountDouble() {
-    return NumUtil.isStringDouble(minStockAmount) ? Double.parseDouble(minStockAmount) : 0;
+    return minStockAmount;
   }
 
-  public void setMinStockAmount(String minStockAmount) {
+  public void setMinStockAmount(double minStockAmount) {
     this.minStockAmount = minStockAmount;
   }
 
+  public void setMinStockAmount(String minStockAmount) {
+    this.minStockAmount = NumUtil.isStringDouble(minStockAmount)
+        ? NumUtil.toDouble(minStockAmount) : 0;
+  }
+
   public String getDefaultDueDays() {
     return defaultDueDays;
   }
@@ -690,8 +696,8 @@ public class Product extends GroupedListItem implements Parcelable {
       json.put("active", product.active);
       json.put("location_id", product.locationId);
       json.put("shopping_location_id", storeId);
-      json.put("qu_id_purchase", product.quIdPurchase);
-      json.put("qu_id_stock", product.quIdStock);
+      json.put("qu_id_purchase", product.quIdPurchase != -1 ? product.quIdPurchase : null);
+      json.put("qu_id_stock", product.quIdStock != -1 ? product.quIdStock : null);
       json.put("qu_factor_purchase_to_stock", product.quFactorPurchaseToStock);
       json.put("min_stock_amount", product.minStockAmount);
       json.put("default_best_before_days", defaultDueDays);
@@ -811,9 +817,9 @@ public class Product extends GroupedListItem implements Parcelable {
         .equals(active, product.active) && Objects.equals(locationId, product.locationId)
         && Objects.equals(storeId, product.storeId) && Objects
         .equals(quIdPurchase, product.quIdPurchase) && Objects
-        .equals(quIdStock, product.quIdStock) && Objects
-        .equals(quFactorPurchaseToStock, product.quFactorPurchaseToStock) && Objects
-        .equals(minStockAmount, product.minStockAmount) && Objects
+        .equals(quIdStock, product.quIdStock) && Double
+        .compare(quFactorPurchaseToStock, product.quFactorPurchaseToStock) == 0 && Double
+        .compare(minStockAmount, product.minStockAmount) == 0 && Objects
         .equals(defaultDueDays, product.defaultDueDays) && Objects
         .equals(defaultDueDaysAfterOpen, product.defaultDueDaysAfterOpen) && Objects
         .equals(defaultDueDaysAfterFreezing, product.defaultDueDaysAfterFreezing) && Objects
@@ -25,6 +25,7 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
@@ -34,7 +35,10 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 
-@Entity(tableName = "product_barcode_table")
+@Entity(
+    tableName = "product_barcode_table",
+    indices = {@Index("product_id"), @Index("barcode")}
+)
 public class ProductBarcode implements Parcelable {
 
   @PrimaryKey
@@ -26,6 +26,7 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 
@@ -38,7 +39,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-@Entity(tableName = "recipe_pos_table")
+@Entity(
+    tableName = "recipe_pos_table",
+    indices = {@Index("recipe_id"), @Index("product_id")}
+)
 public class RecipePosition implements Parcelable {
 
   @PrimaryKey
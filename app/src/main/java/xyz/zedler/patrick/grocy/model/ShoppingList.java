@@ -27,6 +27,7 @@ import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import java.util.List;
+import java.util.Objects;
 
 @Entity(tableName = "shopping_list_table")
 public class ShoppingList implements Parcelable {
@@ -111,4 +112,23 @@ public class ShoppingList implements Parcelable {
   public String toString() {
     return "ShoppingListEntity{id=" + id + ", name='" + name + "', notes='" + notes + "'}";
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ShoppingList shoppingList = (ShoppingList) o;
+    return id == shoppingList.id &&
+        Objects.equals(name, shoppingList.name) &&
+        Objects.equals(notes, shoppingList.notes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, name, notes);
+  }
 }
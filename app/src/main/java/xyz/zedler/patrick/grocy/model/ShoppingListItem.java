@@ -25,14 +25,20 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.web.LenientNumberAdapterFactory;
 
-@Entity(tableName = "shopping_list_item_table")
+@Entity(
+    tableName = "shopping_list_item_table",
+    indices = {@Index("shopping_list_id"), @Index("product_id")}
+)
 public class ShoppingListItem extends GroupedListItem implements Parcelable {
 
   @PrimaryKey
@@ -46,11 +52,13 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
 
   @ColumnInfo(name = "amount")
   @SerializedName("amount")
-  private String amount;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private double amount;
 
   @ColumnInfo(name = "shopping_list_id")
   @SerializedName("shopping_list_id")
-  private String shoppingListId;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private int shoppingListId = 1;
 
   @ColumnInfo(name = "qu_id")
   @SerializedName("qu_id")
@@ -58,7 +66,8 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
 
   @ColumnInfo(name = "done")
   @SerializedName("done")
-  private String done;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private int done;
 
   @ColumnInfo(name = "done_synced")
   private int doneSynced = -1;  // state of param "done" on server during time of last sync
@@ -79,10 +88,10 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
       int id,
       String productId,
       String note,
-      String amount,
-      String shoppingListId,
+      double amount,
+      int shoppingListId,
       String quId,
-      String done,
+      int done,
       int doneSynced
   ) {
     this.id = id;
@@ -99,10 +108,10 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
     id = parcel.readInt();
     productId = parcel.readString();
     note = parcel.readString();
-    amount = parcel.readString();
-    shoppingListId = parcel.readString();
+    amount = parcel.readDouble();
+    shoppingListId = parcel.readInt();
     quId = parcel.readString();
-    done = parcel.readString();
+    done = parcel.readInt();
     doneSynced = parcel.readInt();
   }
 
@@ -111,10 +120,10 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
     dest.writeInt(id);
     dest.writeString(productId);
     dest.writeString(note);
-    dest.writeString(amount);
-    dest.writeString(shoppingListId);
+    dest.writeDouble(amount);
+    dest.writeInt(shoppingListId);
     dest.writeString(quId);
-    dest.writeString(done);
+    dest.writeInt(done);
     dest.writeInt(doneSynced);
   }
 
@@ -165,56 +174,48 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
     this.note = note;               // but are required by Room
   }
 
-  public String getAmount() {
+  public double getAmount() {
     return amount;
   }
 
   public double getAmountDouble() {
-    return NumUtil.isStringDouble(amount) ? Double.parseDouble(amount) : 0;
+    return amount;
   }
 
-  public void setAmount(String amount) {
+  public void setAmount(double amount) {
     this.amount = amount;
   }
 
   public void setAmountDouble(double amount) {
-    this.amount = NumUtil.trim(amount);
+    this.amount = amount;
   }
 
-  public String getShoppingListId() {
+  public int getShoppingListId() {
     return shoppingListId;
   }
 
   public int getShoppingListIdInt() {
-    return NumUtil.isStringInt(shoppingListId) ? Integer.parseInt(shoppingListId) : 1;
-  }
-
-  public void setShoppingListId(String shoppingListId) {
-    this.shoppingListId = shoppingListId;
+    return shoppingListId;
   }
 
   public void setShoppingListId(int shoppingListId) {
-    this.shoppingListId = String.valueOf(shoppingListId);
+    this.shoppingListId = shoppingListId;
   }
 
-  public String getDone() {
+  public int getDone() {
     return done;
   }
 
   public int getDoneInt() {
-    return NumUtil.isStringInt(done) ? Integer.parseInt(done) : 0;
+    return done;
   }
 
   public boolean isUndone() {
     return getDoneInt() != 1;
   }
 
-  public void setDone(String done) {
-    this.done = done;
-  }
-
   public void setDone(int done) {
-    this.done = String.valueOf(done);
+    this.done = done;
   }
 
   public int getDoneSynced() {
@@ -270,10 +271,10 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
     return id == that.id &&
         doneSynced == that.doneSynced &&
         Objects.equals(note, that.note) &&
-        Objects.equals(amount, that.amount) &&
-        Objects.equals(shoppingListId, that.shoppingListId) &&
+        Double.compare(amount, that.amount) == 0 &&
+        shoppingListId == that.shoppingListId &&
         Objects.equals(quId, that.quId) &&
-        Objects.equals(done, that.done) &&
+        done == that.done &&
         Objects.equals(productId, that.productId) &&
         Objects.equals(rowCreatedTimestamp, that.rowCreatedTimestamp);
   }
@@ -24,14 +24,19 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import java.util.ArrayList;
 import java.util.Objects;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 
-@Entity(tableName = "stock_entry_table")
+@Entity(
+    tableName = "stock_entry_table",
+    indices = {@Index("product_id"), @Index("location_id")}
+)
 public class StockEntry extends GroupedListItem implements Parcelable {
 
   @PrimaryKey
@@ -87,6 +92,18 @@ public class StockEntry extends GroupedListItem implements Parcelable {
   @SerializedName("note")
   private String note;
 
+  @Ignore
+  private transient String bestBeforeEpochDaySource;
+
+  @ColumnInfo(name = "best_before_epoch_day")
+  private transient int bestBeforeEpochDay;
+
+  @Ignore
+  private transient String purchasedEpochDaySource;
+
+  @ColumnInfo(name = "purchased_epoch_day")
+  private transient int purchasedEpochDay;
+
   public StockEntry() {
   }
 
@@ -96,6 +113,22 @@ public class StockEntry extends GroupedListItem implements Parcelable {
     this.stockId = stockId;
   }
 
+  public StockEntry getClone() {
+    StockEntry clone = new StockEntry(id, stockId);
+    clone.productId = productId;
+    clone.amount = amount;
+    clone.bestBeforeDate = bestBeforeDate;
+    clone.purchasedDate = purchasedDate;
+    clone.price = price;
+    clone.open = open;
+    clone.openedDate = openedDate;
+    clone.rowCreatedTimestamp = rowCreatedTimestamp;
+    clone.locationId = locationId;
+    clone.shoppingLocationId = shoppingLocationId;
+    clone.note = note;
+    return clone;
+  }
+
   private StockEntry(Parcel parcel) {
     id = parcel.readInt();
     productId = parcel.readInt();
@@ -170,6 +203,19 @@ public class StockEntry extends GroupedListItem implements Parcelable {
     return bestBeforeDate;
   }
 
+  public int getBestBeforeEpochDay() {
+    if (bestBeforeEpochDaySource == null || !bestBeforeEpochDaySource.equals(bestBeforeDate)) {
+      bestBeforeEpochDay = DateUtil.getEpochDay(bestBeforeDate);
+      bestBeforeEpochDaySource = bestBeforeDate;
+    }
+    return bestBeforeEpochDay;
+  }
+
+  public void setBestBeforeEpochDay(int bestBeforeEpochDay) {
+    this.bestBeforeEpochDay = bestBeforeEpochDay;
+    this.bestBeforeEpochDaySource = bestBeforeDate;
+  }
+
   public void setBestBeforeDate(String bestBeforeDate) {
     this.bestBeforeDate = bestBeforeDate;
   }
@@ -178,6 +224,19 @@ public class StockEntry extends GroupedListItem implements Parcelable {
     return purchasedDate;
   }
 
+  public int getPurchasedEpochDay() {
+    if (purchasedEpochDaySource == null || !purchasedEpochDaySource.equals(purchasedDate)) {
+      purchasedEpochDay = DateUtil.getEpochDay(purchasedDate);
+      purchasedEpochDaySource = purchasedDate;
+    }
+    return purchasedEpochDay;
+  }
+
+  public void setPurchasedEpochDay(int purchasedEpochDay) {
+    this.purchasedEpochDay = purchasedEpochDay;
+    this.purchasedEpochDaySource = purchasedDate;
+  }
+
   public void setPurchasedDate(String purchasedDate) {
     this.purchasedDate = purchasedDate;
   }
@@ -22,13 +22,18 @@ package xyz.zedler.patrick.grocy.model;
 import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
+import java.util.List;
 import java.util.Objects;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.web.LenientNumberAdapterFactory;
 
 @Entity(tableName = "stock_item_table")
 public class StockItem extends GroupedListItem implements Parcelable {
@@ -38,11 +43,13 @@ public class StockItem extends GroupedListItem implements Parcelable {
 
   @ColumnInfo(name = "amount")
   @SerializedName("amount")
-  private String amount;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private double amount;
 
   @ColumnInfo(name = "amount_aggregated")
   @SerializedName("amount_aggregated")
-  private String amountAggregated;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private double amountAggregated;
 
   @ColumnInfo(name = "value")
   @SerializedName("value")
@@ -54,19 +61,23 @@ public class StockItem extends GroupedListItem implements Parcelable {
 
   @ColumnInfo(name = "amount_opened")
   @SerializedName("amount_opened")
-  private String amountOpened;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private double amountOpened;
 
   @ColumnInfo(name = "amount_opened_aggregated")
   @SerializedName("amount_opened_aggregated")
-  private String amountOpenedAggregated;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private double amountOpenedAggregated;
 
   @ColumnInfo(name = "is_aggregated_amount")
   @SerializedName("is_aggregated_amount")
-  private String isAggregatedAmount;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private int isAggregatedAmount;
 
   @ColumnInfo(name = "due_type")
   @SerializedName("due_type")
-  private String dueType;
+  @JsonAdapter(LenientNumberAdapterFactory.class)
+  private int dueType = DUE_TYPE_BEST_BEFORE;
 
   @PrimaryKey
   @ColumnInfo(name = "product_id")
@@ -92,6 +103,13 @@ public class StockItem extends GroupedListItem implements Parcelable {
   @ColumnInfo(name = "item_missing_partly_in_stock")
   private boolean itemMissingAndPartlyInStock = false;
 
+  @Ignore
+  private transient String bestBeforeEpochDaySource;
+
+  // stored with the row so loaded items skip the date parsing, transient keeps it out of JSON
+  @ColumnInfo(name = "best_before_epoch_day")
+  private transient int bestBeforeEpochDay;
+
   public StockItem() {
   }
 
@@ -104,42 +122,104 @@ public class StockItem extends GroupedListItem implements Parcelable {
 
   @Ignore
   public StockItem(ProductDetails productDetails) {
-    this.amount = String.valueOf(productDetails.getStockAmount());
-    this.amountAggregated = String.valueOf(productDetails.getStockAmountAggregated());
+    this.amount = productDetails.getStockAmount();
+    this.amountAggregated = productDetails.getStockAmountAggregated();
     this.value = productDetails.getStockValue();
     this.bestBeforeDate = productDetails.getNextDueDate();
-    this.amountOpened = String.valueOf(productDetails.getStockAmountOpened());
-    this.amountOpenedAggregated = String.valueOf(productDetails.getStockAmountOpenedAggregated());
-    this.isAggregatedAmount = productDetails.getIsAggregatedAmount();
-    this.dueType = productDetails.getProduct().getDueDateType();
+    this.amountOpened = productDetails.getStockAmountOpened();
+    this.amountOpenedAggregated = productDetails.getStockAmountOpenedAggregated();
+    this.isAggregatedAmount = productDetails.getIsAggregatedAmountBoolean() ? 1 : 0;
+    this.dueType = productDetails.getProduct().getDueDateTypeInt();
     this.productId = productDetails.getProduct().getId();
     this.product = productDetails.getProduct();
   }
 
+  public StockItem getClone() {
+    StockItem clone = new StockItem();
+    clone.amount = amount;
+    clone.amountAggregated = amountAggregated;
+    clone.value = value;
+    clone.bestBeforeDate = bestBeforeDate;
+    clone.amountOpened = amountOpened;
+    clone.amountOpenedAggregated = amountOpenedAggregated;
+    clone.isAggregatedAmount = isAggregatedAmount;
+    clone.dueType = dueType;
+    clone.productId = productId;
+    clone.product = product;
+    clone.itemDue = itemDue;
+    clone.itemOverdue = itemOverdue;
+    clone.itemExpired = itemExpired;
+    clone.itemMissing = itemMissing;
+    clone.itemMissingAndPartlyInStock = itemMissingAndPartlyInStock;
+    return clone;
+  }
+
+  /**
+   * Estimates the stock after a consume action, until the stock of the product is reloaded.
+   * The value decreases in proportion to the amount.
+   *
+   * @param consumedOpenedAmount part of the consumed amount which was opened
+   */
+  public void applyConsumed(double consumedAmount, double consumedOpenedAmount) {
+    double oldAmount = amount;
+    amount = Math.max(0, amount - consumedAmount);
+    amountAggregated = Math.max(0, amountAggregated - consumedAmount);
+    amountOpened = Math.min(amount, Math.max(0, amountOpened - consumedOpenedAmount));
+    amountOpenedAggregated = Math.min(
+        amountAggregated,
+        Math.max(0, amountOpenedAggregated - consumedOpenedAmount)
+    );
+    if (oldAmount > 0 && NumUtil.isStringDouble(value)) {
+      value = String.valueOf(getValueDouble() * amount / oldAmount);
+    }
+  }
+
+  /**
+   * Applies the amount of a consume request like the server. With tare weight handling, the
+   * amount is the gross weight which remains, e.g. the tare weight to consume everything.
+   */
+  public void applyConsumeRequest(double requestedAmount, @Nullable Product product) {
+    double consumedAmount = requestedAmount;
+    if (product != null && product.getEnableTareWeightHandlingBoolean()) {
+      consumedAmount = Math.max(0, amount + product.getTareWeightDouble() - requestedAmount);
+    }
+    applyConsumed(consumedAmount, Math.min(consumedAmount, amountOpened));
+  }
+
+  public void applyOpened(double openedAmount) {
+    amountOpened = Math.min(amount, amountOpened + openedAmount);
+    amountOpenedAggregated = Math.min(amountAggregated, amountOpenedAggregated + openedAmount);
+  }
+
+  // without stock, the item is only shown if the product is missing
+  public boolean hasStock() {
+    return amount > 0 || amountAggregated > 0;
+  }
+
   @Ignore
   private StockItem(Parcel parcel) {
-    amount = parcel.readString();
-    amountAggregated = parcel.readString();
+    amount = parcel.readDouble();
+    amountAggregated = parcel.readDouble();
     value = parcel.readString();
     bestBeforeDate = parcel.readString();
-    amountOpened = parcel.readString();
-    amountOpenedAggregated = parcel.readString();
-    isAggregatedAmount = parcel.readString();
-    dueType = parcel.readString();
+    amountOpened = parcel.readDouble();
+    amountOpenedAggregated = parcel.readDouble();
+    isAggregatedAmount = parcel.readInt();
+    dueType = parcel.readInt();
     productId = parcel.readInt();
     product = parcel.readParcelable(Product.class.getClassLoader());
   }
 
   @Override
   public void writeToParcel(Parcel dest, int flags) {
-    dest.writeString(amount);
-    dest.writeString(amountAggregated);
+    dest.writeDouble(amount);
+    dest.writeDouble(amountAggregated);
     dest.writeString(value);
     dest.writeString(bestBeforeDate);
-    dest.writeString(amountOpened);
-    dest.writeString(amountOpenedAggregated);
-    dest.writeString(isAggregatedAmount);
-    dest.writeString(dueType);
+    dest.writeDouble(amountOpened);
+    dest.writeDouble(amountOpenedAggregated);
+    dest.writeInt(isAggregatedAmount);
+    dest.writeInt(dueType);
     dest.writeInt(productId);
     dest.writeParcelable(product, 0);
   }
@@ -158,11 +238,7 @@ public class StockItem extends GroupedListItem implements Parcelable {
   };
 
   public double getAmountAggregatedDouble() {
-    if (amountAggregated == null || amountAggregated.isEmpty()) {
-      return 0;
-    } else {
-      return Double.parseDouble(amountAggregated);
-    }
+    return amountAggregated;
   }
 
   public String getValue() {
@@ -177,20 +253,30 @@ public class StockItem extends GroupedListItem implements Parcelable {
     return bestBeforeDate;
   }
 
-  public double getAmountOpenedAggregatedDouble() {
-    if (amountOpenedAggregated == null || amountOpenedAggregated.isEmpty()) {
-      return 0;
-    } else {
-      return Double.parseDouble(amountOpenedAggregated);
+  public int getBestBeforeEpochDay() {
+    if (bestBeforeEpochDaySource == null || !bestBeforeEpochDaySource.equals(bestBeforeDate)) {
+      bestBeforeEpochDay = DateUtil.getEpochDay(bestBeforeDate);
+      bestBeforeEpochDaySource = bestBeforeDate;
     }
+    return bestBeforeEpochDay;
+  }
+
+  // for Room, the stored value belongs to the date read from the same row
+  public void setBestBeforeEpochDay(int bestBeforeEpochDay) {
+    this.bestBeforeEpochDay = bestBeforeEpochDay;
+    this.bestBeforeEpochDaySource = bestBeforeDate;
   }
 
-  public String getIsAggregatedAmount() {
+  public double getAmountOpenedAggregatedDouble() {
+    return amountOpenedAggregated;
+  }
+
+  public int getIsAggregatedAmount() {
     return isAggregatedAmount;
   }
 
   public int getIsAggregatedAmountInt() {
-    return NumUtil.isStringInt(isAggregatedAmount) ? Integer.parseInt(isAggregatedAmount) : 0;
+    return isAggregatedAmount;
   }
 
   public int getProductId() {
@@ -202,26 +288,18 @@ public class StockItem extends GroupedListItem implements Parcelable {
   }
 
   public double getAmountDouble() {
-    if (amount == null || amount.isEmpty()) {
-      return 0;
-    } else {
-      return Double.parseDouble(amount);
-    }
+    return amount;
   }
 
   public double getAmountOpenedDouble() {
-    if (amountOpened == null || amountOpened.isEmpty()) {
-      return 0;
-    } else {
-      return Double.parseDouble(amountOpened);
-    }
+    return amountOpened;
   }
 
-  public void setAmount(String amount) {
+  public void setAmount(double amount) {
     this.amount = amount;
   }
 
-  public void setAmountAggregated(String amountAggregated) {
+  public void setAmountAggregated(double amountAggregated) {
     this.amountAggregated = amountAggregated;
   }
 
@@ -233,43 +311,43 @@ public class StockItem extends GroupedListItem implements Parcelable {
     this.bestBeforeDate = bestBeforeDate;
   }
 
-  public void setAmountOpened(String amountOpened) {
+  public void setAmountOpened(double amountOpened) {
     this.amountOpened = amountOpened;
   }
 
-  public void setAmountOpenedAggregated(String amountOpenedAggregated) {
+  public void setAmountOpenedAggregated(double amountOpenedAggregated) {
     this.amountOpenedAggregated = amountOpenedAggregated;
   }
 
-  public void setIsAggregatedAmount(String isAggregatedAmount) {
+  public void setIsAggregatedAmount(int isAggregatedAmount) {
     this.isAggregatedAmount = isAggregatedAmount;
   }
 
-  public String getAmount() {
+  public double getAmount() {
     return amount;
   }
 
-  public String getAmountAggregated() {
+  public double getAmountAggregated() {
     return amountAggregated;
   }
 
-  public String getAmountOpened() {
+  public double getAmountOpened() {
     return amountOpened;
   }
 
-  public String getAmountOpenedAggregated() {
+  public double getAmountOpenedAggregated() {
     return amountOpenedAggregated;
   }
 
-  public String getDueType() {
+  public int getDueType() {
     return dueType;
   }
 
   public int getDueTypeInt() {
-    return NumUtil.isStringInt(dueType) ? Integer.parseInt(dueType) : 1;
+    return dueType;
   }
 
-  public void setDueType(String dueType) {
+  public void setDueType(int dueType) {
     this.dueType = dueType;
   }
 
@@ -340,18 +418,51 @@ public class StockItem extends GroupedListItem implements Parcelable {
         itemExpired == stockItem.itemExpired &&
         itemMissing == stockItem.itemMissing &&
         itemMissingAndPartlyInStock == stockItem.itemMissingAndPartlyInStock &&
-        Objects.equals(amount, stockItem.amount) &&
-        Objects.equals(amountAggregated, stockItem.amountAggregated) &&
+        Double.compare(stockItem.amount, amount) == 0 &&
+        Double.compare(stockItem.amountAggregated, amountAggregated) == 0 &&
         Objects.equals(value, stockItem.value) &&
         Objects.equals(bestBeforeDate, stockItem.bestBeforeDate) &&
-        Objects.equals(amountOpened, stockItem.amountOpened) &&
-        Objects.equals(amountOpenedAggregated, stockItem.amountOpenedAggregated) &&
-        Objects.equals(isAggregatedAmount, stockItem.isAggregatedAmount) &&
-        Objects.equals(dueType, stockItem.dueType) &&
-        Objects.equals(productId, stockItem.productId) &&
+        Double.compare(stockItem.amountOpened, amountOpened) == 0 &&
+        Double.compare(stockItem.amountOpenedAggregated, amountOpenedAggregated) == 0 &&
+        isAggregatedAmount == stockItem.isAggregatedAmount &&
+        dueType == stockItem.dueType &&
+        productId == stockItem.productId &&
         Objects.equals(product, stockItem.product);
   }
 
+  // compares only the stored columns, the product object is not part of the table
+  public boolean hasSameStockValues(StockItem stockItem) {
+    return productId == stockItem.productId &&
+        Double.compare(stockItem.amount, amount) == 0 &&
+        Double.compare(stockItem.amountAggregated, amountAggregated) == 0 &&
+        Objects.equals(value, stockItem.value) &&
+        Objects.equals(bestBeforeDate, stockItem.bestBeforeDate) &&
+        Double.compare(stockItem.amountOpened, amountOpened) == 0 &&
+        Double.compare(stockItem.amountOpenedAggregated, amountOpenedAggregated) == 0 &&
+        isAggregatedAmount == stockItem.isAggregatedAmount &&
+        dueType == stockItem.dueType;
+  }
+
+  // like equals, but without the product, which is set on the loaded items afterwards
+  public static boolean hasSameValues(List<StockItem> stockItems, List<StockItem> others) {
+    if (stockItems.size() != others.size()) {
+      return false;
+    }
+    for (int i = 0; i < stockItems.size(); i++) {
+      StockItem stockItem = stockItems.get(i);
+      StockItem other = others.get(i);
+      if (!stockItem.hasSameStockValues(other)
+          || stockItem.itemDue != other.itemDue
+          || stockItem.itemOverdue != other.itemOverdue
+          || stockItem.itemExpired != other.itemExpired
+          || stockItem.itemMissing != other.itemMissing
+          || stockItem.itemMissingAndPartlyInStock != other.itemMissingAndPartlyInStock) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public int hashCode() {
     return Objects
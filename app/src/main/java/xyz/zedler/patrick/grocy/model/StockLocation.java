@@ -24,12 +24,13 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import java.util.List;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 
-@Entity(tableName = "stock_current_location_table")
+@Entity(tableName = "stock_current_location_table", indices = {@Index("location_id")})
 public class StockLocation implements Parcelable {
 
   @ColumnInfo(name = "id")
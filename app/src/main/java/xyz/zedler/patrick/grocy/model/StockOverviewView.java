@@ -0,0 +1,175 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.DatabaseView;
+import xyz.zedler.patrick.grocy.util.DateUtil;
+
+/**
+ * One row per entry of the stock overview: all stock items plus the missing products which
+ * are not in stock at all, with the status flags of the volatile and missing tables joined in.
+ */
+@DatabaseView(viewName = StockOverviewView.VIEW_NAME, value = StockOverviewView.QUERY)
+public class StockOverviewView {
+
+  public final static String VIEW_NAME = "stock_overview_view";
+
+  public final static String STOCK_ITEM_COLUMNS = "s.amount AS amount, "
+      + "s.amount_aggregated AS amount_aggregated, s.value AS value, "
+      + "s.best_before_date AS best_before_date, s.amount_opened AS amount_opened, "
+      + "s.amount_opened_aggregated AS amount_opened_aggregated, "
+      + "s.is_aggregated_amount AS is_aggregated_amount, s.due_type AS due_type, "
+      + "s.product_id AS product_id, s.best_before_epoch_day AS best_before_epoch_day";
+
+  // same values as VolatileItem.TYPE_DUE, TYPE_OVERDUE and TYPE_EXPIRED
+  public final static String STOCK_ITEM_FLAGS = "EXISTS (SELECT 1 FROM volatile_item_table v "
+      + "WHERE v.product_id = s.product_id AND v.volatile_type = 1) AS item_due, "
+      + "EXISTS (SELECT 1 FROM volatile_item_table v "
+      + "WHERE v.product_id = s.product_id AND v.volatile_type = 2) AS item_overdue, "
+      + "EXISTS (SELECT 1 FROM volatile_item_table v "
+      + "WHERE v.product_id = s.product_id AND v.volatile_type = 3) AS item_expired, "
+      + "m.id IS NOT NULL AS item_missing, "
+      + "IFNULL(m.is_partly_in_stock = '1', 0) AS item_missing_partly_in_stock";
+
+  public final static String STOCK_ITEMS_WITH_FLAGS = "SELECT " + STOCK_ITEM_COLUMNS + ", "
+      + STOCK_ITEM_FLAGS + " FROM stock_item_table s "
+      + "LEFT JOIN missing_item_table m ON m.id = s.product_id";
+
+  // missing products which are partly in stock but have no stock item are not shown
+  public final static String MISSING_ITEMS_NOT_IN_STOCK = "SELECT 0 AS amount, "
+      + "0 AS amount_aggregated, NULL AS value, NULL AS best_before_date, "
+      + "0 AS amount_opened, 0 AS amount_opened_aggregated, 0 AS is_aggregated_amount, "
+      + "1 AS due_type, m.id AS product_id, "
+      + DateUtil.NO_EPOCH_DAY + " AS best_before_epoch_day, 0 AS item_due, 0 AS item_overdue, "
+      + "0 AS item_expired, 1 AS item_missing, 0 AS item_missing_partly_in_stock "
+      + "FROM missing_item_table m "
+      + "WHERE m.id NOT IN (SELECT product_id FROM stock_item_table) "
+      + "AND IFNULL(m.is_partly_in_stock, '0') != '1'";
+
+  public final static String QUERY = "SELECT o.product_id AS product_id, "
+      + "o.amount_opened AS amount_opened, o.item_due AS item_due, "
+      + "o.item_overdue AS item_overdue, o.item_expired AS item_expired, "
+      + "o.item_missing AS item_missing, "
+      + "o.item_missing_partly_in_stock AS item_missing_partly_in_stock, "
+      + "p.product_group_id AS product_group_id, "
+      + "p.hide_on_stock_overview AS hide_on_stock_overview "
+      + "FROM (" + STOCK_ITEMS_WITH_FLAGS + " UNION ALL " + MISSING_ITEMS_NOT_IN_STOCK + ") o "
+      + "LEFT JOIN product_table p ON p.id = o.product_id";
+
+  @ColumnInfo(name = "product_id")
+  private int productId;
+
+  @ColumnInfo(name = "amount_opened")
+  private double amountOpened;
+
+  @ColumnInfo(name = "item_due")
+  private boolean itemDue;
+
+  @ColumnInfo(name = "item_overdue")
+  private boolean itemOverdue;
+
+  @ColumnInfo(name = "item_expired")
+  private boolean itemExpired;
+
+  @ColumnInfo(name = "item_missing")
+  private boolean itemMissing;
+
+  @ColumnInfo(name = "item_missing_partly_in_stock")
+  private boolean itemMissingPartlyInStock;
+
+  @ColumnInfo(name = "product_group_id")
+  private String productGroupId;
+
+  @ColumnInfo(name = "hide_on_stock_overview")
+  private String hideOnStockOverview;
+
+  public int getProductId() {
+    return productId;
+  }
+
+  public void setProductId(int productId) {
+    this.productId = productId;
+  }
+
+  public double getAmountOpened() {
+    return amountOpened;
+  }
+
+  public void setAmountOpened(double amountOpened) {
+    this.amountOpened = amountOpened;
+  }
+
+  public boolean isItemDue() {
+    return itemDue;
+  }
+
+  public void setItemDue(boolean itemDue) {
+    this.itemDue = itemDue;
+  }
+
+  public boolean isItemOverdue() {
+    return itemOverdue;
+  }
+
+  public void setItemOverdue(boolean itemOverdue) {
+    this.itemOverdue = itemOverdue;
+  }
+
+  public boolean isItemExpired() {
+    return itemExpired;
+  }
+
+  public void setItemExpired(boolean itemExpired) {
+    this.itemExpired = itemExpired;
+  }
+
+  public boolean isItemMissing() {
+    return itemMissing;
+  }
+
+  public void setItemMissing(boolean itemMissing) {
+    this.itemMissing = itemMissing;
+  }
+
+  public boolean isItemMissingPartlyInStock() {
+    return itemMissingPartlyInStock;
+  }
+
+  public void setItemMissingPartlyInStock(boolean itemMissingPartlyInStock) {
+    this.itemMissingPartlyInStock = itemMissingPartlyInStock;
+  }
+
+  public String getProductGroupId() {
+    return productGroupId;
+  }
+
+  public void setProductGroupId(String productGroupId) {
+    this.productGroupId = productGroupId;
+  }
+
+  public String getHideOnStockOverview() {
+    return hideOnStockOverview;
+  }
+
+  public void setHideOnStockOverview(String hideOnStockOverview) {
+    this.hideOnStockOverview = hideOnStockOverview;
+  }
+}
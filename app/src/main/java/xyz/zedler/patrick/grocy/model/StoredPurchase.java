@@ -24,6 +24,7 @@ import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import java.util.List;
+import java.util.Objects;
 
 @Entity(tableName = "stored_purchase_table")
 public class StoredPurchase extends GroupedListItem {
@@ -134,4 +135,30 @@ public class StoredPurchase extends GroupedListItem {
     public String toString() {
         return "StoredPurchase(" + pendingProductId + ')';
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        StoredPurchase storedPurchase = (StoredPurchase) o;
+        return id == storedPurchase.id &&
+                pendingProductId == storedPurchase.pendingProductId &&
+                Objects.equals(amount, storedPurchase.amount) &&
+                Objects.equals(price, storedPurchase.price) &&
+                Objects.equals(purchasedDate, storedPurchase.purchasedDate) &&
+                Objects.equals(bestBeforeDate, storedPurchase.bestBeforeDate) &&
+                Objects.equals(storeId, storedPurchase.storeId) &&
+                Objects.equals(locationId, storedPurchase.locationId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            id, pendingProductId, amount, price, purchasedDate, bestBeforeDate, storeId, locationId
+        );
+    }
 }
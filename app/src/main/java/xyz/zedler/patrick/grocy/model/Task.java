@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 
 @Entity(tableName = "task_table")
@@ -71,6 +72,12 @@ public class Task implements Parcelable {
   @SerializedName("assigned_to_user_id")
   private String assignedToUserId;
 
+  @Ignore
+  private transient String dueEpochDaySource;
+
+  @ColumnInfo(name = "due_epoch_day")
+  private transient int dueEpochDay;
+
   public Task() {
   }  // for Room
 
@@ -139,6 +146,19 @@ public class Task implements Parcelable {
     return dueDate;
   }
 
+  public int getDueEpochDay() {
+    if (dueEpochDaySource == null || !dueEpochDaySource.equals(dueDate)) {
+      dueEpochDay = DateUtil.getEpochDay(dueDate);
+      dueEpochDaySource = dueDate;
+    }
+    return dueEpochDay;
+  }
+
+  public void setDueEpochDay(int dueEpochDay) {
+    this.dueEpochDay = dueEpochDay;
+    this.dueEpochDaySource = dueDate;
+  }
+
   public void setDueDate(String dueDate) {
     this.dueDate = dueDate;
   }
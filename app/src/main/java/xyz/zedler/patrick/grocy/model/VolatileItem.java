@@ -24,10 +24,12 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
+import java.util.Objects;
 
-@Entity(tableName = "volatile_item_table")
+@Entity(tableName = "volatile_item_table", indices = {@Index("product_id")})
 public class VolatileItem implements Parcelable {
 
   public final static int TYPE_DUE = 1;
@@ -115,4 +117,23 @@ public class VolatileItem implements Parcelable {
   public String toString() {
     return "VolatileItem(" + id + ", " + volatileType + ')';
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    VolatileItem volatileItem = (VolatileItem) o;
+    return id == volatileItem.id &&
+        productId == volatileItem.productId &&
+        volatileType == volatileItem.volatileType;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, productId, volatileType);
+  }
 }
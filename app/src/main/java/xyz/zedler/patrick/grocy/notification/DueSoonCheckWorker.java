@@ -19,146 +19,117 @@
 
 package xyz.zedler.patrick.grocy.notification;
 
-import android.annotation.SuppressLint;
-import android.app.PendingIntent;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
 import android.content.Context;
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.drawable.Drawable;
+import android.content.SharedPreferences;
 import android.net.Uri;
+import android.os.Build;
 import androidx.annotation.NonNull;
-import androidx.core.app.NotificationCompat;
-import androidx.core.app.NotificationManagerCompat;
-import androidx.core.content.ContextCompat;
 import androidx.preference.PreferenceManager;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
-import com.android.volley.toolbox.RequestFuture;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import org.json.JSONException;
-import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.fragment.StockOverviewFragmentArgs;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.BaseBottomSheet;
-import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.SyncWorker;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockStatus;
-import xyz.zedler.patrick.grocy.model.StockItem;
-import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.NETWORK;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.NOTIFICATIONS;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.util.ReminderUtil;
 
+/**
+ * Shows the due soon notification with the number of due products stored by the sync. The
+ * volatile items are synced first if the server is reachable, otherwise the last synced ones
+ * are used.
+ */
 public class DueSoonCheckWorker extends Worker {
 
-  private final static String TAG = DueSoonCheckWorker.class.getSimpleName();
+  private final static String WORK_NAME = "due_soon_check";
 
   public DueSoonCheckWorker(@NonNull Context context, @NonNull WorkerParameters params) {
     super(context, params);
   }
 
+  public static void enqueue(Context context) {
+    WorkManager.getInstance(context).enqueueUniqueWork(
+        WORK_NAME,
+        ExistingWorkPolicy.REPLACE,
+        OneTimeWorkRequest.from(DueSoonCheckWorker.class)
+    );
+  }
+
   @NonNull
   @Override
   public Result doWork() {
-
-    DownloadHelper dlHelper = new DownloadHelper(getApplicationContext(), TAG);
-    int timeout = PreferenceManager.getDefaultSharedPreferences(getApplicationContext())
-        .getInt(NETWORK.LOADING_TIMEOUT, SETTINGS_DEFAULT.NETWORK.LOADING_TIMEOUT);
-
-    RequestFuture<String> future = RequestFuture.newFuture();
-    dlHelper.getVolatile(future, future);
-
-    try {
-      String response = future.get(timeout, TimeUnit.SECONDS); // this will block
-
-      Type typeStockItem = new TypeToken<List<StockItem>>() {
-      }.getType();
-      JSONObject jsonObject = new JSONObject(response);
-      ArrayList<StockItem> dueItems = (new Gson()).fromJson(
-          jsonObject.getJSONArray("due_products").toString(), typeStockItem
-      );
-
-      if (dueItems.size() == 0) return Result.success();
-
-      Bitmap bitmap = getBitmapFromVectorDrawable(getApplicationContext(), R.drawable.ic_round_grocy);
-
-      Uri uri = BaseBottomSheet.getUriWithArgs(
-          getApplicationContext().getString(R.string.deep_link_stockOverviewFragment),
-          new StockOverviewFragmentArgs.Builder()
-              .setStatusFilterId(String.valueOf(FilterChipLiveDataStockStatus.STATUS_DUE_SOON))
-              .build().toBundle()
-      );
-      Intent intent = new Intent(Intent.ACTION_VIEW, uri);
-      intent.setClass(getApplicationContext(), MainActivity.class);
-      intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-      @SuppressLint("UnspecifiedImmutableFlag") PendingIntent pendingIntent = PendingIntent
-          .getActivity(getApplicationContext(), 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
-
-      String days = PreferenceManager.getDefaultSharedPreferences(getApplicationContext()).getString(
-          STOCK.DUE_SOON_DAYS,
-          SETTINGS_DEFAULT.STOCK.DUE_SOON_DAYS
-      );
-      int daysInt;
-      if (NumUtil.isStringInt(days)) {
-        daysInt = Integer.parseInt(days);
-      } else {
-        daysInt = Integer.parseInt(SETTINGS_DEFAULT.STOCK.DUE_SOON_DAYS);
-      }
-      String titleText = getApplicationContext().getResources().getQuantityString(
-          R.plurals.description_overview_stock_due_soon,
-          dueItems.size(), dueItems.size(), daysInt
-      );
-
-      NotificationCompat.Builder builder = new NotificationCompat
-          .Builder(getApplicationContext(), "xyz.zedler.patrick.grocy.due_soon")
-          .setSmallIcon(R.drawable.ic_round_grocy)
-          .setContentTitle(titleText)
-          .setContentText(getApplicationContext().getString(R.string.notification_due_soon_content))
-          .setLargeIcon(bitmap)
-          .setContentIntent(pendingIntent)
-          .setAutoCancel(true)
-          .setPriority(NotificationCompat.PRIORITY_HIGH);
-
-      NotificationManagerCompat notificationManager = NotificationManagerCompat
-          .from(getApplicationContext());
-
-      int lastId = 1;
-      notificationManager.notify(lastId+1, builder.build());
-
-      dlHelper.destroy();
+    Context context = getApplicationContext();
+    SyncWorker.sync(context, VolatileItem.class);
+    int dueCount = AppDatabase.getAppDatabase(context).volatileItemDao()
+        .countVolatileItemsNow(VolatileItem.TYPE_DUE);
+    if (dueCount == 0) {
       return Result.success();
-    } catch (InterruptedException | TimeoutException | ExecutionException | JSONException e) {
-      e.printStackTrace();
-      // exception handling
-      dlHelper.destroy();
-      return Result.failure();
     }
-  }
 
-  public static Bitmap getBitmapFromVectorDrawable(Context context, int drawableId) {
-    Drawable drawable = ContextCompat.getDrawable(context, drawableId);
-    if (drawable == null) return null;
-    Bitmap bitmap = Bitmap.createBitmap(drawable.getIntrinsicWidth(),
-        drawable.getIntrinsicHeight(), Bitmap.Config.ARGB_8888);
-    Canvas canvas = new Canvas(bitmap);
-    drawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
-    drawable.draw(canvas);
+    NotificationManager notificationManager = (NotificationManager) context.getSystemService(
+        Context.NOTIFICATION_SERVICE
+    );
+    if (notificationManager == null) {
+      return Result.success();
+    }
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+      CharSequence name = context.getString(R.string.notification_channel_due_soon);
+      String description = context.getString(R.string.notification_channel_due_soon_description);
+      int importance = NotificationManager.IMPORTANCE_HIGH;
+      NotificationChannel channel = new NotificationChannel(
+          NOTIFICATIONS.DUE_SOON_CHANNEL, name, importance
+      );
+      channel.setDescription(description);
+      notificationManager.createNotificationChannel(channel);
+    }
 
-    return Bitmap.createScaledBitmap(
-            bitmap,
-            context.getResources()
-                .getDimensionPixelSize(android.R.dimen.notification_large_icon_width),
-            context.getResources()
-                .getDimensionPixelSize(android.R.dimen.notification_large_icon_height),
-            true
-        );
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    String days = sharedPrefs.getString(
+        STOCK.DUE_SOON_DAYS,
+        SETTINGS_DEFAULT.STOCK.DUE_SOON_DAYS
+    );
+    int daysInt;
+    if (NumUtil.isStringInt(days)) {
+      daysInt = Integer.parseInt(days);
+    } else {
+      daysInt = Integer.parseInt(SETTINGS_DEFAULT.STOCK.DUE_SOON_DAYS);
+    }
+    String titleText = context.getResources().getQuantityString(
+        R.plurals.description_overview_stock_due_soon,
+        dueCount, dueCount, daysInt
+    );
+
+    Uri uri = BaseBottomSheet.getUriWithArgs(
+        context.getString(R.string.deep_link_stockOverviewFragment),
+        new StockOverviewFragmentArgs.Builder()
+            .setStatusFilterId(String.valueOf(FilterChipLiveDataStockStatus.STATUS_DUE_SOON))
+            .build().toBundle()
+    );
+    Intent notificationIntent = new Intent(Intent.ACTION_VIEW, uri);
+    notificationIntent.setClass(context, MainActivity.class);
+    notificationIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+
+    notificationManager.notify(NOTIFICATIONS.DUE_SOON_ID, ReminderUtil.getNotification(
+        context,
+        titleText,
+        context.getString(R.string.notification_due_soon_content),
+        NOTIFICATIONS.DUE_SOON_ID,
+        NOTIFICATIONS.DUE_SOON_CHANNEL,
+        notificationIntent
+    ));
+    return Result.success();
   }
 }
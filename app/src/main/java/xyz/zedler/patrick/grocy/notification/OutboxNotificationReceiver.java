@@ -0,0 +1,130 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.notification;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+import androidx.core.app.NotificationCompat;
+import androidx.core.content.ContextCompat;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import xyz.zedler.patrick.grocy.R;
+import xyz.zedler.patrick.grocy.dao.OutboxDao;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.helper.OutboxWorker;
+import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.NOTIFICATIONS;
+
+/**
+ * Handles the actions of the notification about outbox operations which couldn't be sent.
+ * Retrying queues them again, discarding deletes them.
+ */
+public class OutboxNotificationReceiver extends BroadcastReceiver {
+
+  private final static String ACTION_RETRY = "xyz.zedler.patrick.grocy.outbox.RETRY";
+  private final static String ACTION_DISCARD = "xyz.zedler.patrick.grocy.outbox.DISCARD";
+
+  @Override
+  public void onReceive(Context context, Intent intent) {
+    String action = intent.getAction();
+    if (!ACTION_RETRY.equals(action) && !ACTION_DISCARD.equals(action)) {
+      return;
+    }
+    NotificationManager notificationManager = (NotificationManager) context.getSystemService(
+        Context.NOTIFICATION_SERVICE
+    );
+    if (notificationManager != null) {
+      notificationManager.cancel(NOTIFICATIONS.OUTBOX_FAILED_ID);
+    }
+    OutboxDao outboxDao = AppDatabase.getAppDatabase(context).outboxDao();
+    PendingResult pendingResult = goAsync();
+    Completable.fromAction(() -> {
+      if (ACTION_RETRY.equals(action)) {
+        outboxDao.resetFailedOperationsNow();
+        OutboxWorker.schedule(context);
+      } else {
+        outboxDao.deleteFailedOperationsNow();
+      }
+    })
+        .subscribeOn(Schedulers.io())
+        .doFinally(pendingResult::finish)
+        .subscribe(() -> {}, throwable -> {});
+  }
+
+  public static void showFailedNotification(Context context, int failedCount) {
+    NotificationManager notificationManager = (NotificationManager) context.getSystemService(
+        Context.NOTIFICATION_SERVICE
+    );
+    if (notificationManager == null) {
+      return;
+    }
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+      NotificationChannel channel = new NotificationChannel(
+          NOTIFICATIONS.OUTBOX_FAILED_CHANNEL,
+          context.getString(R.string.notification_channel_outbox_failed),
+          NotificationManager.IMPORTANCE_DEFAULT
+      );
+      channel.setDescription(
+          context.getString(R.string.notification_channel_outbox_failed_description)
+      );
+      notificationManager.createNotificationChannel(channel);
+    }
+
+    String text = context.getString(R.string.notification_outbox_failed_content);
+    NotificationCompat.Builder builder = new NotificationCompat.Builder(
+        context,
+        NOTIFICATIONS.OUTBOX_FAILED_CHANNEL
+    )
+        .setContentTitle(context.getResources().getQuantityString(
+            R.plurals.notification_outbox_failed_title, failedCount, failedCount
+        ))
+        .setContentText(text)
+        .setStyle(new NotificationCompat.BigTextStyle().bigText(text))
+        .setColor(ContextCompat.getColor(context, R.color.retro_green_bg_black))
+        .setSmallIcon(R.drawable.ic_round_grocy_notification)
+        .addAction(0, context.getString(R.string.action_retry), getActionIntent(
+            context, ACTION_RETRY
+        ))
+        .addAction(0, context.getString(R.string.action_discard), getActionIntent(
+            context, ACTION_DISCARD
+        ))
+        .setPriority(NotificationCompat.PRIORITY_DEFAULT);
+    notificationManager.notify(NOTIFICATIONS.OUTBOX_FAILED_ID, builder.build());
+  }
+
+  private static PendingIntent getActionIntent(Context context, String action) {
+    Intent intent = new Intent(context, OutboxNotificationReceiver.class);
+    intent.setAction(action);
+    return PendingIntent.getBroadcast(
+        context,
+        NOTIFICATIONS.OUTBOX_FAILED_ID,
+        intent,
+        VERSION.SDK_INT >= VERSION_CODES.M
+            ? PendingIntent.FLAG_IMMUTABLE
+            : PendingIntent.FLAG_UPDATE_CURRENT
+    );
+  }
+}
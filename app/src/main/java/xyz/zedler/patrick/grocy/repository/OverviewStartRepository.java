@@ -20,20 +20,13 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
-import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
-import io.reactivex.rxjava3.schedulers.Schedulers;
-import java.util.List;
+import io.reactivex.rxjava3.disposables.Disposable;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
-import xyz.zedler.patrick.grocy.model.ChoreEntry;
-import xyz.zedler.patrick.grocy.model.MissingItem;
-import xyz.zedler.patrick.grocy.model.Product;
-import xyz.zedler.patrick.grocy.model.ShoppingList;
-import xyz.zedler.patrick.grocy.model.ShoppingListItem;
-import xyz.zedler.patrick.grocy.model.StockItem;
-import xyz.zedler.patrick.grocy.model.StoredPurchase;
-import xyz.zedler.patrick.grocy.model.Task;
-import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.model.OverviewCounts;
+import xyz.zedler.patrick.grocy.util.DateUtil;
+import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class OverviewStartRepository {
 
@@ -44,97 +37,22 @@ public class OverviewStartRepository {
   }
 
   public interface DataListener {
-    void actionFinished(OverviewStartData data);
+    void actionFinished(OverviewCounts counts);
   }
 
-  public static class OverviewStartData {
-
-    private final List<StockItem> stockItems;
-    private final List<ShoppingListItem> shoppingListItems;
-    private final List<ShoppingList> shoppingLists;
-    private final List<Product> products;
-    private final List<StoredPurchase> storedPurchases;
-    private final List<ChoreEntry> choreEntries;
-    private final List<Task> tasks;
-    private final List<VolatileItem> volatileItems;
-    private final List<MissingItem> missingItems;
-
-    public OverviewStartData(
-        List<StockItem> stockItems,
-        List<ShoppingListItem> shoppingListItems,
-        List<ShoppingList> shoppingLists,
-        List<Product> products,
-        List<StoredPurchase> storedPurchases,
-        List<ChoreEntry> choreEntries,
-        List<Task> tasks,
-        List<VolatileItem> volatileItems,
-        List<MissingItem> missingItems
-    ) {
-      this.stockItems = stockItems;
-      this.shoppingListItems = shoppingListItems;
-      this.shoppingLists = shoppingLists;
-      this.products = products;
-      this.storedPurchases = storedPurchases;
-      this.choreEntries = choreEntries;
-      this.tasks = tasks;
-      this.volatileItems = volatileItems;
-      this.missingItems = missingItems;
-    }
-
-    public List<StockItem> getStockItems() {
-      return stockItems;
-    }
-
-    public List<ShoppingListItem> getShoppingListItems() {
-      return shoppingListItems;
-    }
-
-    public List<ShoppingList> getShoppingLists() {
-      return shoppingLists;
-    }
-
-    public List<Product> getProducts() {
-      return products;
-    }
-
-    public List<StoredPurchase> getStoredPurchases() {
-      return storedPurchases;
-    }
-
-    public List<ChoreEntry> getChoreEntries() {
-      return choreEntries;
-    }
-
-    public List<Task> getTasks() {
-      return tasks;
-    }
-
-    public List<VolatileItem> getVolatileItems() {
-      return volatileItems;
-    }
-
-    public List<MissingItem> getMissingItems() {
-      return missingItems;
-    }
-  }
-
-  public void loadFromDatabase(DataListener listener) {
-    Single
-        .zip(
-            appDatabase.stockItemDao().getStockItems(),
-            appDatabase.shoppingListItemDao().getShoppingListItems(),
-            appDatabase.shoppingListDao().getShoppingLists(),
-            appDatabase.productDao().getProducts(),
-            appDatabase.storedPurchaseDao().getStoredPurchases(),
-            appDatabase.choreEntryDao().getChoreEntries(),
-            appDatabase.taskDao().getTasks(),
-            appDatabase.volatileItemDao().getVolatileItems(),
-            appDatabase.missingItemDao().getMissingItems(),
-            OverviewStartData::new
-        )
-        .subscribeOn(Schedulers.io())
-        .observeOn(AndroidSchedulers.mainThread())
-        .doOnSuccess(listener::actionFinished)
-        .subscribe();
+  /**
+   * Delivers the counters now and after every change of the counted tables. They are aggregated
+   * by SQLite, so no stored items are loaded, and only delivered again if they have changed.
+   */
+  public Disposable observeDatabase(int currentUserId, DataListener listener) {
+    // deferred, so chores are always counted relative to the current day
+    Flowable<OverviewCounts> counts = RxJavaUtil.observeQuery(
+        appDatabase,
+        Single.defer(() -> appDatabase.overviewCountsDao().getOverviewCounts(
+            DateUtil.getTodayEpochDay() * 86400L, currentUserId
+        )),
+        OverviewCounts.TABLES
+    );
+    return RxJavaUtil.debounceUpdates(counts).subscribe(listener::actionFinished);
   }
 }
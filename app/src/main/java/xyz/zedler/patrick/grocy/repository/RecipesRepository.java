@@ -25,6 +25,8 @@ import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.helper.RecipeFulfillmentEngine;
+import xyz.zedler.patrick.grocy.helper.RecipeIndex;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.Recipe;
@@ -51,6 +53,7 @@ public class RecipesRepository {
     private final List<RecipePosition> recipePositions;
     private final List<Product> products;
     private final List<QuantityUnit> quantityUnits;
+    private final RecipeIndex recipeIndex;
 
     public RecipesData(List<Recipe> recipes,
                        List<RecipeFulfillment> recipeFulfillments,
@@ -62,6 +65,10 @@ public class RecipesRepository {
       this.recipePositions = recipePositions;
       this.products = products;
       this.quantityUnits = quantityUnits;
+      // built together with the data off the main thread
+      this.recipeIndex = RecipeIndex.build(
+          recipes, recipeFulfillments, recipePositions, products, quantityUnits
+      );
     }
 
     public List<Recipe> getRecipes() {
@@ -83,8 +90,16 @@ public class RecipesRepository {
     public List<QuantityUnit> getQuantityUnits() {
       return quantityUnits;
     }
+
+    public RecipeIndex getRecipeIndex() {
+      return recipeIndex;
+    }
   }
 
+  /**
+   * The fulfillments are computed from the stored stock and shopping list, the ones downloaded
+   * from the server only provide the due scores.
+   */
   public void loadFromDatabase(RecipesDataListener listener) {
     Single
         .zip(
@@ -93,7 +108,20 @@ public class RecipesRepository {
             appDatabase.recipePositionDao().getRecipePositions(),
             appDatabase.productDao().getProducts(),
             appDatabase.quantityUnitDao().getQuantityUnits(),
-            RecipesData::new
+            appDatabase.quantityUnitConversionDao().getConversions(),
+            appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
+            appDatabase.stockItemDao().getStockItems(),
+            appDatabase.shoppingListItemDao().getShoppingListItems(),
+            (recipes, fulfillments, positions, products, quantityUnits, conversions,
+                productsLastPurchased, stockItems, shoppingListItems) -> new RecipesData(
+                recipes,
+                RecipeFulfillmentEngine.getInstance().update(recipes, positions, products,
+                    conversions, productsLastPurchased, fulfillments, stockItems,
+                    shoppingListItems),
+                positions,
+                products,
+                quantityUnits
+            )
         )
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
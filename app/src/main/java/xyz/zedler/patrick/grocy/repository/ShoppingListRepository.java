@@ -22,10 +22,14 @@ package xyz.zedler.patrick.grocy.repository;
 import android.app.Application;
 import androidx.lifecycle.LiveData;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.helper.EntityStore;
+import xyz.zedler.patrick.grocy.helper.EntityStore.Snapshot;
 import xyz.zedler.patrick.grocy.model.MissingItem;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
@@ -35,13 +39,16 @@ import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class ShoppingListRepository {
 
   private final AppDatabase appDatabase;
+  private final EntityStore entityStore;
 
   public ShoppingListRepository(Application application) {
     this.appDatabase = AppDatabase.getAppDatabase(application);
+    this.entityStore = EntityStore.getInstance(application);
   }
 
   public interface DataListener {
@@ -140,6 +147,116 @@ public class ShoppingListRepository {
         .subscribe();
   }
 
+  public interface EntitiesListener {
+
+    void actionFinished(ShoppingListEntities entities);
+  }
+
+  public static class ShoppingListEntities {
+
+    private final Snapshot<ShoppingListItem> shoppingListItems;
+    private final Snapshot<ShoppingList> shoppingLists;
+    private final Snapshot<ProductGroup> productGroups;
+    private final Snapshot<QuantityUnit> quantityUnits;
+    private final Snapshot<QuantityUnitConversion> unitConversions;
+    private final Snapshot<Product> products;
+    private final Snapshot<ProductLastPurchased> productsLastPurchased;
+    private final Snapshot<Store> stores;
+    private final Snapshot<MissingItem> missingItems;
+
+    public ShoppingListEntities(
+        Snapshot<ShoppingListItem> shoppingListItems,
+        Snapshot<ShoppingList> shoppingLists,
+        Snapshot<ProductGroup> productGroups,
+        Snapshot<QuantityUnit> quantityUnits,
+        Snapshot<QuantityUnitConversion> unitConversions,
+        Snapshot<Product> products,
+        Snapshot<ProductLastPurchased> productsLastPurchased,
+        Snapshot<Store> stores,
+        Snapshot<MissingItem> missingItems
+    ) {
+      this.shoppingListItems = shoppingListItems;
+      this.shoppingLists = shoppingLists;
+      this.productGroups = productGroups;
+      this.quantityUnits = quantityUnits;
+      this.unitConversions = unitConversions;
+      this.products = products;
+      this.productsLastPurchased = productsLastPurchased;
+      this.stores = stores;
+      this.missingItems = missingItems;
+    }
+
+    public Snapshot<ShoppingListItem> getShoppingListItems() {
+      return shoppingListItems;
+    }
+
+    public Snapshot<ShoppingList> getShoppingLists() {
+      return shoppingLists;
+    }
+
+    public Snapshot<ProductGroup> getProductGroups() {
+      return productGroups;
+    }
+
+    public Snapshot<QuantityUnit> getQuantityUnits() {
+      return quantityUnits;
+    }
+
+    public Snapshot<QuantityUnitConversion> getUnitConversions() {
+      return unitConversions;
+    }
+
+    public Snapshot<Product> getProducts() {
+      return products;
+    }
+
+    public Snapshot<ProductLastPurchased> getProductsLastPurchased() {
+      return productsLastPurchased;
+    }
+
+    public Snapshot<Store> getStores() {
+      return stores;
+    }
+
+    public Snapshot<MissingItem> getMissingItems() {
+      return missingItems;
+    }
+  }
+
+  /**
+   * Delivers the shared snapshots of the entity store now and after every change of the tables.
+   * The returned disposable has to be disposed when the screen is gone.
+   */
+  public Disposable observeDatabase(EntitiesListener listener) {
+    Flowable<ShoppingListEntities> entities = Flowable.combineLatest(
+        entityStore.getShoppingListItems(),
+        entityStore.getShoppingLists(),
+        entityStore.getProductGroups(),
+        entityStore.getQuantityUnits(),
+        entityStore.getUnitConversions(),
+        entityStore.getProducts(),
+        entityStore.getProductsLastPurchased(),
+        entityStore.getStores(),
+        entityStore.getMissingItems(),
+        ShoppingListEntities::new
+    );
+    return RxJavaUtil.debounceUpdates(entities).subscribe(listener::actionFinished);
+  }
+
+  // the change is delivered by observeDatabase()
+  public void insertShoppingListItems(ShoppingListItem... shoppingListItems) {
+    appDatabase.shoppingListItemDao().insertShoppingListItems(shoppingListItems)
+        .subscribeOn(Schedulers.io())
+        .subscribe();
+  }
+
+  // the change is delivered by observeDatabase()
+  public void deleteShoppingListItem(int itemId) {
+    appDatabase.shoppingListItemDao().deleteShoppingListItem(itemId)
+        .subscribeOn(Schedulers.io())
+        .subscribe();
+  }
+
   public void insertShoppingListItems(
       Runnable onFinished,
       ShoppingListItem... shoppingListItems
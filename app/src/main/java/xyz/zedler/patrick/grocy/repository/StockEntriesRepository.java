@@ -21,8 +21,10 @@ package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.Collections;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.model.Location;
@@ -30,6 +32,7 @@ import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.StockEntry;
+import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Store;
 
 public class StockEntriesRepository {
@@ -110,4 +113,51 @@ public class StockEntriesRepository {
         .doOnSuccess(listener::actionFinished)
         .subscribe();
   }
+
+  /**
+   * Removes the consumed entry and estimates the stock of the product, until it is reloaded.
+   */
+  public void consumeStockEntry(StockEntry stockEntry) {
+    double openedAmount = stockEntry.getOpen() == 1 ? stockEntry.getAmount() : 0;
+    updateStock(
+        () -> appDatabase.stockEntryDao().deleteStockEntryNow(stockEntry.getId()),
+        stockEntry.getProductId(),
+        stockItem -> stockItem.applyConsumed(stockEntry.getAmount(), openedAmount)
+    );
+  }
+
+  /**
+   * Stores the entry marked as opened and estimates the stock of the product, until it is
+   * reloaded.
+   */
+  public void openStockEntry(StockEntry openedStockEntry) {
+    updateStock(
+        () -> appDatabase.stockEntryDao()
+            .insertStockEntriesNow(Collections.singletonList(openedStockEntry)),
+        openedStockEntry.getProductId(),
+        stockItem -> stockItem.applyOpened(openedStockEntry.getAmount())
+    );
+  }
+
+  private void updateStock(Runnable updateEntries, int productId, StockItemChange change) {
+    Completable.fromAction(() -> appDatabase.runInTransaction(() -> {
+      updateEntries.run();
+      StockItem stockItem = appDatabase.stockItemDao().getStockItemNow(productId);
+      if (stockItem == null) {
+        return;
+      }
+      change.apply(stockItem);
+      if (stockItem.hasStock()) {
+        appDatabase.stockItemDao().insertStockItemNow(stockItem);
+      } else {
+        appDatabase.stockItemDao().deleteStockItemNow(productId);
+      }
+    }))
+        .subscribeOn(Schedulers.io())
+        .subscribe();
+  }
+
+  private interface StockItemChange {
+    void apply(StockItem stockItem);
+  }
 }
@@ -20,7 +20,11 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import androidx.room.rxjava3.RxRoom;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
@@ -34,8 +38,6 @@ import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
-import xyz.zedler.patrick.grocy.model.StockLocation;
-import xyz.zedler.patrick.grocy.model.VolatileItem;
 import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class StockOverviewRepository {
@@ -50,6 +52,10 @@ public class StockOverviewRepository {
     void actionFinished(StockOverviewData data);
   }
 
+  public interface ProductIdsListener {
+    void actionFinished(List<Integer> productIds);
+  }
+
   public static class StockOverviewData {
 
     private final List<QuantityUnit> quantityUnits;
@@ -61,8 +67,6 @@ public class StockOverviewRepository {
     private final List<ProductBarcode> productBarcodes;
     private final List<ShoppingListItem> shoppingListItems;
     private final List<Location> locations;
-    private final List<StockLocation> stockCurrentLocations;
-    private final List<VolatileItem> volatileItems;
     private final List<MissingItem> missingItems;
 
     public StockOverviewData(
@@ -75,8 +79,6 @@ public class StockOverviewRepository {
         List<ProductBarcode> productBarcodes,
         List<ShoppingListItem> shoppingListItems,
         List<Location> locations,
-        List<StockLocation> stockCurrentLocations,
-        List<VolatileItem> volatileItems,
         List<MissingItem> missingItems
     ) {
       this.quantityUnits = quantityUnits;
@@ -88,8 +90,6 @@ public class StockOverviewRepository {
       this.productBarcodes = productBarcodes;
       this.shoppingListItems = shoppingListItems;
       this.locations = locations;
-      this.stockCurrentLocations = stockCurrentLocations;
-      this.volatileItems = volatileItems;
       this.missingItems = missingItems;
     }
 
@@ -129,36 +129,79 @@ public class StockOverviewRepository {
       return locations;
     }
 
-    public List<StockLocation> getStockCurrentLocations() {
-      return stockCurrentLocations;
-    }
-
-    public List<VolatileItem> getVolatileItems() {
-      return volatileItems;
-    }
-
     public List<MissingItem> getMissingItems() {
       return missingItems;
     }
   }
 
-  public void loadFromDatabase(StockOverviewDataListener listener) {
-    RxJavaUtil
-        .zip(
-            appDatabase.quantityUnitDao().getQuantityUnits(),
-            appDatabase.productGroupDao().getProductGroups(),
-            appDatabase.stockItemDao().getStockItems(),
-            appDatabase.productDao().getProducts(),
-            appDatabase.productAveragePriceDao().getProductsAveragePrice(),
-            appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
-            appDatabase.productBarcodeDao().getProductBarcodes(),
-            appDatabase.shoppingListItemDao().getShoppingListItems(),
-            appDatabase.locationDao().getLocations(),
-            appDatabase.stockLocationDao().getStockLocations(),
-            appDatabase.volatileItemDao().getVolatileItems(),
-            appDatabase.missingItemDao().getMissingItems(),
-            StockOverviewData::new
-        )
+  /**
+   * Delivers the data now and after every change of the tables, only the changed tables are
+   * read again. The returned disposable has to be disposed when the screen is gone.
+   */
+  public Disposable observeDatabase(StockOverviewDataListener listener) {
+    Flowable<StockOverviewData> data = Flowable.combineLatestArray(
+        new Flowable<?>[]{
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.quantityUnitDao()
+                .getQuantityUnits(), "quantity_unit_table"),
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.productGroupDao()
+                .getProductGroups(), "product_group_table"),
+            RxJavaUtil.observeQuery(
+                appDatabase,
+                appDatabase.stockOverviewDao().getStockOverviewItems(),
+                StockItem::hasSameValues,
+                "stock_item_table", "missing_item_table", "volatile_item_table"
+            ),
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.productDao()
+                .getProducts(), "product_table"),
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.productAveragePriceDao()
+                .getProductsAveragePrice(), "product_average_price_table"),
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.productLastPurchasedDao()
+                .getProductsLastPurchased(), "product_last_purchased_table"),
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.productBarcodeDao()
+                .getProductBarcodes(), "product_barcode_table"),
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.shoppingListItemDao()
+                .getShoppingListItems(), "shopping_list_item_table"),
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.locationDao()
+                .getLocations(), "location_table"),
+            RxJavaUtil.observeQuery(appDatabase, appDatabase.missingItemDao()
+                .getMissingItems(), "missing_item_table")
+        },
+        RxJavaUtil.toFunction(StockOverviewData::new)
+    );
+    return RxJavaUtil.debounceUpdates(data).subscribe(listener::actionFinished);
+  }
+
+  // local change until the stock of the product is reloaded, delivered by observeDatabase()
+  public void updateStockItem(StockItem stockItem) {
+    Completable.fromAction(() -> {
+      if (stockItem.hasStock()) {
+        appDatabase.stockItemDao().insertStockItemNow(stockItem);
+      } else {
+        appDatabase.stockItemDao().deleteStockItemNow(stockItem.getProductId());
+      }
+    })
+        .subscribeOn(Schedulers.io())
+        .subscribe();
+  }
+
+  // stock locations are only read by the filter query, which is run again after a change
+  public Disposable observeStockLocations(Runnable onChanged) {
+    Flowable<Object> changes = RxRoom.createFlowable(appDatabase, "stock_current_location_table")
+        .skip(1);
+    return RxJavaUtil.debounceUpdates(changes).subscribe(change -> onChanged.run());
+  }
+
+  /**
+   * Stock items are already marked as due, missing etc. by the query, so only the ids are
+   * needed here. The status values are those of FilterChipLiveDataStockStatus.
+   */
+  public void loadFilteredProductIds(
+      int status,
+      int productGroupId,
+      int locationId,
+      ProductIdsListener listener
+  ) {
+    appDatabase.stockOverviewDao().getFilteredProductIds(status, productGroupId, locationId)
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(listener::actionFinished)
@@ -0,0 +1,80 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.startup;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
+import androidx.startup.Initializer;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import org.conscrypt.Conscrypt;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Installs Conscrypt as first security provider, so TLS 1.3 and current cipher suites are
+ * available on old Android versions. Has to run before the HTTP client is created.
+ */
+public class ConscryptInitializer implements Initializer<Boolean> {
+
+  private final static String TAG = ConscryptInitializer.class.getSimpleName();
+
+  @NonNull
+  @Override
+  public Boolean create(@NonNull Context context) {
+    long startTime = StartupTrace.now();
+    boolean debug = PrefsUtil.isDebuggingEnabled(
+        PreferenceManager.getDefaultSharedPreferences(context)
+    );
+    Security.insertProviderAt(Conscrypt.newProvider(), 1);
+
+    try {
+      Conscrypt.Version version = Conscrypt.version();
+      if (debug) {
+        Log.i(TAG, "create: Using Conscrypt/" + version.major() + "."
+            + version.minor() + "." + version.patch() + " for TLS");
+      }
+      SSLEngine engine = SSLContext.getDefault().createSSLEngine();
+      if (debug) {
+        Log.i(TAG, "Enabled protocols: "
+            + Arrays.toString(engine.getEnabledProtocols()) + " }");
+        Log.i(TAG, "Enabled ciphers: "
+            + Arrays.toString(engine.getEnabledCipherSuites()) + " }");
+      }
+    } catch (NoSuchAlgorithmException e) {
+      Log.e(TAG, "create: NoSuchAlgorithmException");
+      Log.e(TAG, e.getMessage() != null ? e.getMessage() : e.toString());
+    }
+    StartupTrace.record("conscrypt", startTime);
+    return true;
+  }
+
+  @NonNull
+  @Override
+  public List<Class<? extends Initializer<?>>> dependencies() {
+    return Collections.emptyList();
+  }
+}
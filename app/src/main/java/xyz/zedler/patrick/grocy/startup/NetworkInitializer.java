@@ -0,0 +1,48 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.startup;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+import java.util.Collections;
+import java.util.List;
+import xyz.zedler.patrick.grocy.web.RequestQueueSingleton;
+
+/**
+ * Creates the request queue with its HTTP client and disk cache.
+ */
+public class NetworkInitializer implements Initializer<RequestQueueSingleton> {
+
+  @NonNull
+  @Override
+  public RequestQueueSingleton create(@NonNull Context context) {
+    long startTime = StartupTrace.now();
+    RequestQueueSingleton requestQueueSingleton = RequestQueueSingleton.getInstance(context);
+    StartupTrace.record("network", startTime);
+    return requestQueueSingleton;
+  }
+
+  @NonNull
+  @Override
+  public List<Class<? extends Initializer<?>>> dependencies() {
+    return Collections.singletonList(ConscryptInitializer.class);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.startup;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import androidx.startup.AppInitializer;
+import com.bumptech.glide.Glide;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Startup of the process in phases: the database and the network stack are initialized in the
+ * background as soon as the activity is created, and work which isn't needed for the first
+ * frame is started after it has been drawn. Components which are needed earlier are still
+ * initialized on first use through their initializers, which run only once.
+ */
+public class StartupPipeline {
+
+  private final static String TAG = StartupPipeline.class.getSimpleName();
+
+  private static Completable backgroundInit;
+  private static boolean isFirstFrameDrawn;
+
+  public static synchronized void start(Context context) {
+    if (backgroundInit != null) {
+      return;
+    }
+    StartupTrace.mark("pipeline_start");
+    AppInitializer initializer = AppInitializer.getInstance(context.getApplicationContext());
+    backgroundInit = Completable.mergeArray(
+        Completable.fromAction(() -> initializer.initializeComponent(NetworkInitializer.class))
+            .subscribeOn(Schedulers.io()),
+        Completable.fromAction(() -> initializer.initializeComponent(DatabaseInitializer.class))
+            .subscribeOn(Schedulers.io())
+    ).doOnError(error -> {
+      if (PrefsUtil.isDebuggingEnabled(context)) {
+        Log.e(TAG, "start: " + error);
+      }
+    })
+        .onErrorComplete()
+        .cache();
+    backgroundInit.subscribe();
+  }
+
+  /**
+   * Runs the tasks on the main thread after the next frame of the activity has been drawn.
+   * After the first frame of the process, the remaining startup work is started and the
+   * trace is written when the background initialization is finished as well.
+   */
+  public static void runAfterFirstFrame(Activity activity, Runnable deferredTasks) {
+    View decorView = activity.getWindow().getDecorView();
+    Handler handler = new Handler(Looper.getMainLooper());
+    ViewTreeObserver.OnDrawListener onDrawListener = new ViewTreeObserver.OnDrawListener() {
+      private boolean isDrawn;
+
+      @Override
+      public void onDraw() {
+        if (isDrawn) {
+          return;
+        }
+        isDrawn = true;
+        // listeners can't be removed while the frame is drawn
+        handler.postAtFrontOfQueue(() -> {
+          decorView.getViewTreeObserver().removeOnDrawListener(this);
+          onFrameDrawn(activity.getApplicationContext(), deferredTasks);
+        });
+      }
+    };
+    decorView.getViewTreeObserver().addOnDrawListener(onDrawListener);
+  }
+
+  private static void onFrameDrawn(Context context, Runnable deferredTasks) {
+    if (isFirstFrameDrawn) {
+      deferredTasks.run();
+      return;
+    }
+    isFirstFrameDrawn = true;
+    StartupTrace.mark("first_frame");
+    long startTime = StartupTrace.now();
+    deferredTasks.run();
+    StartupTrace.record("deferred_tasks", startTime);
+
+    Completable glideInit = Completable.fromAction(() -> {
+      long glideStartTime = StartupTrace.now();
+      Glide.get(context);
+      StartupTrace.record("glide", glideStartTime);
+    }).subscribeOn(Schedulers.io())
+        .doOnError(error -> {
+          if (PrefsUtil.isDebuggingEnabled(context)) {
+            Log.e(TAG, "onFrameDrawn: " + error);
+          }
+        })
+        .onErrorComplete();
+    Completable init = backgroundInit != null ? backgroundInit : Completable.complete();
+    Completable.mergeArray(init, glideInit)
+        .subscribe(() -> StartupTrace.writeAsync(context));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.startup;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import xyz.zedler.patrick.grocy.R;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Collects the timings of the startup phases of the process and appends them as one line to
+ * startup_trace.txt in the files directory, so launches of different builds can be compared:
+ * <p>
+ * date, version name, then phase@ms for the time since the process start at which a phase was
+ * reached and phase=ms for the duration of a phase.
+ */
+public class StartupTrace {
+
+  private final static String TAG = StartupTrace.class.getSimpleName();
+  private final static String FILE_NAME = "startup_trace.txt";
+  private final static int MAX_LAUNCHES = 100;
+
+  private final static long PROCESS_START = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+      ? Process.getStartElapsedRealtime()
+      : SystemClock.elapsedRealtime();
+
+  private final static LinkedHashMap<String, String> phases = new LinkedHashMap<>();
+  private static boolean isWritten;
+
+  public static long now() {
+    return SystemClock.elapsedRealtime();
+  }
+
+  public static synchronized void mark(String phase) {
+    phases.put(phase, "@" + (now() - PROCESS_START));
+  }
+
+  /**
+   * @param startTime value of {@link #now()} when the phase was started
+   */
+  public static synchronized void record(String phase, long startTime) {
+    phases.put(phase, "=" + (now() - startTime));
+  }
+
+  /**
+   * Appends the phases recorded so far, only once per process.
+   */
+  public static void writeAsync(Context context) {
+    String line;
+    synchronized (StartupTrace.class) {
+      if (isWritten) {
+        return;
+      }
+      isWritten = true;
+      StringBuilder builder = new StringBuilder()
+          .append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ENGLISH).format(new Date()))
+          .append(' ')
+          .append(context.getString(R.string.versionName));
+      for (Map.Entry<String, String> phase : phases.entrySet()) {
+        builder.append(' ').append(phase.getKey()).append(phase.getValue());
+      }
+      line = builder.toString();
+    }
+    File file = new File(context.getFilesDir(), FILE_NAME);
+    Completable.fromAction(() -> {
+      write(file, line);
+      if (PrefsUtil.isDebuggingEnabled(context)) {
+        Log.i(TAG, line);
+      }
+    })
+        .subscribeOn(Schedulers.io())
+        .subscribe(() -> {}, error -> {
+          if (PrefsUtil.isDebuggingEnabled(context)) {
+            Log.e(TAG, "writeAsync: " + error);
+          }
+        });
+  }
+
+  // keeps only the latest launches
+  private static void write(File file, String line) throws IOException {
+    List<String> lines = new ArrayList<>();
+    if (file.exists()) {
+      try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+        String existingLine;
+        while ((existingLine = reader.readLine()) != null) {
+          lines.add(existingLine);
+        }
+      }
+    }
+    lines.add(line);
+    int start = Math.max(0, lines.size() - MAX_LAUNCHES);
+    try (Writer writer = new FileWriter(file, false)) {
+      for (String l : lines.subList(start, lines.size())) {
+        writer.write(l);
+        writer.write('\n');
+      }
+    }
+  }
+}
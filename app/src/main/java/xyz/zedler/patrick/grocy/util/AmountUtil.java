@@ -24,6 +24,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
@@ -37,8 +38,8 @@ public class AmountUtil {
 
   public static Double getShoppingListItemAmount(
       ShoppingListItem item,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, QuantityUnit> quantityUnitHashMap,
+      Map<Integer, Product> productHashMap,
+      Map<Integer, QuantityUnit> quantityUnitHashMap,
       HashMap<Integer, ArrayList<QuantityUnitConversion>> unitConversionHashMap
   ) {
     if (!item.hasProduct()) {
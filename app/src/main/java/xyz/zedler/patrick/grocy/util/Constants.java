@@ -93,6 +93,10 @@ public final class Constants {
     public final static String DB_LAST_TIME_RECIPES = "db_last_time_recipes";
     public final static String DB_LAST_TIME_RECIPE_FULFILLMENTS = "db_last_time_recipe_fulfillments";
     public final static String DB_LAST_TIME_RECIPE_POSITIONS = "db_last_time_recipe_positions";
+    public final static String SYNC_ROWS_TOTAL = "sync_rows_total";
+    public final static String SYNC_ROWS_SAVED = "sync_rows_saved";
+    public final static String SYNC_BYTES_RECEIVED = "sync_bytes_received";
+    public final static String SYNC_BYTES_SKIPPED = "sync_bytes_skipped";
 
     public final static String QUICK_MODE_ACTIVE_CONSUME = "quick_mode_active_consume";
     public final static String QUICK_MODE_ACTIVE_PURCHASE = "quick_mode_active_purchase";
@@ -208,6 +212,9 @@ public final class Constants {
       public final static String CHORES_TIME = "notification_chores_time";
       public final static String CHORES_CHANNEL = "xyz.zedler.patrick.grocy.chores";
       public final static int CHORES_ID = 2;
+
+      public final static String OUTBOX_FAILED_CHANNEL = "xyz.zedler.patrick.grocy.outbox_failed";
+      public final static int OUTBOX_FAILED_ID = 3;
     }
   }
 
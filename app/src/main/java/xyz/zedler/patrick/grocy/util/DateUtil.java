@@ -23,6 +23,9 @@ import android.content.Context;
 import android.util.Log;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
@@ -45,6 +48,13 @@ public class DateUtil {
   private static final SimpleDateFormat DATE_FORMAT_WITH_TIME = new SimpleDateFormat(
       "yyyy-MM-dd HH:mm:ss", Locale.ENGLISH
   );
+
+  public static final int NO_EPOCH_DAY = Integer.MIN_VALUE;
+  public static final long NO_EPOCH_SECOND = Long.MIN_VALUE;
+
+  private static int todayEpochDay;
+  private static long todayEndMillis;
+
   private final Context context;
 
   public DateUtil(Context context) {
@@ -73,28 +83,92 @@ public class DateUtil {
   }
 
   public static int getDaysFromNow(String dateString) {
-    return getDaysFromNow(dateString, DATE_FORMAT);
+    return getDaysFromToday(getEpochDay(dateString));
   }
 
   public static int getDaysFromNowWithTime(String dateString) {
-    return getDaysFromNow(dateString, DATE_FORMAT_WITH_TIME);
+    return getDaysFromTodayWithTime(getEpochSecond(dateString));
   }
 
-  public static int getDaysFromNow(String dateString, SimpleDateFormat format) {
-    if (dateString == null || dateString.isEmpty()) {
+  /**
+   * @return 0 for NO_EPOCH_DAY, like getDaysFromNow for missing dates
+   */
+  public static int getDaysFromToday(int epochDay) {
+    return epochDay != NO_EPOCH_DAY ? epochDay - getTodayEpochDay() : 0;
+  }
+
+  public static int getDaysFromTodayWithTime(long epochSecond) {
+    if (epochSecond == NO_EPOCH_SECOND) {
       return 0;
     }
-    Date date = null;
+    long diff = epochSecond - getTodayEpochDay() * 86400L;
+    return (int) (diff / 86400); // truncated like the days of a millisecond difference
+  }
+
+  /**
+   * Parses "yyyy-MM-dd" (further characters are ignored) to days since 1970-01-01 without
+   * SimpleDateFormat, which is slow and not thread safe. Models cache the result, so sorting and
+   * binding don't parse their dates again.
+   */
+  public static int getEpochDay(String dateString) {
+    if (dateString == null || dateString.length() < 10
+        || dateString.charAt(4) != '-' || dateString.charAt(7) != '-') {
+      return NO_EPOCH_DAY;
+    }
+    int year = parseDigits(dateString, 0, 4);
+    int month = parseDigits(dateString, 5, 7);
+    int day = parseDigits(dateString, 8, 10);
+    if (year < 0 || month < 0 || day < 0) {
+      return NO_EPOCH_DAY;
+    }
     try {
-      date = format.parse(dateString);
-    } catch (ParseException e) {
-      Log.e(TAG, "getDaysFromNow: " + e);
+      return (int) LocalDate.of(year, month, day).toEpochDay();
+    } catch (DateTimeException e) {
+      return NO_EPOCH_DAY; // e.g. 2023-02-30, not logged like the malformed dates above
     }
-    if (date == null) {
-      return 0;
+  }
+
+  /**
+   * Parses "yyyy-MM-dd HH:mm:ss" to seconds since 1970-01-01 00:00:00 of the local wall clock,
+   * so days from today can be computed without time zone lookups.
+   */
+  public static long getEpochSecond(String dateTimeString) {
+    int epochDay = getEpochDay(dateTimeString);
+    if (epochDay == NO_EPOCH_DAY || dateTimeString.length() < 19
+        || dateTimeString.charAt(13) != ':' || dateTimeString.charAt(16) != ':') {
+      return NO_EPOCH_SECOND;
     }
-    long diff = date.getTime() - getCurrentDate().getTime();
-    return (int) TimeUnit.DAYS.convert(diff, TimeUnit.MILLISECONDS);
+    int hours = parseDigits(dateTimeString, 11, 13);
+    int minutes = parseDigits(dateTimeString, 14, 16);
+    int seconds = parseDigits(dateTimeString, 17, 19);
+    if (hours < 0 || minutes < 0 || seconds < 0) {
+      return NO_EPOCH_SECOND;
+    }
+    return epochDay * 86400L + hours * 3600L + minutes * 60L + seconds;
+  }
+
+  public static synchronized int getTodayEpochDay() {
+    long now = System.currentTimeMillis();
+    if (now >= todayEndMillis) {
+      LocalDate today = LocalDate.now();
+      todayEpochDay = (int) today.toEpochDay();
+      todayEndMillis = today.plusDays(1).atStartOfDay(ZoneId.systemDefault())
+          .toInstant().toEpochMilli();
+    }
+    return todayEpochDay;
+  }
+
+  // -1 if a character isn't a digit
+  private static int parseDigits(String string, int start, int end) {
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      char c = string.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
   }
 
   public static String getTodayWithDaysAdded(int daysToAdd) {
@@ -200,6 +274,19 @@ public class DateUtil {
     }
   }
 
+  /**
+   * Same as getHumanForDaysFromNow(dateString) for dates whose days from now are already known.
+   */
+  public String getHumanForDaysFromNow(String dateString, int daysFromNow) {
+    if (dateString == null || dateString.isEmpty()) {
+      return context.getString(R.string.date_unknown);
+    } else if (dateString.equals(Constants.DATE.NEVER_OVERDUE)) {
+      return context.getString(R.string.date_never);
+    } else {
+      return getHumanFromToday(daysFromNow);
+    }
+  }
+
   public String getHumanFromToday(int days) {
     if (days == 0) {
       return context.getString(R.string.date_today);
@@ -21,18 +21,19 @@ package xyz.zedler.patrick.grocy.util;
 
 import android.content.Context;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Map;
 import xyz.zedler.patrick.grocy.R;
+import xyz.zedler.patrick.grocy.helper.IntMap;
+import xyz.zedler.patrick.grocy.helper.QuantityUnitConversionGraph;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 
 public class QuantityUnitConversionUtil {
 
   public static HashMap<QuantityUnit, Double> getUnitFactors(
       Context context,
       HashMap<Integer, QuantityUnit> quantityUnitHashMap,
-      List<QuantityUnitConversion> unitConversions,
+      QuantityUnitConversionGraph unitConversionGraph,
       Product product
   ) {
     QuantityUnit stock = quantityUnitHashMap.get(product.getQuIdStockInt());
@@ -47,30 +48,14 @@ public class QuantityUnitConversionUtil {
     if (!unitFactors.containsKey(purchase)) {
       unitFactors.put(purchase, product.getQuFactorPurchaseToStockDouble());
     }
-    for (QuantityUnitConversion conversion : unitConversions) {
-      if (!NumUtil.isStringInt(conversion.getProductId())
-          || product.getId() != conversion.getProductIdInt()) {
-        continue;
-      }
-      // Only add product specific conversions
-      // ("overriding" standard conversions which are added in the next step)
-      QuantityUnit unit = quantityUnitHashMap.get(conversion.getToQuId());
-      if (unit == null || unitFactors.containsKey(unit)) {
-        continue;
-      }
-      unitFactors.put(unit, conversion.getFactor());
-    }
-    for (QuantityUnitConversion conversion : unitConversions) {
-      if (NumUtil.isStringInt(conversion.getProductId())
-          || stock.getId() != conversion.getFromQuId()) {
-        continue;
-      }
-      // Only add standard unit conversions
-      QuantityUnit unit = quantityUnitHashMap.get(conversion.getToQuId());
+    // product specific conversions "override" standard ones, both are resolved transitively
+    IntMap<Double> factors = unitConversionGraph.getFactorsFromStock(product);
+    for (Map.Entry<Integer, Double> factor : factors.entrySet()) {
+      QuantityUnit unit = quantityUnitHashMap.get(factor.getKey());
       if (unit == null || unitFactors.containsKey(unit)) {
         continue;
       }
-      unitFactors.put(unit, conversion.getFactor());
+      unitFactors.put(unit, factor.getValue());
     }
     return unitFactors;
   }
@@ -19,16 +19,64 @@
 
 package xyz.zedler.patrick.grocy.util;
 
+import androidx.room.RoomDatabase;
+import androidx.room.rxjava3.RxRoom;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.annotations.CheckReturnValue;
 import io.reactivex.rxjava3.annotations.NonNull;
 import io.reactivex.rxjava3.annotations.SchedulerSupport;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.core.SingleSource;
+import io.reactivex.rxjava3.functions.BiPredicate;
 import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public class RxJavaUtil {
 
+  private final static long UPDATE_DEBOUNCE_MILLIS = 150;
+
+  /**
+   * Runs the query once and again whenever Room reports a change of one of its tables. A result
+   * which is equal to the previous one isn't emitted, so rewriting a table with the same rows
+   * after a download doesn't cause an update.
+   */
+  public static <T> Flowable<T> observeQuery(
+      RoomDatabase database,
+      Single<T> query,
+      String... tableNames
+  ) {
+    return observeQuery(database, query, Objects::equals, tableNames);
+  }
+
+  public static <T> Flowable<T> observeQuery(
+      RoomDatabase database,
+      Single<T> query,
+      BiPredicate<T, T> comparer,
+      String... tableNames
+  ) {
+    return RxRoom.createFlowable(database, tableNames)
+        .subscribeOn(Schedulers.io())
+        .observeOn(Schedulers.io())
+        .switchMapSingle(invalidation -> query)
+        .distinctUntilChanged(comparer);
+  }
+
+  /**
+   * The first result is delivered at once, later ones only when no other change has followed
+   * for a moment, e.g. after all tables of a download have been written.
+   */
+  public static <T> Flowable<T> debounceUpdates(Flowable<T> flowable) {
+    return flowable
+        .publish(shared -> Flowable.merge(
+            shared.take(1),
+            shared.skip(1).debounce(UPDATE_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+        ))
+        .observeOn(AndroidSchedulers.mainThread());
+  }
+
   @CheckReturnValue
   @NonNull
   @SchedulerSupport(SchedulerSupport.NONE)
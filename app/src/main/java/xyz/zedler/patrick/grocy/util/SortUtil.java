@@ -23,12 +23,16 @@ import android.content.Context;
 import android.content.pm.ShortcutInfo;
 import android.os.Build;
 import androidx.annotation.RequiresApi;
+import java.text.CollationKey;
 import java.text.Collator;
+import java.text.ParseException;
+import java.text.RuleBasedCollator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.Language;
 import xyz.zedler.patrick.grocy.model.Location;
@@ -49,17 +53,14 @@ import xyz.zedler.patrick.grocy.model.User;
 public class SortUtil {
 
   // Source: https://medium.com/fme-developer-stories/how-to-sort-umlaute-in-java-correctly-13f3262f15a1
-  private static final String EXT_GERMAN_RULES = "&< ' ' < '.'" +
+  private static final String EXT_GERMAN_RULES = "& ' ' < '.'" +
       "<0<1<2<3<4<5<6<7<8<9<a,A<b,B<c,C<d,D<ð,Ð<e,E<f,F<g,G<h,H<i,I<j" +
       ",J<k,K<l,L<m,M<n,N<o,O<p,P<q,Q<r,R<s, S & SS,ß<t,T& TH, Þ &TH," +
       "þ <u,U<v,V<w,W<x,X<y,Y<z,Z&AE,Æ&AE,æ&OE,Œ&OE,œ";
 
-  private static void compareStockItemsWithExtGerman(List<StockItem> items, boolean asc) {
-    Collections.sort(items, (item1, item2) -> Collator.getInstance(Locale.GERMAN).compare(
-        (asc ? item1 : item2).getProduct().getName().toLowerCase(),
-        (asc ? item2 : item1).getProduct().getName().toLowerCase()
-    ));
-  }
+  private final static HashMap<Locale, Collator> collators = new HashMap<>();
+  private final static HashMap<Integer, ProductNameKey> productNameKeys = new HashMap<>();
+  private static Locale productNameKeysLocale;
 
   public static void sortStockItemsByName(
       Context context, List<StockItem> stockItems, boolean ascending
@@ -67,10 +68,8 @@ public class SortUtil {
     if (stockItems == null) {
       return;
     }
-    Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(stockItems, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getProduct().getName().toLowerCase(),
-        (ascending ? item2 : item1).getProduct().getName().toLowerCase())
+    sortByProductName(
+        LocaleUtil.getUserLocale(context), stockItems, StockItem::getProduct, ascending
     );
   }
 
@@ -78,42 +77,21 @@ public class SortUtil {
     if (stockItems == null) {
       return;
     }
-    Collections.sort(
-        stockItems,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getBestBeforeDate();
-          String bbd2 = (ascending ? item2 : item1).getBestBeforeDate();
-          if (bbd1 == null && bbd2 == null) {
-            return 0;
-          } else if (bbd1 == null) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
-    );
+    // items without date have NO_EPOCH_DAY, the lowest value, so they come first
+    Collections.sort(stockItems, (item1, item2) -> Integer.compare(
+        (ascending ? item1 : item2).getBestBeforeEpochDay(),
+        (ascending ? item2 : item1).getBestBeforeEpochDay()
+    ));
   }
 
   public static void sortStockEntriesByDueDate(List<StockEntry> stockEntries, boolean ascending) {
     if (stockEntries == null) {
       return;
     }
-    Collections.sort(
-        stockEntries,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getBestBeforeDate();
-          String bbd2 = (ascending ? item2 : item1).getBestBeforeDate();
-          if (bbd1 == null && bbd2 == null) {
-            return 0;
-          } else if (bbd1 == null) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
-    );
+    Collections.sort(stockEntries, (item1, item2) -> Integer.compare(
+        (ascending ? item1 : item2).getBestBeforeEpochDay(),
+        (ascending ? item2 : item1).getBestBeforeEpochDay()
+    ));
   }
 
   public static void sortStockEntriesByName(
@@ -123,24 +101,12 @@ public class SortUtil {
     if (stockEntries == null || productHashMap == null) {
       return;
     }
-    Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(stockEntries, (entry1, entry2) -> {
-      int productId1 = (ascending ? entry1 : entry2).getProductId();
-      int productId2 = (ascending ? entry2 : entry1).getProductId();
-      Product product1 = productHashMap.get(productId1);
-      Product product2 = productHashMap.get(productId2);
-      if (product1 == null && product2 == null) {
-        return 0;
-      } else if (product1 == null) {
-        return -1;
-      } else if (product2 == null) {
-        return 1;
-      }
-      return Collator.getInstance(locale).compare(
-          product1.getName().toLowerCase(),
-          product2.getName().toLowerCase()
-      );
-    });
+    sortByProductName(
+        LocaleUtil.getUserLocale(context),
+        stockEntries,
+        entry -> productHashMap.get(entry.getProductId()),
+        ascending
+    );
   }
 
   public static void sortProductsByName(List<Product> products, boolean ascending) {
@@ -172,32 +138,17 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(tasks, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByName(locale, tasks, Task::getName, ascending);
   }
 
   public static void sortTasksByDueDate(List<Task> tasks, boolean ascending) {
     if (tasks == null || tasks.isEmpty()) {
       return;
     }
-    Collections.sort(
-        tasks,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getDueDate();
-          String bbd2 = (ascending ? item2 : item1).getDueDate();
-          if (bbd1 == null && bbd2 == null
-              || bbd1 != null && bbd1.isEmpty() && bbd2 != null && bbd2.isEmpty()) {
-            return 0;
-          } else if (bbd1 == null || bbd1.isEmpty()) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null || bbd2.isEmpty()) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
-    );
+    Collections.sort(tasks, (item1, item2) -> Integer.compare(
+        (ascending ? item1 : item2).getDueEpochDay(),
+        (ascending ? item2 : item1).getDueEpochDay()
+    ));
   }
 
   public static void sortTaskCategoriesByName(
@@ -209,10 +160,7 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(taskCategories, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByName(locale, taskCategories, TaskCategory::getName, ascending);
   }
 
   public static void sortChoreEntriesByNextExecution(
@@ -222,23 +170,10 @@ public class SortUtil {
     if (choreEntries == null || choreEntries.isEmpty()) {
       return;
     }
-    Collections.sort(
-        choreEntries,
-        (item1, item2) -> {
-          String time1 = (ascending ? item1 : item2).getNextEstimatedExecutionTime();
-          String time2 = (ascending ? item2 : item1).getNextEstimatedExecutionTime();
-          if (time1 == null && time2 == null
-              || time1 != null && time1.isEmpty() && time2 != null && time2.isEmpty()) {
-            return 0;
-          } else if (time1 == null || time1.isEmpty()) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (time2 == null || time2.isEmpty()) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(time1, true)
-              .compareTo(DateUtil.getDate(time2, true));
-        }
-    );
+    Collections.sort(choreEntries, (item1, item2) -> Long.compare(
+        (ascending ? item1 : item2).getNextExecutionEpochSecond(),
+        (ascending ? item2 : item1).getNextExecutionEpochSecond()
+    ));
   }
 
   public static void sortChoreEntriesByName(
@@ -250,10 +185,7 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(choreEntries, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getChoreName().toLowerCase(),
-        (ascending ? item2 : item1).getChoreName().toLowerCase()
-    ));
+    sortByName(locale, choreEntries, ChoreEntry::getChoreName, ascending);
   }
 
   public static void sortUsersByName(
@@ -265,10 +197,7 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(users, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getDisplayName().toLowerCase(),
-        (ascending ? item2 : item1).getDisplayName().toLowerCase()
-    ));
+    sortByName(locale, users, User::getDisplayName, ascending);
   }
 
   public static void sortStringsByName(Context context, List<String> strings, boolean ascending) {
@@ -276,10 +205,7 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(strings, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).toLowerCase(),
-        (ascending ? item2 : item1).toLowerCase()
-    ));
+    sortByName(locale, strings, item -> item, ascending);
   }
 
   public static void sortStringsByValue(List<String> strings) {
@@ -308,10 +234,7 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(locations, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByName(locale, locations, Location::getName, ascending);
   }
 
   public static void sortStoresByName(Context context, List<Store> stores, boolean ascending) {
@@ -319,9 +242,7 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(stores, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()));
+    sortByName(locale, stores, Store::getName, ascending);
   }
 
   public static void sortProductGroupsByName(
@@ -333,10 +254,7 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(productGroups, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByName(locale, productGroups, ProductGroup::getName, ascending);
   }
 
   public static void sortQuantityUnitsByName(
@@ -348,62 +266,39 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(quantityUnits, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByName(locale, quantityUnits, QuantityUnit::getName, ascending);
   }
 
   public static void sortShoppingListItemsByName(
       Context context,
       List<ShoppingListItem> shoppingListItems,
-      HashMap<Integer, String> productNamesHashMap,
+      Map<Integer, String> productNamesHashMap,
       boolean ascending
   ) {
     if (shoppingListItems == null) {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
+    Collator collator = getCollator(locale);
     ArrayList<ShoppingListItem> itemsWithoutProduct = new ArrayList<>();
     for (ShoppingListItem shoppingListItem : shoppingListItems) {
       if (!shoppingListItem.hasProduct()) {
         itemsWithoutProduct.add(shoppingListItem);
       }
     }
-    Collections.sort(
+    sortByKeys(
         itemsWithoutProduct,
-        (item1, item2) -> {
-          String noteA = (ascending ? item1 : item2).getNote();
-          String noteB = (ascending ? item2 : item1).getNote();
-          if (noteA != null && noteB != null) {
-            return Collator.getInstance(locale).compare(noteA, noteB);
-          } else if (noteA == null && noteB != null) {
-            return -1;
-          } else if (noteA != null) {
-            return 1;
-          } else {
-            return 0;
-          }
-        }
+        item -> item.getNote() != null ? collator.getCollationKey(item.getNote()) : null,
+        ascending
     );
     shoppingListItems.removeAll(itemsWithoutProduct);
-    Collections.sort(
+    sortByKeys(
         shoppingListItems,
-        (item1, item2) -> {
-          String nameA = productNamesHashMap.get((ascending ? item1 : item2)
-              .getProductIdInt());
-          String nameB = productNamesHashMap.get((ascending ? item2 : item1)
-              .getProductIdInt());
-          if (nameA != null && nameB != null) {
-            return Collator.getInstance(locale).compare(nameA, nameB);
-          } else if (nameA == null && nameB != null) {
-            return -1;
-          } else if (nameA != null) {
-            return 1;
-          } else {
-            return 0;
-          }
-        }
+        item -> {
+          String name = productNamesHashMap.get(item.getProductIdInt());
+          return name != null ? collator.getCollationKey(name) : null;
+        },
+        ascending
     );
     shoppingListItems.addAll(itemsWithoutProduct);
   }
@@ -413,10 +308,7 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(users, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getUserName().toLowerCase(),
-        (ascending ? item2 : item1).getUserName().toLowerCase()
-    ));
+    sortByName(locale, users, User::getUserName, ascending);
   }
 
   public static void sortLanguagesByName(List<Language> languages) {
@@ -451,19 +343,17 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
-    Collections.sort(recipes, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()));
+    sortByName(locale, recipes, Recipe::getName, ascending);
   }
 
-  public static void sortRecipesByCalories(Context context, List<Recipe> recipes, List<RecipeFulfillment> recipeFulfillments, boolean ascending) {
+  public static void sortRecipesByCalories(Context context, List<Recipe> recipes, Map<Integer, RecipeFulfillment> recipeFulfillments, boolean ascending) {
     if (recipes == null || recipeFulfillments == null) {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
     Collections.sort(recipes, (recipe1, recipe2) -> {
-      RecipeFulfillment recipeFulfillment1 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe1.getId());
-      RecipeFulfillment recipeFulfillment2 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe2.getId());
+      RecipeFulfillment recipeFulfillment1 = recipeFulfillments.get(recipe1.getId());
+      RecipeFulfillment recipeFulfillment2 = recipeFulfillments.get(recipe2.getId());
 
       double recipe1Calories = recipeFulfillment1 != null ? recipeFulfillment1.getCalories() : 0;
       double recipe2Calories = recipeFulfillment2 != null ? recipeFulfillment2.getCalories() : 0;
@@ -472,14 +362,14 @@ public class SortUtil {
     });
   }
 
-  public static void sortRecipesByDueScore(Context context, List<Recipe> recipes, List<RecipeFulfillment> recipeFulfillments, boolean ascending) {
+  public static void sortRecipesByDueScore(Context context, List<Recipe> recipes, Map<Integer, RecipeFulfillment> recipeFulfillments, boolean ascending) {
     if (recipes == null || recipeFulfillments == null) {
       return;
     }
     Locale locale = LocaleUtil.getUserLocale(context);
     Collections.sort(recipes, (recipe1, recipe2) -> {
-      RecipeFulfillment recipeFulfillment1 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe1.getId());
-      RecipeFulfillment recipeFulfillment2 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe2.getId());
+      RecipeFulfillment recipeFulfillment1 = recipeFulfillments.get(recipe1.getId());
+      RecipeFulfillment recipeFulfillment2 = recipeFulfillments.get(recipe2.getId());
 
       int recipe1DueScore = recipeFulfillment1 != null ? recipeFulfillment1.getDueScore() : 0;
       int recipe2DueScore = recipeFulfillment2 != null ? recipeFulfillment2.getDueScore() : 0;
@@ -487,4 +377,132 @@ public class SortUtil {
       return (ascending ? recipe1DueScore : recipe2DueScore) - (ascending ? recipe2DueScore : recipe1DueScore);
     });
   }
+
+  public static synchronized void invalidateProductNameKeys() {
+    productNameKeys.clear();
+  }
+
+  private static synchronized Collator getCollator(Locale locale) {
+    Collator collator = collators.get(locale);
+    if (collator == null) {
+      collator = Collator.getInstance(locale);
+      if (locale.getLanguage().equals(Locale.GERMAN.getLanguage())
+          && collator instanceof RuleBasedCollator) {
+        try {
+          collator = new RuleBasedCollator(
+              ((RuleBasedCollator) collator).getRules() + EXT_GERMAN_RULES
+          );
+        } catch (ParseException ignored) {
+        }
+      }
+      collators.put(locale, collator);
+    }
+    // collators are not thread safe and lists are also sorted in the background
+    return (Collator) collator.clone();
+  }
+
+  private static synchronized CollationKey getProductNameKey(
+      Collator collator,
+      Locale locale,
+      Product product
+  ) {
+    if (!locale.equals(productNameKeysLocale)) {
+      productNameKeys.clear();
+      productNameKeysLocale = locale;
+    }
+    ProductNameKey nameKey = productNameKeys.get(product.getId());
+    if (nameKey == null || !nameKey.name.equals(product.getName())) {
+      nameKey = new ProductNameKey(
+          product.getName(), collator.getCollationKey(product.getName().toLowerCase())
+      );
+      productNameKeys.put(product.getId(), nameKey);
+    }
+    return nameKey.key;
+  }
+
+  private static <T> void sortByName(
+      Locale locale,
+      List<T> items,
+      NameGetter<T> nameGetter,
+      boolean ascending
+  ) {
+    Collator collator = getCollator(locale);
+    sortByKeys(items, item -> {
+      String name = nameGetter.getName(item);
+      return name != null ? collator.getCollationKey(name.toLowerCase()) : null;
+    }, ascending);
+  }
+
+  private static <T> void sortByProductName(
+      Locale locale,
+      List<T> items,
+      ProductGetter<T> productGetter,
+      boolean ascending
+  ) {
+    Collator collator = getCollator(locale);
+    sortByKeys(items, item -> {
+      Product product = productGetter.getProduct(item);
+      return product != null && product.getName() != null
+          ? getProductNameKey(collator, locale, product) : null;
+    }, ascending);
+  }
+
+  /**
+   * Computes the collation key of each item once and sorts on the keys, items without key first.
+   */
+  private static <T> void sortByKeys(List<T> items, KeyGetter<T> keyGetter, boolean ascending) {
+    ArrayList<KeyedItem<T>> keyedItems = new ArrayList<>(items.size());
+    for (T item : items) {
+      keyedItems.add(new KeyedItem<>(item, keyGetter.getKey(item)));
+    }
+    Collections.sort(keyedItems, (item1, item2) -> {
+      CollationKey key1 = (ascending ? item1 : item2).key;
+      CollationKey key2 = (ascending ? item2 : item1).key;
+      if (key1 == null && key2 == null) {
+        return 0;
+      } else if (key1 == null) {
+        return -1;
+      } else if (key2 == null) {
+        return 1;
+      }
+      return key1.compareTo(key2);
+    });
+    for (int i = 0; i < keyedItems.size(); i++) {
+      items.set(i, keyedItems.get(i).item);
+    }
+  }
+
+  private interface NameGetter<T> {
+    String getName(T item);
+  }
+
+  private interface ProductGetter<T> {
+    Product getProduct(T item);
+  }
+
+  private interface KeyGetter<T> {
+    CollationKey getKey(T item);
+  }
+
+  private static class KeyedItem<T> {
+
+    final T item;
+    final CollationKey key;
+
+    KeyedItem(T item, CollationKey key) {
+      this.item = item;
+      this.key = key;
+    }
+  }
+
+  private static class ProductNameKey {
+
+    final String name;
+    final CollationKey key;
+
+    ProductNameKey(String name, CollationKey key) {
+      this.name = name;
+      this.key = key;
+    }
+  }
 }
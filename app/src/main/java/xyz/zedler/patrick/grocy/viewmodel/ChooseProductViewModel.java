@@ -32,10 +32,10 @@ import com.android.volley.VolleyError;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.ProductSearchIndex;
+import xyz.zedler.patrick.grocy.helper.ProductSearchIndex.Match;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -47,6 +47,7 @@ import xyz.zedler.patrick.grocy.util.SortUtil;
 public class ChooseProductViewModel extends BaseViewModel {
 
   private static final String TAG = ChooseProductViewModel.class.getSimpleName();
+  private static final int MAX_SUGGESTIONS = 20;
 
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
@@ -70,6 +71,9 @@ public class ChooseProductViewModel extends BaseViewModel {
   private final HashMap<String, Product> productHashMap;
   private List<PendingProduct> pendingProducts;
   private final HashMap<String, PendingProduct> pendingProductHashMap;
+  private final HashMap<Integer, Product> productIdHashMap;
+  private final HashMap<Integer, PendingProduct> pendingProductIdHashMap;
+  private final ProductSearchIndex pendingProductSearchIndex;
   private final boolean forbidCreateProductInitial;
   private final boolean pendingProductsActive;
   private String nameFromOnlineSource;
@@ -116,21 +120,22 @@ public class ChooseProductViewModel extends BaseViewModel {
     products = new ArrayList<>();
     productHashMap = new HashMap<>();
     pendingProductHashMap = new HashMap<>();
+    productIdHashMap = new HashMap<>();
+    pendingProductIdHashMap = new HashMap<>();
+    pendingProductSearchIndex = new ProductSearchIndex();
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
-      this.products = data.getProducts();
-      productHashMap.clear();
-      for (Product product : products) {
-        productHashMap.put(product.getName().toLowerCase(), product);
-      }
       this.pendingProducts = data.getPendingProducts();
       pendingProductHashMap.clear();
+      pendingProductIdHashMap.clear();
       for (PendingProduct pendingProduct : this.pendingProducts) {
         pendingProductHashMap.put(pendingProduct.getName().toLowerCase(), pendingProduct);
+        pendingProductIdHashMap.put(pendingProduct.getId(), pendingProduct);
       }
-      displayItems();
+      pendingProductSearchIndex.setProducts(new ArrayList<>(pendingProducts));
+      setProducts(data.getProducts());
       if (downloadAfterLoading) {
         downloadData();
       }
@@ -155,13 +160,7 @@ public class ChooseProductViewModel extends BaseViewModel {
     }
 
     DownloadHelper.Queue queue = dlHelper.newQueue(this::onQueueEmpty, this::onDownloadError);
-    queue.append(dlHelper.updateProducts(dbChangedTime, products -> {
-      this.products = products;
-      productHashMap.clear();
-      for (Product product : products) {
-        productHashMap.put(product.getName().toLowerCase(), product);
-      }
-    }));
+    queue.append(dlHelper.updateProducts(dbChangedTime, this::setProducts));
 
 
     if (queue.isEmpty()) {
@@ -252,6 +251,17 @@ public class ChooseProductViewModel extends BaseViewModel {
     }
   }
 
+  private void setProducts(List<Product> products) {
+    this.products = products;
+    productHashMap.clear();
+    productIdHashMap.clear();
+    for (Product product : products) {
+      productHashMap.put(product.getName().toLowerCase(), product);
+      productIdHashMap.put(product.getId(), product);
+    }
+    ProductSearchIndex.getInstance().setProductsAsync(products, this::displayItems);
+  }
+
   public void displayItems() {
     String productName = productNameLive.getValue();
 
@@ -273,18 +283,25 @@ public class ChooseProductViewModel extends BaseViewModel {
       productNameErrorLive.setValue(null);
     }
 
-    ArrayList<Product> allProducts = new ArrayList<>();
-    allProducts.addAll(products);
-    allProducts.addAll(pendingProducts);
-    ArrayList<Product> suggestions = new ArrayList<>(allProducts.size());
-    List<BoundExtractedResult<Product>> results = FuzzySearch.extractSorted(
-            productName.toLowerCase(),
-            allProducts,
-            Product::getName,
-            20
-    );
-    for (BoundExtractedResult<Product> result : results) {
-      suggestions.add(result.getReferent());
+    // products and pending products have separate ids, so they are merged by score
+    List<Match> productMatches = ProductSearchIndex.getInstance()
+        .searchScored(productName, MAX_SUGGESTIONS);
+    List<Match> pendingMatches = pendingProductSearchIndex
+        .searchScored(productName, MAX_SUGGESTIONS);
+    ArrayList<Product> suggestions = new ArrayList<>(MAX_SUGGESTIONS);
+    int productIndex = 0;
+    int pendingIndex = 0;
+    while (suggestions.size() < MAX_SUGGESTIONS && (productIndex < productMatches.size()
+        || pendingIndex < pendingMatches.size())) {
+      boolean takeProduct = pendingIndex >= pendingMatches.size()
+          || productIndex < productMatches.size()
+          && productMatches.get(productIndex).score >= pendingMatches.get(pendingIndex).score;
+      Product suggestion = takeProduct
+          ? productIdHashMap.get(productMatches.get(productIndex++).productId)
+          : pendingProductIdHashMap.get(pendingMatches.get(pendingIndex++).productId);
+      if (suggestion != null) {
+        suggestions.add(suggestion);
+      }
     }
 
     displayedItemsLive.setValue(suggestions);
@@ -42,6 +42,7 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataAssignment;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataChoresStatus;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataTasksSort;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.repository.ChoresRepository;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
@@ -128,7 +129,7 @@ public class ChoresViewModel extends BaseViewModel {
           continue;
         }
         int daysFromNow = DateUtil
-            .getDaysFromNowWithTime(choreEntry.getNextEstimatedExecutionTime());
+            .getDaysFromTodayWithTime(choreEntry.getNextExecutionEpochSecond());
         if (daysFromNow < 0) {
           choresOverdueCount++;
         }
@@ -182,7 +183,7 @@ public class ChoresViewModel extends BaseViewModel {
               continue;
             }
             int daysFromNow = DateUtil
-                .getDaysFromNowWithTime(choreEntry.getNextEstimatedExecutionTime());
+                .getDaysFromTodayWithTime(choreEntry.getNextExecutionEpochSecond());
             if (daysFromNow < 0) {
               choresOverdueCount++;
             }
@@ -254,7 +255,8 @@ public class ChoresViewModel extends BaseViewModel {
         continue;
       }
 
-      int daysFromNow = DateUtil.getDaysFromNowWithTime(choreEntry.getNextEstimatedExecutionTime());
+      int daysFromNow = DateUtil
+          .getDaysFromTodayWithTime(choreEntry.getNextExecutionEpochSecond());
       if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataChoresStatus.STATUS_OVERDUE
           && daysFromNow >= 0
           || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataChoresStatus.STATUS_DUE_TODAY
@@ -309,9 +311,12 @@ public class ChoresViewModel extends BaseViewModel {
       showErrorMessage();
       return;
     }
-    dlHelper.post(
-        grocyApi.executeChore(chore.getId()),
-        body,
+    dlHelper.postOrQueue(
+        OutboxOperation.post(
+            grocyApi.executeChore(chore.getId()),
+            body,
+            OutboxOperation.getChoreGroupKey(chore.getId())
+        ),
         response -> {
           showMessage(getApplication().getString(R.string.msg_chore_executed));
           downloadData();
@@ -319,6 +324,7 @@ public class ChoresViewModel extends BaseViewModel {
             Log.i(TAG, "executeChore: " + response);
           }
         },
+        () -> showMessage(R.string.msg_queued_offline),
         error -> {
           showErrorMessage(error);
           if (debug) {
@@ -44,15 +44,17 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuantityUnitsBottomSh
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockEntriesBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockLocationsBottomSheet;
+import xyz.zedler.patrick.grocy.helper.BarcodeIndex;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.QuantityUnitConversionGraph;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FormDataConsume;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.StockEntry;
 import xyz.zedler.patrick.grocy.model.StockLocation;
@@ -79,8 +81,8 @@ public class ConsumeViewModel extends BaseViewModel {
   private final FormDataConsume formData;
 
   private List<Product> products;
-  private List<QuantityUnitConversion> unitConversions;
-  private List<ProductBarcode> barcodes;
+  private QuantityUnitConversionGraph unitConversionGraph;
+  private BarcodeIndex barcodeIndex;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
 
   private final MutableLiveData<Boolean> isLoadingLive;
@@ -115,7 +117,7 @@ public class ConsumeViewModel extends BaseViewModel {
     }
     quickModeEnabled = new MutableLiveData<>(quickModeStart);
 
-    barcodes = new ArrayList<>();
+    barcodeIndex = new BarcodeIndex();
   }
 
   public FormDataConsume getFormData() {
@@ -125,9 +127,11 @@ public class ConsumeViewModel extends BaseViewModel {
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
       this.products = data.getProducts();
-      this.barcodes = data.getBarcodes();
+      barcodeIndex = BarcodeIndex.of(data.getBarcodes());
       this.quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      this.unitConversions = data.getQuantityUnitConversions();
+      this.unitConversionGraph = new QuantityUnitConversionGraph(
+          data.getQuantityUnitConversions()
+      );
       formData.getProductsLive().setValue(Product.getActiveProductsOnly(products));
       if (downloadAfterLoading) {
         downloadData();
@@ -151,9 +155,10 @@ public class ConsumeViewModel extends BaseViewModel {
           this.products = products;
           formData.getProductsLive().setValue(Product.getActiveProductsOnly(products));
         }), dlHelper.updateQuantityUnitConversions(
-            dbChangedTime, conversions -> this.unitConversions = conversions
+            dbChangedTime,
+            conversions -> unitConversionGraph = new QuantityUnitConversionGraph(conversions)
         ), dlHelper.updateProductBarcodes(
-            dbChangedTime, barcodes -> this.barcodes = barcodes
+            dbChangedTime, barcodes -> barcodeIndex = BarcodeIndex.of(barcodes)
         ), dlHelper.updateQuantityUnits(
             dbChangedTime,
             quantityUnits -> quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(quantityUnits)
@@ -220,7 +225,7 @@ public class ConsumeViewModel extends BaseViewModel {
         HashMap<QuantityUnit, Double> unitFactors= QuantityUnitConversionUtil.getUnitFactors(
             getApplication(),
             quantityUnitHashMap,
-            unitConversions,
+            unitConversionGraph,
             product
         );
         formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
@@ -337,7 +342,7 @@ public class ConsumeViewModel extends BaseViewModel {
 
   public void onBarcodeRecognized(String barcode) {
     if (formData.getProductDetailsLive().getValue() != null) {
-      if (ProductBarcode.getFromBarcode(barcodes, barcode) == null) {
+      if (barcodeIndex.get(barcode) == null) {
         formData.getBarcodeLive().setValue(barcode);
       } else {
         showMessage(R.string.msg_clear_form_first);
@@ -360,7 +365,7 @@ public class ConsumeViewModel extends BaseViewModel {
     }
     ProductBarcode productBarcode = null;
     if (product == null) {
-      productBarcode = ProductBarcode.getFromBarcode(barcodes, barcode);
+      productBarcode = barcodeIndex.get(barcode);
       product = productBarcode != null
           ? Product.getProductFromId(products, productBarcode.getProductIdInt()) : null;
     }
@@ -393,12 +398,9 @@ public class ConsumeViewModel extends BaseViewModel {
       return;
     }
     if (product == null) {
-      ProductBarcode productBarcode = null;
-      for (ProductBarcode code : barcodes) {
-        if (code.getBarcode().equals(input.trim())) {
-          productBarcode = code;
-          product = Product.getProductFromId(products, code.getProductIdInt());
-        }
+      ProductBarcode productBarcode = barcodeIndex.get(input);
+      if (productBarcode != null) {
+        product = Product.getProductFromId(products, productBarcode.getProductIdInt());
       }
       if (product != null) {
         setProduct(product.getId(), productBarcode, null);
@@ -441,11 +443,14 @@ public class ConsumeViewModel extends BaseViewModel {
         && formData.getOpenVisibilityLive().getValue();
     Product product = formData.getProductDetailsLive().getValue().getProduct();
     JSONObject body = formData.getFilledJSONObject(isActionOpen);
-    dlHelper.postWithArray(
-        isActionOpen
-            ? grocyApi.openProduct(product.getId())
-            : grocyApi.consumeProduct(product.getId()),
-        body,
+    dlHelper.postWithArrayOrQueue(
+        OutboxOperation.post(
+            isActionOpen
+                ? grocyApi.openProduct(product.getId())
+                : grocyApi.consumeProduct(product.getId()),
+            body,
+            OutboxOperation.getProductGroupKey(product.getId())
+        ),
         response -> {
           // UNDO OPTION
           String transactionId = null;
@@ -483,6 +488,10 @@ public class ConsumeViewModel extends BaseViewModel {
           showSnackbar(snackbarMessage);
           sendEvent(Event.CONSUME_SUCCESS);
         },
+        () -> {
+          showMessage(R.string.msg_queued_offline);
+          sendEvent(Event.CONSUME_SUCCESS);
+        },
         error -> {
           showErrorMessage(error);
           if (debug) {
@@ -510,7 +519,7 @@ public class ConsumeViewModel extends BaseViewModel {
     JSONObject body = productBarcode.getJsonFromProductBarcode(debug, TAG);
     dlHelper.addProductBarcode(body, () -> {
       formData.getBarcodeLive().setValue(null);
-      barcodes.add(productBarcode); // add to list so it will be found on next scan without reload
+      barcodeIndex.add(productBarcode); // so it will be found on next scan without reload
       if (onSuccess != null) {
         onSuccess.run();
       }
@@ -45,16 +45,18 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.LocationsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuantityUnitsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StoresBottomSheet;
+import xyz.zedler.patrick.grocy.helper.BarcodeIndex;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.QuantityUnitConversionGraph;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FormDataInventory;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.repository.InventoryRepository;
@@ -81,8 +83,8 @@ public class InventoryViewModel extends BaseViewModel {
   private final FormDataInventory formData;
 
   private List<Product> products;
-  private List<QuantityUnitConversion> unitConversions;
-  private List<ProductBarcode> barcodes;
+  private QuantityUnitConversionGraph unitConversionGraph;
+  private BarcodeIndex barcodeIndex;
   private List<Store> stores;
   private List<Location> locations;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
@@ -119,7 +121,7 @@ public class InventoryViewModel extends BaseViewModel {
     }
     quickModeEnabled = new MutableLiveData<>(quickModeStart);
 
-    barcodes = new ArrayList<>();
+    barcodeIndex = new BarcodeIndex();
   }
 
   public FormDataInventory getFormData() {
@@ -129,9 +131,11 @@ public class InventoryViewModel extends BaseViewModel {
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
       this.products = data.getProducts();
-      this.barcodes = data.getBarcodes();
+      barcodeIndex = BarcodeIndex.of(data.getBarcodes());
       this.quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      this.unitConversions = data.getQuantityUnitConversions();
+      this.unitConversionGraph = new QuantityUnitConversionGraph(
+          data.getQuantityUnitConversions()
+      );
       this.stores = data.getStores();
       this.locations = data.getLocations();
       formData.getProductsLive().setValue(Product.getActiveAndStockEnabledProductsOnly(products));
@@ -157,9 +161,10 @@ public class InventoryViewModel extends BaseViewModel {
           this.products = products;
           formData.getProductsLive().setValue(Product.getActiveAndStockEnabledProductsOnly(products));
         }), dlHelper.updateQuantityUnitConversions(
-            dbChangedTime, conversions -> this.unitConversions = conversions
+            dbChangedTime,
+            conversions -> unitConversionGraph = new QuantityUnitConversionGraph(conversions)
         ), dlHelper.updateProductBarcodes(
-            dbChangedTime, barcodes -> this.barcodes = barcodes
+            dbChangedTime, barcodes -> barcodeIndex = BarcodeIndex.of(barcodes)
         ), dlHelper.updateQuantityUnits(
             dbChangedTime,
             quantityUnits -> quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(quantityUnits)
@@ -222,7 +227,7 @@ public class InventoryViewModel extends BaseViewModel {
         HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
             getApplication(),
             quantityUnitHashMap,
-            unitConversions,
+            unitConversionGraph,
             updatedProduct
         );
         formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
@@ -292,7 +297,7 @@ public class InventoryViewModel extends BaseViewModel {
 
   public void onBarcodeRecognized(String barcode) {
     if (formData.getProductDetailsLive().getValue() != null) {
-      if (ProductBarcode.getFromBarcode(barcodes, barcode) == null) {
+      if (barcodeIndex.get(barcode) == null) {
         formData.getBarcodeLive().setValue(barcode);
       } else {
         showMessage(R.string.msg_clear_form_first);
@@ -312,7 +317,7 @@ public class InventoryViewModel extends BaseViewModel {
       return;
     }
     if (product == null) {
-      ProductBarcode productBarcode = ProductBarcode.getFromBarcode(barcodes, barcode);
+      ProductBarcode productBarcode = barcodeIndex.get(barcode);
       product = productBarcode != null
           ? Product.getProductFromId(products, productBarcode.getProductIdInt()) : null;
     }
@@ -345,10 +350,9 @@ public class InventoryViewModel extends BaseViewModel {
       return;
     }
     if (product == null) {
-      for (ProductBarcode code : barcodes) {
-        if (code.getBarcode().equals(input.trim())) {
-          product = Product.getProductFromId(products, code.getProductIdInt());
-        }
+      ProductBarcode productBarcode = barcodeIndex.get(input);
+      if (productBarcode != null) {
+        product = Product.getProductFromId(products, productBarcode.getProductIdInt());
       }
       if (product != null) {
         setProduct(product.getId());
@@ -387,9 +391,12 @@ public class InventoryViewModel extends BaseViewModel {
 
     Product product = formData.getProductDetailsLive().getValue().getProduct();
     JSONObject body = formData.getFilledJSONObject();
-    dlHelper.postWithArray(
-        grocyApi.inventoryProduct(product.getId()),
-        body,
+    dlHelper.postWithArrayOrQueue(
+        OutboxOperation.post(
+            grocyApi.inventoryProduct(product.getId()),
+            body,
+            OutboxOperation.getProductGroupKey(product.getId())
+        ),
         response -> {
           // UNDO OPTION
           String transactionId = null;
@@ -423,6 +430,10 @@ public class InventoryViewModel extends BaseViewModel {
           showSnackbar(snackbarMessage);
           sendEvent(Event.TRANSACTION_SUCCESS);
         },
+        () -> {
+          showMessage(R.string.msg_queued_offline);
+          sendEvent(Event.TRANSACTION_SUCCESS);
+        },
         error -> {
           showErrorMessage(error);
             if (debug) {
@@ -450,7 +461,7 @@ public class InventoryViewModel extends BaseViewModel {
     JSONObject body = productBarcode.getJsonFromProductBarcode(debug, TAG);
     dlHelper.addProductBarcode(body, () -> {
       formData.getBarcodeLive().setValue(null);
-      barcodes.add(productBarcode); // add to list so it will be found on next scan without reload
+      barcodeIndex.add(productBarcode); // so it will be found on next scan without reload
         if (onSuccess != null) {
             onSuccess.run();
         }
@@ -31,14 +31,12 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 import androidx.preference.PreferenceManager;
 import com.android.volley.VolleyError;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
-import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.OverviewCounts;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
@@ -46,12 +44,10 @@ import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
 import xyz.zedler.patrick.grocy.repository.OverviewStartRepository;
-import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.Constants;
 import xyz.zedler.patrick.grocy.util.Constants.PREF;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS_DEFAULT;
-import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
@@ -62,16 +58,16 @@ public class OverviewStartViewModel extends BaseViewModel {
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
   private final OverviewStartRepository repository;
+  private final CompositeDisposable disposables;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
   private final MutableLiveData<Boolean> offlineLive;
 
-  private final MutableLiveData<List<StockItem>> stockItemsLive;
-  private final MutableLiveData<List<ShoppingListItem>> shoppingListItemsLive;
-  private final MutableLiveData<List<Product>> productsLive;
-  private final MutableLiveData<List<Task>> tasksLive;
-  private final MutableLiveData<List<ChoreEntry>> choreEntriesLive;
+  private final MutableLiveData<Integer> shoppingListItemsCountLive;
+  private final MutableLiveData<Integer> productsCountLive;
+  private final MutableLiveData<Integer> tasksUndoneCountLive;
+  private final MutableLiveData<Integer> tasksAssignedCountLive;
   private final MutableLiveData<Integer> itemsDueNextCountLive;
   private final MutableLiveData<Integer> itemsOverdueCountLive;
   private final MutableLiveData<Integer> itemsExpiredCountLive;
@@ -99,7 +95,7 @@ public class OverviewStartViewModel extends BaseViewModel {
   private final LiveData<String> tasksUserDescriptionTextLive;
   private final LiveData<String> masterDataDescriptionTextLive;
   private final MutableLiveData<Integer> currentUserIdLive;
-  private List<ShoppingList> shoppingLists;
+  private Integer shoppingListsCount;
   private final boolean debug;
 
   public OverviewStartViewModel(@NonNull Application application) {
@@ -111,10 +107,10 @@ public class OverviewStartViewModel extends BaseViewModel {
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue);
     repository = new OverviewStartRepository(application);
+    disposables = new CompositeDisposable();
 
     infoFullscreenLive = new MutableLiveData<>();
     offlineLive = new MutableLiveData<>(false);
-    stockItemsLive = new MutableLiveData<>();
     itemsDueNextCountLive = new MutableLiveData<>();
     itemsOverdueCountLive = new MutableLiveData<>();
     itemsExpiredCountLive = new MutableLiveData<>();
@@ -123,14 +119,14 @@ public class OverviewStartViewModel extends BaseViewModel {
     itemsInStockCountLive = new MutableLiveData<>();
     stockValueLive = new MutableLiveData<>();
     storedPurchasesOnDevice = new MutableLiveData<>(false);
-    shoppingListItemsLive = new MutableLiveData<>();
-    productsLive = new MutableLiveData<>();
+    shoppingListItemsCountLive = new MutableLiveData<>();
+    productsCountLive = new MutableLiveData<>();
     choresDueTodayCountLive = new MutableLiveData<>();
     choresDueSoonCountLive = new MutableLiveData<>();
     choresAssignedCountLive = new MutableLiveData<>();
     choresOverdueCountLive = new MutableLiveData<>();
-    choreEntriesLive = new MutableLiveData<>();
-    tasksLive = new MutableLiveData<>();
+    tasksUndoneCountLive = new MutableLiveData<>();
+    tasksAssignedCountLive = new MutableLiveData<>();
     currentUserIdLive = new MutableLiveData<>(sharedPrefs.getInt(PREF.CURRENT_USER_ID, 1));
 
     stockDescriptionTextLive = new MediatorLiveData<>();
@@ -239,7 +235,7 @@ public class OverviewStartViewModel extends BaseViewModel {
             return null;
           }
           @PluralsRes int string;
-          if (shoppingLists == null || shoppingLists.size() > 1) {
+          if (shoppingListsCount == null || shoppingListsCount > 1) {
             string = R.plurals.description_overview_stock_missing_shopping_list_multi;
           } else {
             string = R.plurals.description_overview_stock_missing_shopping_list_single;
@@ -248,13 +244,12 @@ public class OverviewStartViewModel extends BaseViewModel {
         }
     );
     shoppingListDescriptionTextLive = Transformations.map(
-        shoppingListItemsLive,
-        shoppingListItems -> {
-          if (shoppingListItems == null) {
+        shoppingListItemsCountLive,
+        size -> {
+          if (size == null) {
             return null;
           }
-          int size = shoppingListItems.size();
-          if (shoppingLists == null || shoppingLists.size() > 1) {
+          if (shoppingListsCount == null || shoppingListsCount > 1) {
             return getResources().getQuantityString(
                 R.plurals.description_overview_shopping_list_multi, size, size
             );
@@ -324,150 +319,66 @@ public class OverviewStartViewModel extends BaseViewModel {
         }
     );
     tasksDescriptionTextLive = Transformations.map(
-        tasksLive,
-        tasks -> {
-          if (tasks == null) {
+        tasksUndoneCountLive,
+        undoneTasksCount -> {
+          if (undoneTasksCount == null) {
             return null;
           }
-          int undoneTasksCount = Task.getUndoneTasksCount(tasks);
           return getResources().getQuantityString(
               R.plurals.description_overview_tasks, undoneTasksCount, undoneTasksCount
           );
         }
     );
     tasksUserDescriptionTextLive = Transformations.map(
-        tasksLive,
-        tasks -> {
-          if (tasks == null) return null;
-          int currentUserId = currentUserIdLive.getValue() != null ? currentUserIdLive.getValue() : 1;
-          int assignedTasksCount = Task
-              .getAssignedTasksCount(Task.getUndoneTasksOnly(tasks), currentUserId);
+        tasksAssignedCountLive,
+        assignedTasksCount -> {
+          if (assignedTasksCount == null) return null;
           return getResources().getQuantityString(
               R.plurals.description_overview_tasks_user, assignedTasksCount, assignedTasksCount
           );
         }
     );
     masterDataDescriptionTextLive = Transformations.map(
-        productsLive,
-        products -> {
-          if (products == null) {
+        productsCountLive,
+        size -> {
+          if (size == null) {
             return null;
           }
-          int size = products.size();
           return getResources().getQuantityString(
               R.plurals.description_overview_master_data, size, size
           );
         }
     );
+
+    observeDatabase();
   }
 
-  public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
-      this.shoppingLists = data.getShoppingLists();
-      this.stockItemsLive.setValue(data.getStockItems());
-      this.shoppingListItemsLive.setValue(data.getShoppingListItems());
-      this.productsLive.setValue(data.getProducts());
-      this.storedPurchasesOnDevice.setValue(data.getStoredPurchases().size() > 0);
-      this.choreEntriesLive.setValue(data.getChoreEntries());
-      this.tasksLive.setValue(data.getTasks());
-
-      ArrayList<Integer> shoppingListItemsProductIds = new ArrayList<>();
-      for (ShoppingListItem item : data.getShoppingListItems()) {
-        if (!item.hasProduct()) {
-          continue;
-        }
-        shoppingListItemsProductIds.add(item.getProductIdInt());
-      }
-
-      int itemsDueCount = 0;
-      int itemsOverdueCount = 0;
-      int itemsExpiredCount = 0;
-      HashMap<Integer, StockItem> stockItemHashMap = ArrayUtil
-          .getStockItemHashMap(data.getStockItems());
-      for (VolatileItem volatileItem : data.getVolatileItems()) {
-        StockItem stockItem = stockItemHashMap.get(volatileItem.getProductId());
-        if (stockItem == null) continue;
-        if (volatileItem.getVolatileType() == VolatileItem.TYPE_DUE) {
-          stockItem.setItemDue(true);
-          itemsDueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_OVERDUE) {
-          stockItem.setItemOverdue(true);
-          itemsOverdueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_EXPIRED) {
-          stockItem.setItemExpired(true);
-          itemsExpiredCount++;
-        }
-      }
-      int itemsMissingCount = 0;
-      int missingItemsOnShoppingListCount = 0;
-      for (MissingItem missingItem : data.getMissingItems()) {
-        itemsMissingCount++;
-        StockItem stockItem = stockItemHashMap.get(missingItem.getId());
-        if (stockItem == null && !missingItem.getIsPartlyInStockBoolean()) {
-          StockItem stockItemMissing = new StockItem(missingItem);
-          if (stockItemsLive.getValue() != null) {
-            stockItemsLive.getValue().add(stockItemMissing);
-          }
-        } else if (stockItem != null) {
-          stockItem.setItemMissing(true);
-          stockItem.setItemMissingAndPartlyInStock(missingItem.getIsPartlyInStockBoolean());
-        }
-        if (shoppingListItemsProductIds.contains(missingItem.getId())) {
-          missingItemsOnShoppingListCount++;
-        }
-      }
-      int itemsInStockCount = 0;
-      double stockValue = 0;
-      for (StockItem stockItem : data.getStockItems()) {
-        if (!stockItem.isItemMissing() || stockItem.isItemMissingAndPartlyInStock()) {
-          itemsInStockCount++;
-          stockValue += stockItem.getValueDouble();
-        }
-      }
-
-      itemsDueNextCountLive.setValue(itemsDueCount);
-      itemsOverdueCountLive.setValue(itemsOverdueCount);
-      itemsExpiredCountLive.setValue(itemsExpiredCount);
-      itemsMissingCountLive.setValue(itemsMissingCount);
-      itemsInStockCountLive.setValue(itemsInStockCount);
-      itemsMissingShoppingListCountLive.setValue(missingItemsOnShoppingListCount);
-      stockValueLive.setValue(stockValue);
-
-      int choresDueTodayCount = 0;
-      int choresDueSoonCount = 0;
-      int choresOverdueCount = 0;
-      int choresAssignedCount = 0;
-      for (ChoreEntry choreEntry : data.getChoreEntries()) {
-        if (NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
-            && currentUserIdLive.getValue() != null && currentUserIdLive.getValue()
-            == Integer.parseInt(choreEntry.getNextExecutionAssignedToUserId())) {
-          choresAssignedCount++;
-        }
-        if (choreEntry.getNextEstimatedExecutionTime() == null
-            || choreEntry.getNextEstimatedExecutionTime().isEmpty()) {
-          continue;
-        }
-        int daysFromNow = DateUtil
-            .getDaysFromNowWithTime(choreEntry.getNextEstimatedExecutionTime());
-        if (daysFromNow < 0) {
-          choresOverdueCount++;
-        }
-        if (daysFromNow == 0) {
-          choresDueTodayCount++;
-        }
-        if (daysFromNow >= 0 && daysFromNow <= 5) {
-          choresDueSoonCount++;
-        }
-      }
-      choresAssignedCountLive.setValue(choresAssignedCount);
-      choresOverdueCountLive.setValue(choresOverdueCount);
-      choresDueSoonCountLive.setValue(choresDueSoonCount);
-      choresDueTodayCountLive.setValue(choresDueTodayCount);
-
-      if (downloadAfterLoading) {
-        downloadData();
-      }
-    });
+  private void observeDatabase() {
+    int currentUserId = currentUserIdLive.getValue() != null ? currentUserIdLive.getValue() : 1;
+    disposables.clear();
+    disposables.add(repository.observeDatabase(currentUserId, this::onDatabaseChanged));
+  }
+
+  private void onDatabaseChanged(OverviewCounts counts) {
+    shoppingListsCount = counts.getShoppingLists();
+    shoppingListItemsCountLive.setValue(counts.getShoppingListItems());
+    productsCountLive.setValue(counts.getProducts());
+    storedPurchasesOnDevice.setValue(counts.getStoredPurchases() > 0);
+    tasksUndoneCountLive.setValue(counts.getTasksUndone());
+    tasksAssignedCountLive.setValue(counts.getTasksAssigned());
+
+    itemsDueNextCountLive.setValue(counts.getItemsDue());
+    itemsOverdueCountLive.setValue(counts.getItemsOverdue());
+    itemsExpiredCountLive.setValue(counts.getItemsExpired());
+    itemsMissingCountLive.setValue(counts.getItemsMissing());
+    itemsInStockCountLive.setValue(counts.getItemsInStock());
+    itemsMissingShoppingListCountLive.setValue(counts.getItemsMissingShoppingList());
+    stockValueLive.setValue(counts.getStockValue());
+
+    choresAssignedCountLive.setValue(counts.getChoresAssigned());
+    choresOverdueCountLive.setValue(counts.getChoresOverdue());
+    choresDueSoonCountLive.setValue(counts.getChoresDueSoon());
+    choresDueTodayCountLive.setValue(counts.getChoresDueToday());
   }
 
   public void downloadData() {
@@ -512,26 +423,9 @@ public class OverviewStartViewModel extends BaseViewModel {
         if (id != -1) {
           sharedPrefs.edit().putInt(PREF.CURRENT_USER_ID, id).apply();
           currentUserIdLive.setValue(id);
-          tasksLive.setValue(tasksLive.getValue());  // update descriptions above
-          if (this.choreEntriesLive.getValue() != null) {
-            int choresAssignedCount = 0;
-            for (ChoreEntry choreEntry : this.choreEntriesLive.getValue()) {
-              if (NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
-                  && currentUserIdLive.getValue() != null && currentUserIdLive.getValue()
-                  == Integer.parseInt(choreEntry.getNextExecutionAssignedToUserId())) {
-                choresAssignedCount++;
-              }
-            }
-            choresAssignedCountLive.setValue(choresAssignedCount);
-          }
+          observeDatabase(); // count the assigned tasks and chores of this user
         }
-      }).perform(
-          i -> loadFromDatabase(false),
-          error -> loadFromDatabase(false),
-          dlHelper.getUuid()
-      );
-    } else {
-      loadFromDatabase(false);
+      }).perform(dlHelper.getUuid());
     }
   }
 
@@ -652,6 +546,7 @@ public class OverviewStartViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    disposables.clear();
     dlHelper.destroy();
     super.onCleared();
   }
@@ -45,8 +45,10 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.LocationsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuantityUnitsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StoresBottomSheet;
+import xyz.zedler.patrick.grocy.helper.BarcodeIndex;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnJSONArrayResponseListener;
+import xyz.zedler.patrick.grocy.helper.QuantityUnitConversionGraph;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FormDataPurchase;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
@@ -92,9 +94,10 @@ public class PurchaseViewModel extends BaseViewModel {
   private List<QuantityUnit> quantityUnits;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private List<QuantityUnitConversion> unitConversions;
+  private QuantityUnitConversionGraph unitConversionGraph;
   private HashMap<Integer, ArrayList<QuantityUnitConversion>> unitConversionHashMap;
   private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private List<ProductBarcode> barcodes;
+  private BarcodeIndex barcodeIndex;
   private List<PendingProductBarcode> pendingProductBarcodes;
   private List<Store> stores;
   private List<Location> locations;
@@ -167,10 +170,11 @@ public class PurchaseViewModel extends BaseViewModel {
       );
       productHashMap = ArrayUtil.getProductsHashMap(products);
       this.pendingProductBarcodes = data.getPendingProductBarcodes();
-      this.barcodes = appendPendingProductBarcodes(data.getBarcodes(), pendingProductBarcodes);
+      barcodeIndex = getBarcodeIndex(data.getBarcodes(), pendingProductBarcodes);
       this.quantityUnits = data.getQuantityUnits();
       quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(quantityUnits);
       this.unitConversions = data.getQuantityUnitConversions();
+      unitConversionGraph = new QuantityUnitConversionGraph(unitConversions);
       unitConversionHashMap = ArrayUtil.getUnitConversionsHashMap(unitConversions);
       this.stores = data.getStores();
       this.locations = data.getLocations();
@@ -206,11 +210,10 @@ public class PurchaseViewModel extends BaseViewModel {
           );
         }), dlHelper.updateQuantityUnitConversions(dbChangedTime, conversions -> {
           this.unitConversions = conversions;
+          unitConversionGraph = new QuantityUnitConversionGraph(conversions);
           unitConversionHashMap = ArrayUtil.getUnitConversionsHashMap(unitConversions);
         }), dlHelper.updateProductBarcodes(dbChangedTime,
-            barcodes -> this.barcodes = appendPendingProductBarcodes(
-                barcodes, pendingProductBarcodes
-            )
+            barcodes -> barcodeIndex = getBarcodeIndex(barcodes, pendingProductBarcodes)
         ), dlHelper.updateQuantityUnits(dbChangedTime, quantityUnits -> {
           this.quantityUnits = quantityUnits;
           quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(quantityUnits);
@@ -299,7 +302,7 @@ public class PurchaseViewModel extends BaseViewModel {
         HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
             getApplication(),
             quantityUnitHashMap,
-            unitConversions,
+            unitConversionGraph,
             updatedProduct
         );
         formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
@@ -508,7 +511,7 @@ public class PurchaseViewModel extends BaseViewModel {
 
   public void onBarcodeRecognized(String barcode) {
     if (formData.getProductDetailsLive().getValue() != null) {
-      if (ProductBarcode.getFromBarcode(barcodes, barcode) == null) {
+      if (barcodeIndex.get(barcode) == null) {
         formData.getBarcodeLive().setValue(barcode);
       } else {
         showMessage(R.string.msg_clear_form_first);
@@ -529,7 +532,7 @@ public class PurchaseViewModel extends BaseViewModel {
     }
     ProductBarcode productBarcode = null;
     if (product == null) {
-      productBarcode = ProductBarcode.getFromBarcode(barcodes, barcode);
+      productBarcode = barcodeIndex.get(barcode);
       if (productBarcode instanceof PendingProductBarcode) {
         setPendingProduct(productBarcode.getProductIdInt(), (PendingProductBarcode) productBarcode);
         return;
@@ -566,15 +569,12 @@ public class PurchaseViewModel extends BaseViewModel {
       return;
     }
     if (product == null) {
-      ProductBarcode productBarcode = null;
-      for (ProductBarcode code : barcodes) {
-        if (code.getBarcode().equals(input.trim())) {
-          productBarcode = code;
-          if (code instanceof PendingProductBarcode) {
-            product = PendingProduct.getFromId(pendingProducts, code.getProductIdInt());
-          } else {
-            product = productHashMap.get(code.getProductIdInt());
-          }
+      ProductBarcode productBarcode = barcodeIndex.get(input);
+      if (productBarcode != null) {
+        if (productBarcode instanceof PendingProductBarcode) {
+          product = PendingProduct.getFromId(pendingProducts, productBarcode.getProductIdInt());
+        } else {
+          product = productHashMap.get(productBarcode.getProductIdInt());
         }
       }
       if (product != null) {
@@ -743,7 +743,7 @@ public class PurchaseViewModel extends BaseViewModel {
     JSONObject body = productBarcode.getJsonFromProductBarcode(debug, TAG);
     dlHelper.addProductBarcode(body, () -> {
       formData.getBarcodeLive().setValue(null);
-      barcodes.add(productBarcode); // add to list so it will be found on next scan without reload
+      barcodeIndex.add(productBarcode); // so it will be found on next scan without reload
       if (onSuccess != null) {
         onSuccess.run();
       }
@@ -777,7 +777,7 @@ public class PurchaseViewModel extends BaseViewModel {
   private void storePendingProductBarcode(Runnable onSuccess) {
     PendingProductBarcode productBarcode = formData.fillPendingProductBarcode();
     formData.getBarcodeLive().setValue(null);
-    barcodes.add(productBarcode); // add to list so it will be found on next scan without reload
+    barcodeIndex.add(productBarcode); // so it will be found on next scan without reload
     pendingProductBarcodes.add(productBarcode);
     repository.insertPendingProductBarcode(productBarcode, onSuccess);
   }
@@ -988,20 +988,17 @@ public class PurchaseViewModel extends BaseViewModel {
     return newList;
   }
 
-  private ArrayList<ProductBarcode> appendPendingProductBarcodes(
+  private BarcodeIndex getBarcodeIndex(
       List<ProductBarcode> productBarcodes,
       List<PendingProductBarcode> pendingProductBarcodes
   ) {
-    ArrayList<String> barcodeStrings = new ArrayList<>();
-    for (ProductBarcode productBarcode : productBarcodes) {
-      barcodeStrings.add(productBarcode.getBarcode());
-    }
-    ArrayList<ProductBarcode> newList = new ArrayList<>(productBarcodes);
-    for (PendingProductBarcode pendingProductBarcode : pendingProductBarcodes) {
-      if (barcodeStrings.contains(pendingProductBarcode.getBarcode())) continue;
-      newList.add(pendingProductBarcode);
-    }
-    return newList;
+    BarcodeIndex index = new BarcodeIndex(
+        productBarcodes.size() + pendingProductBarcodes.size()
+    );
+    index.addAll(productBarcodes);
+    // pending product barcodes are skipped if a product has the same barcode
+    index.addAll(pendingProductBarcodes);
+    return index;
   }
 
   public boolean hasStoredPurchase() {
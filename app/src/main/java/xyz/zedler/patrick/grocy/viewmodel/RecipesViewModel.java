@@ -33,6 +33,7 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.RecipeIndex;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataRecipesExtraField;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataRecipesSort;
@@ -69,10 +70,7 @@ public class RecipesViewModel extends BaseViewModel {
   private final FilterChipLiveDataRecipesExtraField filterChipLiveDataExtraField;
 
   private List<Recipe> recipes;
-  private List<RecipeFulfillment> recipeFulfillments;
-  private List<RecipePosition> recipePositions;
-  private List<Product> products;
-  private List<QuantityUnit> quantityUnits;
+  private RecipeIndex recipeIndex;
 
   private String searchInput;
   private final boolean debug;
@@ -109,10 +107,7 @@ public class RecipesViewModel extends BaseViewModel {
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
       recipes = data.getRecipes();
-      recipeFulfillments = data.getRecipeFulfillments();
-      recipePositions = data.getRecipePositions();
-      products = data.getProducts();
-      quantityUnits = data.getQuantityUnits();
+      recipeIndex = data.getRecipeIndex();
 
       updateFilteredRecipes();
       if (downloadAfterLoading) {
@@ -172,7 +167,7 @@ public class RecipesViewModel extends BaseViewModel {
     int notEnoughInStockCount = 0;
 
     for (Recipe recipe : this.recipes) {
-      RecipeFulfillment recipeFulfillment = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe.getId());
+      RecipeFulfillment recipeFulfillment = recipeIndex.getFulfillment(recipe.getId());
 
       if (recipeFulfillment != null) {
         if (recipeFulfillment.isNeedFulfilled()) {
@@ -197,10 +192,7 @@ public class RecipesViewModel extends BaseViewModel {
 
       boolean searchContainsItem = true;
       if (searchInput != null && !searchInput.isEmpty()) {
-        searchContainsItem = recipe.getName().toLowerCase().contains(searchInput);
-
-        if (!searchContainsItem && recipeFulfillment != null)
-          searchContainsItem = recipeFulfillment.getProductNamesCommaSeparated().toLowerCase().contains(searchInput);
+        searchContainsItem = recipeIndex.matchesSearch(recipe.getId(), searchInput);
       }
 
       if (!searchContainsItem) {
@@ -216,10 +208,10 @@ public class RecipesViewModel extends BaseViewModel {
         SortUtil.sortRecipesByName(getApplication(), filteredRecipes, sortAscending);
         break;
       case SORT_CALORIES:
-        SortUtil.sortRecipesByCalories(getApplication(), filteredRecipes, recipeFulfillments, sortAscending);
+        SortUtil.sortRecipesByCalories(getApplication(), filteredRecipes, recipeIndex.getFulfillments(), sortAscending);
         break;
       case SORT_DUE_SCORE:
-        SortUtil.sortRecipesByDueScore(getApplication(), filteredRecipes, recipeFulfillments, sortAscending);
+        SortUtil.sortRecipesByDueScore(getApplication(), filteredRecipes, recipeIndex.getFulfillments(), sortAscending);
         break;
     }
 
@@ -256,20 +248,8 @@ public class RecipesViewModel extends BaseViewModel {
     );
   }
 
-  public ArrayList<RecipeFulfillment> getRecipeFulfillments() {
-    return new ArrayList<>(recipeFulfillments);
-  }
-
-  public ArrayList<RecipePosition> getRecipePositions() {
-    return new ArrayList<>(recipePositions);
-  }
-
-  public ArrayList<Product> getProducts() {
-    return new ArrayList<>(products);
-  }
-
-  public ArrayList<QuantityUnit> getQuantityUnits() {
-    return new ArrayList<>(quantityUnits);
+  public RecipeIndex getRecipeIndex() {
+    return recipeIndex;
   }
 
   public boolean isSearchActive() {
@@ -40,12 +40,12 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.InputProductBottomShe
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.ProductOverviewBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.ProductOverviewBottomSheetArgs;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.QuantityUnitConversionGraph;
 import xyz.zedler.patrick.grocy.model.FormDataShoppingListItemEdit;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.repository.ShoppingListItemEditRepository;
@@ -75,7 +75,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
   private List<ShoppingList> shoppingLists;
   private List<Product> products;
   private List<ProductBarcode> barcodes;
-  private List<QuantityUnitConversion> unitConversions;
+  private QuantityUnitConversionGraph unitConversionGraph;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
 
   private DownloadHelper.Queue currentQueueLoading;
@@ -114,7 +114,9 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
       this.products = data.getProducts();
       this.barcodes = data.getBarcodes();
       this.quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      this.unitConversions = data.getQuantityUnitConversions();
+      this.unitConversionGraph = new QuantityUnitConversionGraph(
+          data.getQuantityUnitConversions()
+      );
       formData.getProductsLive().setValue(Product.getActiveProductsOnly(products));
       if (!isActionEdit) {
         formData.getShoppingListLive().setValue(getLastShoppingList());
@@ -151,7 +153,8 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
           this.products = products;
           formData.getProductsLive().setValue(Product.getActiveProductsOnly(products));
         }), dlHelper.updateQuantityUnitConversions(
-            dbChangedTime, conversions -> this.unitConversions = conversions
+            dbChangedTime,
+            conversions -> unitConversionGraph = new QuantityUnitConversionGraph(conversions)
         ), dlHelper.updateProductBarcodes(
             dbChangedTime, barcodes -> this.barcodes = barcodes
         ), dlHelper.updateQuantityUnits(
@@ -282,7 +285,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
         HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
             getApplication(),
             quantityUnitHashMap,
-            unitConversions,
+            unitConversionGraph,
             product
         );
         formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
@@ -320,7 +323,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
     HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
         getApplication(),
         quantityUnitHashMap,
-        unitConversions,
+        unitConversionGraph,
         product
     );
     formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
@@ -29,6 +29,7 @@ import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
 import androidx.preference.PreferenceManager;
 import com.android.volley.VolleyError;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -37,11 +38,13 @@ import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.IntMap;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataShoppingListExtraField;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataShoppingListGrouping;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataShoppingListStatus;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
@@ -51,6 +54,7 @@ import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.repository.ShoppingListRepository;
+import xyz.zedler.patrick.grocy.repository.ShoppingListRepository.ShoppingListEntities;
 import xyz.zedler.patrick.grocy.util.AmountUtil;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.Constants;
@@ -65,6 +69,8 @@ public class ShoppingListViewModel extends BaseViewModel {
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final ShoppingListRepository repository;
+  private final CompositeDisposable disposables;
+  private boolean downloadAfterLoading;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
@@ -77,18 +83,18 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   private List<ShoppingListItem> shoppingListItems;
   private List<ShoppingList> shoppingLists;
-  private HashMap<Integer, ProductGroup> productGroupHashMap;
-  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private IntMap<ProductGroup> productGroupHashMap;
+  private IntMap<QuantityUnit> quantityUnitHashMap;
   private HashMap<Integer, ArrayList<QuantityUnitConversion>> unitConversionHashMap;
-  private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private HashMap<Integer, Product> productHashMap;
-  private HashMap<Integer, String> productNamesHashMap;
-  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private HashMap<Integer, Store> storeHashMap;
+  private IntMap<Double> shoppingListItemAmountsHashMap;
+  private IntMap<Product> productHashMap;
+  private IntMap<String> productNamesHashMap;
+  private IntMap<ProductLastPurchased> productLastPurchasedHashMap;
+  private IntMap<Store> storeHashMap;
   private ArrayList<Integer> missingProductIds;
-
-  private ArrayList<ShoppingListItem> itemsToSyncTemp;
-  private HashMap<Integer, ShoppingListItem> serverItemHashMapTemp;
+  private long productsVersion;
+  private long unitConversionsVersion;
+  private long missingItemsVersion;
 
   private DownloadHelper.Queue currentQueueLoading;
   private String searchInput;
@@ -104,6 +110,7 @@ public class ShoppingListViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue);
     grocyApi = new GrocyApi(getApplication());
     repository = new ShoppingListRepository(application);
+    disposables = new CompositeDisposable();
 
     infoFullscreenLive = new MutableLiveData<>();
     offlineLive = new MutableLiveData<>(false);
@@ -131,27 +138,41 @@ public class ShoppingListViewModel extends BaseViewModel {
       lastId = DEFAULT_SHOPPING_LIST_ID;
     }
     selectedShoppingListIdLive.setValue(lastId);
-  }
 
-  public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
-      this.shoppingListItems = data.getShoppingListItems();
-      this.shoppingLists = data.getShoppingLists();
-      productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      unitConversionHashMap = ArrayUtil.getUnitConversionsHashMap(data.getUnitConversions());
-      storeHashMap = ArrayUtil.getStoresHashMap(data.getStores());
-      missingProductIds = ArrayUtil.getMissingProductsIds(data.getMissingItems());
-      productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      productNamesHashMap = ArrayUtil.getProductNamesHashMap(data.getProducts());
-      productLastPurchasedHashMap = ArrayUtil
-          .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
-      fillShoppingListItemAmountsHashMap();
-      updateFilteredShoppingListItems();
-      if (downloadAfterLoading) {
-        downloadData();
-      }
-    });
+    disposables.add(repository.observeDatabase(this::onDatabaseChanged));
+  }
+
+  private void onDatabaseChanged(ShoppingListEntities entities) {
+    // the maps are shared with the store and the adapter, they are replaced but never changed
+    shoppingListItems = entities.getShoppingListItems().getList();
+    // copied because deleted lists are removed, the list objects are still shared
+    shoppingLists = new ArrayList<>(entities.getShoppingLists().getList());
+    productGroupHashMap = entities.getProductGroups().getMap();
+    quantityUnitHashMap = entities.getQuantityUnits().getMap();
+    storeHashMap = entities.getStores().getMap();
+    productHashMap = entities.getProducts().getMap();
+    productLastPurchasedHashMap = entities.getProductsLastPurchased().getMap();
+    if (entities.getUnitConversions().getVersion() != unitConversionsVersion) {
+      unitConversionsVersion = entities.getUnitConversions().getVersion();
+      unitConversionHashMap = ArrayUtil
+          .getUnitConversionsHashMap(entities.getUnitConversions().getList());
+    }
+    if (entities.getMissingItems().getVersion() != missingItemsVersion) {
+      missingItemsVersion = entities.getMissingItems().getVersion();
+      missingProductIds = ArrayUtil.getMissingProductsIds(entities.getMissingItems().getList());
+    }
+    if (entities.getProducts().getVersion() != productsVersion) {
+      productsVersion = entities.getProducts().getVersion();
+      productNamesHashMap = IntMap.of(
+          entities.getProducts().getList(), Product::getId, Product::getName
+      );
+    }
+    fillShoppingListItemAmountsHashMap();
+    updateFilteredShoppingListItems();
+    if (downloadAfterLoading) {
+      downloadAfterLoading = false;
+      downloadData();
+    }
   }
 
   public void updateFilteredShoppingListItems() {
@@ -249,6 +270,11 @@ public class ShoppingListViewModel extends BaseViewModel {
   }
 
   public void downloadData(@Nullable String dbChangedTime) {
+    if (shoppingListItems == null) {
+      // syncing needs the stored items, download as soon as the observer has delivered them
+      downloadAfterLoading = true;
+      return;
+    }
     if (currentQueueLoading != null) {
       currentQueueLoading.reset(true);
       currentQueueLoading = null;
@@ -269,38 +295,17 @@ public class ShoppingListViewModel extends BaseViewModel {
     DownloadHelper.Queue queue = dlHelper.newQueue(this::onQueueEmpty, this::onDownloadError);
     queue.append(
         dlHelper.updateShoppingListItems(
-            dbChangedTime,
-            (shoppingListItems, itemsToSync, serverItemsHashMap) -> {
-              this.shoppingListItems = shoppingListItems;
-              this.itemsToSyncTemp = itemsToSync;
-              this.serverItemHashMapTemp = serverItemsHashMap;
-            }
+            dbChangedTime, shoppingListItems -> this.shoppingListItems = shoppingListItems
         ), dlHelper.updateShoppingLists(
-            dbChangedTime, shoppingLists -> this.shoppingLists = shoppingLists
-        ), dlHelper.updateProductGroups(
-            dbChangedTime,
-            productGroups -> productGroupHashMap = ArrayUtil.getProductGroupsHashMap(productGroups)
-        ), dlHelper.updateQuantityUnits(
-            dbChangedTime,
-            quantityUnits -> quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(quantityUnits)
-        ), dlHelper.updateQuantityUnitConversions(
-            dbChangedTime,
-            unitConversions -> unitConversionHashMap = ArrayUtil.getUnitConversionsHashMap(unitConversions)
-        ), dlHelper.updateProducts(dbChangedTime, products -> {
-          productHashMap = ArrayUtil.getProductsHashMap(products);
-          productNamesHashMap = ArrayUtil.getProductNamesHashMap(products);
-        }), dlHelper.updateProductsLastPurchased(
-            dbChangedTime,
-            productsLastPurchased -> productLastPurchasedHashMap = ArrayUtil
-            .getProductLastPurchasedHashMap(productsLastPurchased),
-            true
-        ), dlHelper.updateStores(
-            dbChangedTime,
-            stores -> storeHashMap = ArrayUtil.getStoresHashMap(stores)
-        ), dlHelper.updateMissingItems(
-            dbChangedTime,
-            missing -> missingProductIds = ArrayUtil.getMissingProductsIds(missing)
-        )
+            dbChangedTime, shoppingLists -> this.shoppingLists = new ArrayList<>(shoppingLists)
+        ), // the other entities are delivered by the entity store after they are stored
+        dlHelper.updateProductGroups(dbChangedTime, null),
+        dlHelper.updateQuantityUnits(dbChangedTime, null),
+        dlHelper.updateQuantityUnitConversions(dbChangedTime, null),
+        dlHelper.updateProducts(dbChangedTime, null),
+        dlHelper.updateProductsLastPurchased(dbChangedTime, null, true),
+        dlHelper.updateStores(dbChangedTime, null),
+        dlHelper.updateMissingItems(dbChangedTime, null)
     );
 
     if (queue.isEmpty()) {
@@ -332,56 +337,14 @@ public class ShoppingListViewModel extends BaseViewModel {
   }
 
   private void onQueueEmpty() {
-    if (itemsToSyncTemp == null || itemsToSyncTemp.isEmpty() || serverItemHashMapTemp == null) {
-      tidyUpItems(itemsChanged -> {
-        if (itemsChanged) {
-          downloadData();
-        } else {
-          fillShoppingListItemAmountsHashMap();
-          updateFilteredShoppingListItems();
-        }
-      });
-      return;
-    }
-    DownloadHelper.OnQueueEmptyListener emptyListener = () -> {
-      ArrayList<ShoppingListItem> itemsToUpdate = new ArrayList<>();
-      for (ShoppingListItem itemToSync : itemsToSyncTemp) {
-        int itemId = itemToSync.getId();
-        ShoppingListItem itemToUpdate = serverItemHashMapTemp.get(itemId);
-        if (itemToUpdate == null) {
-          continue;
-        }
-        itemToUpdate.setDone(itemToSync.getDoneInt());
-        itemsToUpdate.add(itemToUpdate);
-      }
-      repository.insertShoppingListItems(
-          () -> {
-            itemsToSyncTemp = null;
-            serverItemHashMapTemp = null;
-            showMessage(getString(R.string.msg_synced));
-            loadFromDatabase(true);
-          },
-          itemsToUpdate.toArray(new ShoppingListItem[0])
-      );
-    };
-    DownloadHelper.OnErrorListener errorListener = error -> {
-      showMessage(getString(R.string.msg_failed_to_sync));
-      downloadData();
-    };
-    DownloadHelper.Queue queue = dlHelper.newQueue(emptyListener, errorListener);
-    for (ShoppingListItem itemToSync : itemsToSyncTemp) {
-      JSONObject body = new JSONObject();
-      try {
-        body.put("done", itemToSync.getDoneInt());
-      } catch (JSONException e) {
-        if (debug) {
-          Log.e(TAG, "syncItems: " + e);
-        }
+    tidyUpItems(itemsChanged -> {
+      if (itemsChanged) {
+        downloadData();
+      } else {
+        fillShoppingListItemAmountsHashMap();
+        updateFilteredShoppingListItems();
       }
-      queue.append(dlHelper.editShoppingListItem(itemToSync.getId(), body));
-    }
-    currentQueueLoading = queue;
-    queue.start();
+    });
   }
 
   private void onDownloadError(@Nullable VolleyError error) {
@@ -473,17 +436,8 @@ public class ShoppingListViewModel extends BaseViewModel {
     }
     ShoppingListItem shoppingListItem = listItem.getClone();
 
-    if (shoppingListItem.getDoneSynced() == -1) {
-      shoppingListItem.setDoneSynced(shoppingListItem.getDoneInt());
-    }
-
     shoppingListItem.setDone(shoppingListItem.getDoneInt() == 0 ? 1 : 0);  // toggle state
 
-    if (isOffline()) {
-      updateDoneStatus(shoppingListItem);
-      return;
-    }
-
     JSONObject body = new JSONObject();
     try {
       body.put("done", shoppingListItem.getDoneInt());
@@ -492,24 +446,27 @@ public class ShoppingListViewModel extends BaseViewModel {
         Log.e(TAG, "toggleDoneStatus: " + e);
       }
     }
-    dlHelper.editShoppingListItem(
-        shoppingListItem.getId(),
-        body,
+    String groupKey = OutboxOperation.getShoppingListItemGroupKey(shoppingListItem.getId());
+    dlHelper.sendOrQueue(
+        OutboxOperation.put(
+            grocyApi.getObject(GrocyApi.ENTITY.SHOPPING_LIST, shoppingListItem.getId()),
+            body,
+            groupKey,
+            groupKey + ":done" // only the last done status has to be sent
+        ),
         response -> updateDoneStatus(shoppingListItem),
+        () -> updateDoneStatus(shoppingListItem),
         error -> {
           showMessage(getString(R.string.error_undefined));
           if (debug) {
             Log.e(TAG, "toggleDoneStatus: " + error);
           }
         }
-    ).perform(dlHelper.getUuid());
+    );
   }
 
   private void updateDoneStatus(ShoppingListItem shoppingListItem) {
-    repository.insertShoppingListItems(
-        () -> loadFromDatabase(false),
-        shoppingListItem
-    );
+    repository.insertShoppingListItems(shoppingListItem);
   }
 
   public void addMissingItems() {
@@ -568,7 +525,11 @@ public class ShoppingListViewModel extends BaseViewModel {
           if (shoppingList == null) {
             return;
           }
-          shoppingList.setNotes(notesHtml);
+          // replaced by a changed copy, the list object is shared with the entity store
+          shoppingLists.set(
+              shoppingLists.indexOf(shoppingList),
+              new ShoppingList(shoppingList.getId(), shoppingList.getName(), notesHtml)
+          );
           downloadData();
         },
         error -> {
@@ -582,12 +543,16 @@ public class ShoppingListViewModel extends BaseViewModel {
   }
 
   public void deleteItem(@NonNull ShoppingListItem shoppingListItem) {
-    dlHelper.delete(
-        grocyApi.getObject(GrocyApi.ENTITY.SHOPPING_LIST, shoppingListItem.getId()),
-        response -> loadFromDatabase(true),
+    dlHelper.sendOrQueue(
+        OutboxOperation.delete(
+            grocyApi.getObject(GrocyApi.ENTITY.SHOPPING_LIST, shoppingListItem.getId()),
+            OutboxOperation.getShoppingListItemGroupKey(shoppingListItem.getId())
+        ),
+        response -> downloadData(),
+        () -> repository.deleteShoppingListItem(shoppingListItem.getId()),
         error -> {
           showMessage(getString(R.string.error_undefined));
-          loadFromDatabase(true);
+          downloadData();
           if (debug) {
             Log.e(TAG, "deleteItem: " + error);
           }
@@ -737,15 +702,15 @@ public class ShoppingListViewModel extends BaseViewModel {
     return null;
   }
 
-  public HashMap<Integer, String> getProductNamesHashMap() {
+  public IntMap<String> getProductNamesHashMap() {
     return productNamesHashMap;
   }
 
-  public HashMap<Integer, ProductGroup> getProductGroupHashMap() {
+  public IntMap<ProductGroup> getProductGroupHashMap() {
     return productGroupHashMap;
   }
 
-  public HashMap<Integer, Store> getStoreHashMap() {
+  public IntMap<Store> getStoreHashMap() {
     return storeHashMap;
   }
 
@@ -758,15 +723,15 @@ public class ShoppingListViewModel extends BaseViewModel {
     return missingProductIds;
   }
 
-  public HashMap<Integer, Product> getProductHashMap() {
+  public IntMap<Product> getProductHashMap() {
     return productHashMap;
   }
 
-  public HashMap<Integer, ProductLastPurchased> getProductLastPurchasedHashMap() {
+  public IntMap<ProductLastPurchased> getProductLastPurchasedHashMap() {
     return productLastPurchasedHashMap;
   }
 
-  public HashMap<Integer, QuantityUnit> getQuantityUnitHashMap() {
+  public IntMap<QuantityUnit> getQuantityUnitHashMap() {
     return quantityUnitHashMap;
   }
 
@@ -791,18 +756,16 @@ public class ShoppingListViewModel extends BaseViewModel {
   }
 
   private void fillShoppingListItemAmountsHashMap() {
-    shoppingListItemAmountsHashMap = new HashMap<>();
+    IntMap.Builder<Double> amounts = new IntMap.Builder<>(shoppingListItems.size());
     for (ShoppingListItem item : shoppingListItems) {
-      Double amount = AmountUtil.getShoppingListItemAmount(
+      amounts.put(item.getId(), AmountUtil.getShoppingListItemAmount(
           item, productHashMap, quantityUnitHashMap, unitConversionHashMap
-      );
-      if (amount != null) {
-        shoppingListItemAmountsHashMap.put(item.getId(), amount);
-      }
+      ));
     }
+    shoppingListItemAmountsHashMap = amounts.build();
   }
 
-  public HashMap<Integer, Double> getShoppingListItemAmountsHashMap() {
+  public IntMap<Double> getShoppingListItemAmountsHashMap() {
     return shoppingListItemAmountsHashMap;
   }
 
@@ -835,6 +798,7 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    disposables.clear();
     dlHelper.destroy();
     super.onCleared();
   }
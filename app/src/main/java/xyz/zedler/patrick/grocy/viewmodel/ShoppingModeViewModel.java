@@ -39,6 +39,7 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataShoppingListGrouping;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
@@ -80,9 +81,6 @@ public class ShoppingModeViewModel extends BaseViewModel {
   private HashMap<Integer, String> productNamesHashMap;
   private ArrayList<Integer> missingProductIds;
 
-  private ArrayList<ShoppingListItem> itemsToSyncTemp;
-  private HashMap<Integer, ShoppingListItem> serverItemHashMapTemp;
-
   private DownloadHelper.Queue currentQueueLoading;
   private final boolean debug;
 
@@ -182,12 +180,7 @@ public class ShoppingModeViewModel extends BaseViewModel {
     DownloadHelper.Queue queue = dlHelper.newQueue(this::onQueueEmpty, this::onDownloadError);
     queue.append(
         dlHelper.updateShoppingListItems(
-            dbChangedTime,
-            (shoppingListItems, itemsToSync, serverItemsHashMap) -> {
-              this.shoppingListItems = shoppingListItems;
-              this.itemsToSyncTemp = itemsToSync;
-              this.serverItemHashMapTemp = serverItemsHashMap;
-            }
+            dbChangedTime, shoppingListItems -> this.shoppingListItems = shoppingListItems
         ), dlHelper.updateShoppingLists(
             dbChangedTime, shoppingLists -> this.shoppingLists = shoppingLists
         ), dlHelper.updateProductGroups(
@@ -239,50 +232,8 @@ public class ShoppingModeViewModel extends BaseViewModel {
   }
 
   private void onQueueEmpty() {
-    if (itemsToSyncTemp == null || itemsToSyncTemp.isEmpty() || serverItemHashMapTemp == null) {
-      fillShoppingListItemAmountsHashMap();
-      updateFilteredShoppingListItems();
-      return;
-    }
-    DownloadHelper.OnQueueEmptyListener emptyListener = () -> {
-      ArrayList<ShoppingListItem> itemsToUpdate = new ArrayList<>();
-      for (ShoppingListItem itemToSync : itemsToSyncTemp) {
-        int itemId = itemToSync.getId();
-        ShoppingListItem itemToUpdate = serverItemHashMapTemp.get(itemId);
-        if (itemToUpdate == null) {
-          continue;
-        }
-        itemToUpdate.setDone(itemToSync.getDoneInt());
-        itemsToUpdate.add(itemToUpdate);
-      }
-      repository.insertShoppingListItems(
-          () -> {
-            itemsToSyncTemp = null;
-            serverItemHashMapTemp = null;
-            showMessage(getString(R.string.msg_synced));
-            loadFromDatabase(true);
-          },
-          itemsToUpdate.toArray(new ShoppingListItem[0])
-      );
-    };
-    DownloadHelper.OnErrorListener errorListener = error -> {
-      showMessage(getString(R.string.msg_failed_to_sync));
-      downloadData();
-    };
-    DownloadHelper.Queue queue = dlHelper.newQueue(emptyListener, errorListener);
-    for (ShoppingListItem itemToSync : itemsToSyncTemp) {
-      JSONObject body = new JSONObject();
-      try {
-        body.put("done", itemToSync.getDoneInt());
-      } catch (JSONException e) {
-        if (debug) {
-          Log.e(TAG, "syncItems: " + e);
-        }
-      }
-      queue.append(dlHelper.editShoppingListItem(itemToSync.getId(), body));
-    }
-    currentQueueLoading = queue;
-    queue.start();
+    fillShoppingListItemAmountsHashMap();
+    updateFilteredShoppingListItems();
   }
 
   private void onDownloadError(@Nullable VolleyError error) {
@@ -319,17 +270,8 @@ public class ShoppingModeViewModel extends BaseViewModel {
     }
     ShoppingListItem shoppingListItem = listItem.getClone();
 
-    if (shoppingListItem.getDoneSynced() == -1) {
-      shoppingListItem.setDoneSynced(shoppingListItem.getDoneInt());
-    }
-
     shoppingListItem.setDone(shoppingListItem.getDoneInt() == 0 ? 1 : 0);  // toggle state
 
-    if (isOffline()) {
-      updateDoneStatus(shoppingListItem);
-      return;
-    }
-
     JSONObject body = new JSONObject();
     try {
       body.put("done", shoppingListItem.getDoneInt());
@@ -338,17 +280,23 @@ public class ShoppingModeViewModel extends BaseViewModel {
         Log.e(TAG, "toggleDoneStatus: " + e);
       }
     }
-    dlHelper.editShoppingListItem(
-        shoppingListItem.getId(),
-        body,
+    String groupKey = OutboxOperation.getShoppingListItemGroupKey(shoppingListItem.getId());
+    dlHelper.sendOrQueue(
+        OutboxOperation.put(
+            grocyApi.getObject(GrocyApi.ENTITY.SHOPPING_LIST, shoppingListItem.getId()),
+            body,
+            groupKey,
+            groupKey + ":done" // only the last done status has to be sent
+        ),
         response -> updateDoneStatus(shoppingListItem),
+        () -> updateDoneStatus(shoppingListItem),
         error -> {
           showMessage(getString(R.string.error_undefined));
           if (debug) {
             Log.e(TAG, "toggleDoneStatus: " + error);
           }
         }
-    ).perform(dlHelper.getUuid());
+    );
   }
 
   private void updateDoneStatus(ShoppingListItem shoppingListItem) {
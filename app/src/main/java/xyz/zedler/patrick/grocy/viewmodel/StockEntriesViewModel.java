@@ -48,6 +48,7 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockEntriesGrouping;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockEntriesSort;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
@@ -59,6 +60,7 @@ import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.Constants;
 import xyz.zedler.patrick.grocy.util.Constants.ARGUMENT;
 import xyz.zedler.patrick.grocy.util.Constants.PREF;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
@@ -72,6 +74,7 @@ public class StockEntriesViewModel extends BaseViewModel {
   private final GrocyApi grocyApi;
   private final StockEntriesRepository repository;
   private final PluralUtil pluralUtil;
+  private final DateUtil dateUtil;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
@@ -106,6 +109,7 @@ public class StockEntriesViewModel extends BaseViewModel {
     grocyApi = new GrocyApi(getApplication());
     repository = new StockEntriesRepository(application);
     pluralUtil = new PluralUtil(application);
+    dateUtil = new DateUtil(application);
 
     infoFullscreenLive = new MutableLiveData<>();
     offlineLive = new MutableLiveData<>(false);
@@ -278,6 +282,11 @@ public class StockEntriesViewModel extends BaseViewModel {
     }
   }
 
+  // only the stock of the product is reloaded instead of all stock data
+  private void reconcileStock(int productId) {
+    dlHelper.reconcileProductStock(productId, true, () -> loadFromDatabase(false));
+  }
+
   private void consumeEntry(StockEntry stockEntry, Product product, boolean spoiled) {
     JSONObject body = new JSONObject();
     try {
@@ -293,9 +302,15 @@ public class StockEntriesViewModel extends BaseViewModel {
         Log.e(TAG, "consumeEntry: " + e);
       }
     }
-    dlHelper.postWithArray(
-        grocyApi.consumeProduct(stockEntry.getProductId()),
-        body,
+    stockEntries.remove(stockEntry);
+    updateFilteredStockEntries();
+    repository.consumeStockEntry(stockEntry);
+    dlHelper.postWithArrayOrQueue(
+        OutboxOperation.post(
+            grocyApi.consumeProduct(stockEntry.getProductId()),
+            body,
+            OutboxOperation.getProductGroupKey(stockEntry.getProductId())
+        ),
         response -> {
           String transactionId = null;
           double amountConsumed = 0;
@@ -328,7 +343,7 @@ public class StockEntriesViewModel extends BaseViewModel {
             snackbarMsg.setAction(getString(R.string.action_undo), v -> dlHelper.post(
                 grocyApi.undoStockTransaction(finalTransactionId),
                 response1 -> {
-                  downloadData();
+                  reconcileStock(stockEntry.getProductId());
                   showSnackbar(new SnackbarMessage(
                       getString(R.string.msg_undone_transaction),
                       Snackbar.LENGTH_SHORT
@@ -340,7 +355,7 @@ public class StockEntriesViewModel extends BaseViewModel {
                 this::showErrorMessage
             ));
           }
-          downloadData();
+          reconcileStock(stockEntry.getProductId());
           showSnackbar(snackbarMsg);
           if (debug) {
             Log.i(
@@ -348,8 +363,10 @@ public class StockEntriesViewModel extends BaseViewModel {
             );
           }
         },
+        () -> showMessage(R.string.msg_queued_offline),
         error -> {
           showErrorMessage(error);
+          reconcileStock(stockEntry.getProductId()); // revert the local change
           if (debug) {
             Log.i(TAG, "consumeEntry: " + error);
           }
@@ -367,9 +384,21 @@ public class StockEntriesViewModel extends BaseViewModel {
         Log.e(TAG, "openEntry: " + e);
       }
     }
-    dlHelper.postWithArray(
-        grocyApi.openProduct(stockEntry.getProductId()),
-        body,
+    StockEntry openedStockEntry = stockEntry.getClone();
+    openedStockEntry.setOpen(1);
+    openedStockEntry.setOpenedDate(dateUtil.getCurrentDateWithoutTimeStr());
+    int index = stockEntries.indexOf(stockEntry);
+    if (index != -1) {
+      stockEntries.set(index, openedStockEntry);
+    }
+    updateFilteredStockEntries();
+    repository.openStockEntry(openedStockEntry);
+    dlHelper.postWithArrayOrQueue(
+        OutboxOperation.post(
+            grocyApi.openProduct(stockEntry.getProductId()),
+            body,
+            OutboxOperation.getProductGroupKey(stockEntry.getProductId())
+        ),
         response -> {
           String transactionId = null;
           double amountOpened = 0;
@@ -402,7 +431,7 @@ public class StockEntriesViewModel extends BaseViewModel {
             snackbarMsg.setAction(getString(R.string.action_undo), v -> dlHelper.post(
                 grocyApi.undoStockTransaction(finalTransactionId),
                 response1 -> {
-                  downloadData();
+                  reconcileStock(stockEntry.getProductId());
                   showSnackbar(new SnackbarMessage(
                       getString(R.string.msg_undone_transaction),
                       Snackbar.LENGTH_SHORT
@@ -414,7 +443,7 @@ public class StockEntriesViewModel extends BaseViewModel {
                 this::showErrorMessage
             ));
           }
-          downloadData();
+          reconcileStock(stockEntry.getProductId());
           showSnackbar(snackbarMsg);
           if (debug) {
             Log.i(
@@ -422,8 +451,10 @@ public class StockEntriesViewModel extends BaseViewModel {
             );
           }
         },
+        () -> showMessage(R.string.msg_queued_offline),
         error -> {
           showErrorMessage(error);
+          reconcileStock(stockEntry.getProductId()); // revert the local change
           if (debug) {
             Log.i(TAG, "openEntry: " + error);
           }
@@ -30,17 +30,19 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import com.android.volley.VolleyError;
 import com.google.android.material.snackbar.Snackbar;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
+import java.util.Set;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.fragment.StockOverviewFragmentArgs;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.ProductSearchIndex;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataLocation;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataProductGroup;
@@ -51,6 +53,7 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockStatus;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
@@ -63,6 +66,7 @@ import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StockLocation;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
 import xyz.zedler.patrick.grocy.repository.StockOverviewRepository;
+import xyz.zedler.patrick.grocy.repository.StockOverviewRepository.StockOverviewData;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.Constants;
 import xyz.zedler.patrick.grocy.util.Constants.PREF;
@@ -80,6 +84,7 @@ public class StockOverviewViewModel extends BaseViewModel {
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final StockOverviewRepository repository;
+  private final CompositeDisposable disposables;
   private final PluralUtil pluralUtil;
 
   private final MutableLiveData<Boolean> isLoadingLive;
@@ -106,10 +111,12 @@ public class StockOverviewViewModel extends BaseViewModel {
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private HashMap<Integer, MissingItem> productIdsMissingItems;
   private HashMap<Integer, Location> locationHashMap;
-  private HashMap<Integer, HashMap<Integer, StockLocation>> stockLocationsHashMap;
+  private HashSet<Integer> filteredProductIds;
+  private String filteredProductIdsKey;
+  private int filterQueryCount;
 
   private String searchInput;
-  private ArrayList<String> searchResultsFuzzy;
+  private HashSet<Integer> searchResultIds;
   private final boolean debug;
 
   public StockOverviewViewModel(@NonNull Application application, StockOverviewFragmentArgs args) {
@@ -122,6 +129,7 @@ public class StockOverviewViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue);
     grocyApi = new GrocyApi(getApplication());
     repository = new StockOverviewRepository(application);
+    disposables = new CompositeDisposable();
     pluralUtil = new PluralUtil(application);
 
     infoFullscreenLive = new MutableLiveData<>();
@@ -159,100 +167,82 @@ public class StockOverviewViewModel extends BaseViewModel {
         getApplication(),
         this::updateFilteredStockItems
     );
+
+    disposables.add(repository.observeDatabase(this::onDatabaseChanged));
+    disposables.add(repository.observeStockLocations(() -> {
+      filteredProductIds = null;
+      updateFilteredStockItems();
+    }));
   }
 
-  public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
-      filterChipLiveDataProductGroup.setProductGroups(data.getProductGroups());
-      this.products = data.getProducts();
-      productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      productAveragePriceHashMap = ArrayUtil
-          .getProductAveragePriceHashMap(data.getProductsAveragePrice());
-      productLastPurchasedHashMap = ArrayUtil
-          .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
-      productBarcodeHashMap = ArrayUtil.getProductBarcodesHashMap(data.getProductBarcodes());
-      this.stockItems = data.getStockItems();
-
-      int itemsDueCount = 0;
-      int itemsOverdueCount = 0;
-      int itemsExpiredCount = 0;
-      HashMap<Integer, StockItem> stockItemHashMap = ArrayUtil.getStockItemHashMap(stockItems);
-      for (VolatileItem volatileItem : data.getVolatileItems()) {
-        StockItem stockItem = stockItemHashMap.get(volatileItem.getProductId());
-        if (stockItem == null) continue;
-        if (volatileItem.getVolatileType() == VolatileItem.TYPE_DUE) {
-          stockItem.setItemDue(true);
-          itemsDueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_OVERDUE) {
-          stockItem.setItemOverdue(true);
-          itemsOverdueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_EXPIRED) {
-          stockItem.setItemExpired(true);
-          itemsExpiredCount++;
-        }
+  private void onDatabaseChanged(StockOverviewData data) {
+    quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
+    productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
+    filterChipLiveDataProductGroup.setProductGroups(data.getProductGroups());
+    this.products = data.getProducts();
+    productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
+    ProductSearchIndex.getInstance().setProductsAsync(products, () -> {
+      if (searchInput != null && !searchInput.isEmpty()) {
+        updateSearchInput(searchInput); // products may have been renamed
       }
-      int itemsMissingCount = 0;
-      productIdsMissingItems = new HashMap<>();
-      for (MissingItem missingItem : data.getMissingItems()) {
-        itemsMissingCount++;
-        productIdsMissingItems.put(missingItem.getId(), missingItem);
-        StockItem stockItem = stockItemHashMap.get(missingItem.getId());
-        if (stockItem == null && !missingItem.getIsPartlyInStockBoolean()) {
-          StockItem stockItemMissing = new StockItem(missingItem);
-          stockItems.add(stockItemMissing);
-        } else if (stockItem != null) {
-          stockItem.setItemMissing(true);
-          stockItem.setItemMissingAndPartlyInStock(missingItem.getIsPartlyInStockBoolean());
-        }
+    });
+    productAveragePriceHashMap = ArrayUtil
+        .getProductAveragePriceHashMap(data.getProductsAveragePrice());
+    productLastPurchasedHashMap = ArrayUtil
+        .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
+    productBarcodeHashMap = ArrayUtil.getProductBarcodesHashMap(data.getProductBarcodes());
+    this.stockItems = data.getStockItems();
+
+    int itemsDueCount = 0;
+    int itemsOverdueCount = 0;
+    int itemsExpiredCount = 0;
+    int itemsInStockCount = 0;
+    int itemsOpenedCount = 0;
+    for (StockItem stockItem : stockItems) {
+      stockItem.setProduct(productHashMap.get(stockItem.getProductId()));
+      if (stockItem.isItemDue()) {
+        itemsDueCount++;
       }
-      int itemsInStockCount = 0;
-      int itemsOpenedCount = 0;
-      for (StockItem stockItem : stockItems) {
-        stockItem.setProduct(productHashMap.get(stockItem.getProductId()));
-        if (!stockItem.isItemMissing() || stockItem.isItemMissingAndPartlyInStock()) {
-          itemsInStockCount++;
-        }
-        if (stockItem.getAmountOpenedDouble() > 0) {
-          itemsOpenedCount++;
-        }
+      if (stockItem.isItemOverdue()) {
+        itemsOverdueCount++;
       }
-
-      this.shoppingListItems = data.getShoppingListItems();
-      shoppingListItemsProductIds = new ArrayList<>();
-      for (ShoppingListItem item : shoppingListItems) {
-        if (item.getProductId() != null && !item.getProductId().isEmpty()) {
-          shoppingListItemsProductIds.add(item.getProductId());
-        }
+      if (stockItem.isItemExpired()) {
+        itemsExpiredCount++;
       }
-      filterChipLiveDataLocation.setLocations(data.getLocations());
-      locationHashMap = ArrayUtil.getLocationsHashMap(data.getLocations());
-
-      stockLocationsHashMap = new HashMap<>();
-      for (StockLocation stockLocation : data.getStockCurrentLocations()) {
-        HashMap<Integer, StockLocation> locationsForProductId = stockLocationsHashMap
-            .get(stockLocation.getProductId());
-        if (locationsForProductId == null) {
-          locationsForProductId = new HashMap<>();
-          stockLocationsHashMap.put(stockLocation.getProductId(), locationsForProductId);
-        }
-        locationsForProductId.put(stockLocation.getLocationId(), stockLocation);
+      if (!stockItem.isItemMissing() || stockItem.isItemMissingAndPartlyInStock()) {
+        itemsInStockCount++;
       }
+      if (stockItem.getAmountOpenedDouble() > 0) {
+        itemsOpenedCount++;
+      }
+    }
+    int itemsMissingCount = 0;
+    productIdsMissingItems = new HashMap<>();
+    for (MissingItem missingItem : data.getMissingItems()) {
+      itemsMissingCount++;
+      productIdsMissingItems.put(missingItem.getId(), missingItem);
+    }
 
-      filterChipLiveDataStatus
-          .setDueSoonCount(itemsDueCount)
-          .setOverdueCount(itemsOverdueCount)
-          .setExpiredCount(itemsExpiredCount)
-          .setBelowStockCount(itemsMissingCount)
-          .setInStockCount(itemsInStockCount)
-          .setOpenedCount(itemsOpenedCount)
-          .emitCounts();
-      updateFilteredStockItems();
-      if (downloadAfterLoading) {
-        downloadData();
+    this.shoppingListItems = data.getShoppingListItems();
+    shoppingListItemsProductIds = new ArrayList<>();
+    for (ShoppingListItem item : shoppingListItems) {
+      if (item.getProductId() != null && !item.getProductId().isEmpty()) {
+        shoppingListItemsProductIds.add(item.getProductId());
       }
-    });
+    }
+    filterChipLiveDataLocation.setLocations(data.getLocations());
+    locationHashMap = ArrayUtil.getLocationsHashMap(data.getLocations());
+
+    filterChipLiveDataStatus
+        .setDueSoonCount(itemsDueCount)
+        .setOverdueCount(itemsOverdueCount)
+        .setExpiredCount(itemsExpiredCount)
+        .setBelowStockCount(itemsMissingCount)
+        .setInStockCount(itemsInStockCount)
+        .setOpenedCount(itemsOpenedCount)
+        .emitCounts();
+    filteredProductIds = null; // stock has changed, filter again
+    updateFilteredStockItems();
   }
 
   public void downloadData() {
@@ -261,8 +251,9 @@ public class StockOverviewViewModel extends BaseViewModel {
       updateFilteredStockItems();
       return;
     }
+    // every downloaded entity is shown by the database observer as soon as it is stored
     dlHelper.updateData(
-        () -> loadFromDatabase(false),
+        () -> {},
         this::onDownloadError,
         QuantityUnit.class,
         ProductGroup.class,
@@ -304,79 +295,48 @@ public class StockOverviewViewModel extends BaseViewModel {
     }
   }
 
+  /**
+   * Status, product group and location are filtered by a query, which only runs again when one
+   * of these filters or the stock has changed. Search, sorting and grouping work on its result.
+   */
   public void updateFilteredStockItems() {
-    ArrayList<StockItem> filteredStockItems = new ArrayList<>();
-
-    ProductBarcode productBarcodeSearch = null;
-    if (searchInput != null && !searchInput.isEmpty()) {
-      productBarcodeSearch = productBarcodeHashMap.get(searchInput);
+    if (stockItems == null) {
+      return;
     }
-
-    for (StockItem item : this.stockItems) {
-      if (item.getProduct() == null) {
-        // invalidate products and stock items offline cache because products may have changed
-        SharedPreferences.Editor editPrefs = sharedPrefs.edit();
-        editPrefs.putString(PREF.DB_LAST_TIME_PRODUCTS, null);
-        editPrefs.putString(PREF.DB_LAST_TIME_STOCK_ITEMS, null);
-        editPrefs.apply();
-        continue;
-      }
-
-      if (item.getProduct().getHideOnStockOverviewBoolean()) {
-        continue;
-      }
-
-      boolean searchContainsItem = true;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        String productName = item.getProduct().getName().toLowerCase();
-        searchContainsItem = productName.contains(searchInput);
-        if (!searchContainsItem) {
-          searchContainsItem = searchResultsFuzzy.contains(productName);
-        }
-      }
-      if (!searchContainsItem && productBarcodeSearch == null
-          || !searchContainsItem && productBarcodeSearch.getProductIdInt() != item.getProductId()) {
-        continue;
+    int status = filterChipLiveDataStatus.getStatus();
+    int productGroupId = filterChipLiveDataProductGroup.getSelectedId();
+    int locationId = filterChipLiveDataLocation.getSelectedId();
+    String filterKey = status + "|" + productGroupId + "|" + locationId;
+    if (filteredProductIds != null && filterKey.equals(filteredProductIdsKey)) {
+      showFilteredStockItems();
+      return;
+    }
+    int queryCount = ++filterQueryCount;
+    repository.loadFilteredProductIds(status, productGroupId, locationId, productIds -> {
+      if (queryCount != filterQueryCount) {
+        return; // filters have changed meanwhile, only the newest result is shown
       }
+      filteredProductIds = new HashSet<>(productIds);
+      filteredProductIdsKey = filterKey;
+      showFilteredStockItems();
+    });
+  }
 
-      int productGroupFilterId = filterChipLiveDataProductGroup.getSelectedId();
-      if (productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
-          && NumUtil.isStringInt(item.getProduct().getProductGroupId())
-          && productGroupFilterId != Integer.parseInt(item.getProduct().getProductGroupId())
-          || productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
-          && !NumUtil.isStringInt(item.getProduct().getProductGroupId())
-      ) {
-        continue;
-      }
-      int locationFilterId = filterChipLiveDataLocation.getSelectedId();
-      if (locationFilterId != FilterChipLiveDataLocation.NO_FILTER) {
-        HashMap<Integer, StockLocation> stockLocationsForProductId
-            = stockLocationsHashMap.get(item.getProductId());
-        if (stockLocationsForProductId == null
-            || !stockLocationsForProductId.containsKey(locationFilterId)
-        ) {
-          continue;
+  private void showFilteredStockItems() {
+    boolean isSearching = searchInput != null && !searchInput.isEmpty();
+    ArrayList<StockItem> filteredStockItems = filterStockItems(
+        stockItems,
+        filteredProductIds,
+        isSearching ? searchResultIds : null,
+        isSearching ? productBarcodeHashMap.get(searchInput) : null,
+        () -> {
+          // invalidate products and stock items offline cache because products may have changed
+          SharedPreferences.Editor editPrefs = sharedPrefs.edit();
+          editPrefs.putString(PREF.DB_LAST_TIME_PRODUCTS, null);
+          editPrefs.putString(PREF.DB_LAST_TIME_STOCK_ITEMS, null);
+          editPrefs.apply();
         }
-      }
-
-      MissingItem missingItem = productIdsMissingItems.get(item.getProductId());
-      if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStockStatus.STATUS_ALL
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStockStatus.STATUS_DUE_SOON
-          && item.isItemDue()
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStockStatus.STATUS_OVERDUE
-          && item.isItemOverdue()
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStockStatus.STATUS_EXPIRED
-          && item.isItemExpired()
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStockStatus.STATUS_BELOW_MIN
-          && missingItem != null
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStockStatus.STATUS_IN_STOCK
-          && (missingItem == null || missingItem.getIsPartlyInStockBoolean())
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStockStatus.STATUS_OPENED
-          && item.getAmountOpenedDouble() > 0
-      ) {
-        filteredStockItems.add(item);
-      }
-    }
+    );
 
     if (filteredStockItems.isEmpty()) {
       InfoFullscreen info;
@@ -401,6 +361,38 @@ public class StockOverviewViewModel extends BaseViewModel {
     filteredStockItemsLive.setValue(filteredStockItems);
   }
 
+  /**
+   * @param searchResultIds product ids found by the search, null if there is no search input
+   * @param productBarcodeSearch barcode which matches the search input exactly
+   * @param onProductMissing called for each stock item whose product isn't loaded
+   */
+  public static ArrayList<StockItem> filterStockItems(
+      List<StockItem> stockItems,
+      Set<Integer> filteredProductIds,
+      @Nullable Set<Integer> searchResultIds,
+      @Nullable ProductBarcode productBarcodeSearch,
+      Runnable onProductMissing
+  ) {
+    ArrayList<StockItem> filteredStockItems = new ArrayList<>();
+    for (StockItem item : stockItems) {
+      if (item.getProduct() == null) {
+        onProductMissing.run();
+        continue;
+      }
+      if (!filteredProductIds.contains(item.getProductId())) {
+        continue;
+      }
+      boolean searchContainsItem = searchResultIds == null
+          || searchResultIds.contains(item.getProductId());
+      if (!searchContainsItem && productBarcodeSearch == null
+          || !searchContainsItem && productBarcodeSearch.getProductIdInt() != item.getProductId()) {
+        continue;
+      }
+      filteredStockItems.add(item);
+    }
+    return filteredStockItems;
+  }
+
   public void performAction(String action, StockItem stockItem) {
     switch (action) {
       case Constants.ACTION.CONSUME:
@@ -424,6 +416,10 @@ public class StockOverviewViewModel extends BaseViewModel {
     }
   }
 
+  private void reconcileStock(int productId) {
+    dlHelper.reconcileProductStock(productId, false, null);
+  }
+
   private void consumeProduct(StockItem stockItem, double amount, boolean spoiled) {
     JSONObject body = new JSONObject();
     try {
@@ -435,9 +431,15 @@ public class StockOverviewViewModel extends BaseViewModel {
         Log.e(TAG, "consumeProduct: " + e);
       }
     }
-    dlHelper.postWithArray(
-        grocyApi.consumeProduct(stockItem.getProductId()),
-        body,
+    StockItem changedItem = stockItem.getClone();
+    changedItem.applyConsumeRequest(amount, stockItem.getProduct());
+    repository.updateStockItem(changedItem);
+    dlHelper.postWithArrayOrQueue(
+        OutboxOperation.post(
+            grocyApi.consumeProduct(stockItem.getProductId()),
+            body,
+            OutboxOperation.getProductGroupKey(stockItem.getProductId())
+        ),
         response -> {
           String transactionId = null;
           double amountConsumed = 0;
@@ -470,7 +472,7 @@ public class StockOverviewViewModel extends BaseViewModel {
             snackbarMsg.setAction(getString(R.string.action_undo), v -> dlHelper.post(
                 grocyApi.undoStockTransaction(finalTransactionId),
                 response1 -> {
-                  downloadData();
+                  reconcileStock(stockItem.getProductId());
                   showSnackbar(new SnackbarMessage(
                       getString(R.string.msg_undone_transaction),
                       Snackbar.LENGTH_SHORT
@@ -482,7 +484,7 @@ public class StockOverviewViewModel extends BaseViewModel {
                 this::showErrorMessage
             ));
           }
-          downloadData();
+          reconcileStock(stockItem.getProductId());
           showSnackbar(snackbarMsg);
           if (debug) {
             Log.i(
@@ -490,8 +492,10 @@ public class StockOverviewViewModel extends BaseViewModel {
             );
           }
         },
+        () -> showMessage(R.string.msg_queued_offline),
         error -> {
           showErrorMessage(error);
+          reconcileStock(stockItem.getProductId()); // revert the local change
           if (debug) {
             Log.i(TAG, "consumeProduct: " + error);
           }
@@ -509,9 +513,15 @@ public class StockOverviewViewModel extends BaseViewModel {
         Log.e(TAG, "openProduct: " + e);
       }
     }
-    dlHelper.postWithArray(
-        grocyApi.openProduct(stockItem.getProductId()),
-        body,
+    StockItem changedItem = stockItem.getClone();
+    changedItem.applyOpened(amount);
+    repository.updateStockItem(changedItem);
+    dlHelper.postWithArrayOrQueue(
+        OutboxOperation.post(
+            grocyApi.openProduct(stockItem.getProductId()),
+            body,
+            OutboxOperation.getProductGroupKey(stockItem.getProductId())
+        ),
         response -> {
           String transactionId = null;
           double amountOpened = 0;
@@ -544,7 +554,7 @@ public class StockOverviewViewModel extends BaseViewModel {
             snackbarMsg.setAction(getString(R.string.action_undo), v -> dlHelper.post(
                 grocyApi.undoStockTransaction(finalTransactionId),
                 response1 -> {
-                  downloadData();
+                  reconcileStock(stockItem.getProductId());
                   showSnackbar(new SnackbarMessage(
                       getString(R.string.msg_undone_transaction),
                       Snackbar.LENGTH_SHORT
@@ -556,7 +566,7 @@ public class StockOverviewViewModel extends BaseViewModel {
                 this::showErrorMessage
             ));
           }
-          downloadData();
+          reconcileStock(stockItem.getProductId());
           showSnackbar(snackbarMsg);
           if (debug) {
             Log.i(
@@ -564,8 +574,10 @@ public class StockOverviewViewModel extends BaseViewModel {
             );
           }
         },
+        () -> showMessage(R.string.msg_queued_offline),
         error -> {
           showErrorMessage(error);
+          reconcileStock(stockItem.getProductId()); // revert the local change
           if (debug) {
             Log.i(TAG, "openProduct: " + error);
           }
@@ -585,17 +597,7 @@ public class StockOverviewViewModel extends BaseViewModel {
   public void updateSearchInput(String input) {
     this.searchInput = input.toLowerCase();
 
-    // Initialize suggestion list with max. capacity; growing is expensive.
-    searchResultsFuzzy = new ArrayList<>(products.size());
-    List<BoundExtractedResult<Product>> results = FuzzySearch.extractSorted(
-        this.searchInput,
-        products,
-        item -> item.getName().toLowerCase(),
-        70
-    );
-    for (BoundExtractedResult<Product> result : results) {
-      searchResultsFuzzy.add(result.getString());
-    }
+    searchResultIds = new HashSet<>(ProductSearchIndex.getInstance().search(searchInput, 0));
 
     updateFilteredStockItems();
   }
@@ -740,6 +742,7 @@ public class StockOverviewViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    disposables.clear();
     dlHelper.destroy();
     super.onCleared();
   }
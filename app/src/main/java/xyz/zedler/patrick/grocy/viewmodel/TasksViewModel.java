@@ -26,6 +26,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
 import androidx.preference.PreferenceManager;
+import com.android.volley.Request;
 import com.android.volley.VolleyError;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -40,6 +41,7 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataTasksSort;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataTasksStatus;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.User;
@@ -121,7 +123,7 @@ public class TasksViewModel extends BaseViewModel {
       tasksOverdueCount = 0;
       for (Task task : data.getTasks()) {
         if (task.isDone()) continue;
-        int daysFromNow = DateUtil.getDaysFromNow(task.getDueDate());
+        int daysFromNow = DateUtil.getDaysFromToday(task.getDueEpochDay());
         if (daysFromNow < 0) {
           tasksOverdueCount++;
         }
@@ -174,7 +176,7 @@ public class TasksViewModel extends BaseViewModel {
           tasksOverdueCount = 0;
           for (Task task : tasks) {
             if (task.isDone()) continue;
-            int daysFromNow = DateUtil.getDaysFromNow(task.getDueDate());
+            int daysFromNow = DateUtil.getDaysFromToday(task.getDueEpochDay());
             if (daysFromNow < 0) {
               tasksOverdueCount++;
             }
@@ -245,7 +247,7 @@ public class TasksViewModel extends BaseViewModel {
       if (!filterChipLiveDataStatus.isShowDoneTasks() && task.isDone()) {
         continue;
       }
-      int daysFromNow = DateUtil.getDaysFromNow(task.getDueDate());
+      int daysFromNow = DateUtil.getDaysFromToday(task.getDueEpochDay());
       if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataTasksStatus.STATUS_OVERDUE
           && daysFromNow >= 0
           || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataTasksStatus.STATUS_DUE_TODAY
@@ -282,9 +284,15 @@ public class TasksViewModel extends BaseViewModel {
         }
       }
     }
-    dlHelper.postWithArray(
-        !task.isDone() ? grocyApi.completeTask(task.getId()) : grocyApi.undoTask(task.getId()),
-        body,
+    String groupKey = OutboxOperation.getTaskGroupKey(task.getId());
+    dlHelper.postWithArrayOrQueue(
+        new OutboxOperation(
+            Request.Method.POST,
+            !task.isDone() ? grocyApi.completeTask(task.getId()) : grocyApi.undoTask(task.getId()),
+            body,
+            groupKey,
+            groupKey + ":done" // only the last of completing and undoing has to be sent
+        ),
         response -> {
           String msg = getApplication().getString(
               !task.isDone() ? R.string.msg_task_completed : R.string.msg_task_not_completed
@@ -300,6 +308,7 @@ public class TasksViewModel extends BaseViewModel {
             Log.i(TAG, "undoTask: undone" + task.getName());
           }
         },
+        () -> showMessage(R.string.msg_queued_offline),
         error -> {
           showErrorMessage(error);
           if (debug) {
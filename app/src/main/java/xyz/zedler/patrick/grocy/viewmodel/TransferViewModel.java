@@ -45,16 +45,18 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuantityUnitsBottomSh
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockEntriesBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockLocationsBottomSheet;
+import xyz.zedler.patrick.grocy.helper.BarcodeIndex;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.QuantityUnitConversionGraph;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FormDataTransfer;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.StockEntry;
 import xyz.zedler.patrick.grocy.model.StockLocation;
@@ -81,8 +83,8 @@ public class TransferViewModel extends BaseViewModel {
   private final FormDataTransfer formData;
 
   private List<Product> products;
-  private List<QuantityUnitConversion> unitConversions;
-  private List<ProductBarcode> barcodes;
+  private QuantityUnitConversionGraph unitConversionGraph;
+  private BarcodeIndex barcodeIndex;
   private List<Location> locations;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
 
@@ -116,7 +118,7 @@ public class TransferViewModel extends BaseViewModel {
     }
     quickModeEnabled = new MutableLiveData<>(quickModeStart);
 
-    barcodes = new ArrayList<>();
+    barcodeIndex = new BarcodeIndex();
   }
 
   public FormDataTransfer getFormData() {
@@ -126,10 +128,12 @@ public class TransferViewModel extends BaseViewModel {
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
       this.products = data.getProducts();
-      this.barcodes = data.getBarcodes();
+      barcodeIndex = BarcodeIndex.of(data.getBarcodes());
       this.locations = data.getLocations();
       this.quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      this.unitConversions = data.getQuantityUnitConversions();
+      this.unitConversionGraph = new QuantityUnitConversionGraph(
+          data.getQuantityUnitConversions()
+      );
       formData.getProductsLive().setValue(Product.getActiveAndStockEnabledProductsOnly(products));
       if (downloadAfterLoading) {
         downloadData();
@@ -153,11 +157,12 @@ public class TransferViewModel extends BaseViewModel {
           this.products = products;
           formData.getProductsLive().setValue(Product.getActiveAndStockEnabledProductsOnly(products));
         }), dlHelper.updateProductBarcodes(
-            dbChangedTime, barcodes -> this.barcodes = barcodes
+            dbChangedTime, barcodes -> barcodeIndex = BarcodeIndex.of(barcodes)
         ), dlHelper.updateLocations(
             dbChangedTime, locations -> this.locations = locations
         ), dlHelper.updateQuantityUnitConversions(
-            dbChangedTime, conversions -> this.unitConversions = conversions
+            dbChangedTime,
+            conversions -> unitConversionGraph = new QuantityUnitConversionGraph(conversions)
         ), dlHelper.updateQuantityUnits(
             dbChangedTime,
             quantityUnits -> quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(quantityUnits)
@@ -239,7 +244,7 @@ public class TransferViewModel extends BaseViewModel {
         HashMap<QuantityUnit, Double> unitFactors= QuantityUnitConversionUtil.getUnitFactors(
             getApplication(),
             quantityUnitHashMap,
-            unitConversions,
+            unitConversionGraph,
             product
         );
         formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
@@ -322,7 +327,7 @@ public class TransferViewModel extends BaseViewModel {
 
   public void onBarcodeRecognized(String barcode) {
     if (formData.getProductDetailsLive().getValue() != null) {
-      if (ProductBarcode.getFromBarcode(barcodes, barcode) == null) {
+      if (barcodeIndex.get(barcode) == null) {
         formData.getBarcodeLive().setValue(barcode);
       } else {
         showMessage(R.string.msg_clear_form_first);
@@ -345,7 +350,7 @@ public class TransferViewModel extends BaseViewModel {
     }
     ProductBarcode productBarcode = null;
     if (product == null) {
-      productBarcode = ProductBarcode.getFromBarcode(barcodes, barcode);
+      productBarcode = barcodeIndex.get(barcode);
       product = productBarcode != null
           ? Product.getProductFromId(products, productBarcode.getProductIdInt()) : null;
     }
@@ -378,12 +383,9 @@ public class TransferViewModel extends BaseViewModel {
       return;
     }
     if (product == null) {
-      ProductBarcode productBarcode = null;
-      for (ProductBarcode code : barcodes) {
-        if (code.getBarcode().equals(input.trim())) {
-          productBarcode = code;
-          product = Product.getProductFromId(products, code.getProductIdInt());
-        }
+      ProductBarcode productBarcode = barcodeIndex.get(input);
+      if (productBarcode != null) {
+        product = Product.getProductFromId(products, productBarcode.getProductIdInt());
       }
       if (product != null) {
         setProduct(product.getId(), productBarcode, null);
@@ -423,8 +425,12 @@ public class TransferViewModel extends BaseViewModel {
     assert formData.getProductDetailsLive().getValue() != null;
     Product product = formData.getProductDetailsLive().getValue().getProduct();
     JSONObject body = formData.getFilledJSONObject();
-    dlHelper.postWithArray(grocyApi.transferProduct(product.getId()),
-        body,
+    dlHelper.postWithArrayOrQueue(
+        OutboxOperation.post(
+            grocyApi.transferProduct(product.getId()),
+            body,
+            OutboxOperation.getProductGroupKey(product.getId())
+        ),
         response -> {
           // UNDO OPTION
           String transactionId = null;
@@ -464,6 +470,10 @@ public class TransferViewModel extends BaseViewModel {
           showSnackbar(snackbarMessage);
           sendEvent(Event.CONSUME_SUCCESS);
         },
+        () -> {
+          showMessage(R.string.msg_queued_offline);
+          sendEvent(Event.CONSUME_SUCCESS);
+        },
         error -> {
           showErrorMessage(error);
           if (debug) {
@@ -491,7 +501,7 @@ public class TransferViewModel extends BaseViewModel {
     JSONObject body = productBarcode.getJsonFromProductBarcode(debug, TAG);
     dlHelper.addProductBarcode(body, () -> {
       formData.getBarcodeLive().setValue(null);
-      barcodes.add(productBarcode); // add to list so it will be found on next scan without reload
+      barcodeIndex.add(productBarcode); // so it will be found on next scan without reload
       if (onSuccess != null) {
         onSuccess.run();
       }
@@ -0,0 +1,64 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import androidx.annotation.Nullable;
+import com.android.volley.Cache;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpHeaderParser;
+import java.util.Map;
+
+/**
+ * Responses of the /objects endpoints are stored with their validators (ETag, Last-Modified),
+ * so the next request for the same list is sent with If-None-Match/If-Modified-Since and the
+ * server can answer with an empty 304 if nothing has changed. The entries are always expired,
+ * so they are only used for revalidation and never served without asking the server.
+ */
+public class ConditionalCacheHelper {
+
+  public static boolean shouldCache(int method, String url) {
+    return method == Request.Method.GET && url != null && url.contains("/api/objects/");
+  }
+
+  @Nullable
+  public static Cache.Entry parseRevalidationEntry(NetworkResponse response) {
+    Map<String, String> headers = response.headers;
+    if (headers == null) {
+      return null;
+    }
+    String etag = headers.get("ETag");
+    String lastModified = headers.get("Last-Modified");
+    if (etag == null && lastModified == null) {
+      return null; // server doesn't support conditional requests, nothing to store
+    }
+    Cache.Entry entry = new Cache.Entry();
+    entry.data = response.data;
+    entry.etag = etag;
+    entry.lastModified = lastModified != null ? HttpHeaderParser.parseDateAsEpoch(lastModified) : 0;
+    String serverDate = headers.get("Date");
+    entry.serverDate = serverDate != null ? HttpHeaderParser.parseDateAsEpoch(serverDate) : 0;
+    entry.ttl = 0;
+    entry.softTtl = 0;
+    entry.responseHeaders = headers;
+    entry.allResponseHeaders = response.allHeaders;
+    return entry;
+  }
+}
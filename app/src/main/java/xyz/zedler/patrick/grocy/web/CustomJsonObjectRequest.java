@@ -19,7 +19,6 @@
 
 package xyz.zedler.patrick.grocy.web;
 
-import android.util.Base64;
 import androidx.annotation.Nullable;
 import com.android.volley.DefaultRetryPolicy;
 import com.android.volley.NetworkResponse;
@@ -30,26 +29,20 @@ import com.android.volley.toolbox.HttpHeaderParser;
 import com.android.volley.toolbox.JsonObjectRequest;
 import java.io.UnsupportedEncodingException;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 public class CustomJsonObjectRequest extends JsonObjectRequest {
 
   private final Runnable onRequestFinished;
-  private final String url;
-  private final String apiKey;
-  private final String homeAssistantIngressSessionKey;
-  private final String hassLongLivedAccessToken;
+  private final RequestAuthContext authContext;
+  private final Map<String, String> hassHeaders;
 
   public CustomJsonObjectRequest(
       int method,
       String url,
-      String apiKey,
-      String homeAssistantIngressSessionKey,
+      @Nullable RequestAuthContext authContext,
       @Nullable JSONObject jsonRequest,
       Response.Listener<JSONObject> listener,
       @Nullable Response.ErrorListener errorListener,
@@ -71,10 +64,8 @@ public class CustomJsonObjectRequest extends JsonObjectRequest {
       }
     });
     this.onRequestFinished = onRequestFinished;
-    this.url = url;
-    this.apiKey = apiKey;
-    this.homeAssistantIngressSessionKey = homeAssistantIngressSessionKey;
-    this.hassLongLivedAccessToken = null;
+    this.authContext = authContext;
+    this.hassHeaders = null;
     if (tag != null) {
       setTag(tag);
     }
@@ -111,10 +102,8 @@ public class CustomJsonObjectRequest extends JsonObjectRequest {
       }
     });
     this.onRequestFinished = onRequestFinished;
-    this.url = url;
-    this.apiKey = null;
-    this.homeAssistantIngressSessionKey = null;
-    this.hassLongLivedAccessToken = hassLongLivedAccessToken;
+    this.authContext = null;
+    this.hassHeaders = RequestAuthContext.getHomeAssistantHeaders(hassLongLivedAccessToken);
     if (tag != null) {
       setTag(tag);
     }
@@ -154,25 +143,9 @@ public class CustomJsonObjectRequest extends JsonObjectRequest {
 
   @Override
   public Map<String, String> getHeaders() {
-    Map<String, String> params = new HashMap<>();
-    if (apiKey != null && !apiKey.isEmpty()) {
-      params.put("GROCY-API-KEY", apiKey);
+    if (hassHeaders != null) {
+      return hassHeaders;
     }
-    if (hassLongLivedAccessToken != null && !hassLongLivedAccessToken.isEmpty()) {
-      params.put("Authorization", "Bearer " + hassLongLivedAccessToken);
-    } else {
-      Matcher matcher = Pattern.compile("(http|https)://(\\S+):(\\S+)@(\\S+)").matcher(url);
-      if (matcher.matches()) {
-        String user = matcher.group(2);
-        String password = matcher.group(3);
-        byte[] combination = (user + ":" + password).getBytes();
-        String encoded = Base64.encodeToString(combination, Base64.DEFAULT);
-        params.put("Authorization", "Basic " + encoded);
-      }
-    }
-    if (homeAssistantIngressSessionKey != null) {
-      params.put("Cookie", "ingress_session=" + homeAssistantIngressSessionKey);
-    }
-    return params.isEmpty() ? Collections.emptyMap() : params;
+    return authContext != null ? authContext.getHeaders(getUrl()) : Collections.emptyMap();
   }
 }
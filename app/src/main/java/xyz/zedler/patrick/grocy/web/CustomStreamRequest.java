@@ -0,0 +1,264 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.android.volley.AuthFailureError;
+import com.android.volley.ClientError;
+import com.android.volley.Header;
+import com.android.volley.NetworkError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.Response;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+
+/**
+ * Downloads a response body as a stream directly over OkHttp. Volley would buffer the whole body
+ * in a byte array first, here large entity lists are deserialized one object at a time while
+ * they are received.
+ * <p>
+ * The client has an HTTP cache which is always revalidated with the server (ETag,
+ * Last-Modified), so an unchanged list is reported with {@link StreamResponse#isNotModified()}
+ * and read from the disk. Callbacks are delivered on the main thread, like the ones of Volley.
+ */
+public class CustomStreamRequest {
+
+  private final static CacheControl REVALIDATE = new CacheControl.Builder().noCache().build();
+
+  private final Call call;
+  private final Handler mainHandler;
+  private volatile boolean canceled;
+
+  public CustomStreamRequest(
+      OkHttpClient client,
+      String url,
+      @Nullable RequestAuthContext authContext,
+      int timeoutSeconds
+  ) {
+    okhttp3.Request.Builder builder = new okhttp3.Request.Builder()
+        .url(url)
+        .cacheControl(REVALIDATE)
+        .get();
+    if (authContext != null) {
+      for (Map.Entry<String, String> header : authContext.getHeaders(url).entrySet()) {
+        builder.header(header.getKey(), header.getValue());
+      }
+    }
+    OkHttpClient requestClient = client.newBuilder()
+        .connectTimeout(timeoutSeconds, TimeUnit.SECONDS)
+        .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
+        .build();
+    call = requestClient.newCall(builder.build());
+    mainHandler = new Handler(Looper.getMainLooper());
+  }
+
+  public void enqueue(
+      Response.Listener<StreamResponse> listener,
+      Response.ErrorListener errorListener
+  ) {
+    call.enqueue(new Callback() {
+      @Override
+      public void onFailure(@NonNull Call call, @NonNull IOException e) {
+        VolleyError error = toVolleyError(e);
+        mainHandler.post(() -> {
+          if (!canceled) {
+            errorListener.onErrorResponse(error);
+          }
+        });
+      }
+
+      @Override
+      public void onResponse(@NonNull Call call, @NonNull okhttp3.Response response) {
+        if (!response.isSuccessful()) {
+          VolleyError error = toVolleyError(response);
+          mainHandler.post(() -> {
+            if (!canceled) {
+              errorListener.onErrorResponse(error);
+            }
+          });
+          return;
+        }
+        StreamResponse streamResponse = new StreamResponse(response);
+        mainHandler.post(() -> {
+          if (canceled) {
+            streamResponse.close();
+          } else {
+            listener.onResponse(streamResponse);
+          }
+        });
+      }
+    });
+  }
+
+  public void cancel() {
+    canceled = true;
+    call.cancel();
+  }
+
+  public boolean isCanceled() {
+    return canceled;
+  }
+
+  private static VolleyError toVolleyError(IOException e) {
+    if (e instanceof SocketTimeoutException
+        || e instanceof InterruptedIOException && "timeout".equals(e.getMessage())) {
+      return new TimeoutError();
+    } else if (e instanceof UnknownHostException || e instanceof ConnectException) {
+      return new NoConnectionError(e);
+    }
+    return new NetworkError(e);
+  }
+
+  // same error types as BasicNetwork would create for the status code
+  private static VolleyError toVolleyError(okhttp3.Response response) {
+    byte[] data;
+    try (ResponseBody body = response.body()) {
+      data = body != null ? body.bytes() : new byte[0];
+    } catch (IOException e) {
+      data = new byte[0];
+    }
+    Headers headers = response.headers();
+    List<Header> allHeaders = new ArrayList<>(headers.size());
+    for (int i = 0; i < headers.size(); i++) {
+      allHeaders.add(new Header(headers.name(i), headers.value(i)));
+    }
+    NetworkResponse networkResponse = new NetworkResponse(
+        response.code(),
+        data,
+        false,
+        response.receivedResponseAtMillis() - response.sentRequestAtMillis(),
+        allHeaders
+    );
+    int code = response.code();
+    if (code == 401 || code == 403) {
+      return new AuthFailureError(networkResponse);
+    } else if (code >= 400 && code <= 499) {
+      return new ClientError(networkResponse);
+    }
+    return new ServerError(networkResponse);
+  }
+
+  /**
+   * The body can only be read once and must be closed, closing the reader closes it as well.
+   */
+  public static class StreamResponse {
+
+    private final okhttp3.Response response;
+    private final CountingInputStream inputStream;
+    private final Charset charset;
+
+    StreamResponse(okhttp3.Response response) {
+      this.response = response;
+      ResponseBody body = response.body();
+      MediaType contentType = body != null ? body.contentType() : null;
+      charset = contentType != null
+          ? contentType.charset(StandardCharsets.UTF_8)
+          : StandardCharsets.UTF_8;
+      inputStream = new CountingInputStream(
+          body != null ? body.byteStream() : new ByteArrayInputStream(new byte[0])
+      );
+    }
+
+    public Reader getReader() {
+      return new InputStreamReader(inputStream, charset);
+    }
+
+    /**
+     * @return true if the server has confirmed that the cached list is still up to date
+     */
+    public boolean isNotModified() {
+      okhttp3.Response networkResponse = response.networkResponse();
+      return networkResponse != null && networkResponse.code() == 304;
+    }
+
+    /**
+     * @return bytes of the (decompressed) body which were read so far
+     */
+    public int getBytesRead() {
+      return (int) inputStream.count;
+    }
+
+    public void close() {
+      response.close();
+    }
+  }
+
+  private static class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read > 0) {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+  }
+}
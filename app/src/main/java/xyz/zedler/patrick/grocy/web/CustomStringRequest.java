@@ -19,32 +19,28 @@
 
 package xyz.zedler.patrick.grocy.web;
 
-import android.util.Base64;
 import androidx.annotation.Nullable;
 import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
 import com.android.volley.Response;
 import com.android.volley.RetryPolicy;
+import com.android.volley.toolbox.HttpHeaderParser;
 import com.android.volley.toolbox.StringRequest;
+import java.io.UnsupportedEncodingException;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 
 public class CustomStringRequest extends StringRequest {
 
   private final Runnable onRequestFinished;
-  private final String url;
-  private final String apiKey;
-  private final String homeAssistantIngressSessionKey;
-  private final String userAgent;
+  private final RequestAuthContext authContext;
+  private final Map<String, String> userAgentHeaders;
 
   public CustomStringRequest(
       int method,
       String url,
-      String apiKey,
-      String homeAssistantIngressSessionKey,
+      @Nullable RequestAuthContext authContext,
       Response.Listener<String> listener,
       @Nullable Response.ErrorListener errorListener,
       @Nullable Runnable onRequestFinished,
@@ -81,14 +77,13 @@ public class CustomStringRequest extends StringRequest {
         }
     );
     this.onRequestFinished = onRequestFinished;
-    this.url = url;
-    this.apiKey = apiKey;
-    this.homeAssistantIngressSessionKey = homeAssistantIngressSessionKey;
-    this.userAgent = userAgent;
+    this.authContext = authContext;
+    this.userAgentHeaders = userAgent != null
+        ? Collections.singletonMap("User-Agent", userAgent) : null;
     if (tag != null) {
       setTag(tag);
     }
-    setShouldCache(false);
+    setShouldCache(ConditionalCacheHelper.shouldCache(method, url));
     RetryPolicy policy = new DefaultRetryPolicy(
         timeoutSeconds * 1000,
         DefaultRetryPolicy.DEFAULT_MAX_RETRIES,
@@ -100,8 +95,7 @@ public class CustomStringRequest extends StringRequest {
   public CustomStringRequest(
       int method,
       String url,
-      String apiKey,
-      String homeAssistantIngressSessionKey,
+      @Nullable RequestAuthContext authContext,
       Response.Listener<String> listener,
       @Nullable Response.ErrorListener errorListener,
       @Nullable Runnable onRequestFinished,
@@ -111,8 +105,7 @@ public class CustomStringRequest extends StringRequest {
     this(
         method,
         url,
-        apiKey,
-        homeAssistantIngressSessionKey,
+        authContext,
         listener,
         errorListener,
         onRequestFinished,
@@ -127,8 +120,7 @@ public class CustomStringRequest extends StringRequest {
   public CustomStringRequest(
       int method,
       String url,
-      String apiKey,
-      String homeAssistantIngressSessionKey,
+      @Nullable RequestAuthContext authContext,
       Response.Listener<String> listener,
       @Nullable Response.ErrorListener errorListener,
       @Nullable Runnable onRequestFinished,
@@ -139,8 +131,7 @@ public class CustomStringRequest extends StringRequest {
     this(
         method,
         url,
-        apiKey,
-        homeAssistantIngressSessionKey,
+        authContext,
         listener,
         errorListener,
         onRequestFinished,
@@ -155,8 +146,7 @@ public class CustomStringRequest extends StringRequest {
   public CustomStringRequest(
       int method,
       String url,
-      String apiKey,
-      String homeAssistantIngressSessionKey,
+      @Nullable RequestAuthContext authContext,
       Response.Listener<String> listener,
       @Nullable Response.ErrorListener errorListener,
       @Nullable Runnable onRequestFinished,
@@ -168,8 +158,7 @@ public class CustomStringRequest extends StringRequest {
     this(
         method,
         url,
-        apiKey,
-        homeAssistantIngressSessionKey,
+        authContext,
         listener,
         errorListener,
         onRequestFinished,
@@ -181,6 +170,20 @@ public class CustomStringRequest extends StringRequest {
     );
   }
 
+  @Override
+  protected Response<String> parseNetworkResponse(NetworkResponse response) {
+    String parsed;
+    try {
+      parsed = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
+    } catch (UnsupportedEncodingException e) {
+      parsed = new String(response.data);
+    }
+    return Response.success(
+        parsed,
+        shouldCache() ? ConditionalCacheHelper.parseRevalidationEntry(response) : null
+    );
+  }
+
   @Override
   public void cancel() {
     super.cancel();
@@ -191,26 +194,10 @@ public class CustomStringRequest extends StringRequest {
 
   @Override
   public Map<String, String> getHeaders() {
-    Map<String, String> params = new HashMap<>();
-
-    Matcher matcher = Pattern.compile("(http|https)://(\\S+):(\\S+)@(\\S+)").matcher(url);
-    if (matcher.matches()) {
-      String user = matcher.group(2);
-      String password = matcher.group(3);
-      byte[] combination = (user + ":" + password).getBytes();
-      String encoded = Base64.encodeToString(combination, Base64.DEFAULT);
-      params.put("Authorization", "Basic " + encoded);
-    }
-    if (apiKey != null && !apiKey.isEmpty()) {
-      params.put("GROCY-API-KEY", apiKey);
-    }
-    if (userAgent == null && homeAssistantIngressSessionKey
-        != null) { // should not put key into requests for OpenFoodFacts
-      params.put("Cookie", "ingress_session=" + homeAssistantIngressSessionKey);
-    }
-    if (userAgent != null) {
-      params.put("User-Agent", userAgent);
+    if (userAgentHeaders != null) {
+      // requests to other APIs like Open Food Facts, no credentials of the server
+      return userAgentHeaders;
     }
-    return params.isEmpty() ? Collections.emptyMap() : params;
+    return authContext != null ? authContext.getHeaders(getUrl()) : Collections.emptyMap();
   }
 }
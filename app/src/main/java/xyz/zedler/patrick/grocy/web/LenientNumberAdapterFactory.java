@@ -0,0 +1,98 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * For numeric fields of the models, used with @JsonAdapter. The server sends numbers also as
+ * strings and sometimes as empty strings, which Gson can't parse into a double or int. Empty
+ * and invalid values are read as null, so the field keeps its default value.
+ */
+public class LenientNumberAdapterFactory implements TypeAdapterFactory {
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+    Class<? super T> rawType = type.getRawType();
+    if (rawType == double.class || rawType == Double.class) {
+      return (TypeAdapter<T>) new DoubleAdapter();
+    } else if (rawType == int.class || rawType == Integer.class) {
+      return (TypeAdapter<T>) new IntegerAdapter();
+    }
+    return null;
+  }
+
+  private static Double readDouble(JsonReader in) throws IOException {
+    JsonToken token = in.peek();
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    } else if (token == JsonToken.BOOLEAN) {
+      return in.nextBoolean() ? 1d : 0d;
+    } else if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+      in.skipValue();
+      return null;
+    }
+    String value = in.nextString().trim();
+    if (value.isEmpty()) {
+      return null;
+    }
+    try {
+      return Double.parseDouble(value.replace(",", "."));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static class DoubleAdapter extends TypeAdapter<Double> {
+
+    @Override
+    public void write(JsonWriter out, Double value) throws IOException {
+      out.value(value);
+    }
+
+    @Override
+    public Double read(JsonReader in) throws IOException {
+      return readDouble(in);
+    }
+  }
+
+  private static class IntegerAdapter extends TypeAdapter<Integer> {
+
+    @Override
+    public void write(JsonWriter out, Integer value) throws IOException {
+      out.value(value);
+    }
+
+    @Override
+    public Integer read(JsonReader in) throws IOException {
+      Double value = readDouble(in);
+      return value != null ? (int) Math.round(value) : null;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Volley transport over a shared OkHttpClient: connections are pooled and reused, HTTP/2
+ * multiplexes parallel requests to the same server over one connection, and gzip/brotli
+ * responses are decompressed transparently.
+ */
+public class OkHttpStack extends BaseHttpStack {
+
+  private final OkHttpClient client;
+
+  public OkHttpStack(OkHttpClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public HttpResponse executeRequest(
+      Request<?> request,
+      Map<String, String> additionalHeaders
+  ) throws IOException, AuthFailureError {
+    int timeoutMs = request.getTimeoutMs();
+    // derived clients share the connection pool and dispatcher of the base client
+    OkHttpClient requestClient = client.newBuilder()
+        .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .build();
+
+    okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.getUrl());
+    for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+      builder.header(header.getKey(), header.getValue());
+    }
+    // conditional headers (If-None-Match, If-Modified-Since) from the Volley cache
+    for (Map.Entry<String, String> header : additionalHeaders.entrySet()) {
+      builder.header(header.getKey(), header.getValue());
+    }
+    setMethodAndBody(builder, request);
+
+    Call call = requestClient.newCall(builder.build());
+    Response response = call.execute();
+
+    ResponseBody body = response.body();
+    List<Header> headers = toVolleyHeaders(response.headers());
+    if (body == null) {
+      return new HttpResponse(response.code(), headers);
+    }
+    return new HttpResponse(
+        response.code(),
+        headers,
+        (int) body.contentLength(),
+        body.byteStream()
+    );
+  }
+
+  private static void setMethodAndBody(
+      okhttp3.Request.Builder builder,
+      Request<?> request
+  ) throws AuthFailureError {
+    switch (request.getMethod()) {
+      case Request.Method.GET:
+        builder.get();
+        break;
+      case Request.Method.DELETE:
+        builder.delete(createBody(request));
+        break;
+      case Request.Method.POST:
+        builder.post(createBodyOrEmpty(request));
+        break;
+      case Request.Method.PUT:
+        builder.put(createBodyOrEmpty(request));
+        break;
+      case Request.Method.HEAD:
+        builder.head();
+        break;
+      case Request.Method.OPTIONS:
+        builder.method("OPTIONS", null);
+        break;
+      case Request.Method.TRACE:
+        builder.method("TRACE", null);
+        break;
+      case Request.Method.PATCH:
+        builder.patch(createBodyOrEmpty(request));
+        break;
+      default:
+        throw new IllegalStateException("Unknown method type.");
+    }
+  }
+
+  private static RequestBody createBody(Request<?> request) throws AuthFailureError {
+    byte[] body = request.getBody();
+    if (body == null) {
+      return null;
+    }
+    return RequestBody.create(body, MediaType.parse(request.getBodyContentType()));
+  }
+
+  private static RequestBody createBodyOrEmpty(Request<?> request) throws AuthFailureError {
+    RequestBody body = createBody(request);
+    return body != null ? body : RequestBody.create(new byte[0], null);
+  }
+
+  private static List<Header> toVolleyHeaders(Headers okHttpHeaders) {
+    List<Header> headers = new ArrayList<>(okHttpHeaders.size());
+    for (int i = 0; i < okHttpHeaders.size(); i++) {
+      headers.add(new Header(okHttpHeaders.name(i), okHttpHeaders.value(i)));
+    }
+    return headers;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import androidx.annotation.Nullable;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.android.volley.toolbox.StringRequest;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import xyz.zedler.patrick.grocy.model.OutboxOperation;
+
+/**
+ * Sends an outbox operation with its idempotency key as header. Volley doesn't retry it, because
+ * a retry after a timeout could apply a non-idempotent action twice; the outbox retries instead.
+ */
+public class OutboxRequest extends StringRequest {
+
+  public final static String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+
+  private final Runnable onRequestFinished;
+  private final RequestAuthContext authContext;
+  private final OutboxOperation operation;
+
+  public OutboxRequest(
+      OutboxOperation operation,
+      @Nullable RequestAuthContext authContext,
+      Response.Listener<String> listener,
+      @Nullable Response.ErrorListener errorListener,
+      @Nullable Runnable onRequestFinished,
+      int timeoutSeconds,
+      String tag
+  ) {
+    super(operation.getMethod(), operation.getUrl(), response -> {
+      if (onRequestFinished != null) {
+        onRequestFinished.run();
+      }
+      listener.onResponse(response);
+    }, error -> {
+      if (onRequestFinished != null) {
+        onRequestFinished.run();
+      }
+      if (errorListener != null) {
+        errorListener.onErrorResponse(error);
+      }
+    });
+    this.onRequestFinished = onRequestFinished;
+    this.authContext = authContext;
+    this.operation = operation;
+    if (tag != null) {
+      setTag(tag);
+    }
+    setShouldCache(false);
+    setRetryPolicy(new DefaultRetryPolicy(
+        timeoutSeconds * 1000,
+        0,
+        DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
+    ));
+  }
+
+  @Override
+  public String getBodyContentType() {
+    return "application/json; charset=utf-8";
+  }
+
+  @Override
+  public byte[] getBody() {
+    String body = operation.getBody();
+    return body != null ? body.getBytes(StandardCharsets.UTF_8) : null;
+  }
+
+  @Override
+  protected Response<String> parseNetworkResponse(NetworkResponse response) {
+    String parsed;
+    try {
+      parsed = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
+    } catch (UnsupportedEncodingException e) {
+      parsed = new String(response.data);
+    }
+    return Response.success(parsed, null);
+  }
+
+  @Override
+  public void cancel() {
+    super.cancel();
+    if (onRequestFinished != null) {
+      onRequestFinished.run();
+    }
+  }
+
+  @Override
+  public Map<String, String> getHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    if (authContext != null) {
+      headers.putAll(authContext.getHeaders(getUrl()));
+    }
+    headers.put(HEADER_IDEMPOTENCY_KEY, operation.getIdempotencyKey());
+    return headers;
+  }
+}
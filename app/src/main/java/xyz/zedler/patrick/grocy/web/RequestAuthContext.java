@@ -0,0 +1,127 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.util.Base64;
+import androidx.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Authentication headers of one server, shared by all requests to it. The server URL is parsed
+ * once and the header map is immutable, so getHeaders() doesn't allocate anything. When the
+ * Home Assistant ingress session rotates, the map is replaced as a whole.
+ */
+public class RequestAuthContext {
+
+  private final static Pattern BASIC_AUTH_PATTERN
+      = Pattern.compile("(http|https)://(\\S+):(\\S+)@(\\S+)");
+
+  private static final HashMap<String, RequestAuthContext> contexts = new HashMap<>();
+
+  private final String serverUrl;
+  private final String apiKey;
+  private final String basicAuth;
+  private volatile String ingressSessionKey;
+  private volatile Map<String, String> headers;
+
+  private RequestAuthContext(String serverUrl, @Nullable String apiKey) {
+    this.serverUrl = serverUrl;
+    this.apiKey = apiKey;
+    this.basicAuth = parseBasicAuth(serverUrl);
+    this.headers = buildHeaders(null);
+  }
+
+  public static RequestAuthContext getInstance(String serverUrl, @Nullable String apiKey) {
+    String key = serverUrl + "|" + apiKey;
+    synchronized (contexts) {
+      RequestAuthContext context = contexts.get(key);
+      if (context == null) {
+        context = new RequestAuthContext(serverUrl, apiKey);
+        contexts.put(key, context);
+      }
+      return context;
+    }
+  }
+
+  @Nullable
+  public String getIngressSessionKey() {
+    return ingressSessionKey;
+  }
+
+  public synchronized void setIngressSessionKey(@Nullable String sessionKey) {
+    if (Objects.equals(sessionKey, ingressSessionKey)) {
+      return;
+    }
+    ingressSessionKey = sessionKey;
+    headers = buildHeaders(sessionKey);
+  }
+
+  /**
+   * Requests to other hosts (e.g. Open Food Facts) don't get any credentials of the server.
+   */
+  public Map<String, String> getHeaders(String url) {
+    if (url == null || serverUrl == null || !url.startsWith(serverUrl)) {
+      return Collections.emptyMap();
+    }
+    return headers;
+  }
+
+  private Map<String, String> buildHeaders(@Nullable String sessionKey) {
+    Map<String, String> params = new HashMap<>();
+    if (basicAuth != null) {
+      params.put("Authorization", basicAuth);
+    }
+    if (apiKey != null && !apiKey.isEmpty()) {
+      params.put("GROCY-API-KEY", apiKey);
+    }
+    if (sessionKey != null) {
+      params.put("Cookie", "ingress_session=" + sessionKey);
+    }
+    return params.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(params);
+  }
+
+  @Nullable
+  private static String parseBasicAuth(@Nullable String url) {
+    if (url == null) {
+      return null;
+    }
+    Matcher matcher = BASIC_AUTH_PATTERN.matcher(url);
+    if (!matcher.matches()) {
+      return null;
+    }
+    String user = matcher.group(2);
+    String password = matcher.group(3);
+    byte[] combination = (user + ":" + password).getBytes();
+    // NO_WRAP: a trailing line break is not allowed in header values
+    return "Basic " + Base64.encodeToString(combination, Base64.NO_WRAP);
+  }
+
+  public static Map<String, String> getHomeAssistantHeaders(@Nullable String longLivedAccessToken) {
+    if (longLivedAccessToken == null || longLivedAccessToken.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return Collections.singletonMap("Authorization", "Bearer " + longLivedAccessToken);
+  }
+}
@@ -22,27 +22,39 @@ package xyz.zedler.patrick.grocy.web;
 import android.content.Context;
 import android.content.SharedPreferences;
 import androidx.preference.PreferenceManager;
+import androidx.startup.AppInitializer;
 import com.android.volley.Cache;
 import com.android.volley.Network;
 import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BaseHttpStack;
 import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.ClearCacheRequest;
 import com.android.volley.toolbox.DiskBasedCache;
-import com.android.volley.toolbox.HurlStack;
+import java.io.File;
 import java.io.IOException;
-import java.net.InetAddress;
-import java.net.Socket;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSocket;
-import javax.net.ssl.SSLSocketFactory;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.ConnectionSpec;
+import okhttp3.OkHttpClient;
+import okhttp3.brotli.BrotliInterceptor;
+import xyz.zedler.patrick.grocy.startup.ConscryptInitializer;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.NETWORK;
 import xyz.zedler.patrick.grocy.util.Constants.SETTINGS_DEFAULT;
 
 public class RequestQueueSingleton {
 
-  private static RequestQueueSingleton instance;
+  // only used for revalidation of /objects responses, see ConditionalCacheHelper,
+  // and for the streamed downloads
+  private final static int CACHE_SIZE_BYTES = 20 * 1024 * 1024;
+
+  private static volatile RequestQueueSingleton instance;
   private RequestQueue requestQueue;
+  private OkHttpClient baseClient;
+  private OkHttpClient streamClient;
+  private okhttp3.Cache streamCache;
   private static Context ctx;
 
   private RequestQueueSingleton(Context context) {
@@ -50,9 +62,17 @@ public class RequestQueueSingleton {
     requestQueue = getRequestQueue();
   }
 
-  public static synchronized RequestQueueSingleton getInstance(Context context) {
+  public static RequestQueueSingleton getInstance(Context context) {
     if (instance == null) {
-      instance = new RequestQueueSingleton(context);
+      // the HTTP client uses the security providers which are installed when it is created,
+      // outside of the lock because the initializers have their own
+      AppInitializer.getInstance(context.getApplicationContext())
+          .initializeComponent(ConscryptInitializer.class);
+      synchronized (RequestQueueSingleton.class) {
+        if (instance == null) {
+          instance = new RequestQueueSingleton(context);
+        }
+      }
     }
     return instance;
   }
@@ -67,82 +87,79 @@ public class RequestQueueSingleton {
   public void newRequestQueue() {
     //requestQueue = Volley.newRequestQueue(ctx);
 
-    Cache cache = new DiskBasedCache(ctx.getCacheDir(), 1024 * 1024);
+    Cache cache = new DiskBasedCache(new File(ctx.getCacheDir(), "volley"), CACHE_SIZE_BYTES);
 
     SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(ctx);
-    boolean useTor = sharedPrefs.getBoolean(NETWORK.TOR, SETTINGS_DEFAULT.NETWORK.TOR);
-    boolean useProxy = sharedPrefs.getBoolean(NETWORK.PROXY, SETTINGS_DEFAULT.NETWORK.PROXY);
-
-    HurlStack stack;
-    if (useTor || useProxy) {
-      stack = new ProxyHurlStack(sharedPrefs, useTor);
-    } else {
-      try {
-        stack = new HurlStack(null, new TLSSocketFactory());
-      } catch (NoSuchAlgorithmException | KeyManagementException e) {
-        stack = new HurlStack();
-      }
-    }
-    Network network = new BasicNetwork(stack);
+    Network network = new BasicNetwork(createHttpStack(sharedPrefs));
     requestQueue = new RequestQueue(cache, network, 6);
     requestQueue.start();
   }
 
-  private static class TLSSocketFactory extends SSLSocketFactory {
-
-    private final SSLSocketFactory internalSSLSocketFactory;
-
-    public TLSSocketFactory() throws KeyManagementException, NoSuchAlgorithmException {
-      SSLContext context = SSLContext.getInstance("TLS");
-      context.init(null, null, null);
-      internalSSLSocketFactory = context.getSocketFactory();
-    }
-
-    @Override
-    public String[] getDefaultCipherSuites() {
-      return internalSSLSocketFactory.getDefaultCipherSuites();
-    }
-
-    @Override
-    public String[] getSupportedCipherSuites() {
-      return internalSSLSocketFactory.getSupportedCipherSuites();
-    }
-
-    @Override
-    public Socket createSocket() throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket());
-    }
-
-    @Override
-    public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(s, host, port, autoClose));
+  public void clearCache() {
+    getRequestQueue().add(new ClearCacheRequest(getRequestQueue().getCache(), null));
+    if (streamCache != null) {
+      okhttp3.Cache cache = streamCache;
+      new Thread(() -> {
+        try {
+          cache.evictAll();
+        } catch (IOException ignored) {
+        }
+      }).start();
     }
+  }
 
-    @Override
-    public Socket createSocket(String host, int port) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port));
-    }
+  /**
+   * Client for the streamed entity downloads of CustomStreamRequest, with the same transport
+   * settings as the request queue and an HTTP cache for revalidation.
+   */
+  public OkHttpClient getStreamClient() {
+    getRequestQueue();
+    return streamClient;
+  }
 
-    @Override
-    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port, localHost, localPort));
-    }
+  /**
+   * The transport of all requests. The connection pool is kept when the queue is recreated
+   * after the network settings were changed, only the proxy is applied again.
+   */
+  private BaseHttpStack createHttpStack(SharedPreferences sharedPrefs) {
+    boolean useTor = sharedPrefs.getBoolean(NETWORK.TOR, SETTINGS_DEFAULT.NETWORK.TOR);
+    boolean useProxy = sharedPrefs.getBoolean(NETWORK.PROXY, SETTINGS_DEFAULT.NETWORK.PROXY);
 
-    @Override
-    public Socket createSocket(InetAddress host, int port) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port));
+    OkHttpClient.Builder builder = getBaseClient().newBuilder();
+    if (useTor) {
+      builder.proxy(new Proxy(
+          Proxy.Type.SOCKS,
+          InetSocketAddress.createUnresolved("127.0.0.1", 9050)
+      ));
+    } else if (useProxy) {
+      String host = sharedPrefs.getString(NETWORK.PROXY_HOST, SETTINGS_DEFAULT.NETWORK.PROXY_HOST);
+      int port = sharedPrefs.getInt(NETWORK.PROXY_PORT, SETTINGS_DEFAULT.NETWORK.PROXY_PORT);
+      builder.proxy(new Proxy(Proxy.Type.HTTP, InetSocketAddress.createUnresolved(host, port)));
+    } else {
+      builder.proxy(Proxy.NO_PROXY);
     }
-
-    @Override
-    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(address, port, localAddress, localPort));
+    OkHttpClient client = builder.build();
+    if (streamCache == null) {
+      streamCache = new okhttp3.Cache(new File(ctx.getCacheDir(), "okhttp"), CACHE_SIZE_BYTES);
     }
+    streamClient = client.newBuilder().cache(streamCache).build();
+    return new OkHttpStack(client);
+  }
 
-    private Socket enableTLSOnSocket(Socket socket) {
-      if((socket instanceof SSLSocket)) {
-        ((SSLSocket)socket).setEnabledProtocols(new String[] {"TLSv1.1", "TLSv1.2", "TLSv1.3"});
-      }
-      return socket;
+  private OkHttpClient getBaseClient() {
+    if (baseClient == null) {
+      baseClient = new OkHttpClient.Builder()
+          .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+          // TLS 1.1 is still allowed for older servers, like before with the custom socket factory
+          .connectionSpecs(Arrays.asList(
+              ConnectionSpec.MODERN_TLS,
+              ConnectionSpec.COMPATIBLE_TLS,
+              ConnectionSpec.CLEARTEXT
+          ))
+          // requests Accept-Encoding "br,gzip" and decompresses the responses
+          .addInterceptor(BrotliInterceptor.INSTANCE)
+          .build();
     }
+    return baseClient;
   }
-}
\ No newline at end of file
+}
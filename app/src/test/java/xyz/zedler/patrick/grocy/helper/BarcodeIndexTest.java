@@ -0,0 +1,101 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.ProductBarcode;
+
+public class BarcodeIndexTest {
+
+  private static ProductBarcode barcode(int productId, String code) {
+    ProductBarcode barcode = new ProductBarcode();
+    barcode.setProductIdInt(productId);
+    barcode.setBarcode(code);
+    return barcode;
+  }
+
+  @Test
+  public void normalize_padsUpcAndEanToGtin14() {
+    assertEquals("00012345678905", BarcodeIndex.normalize("012345678905"));
+    assertEquals("04006381333931", BarcodeIndex.normalize("4006381333931"));
+    assertEquals("14006381333938", BarcodeIndex.normalize("14006381333938"));
+    assertEquals("04006381333931", BarcodeIndex.normalize(" 4006381333931\n"));
+  }
+
+  @Test
+  public void normalize_keepsOtherCodes() {
+    assertEquals("", BarcodeIndex.normalize(null));
+    assertEquals("", BarcodeIndex.normalize("  "));
+    assertEquals("96385074", BarcodeIndex.normalize("96385074"));
+    assertEquals("400638133393A", BarcodeIndex.normalize("400638133393A"));
+    assertEquals("123456789012345", BarcodeIndex.normalize("123456789012345"));
+  }
+
+  @Test
+  public void get_matchesAcrossGtinLengths() {
+    ProductBarcode ean = barcode(1, "4006381333931");
+    BarcodeIndex index = BarcodeIndex.of(Arrays.asList(ean, barcode(2, "ABC-1")));
+    assertSame(ean, index.get("4006381333931"));
+    assertSame(ean, index.get("04006381333931"));
+    assertSame(ean, index.get(" 4006381333931 "));
+    assertEquals(2, index.get("ABC-1").getProductIdInt());
+    assertNull(index.get("4006381333932"));
+    assertNull(index.get("abc-1"));
+    assertNull(index.get(null));
+    assertNull(index.get(""));
+  }
+
+  @Test
+  public void add_firstBarcodeWins() {
+    ProductBarcode first = barcode(1, "012345678905");
+    BarcodeIndex index = new BarcodeIndex();
+    assertTrue(index.add(first));
+    assertFalse(index.add(barcode(2, "0012345678905")));
+    assertFalse(index.add(barcode(3, "")));
+    assertFalse(index.add(barcode(4, null)));
+    assertEquals(1, index.size());
+    assertSame(first, index.get("00012345678905"));
+  }
+
+  @Test
+  public void add_growsBeyondInitialCapacity() {
+    List<ProductBarcode> barcodes = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      barcodes.add(barcode(i, "code-" + i));
+    }
+    BarcodeIndex index = new BarcodeIndex();
+    index.addAll(barcodes);
+    index.addAll(null);
+    assertEquals(1000, index.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, index.get("code-" + i).getProductIdInt());
+    }
+    assertFalse(index.contains("code-1000"));
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gson.Gson;
+import io.reactivex.rxjava3.core.Single;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.helper.DeltaSyncHelper.DeltaResult;
+import xyz.zedler.patrick.grocy.helper.DeltaSyncHelper.SyncStats;
+import xyz.zedler.patrick.grocy.helper.DeltaSyncHelper.TransactionRunner;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+
+public class DeltaSyncHelperTest {
+
+  // id and content of an item
+  private static int[] item(int id, int content) {
+    return new int[]{id, content};
+  }
+
+  // counts the transactions, SQLite isn't available in unit tests
+  private static class CountingTransactionRunner implements TransactionRunner {
+
+    int transactions;
+
+    @Override
+    public <V> V runInTransaction(Callable<V> callable) {
+      transactions++;
+      try {
+        return callable.call();
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  private static DeltaResult<int[]> compute(List<int[]> localItems, List<int[]> serverItems) {
+    return DeltaSyncHelper.compute(
+        localItems, serverItems, item -> item[0], (local, server) -> local[1] == server[1]
+    );
+  }
+
+  @Test
+  public void compute_emptyDatabase_upsertsAll() {
+    DeltaResult<int[]> result = compute(
+        Collections.emptyList(), Arrays.asList(item(1, 1), item(2, 2))
+    );
+    assertEquals(2, result.upserts.size());
+    assertTrue(result.deletedIds.isEmpty());
+    assertEquals(0, result.unchanged);
+  }
+
+  @Test
+  public void compute_changedNewAndDeleted() {
+    DeltaResult<int[]> result = compute(
+        Arrays.asList(item(1, 1), item(2, 2), item(3, 3)),
+        Arrays.asList(item(1, 1), item(2, 20), item(4, 4))
+    );
+    assertEquals(2, result.upserts.size());
+    assertEquals(2, result.upserts.get(0)[0]);
+    assertEquals(4, result.upserts.get(1)[0]);
+    assertEquals(Collections.singletonList(3), result.deletedIds);
+    assertEquals(1, result.unchanged);
+  }
+
+  @Test
+  public void compute_unchanged_writesNothing() {
+    DeltaResult<int[]> result = compute(
+        Arrays.asList(item(1, 1), item(2, 2)),
+        Arrays.asList(item(2, 2), item(1, 1))
+    );
+    assertTrue(result.upserts.isEmpty());
+    assertTrue(result.deletedIds.isEmpty());
+    assertEquals(2, result.unchanged);
+  }
+
+  @Test
+  public void syncStreamed_severalBatches() throws IOException {
+    Gson gson = new Gson();
+    // more items than fit into one batch
+    ArrayList<QuantityUnit> serverItems = new ArrayList<>();
+    HashMap<Integer, QuantityUnit> localItems = new HashMap<>();
+    for (int id = 1; id <= 600; id++) {
+      serverItems.add(new QuantityUnit(id, "Unit " + id));
+      if (id % 100 != 0) { // 6 new on the server
+        localItems.put(id, new QuantityUnit(id, id % 10 == 0 ? "Old " + id : "Unit " + id));
+      }
+    }
+    for (int id = 601; id <= 605; id++) { // 5 deleted on the server
+      localItems.put(id, new QuantityUnit(id, "Unit " + id));
+    }
+    ArrayList<QuantityUnit> upserted = new ArrayList<>();
+    ArrayList<Integer> deletedIds = new ArrayList<>();
+    CountingTransactionRunner transactionRunner = new CountingTransactionRunner();
+
+    SyncStats stats = DeltaSyncHelper.syncStreamed(
+        "quantity units",
+        new StringReader(gson.toJson(serverItems)),
+        gson,
+        QuantityUnit.class,
+        null,
+        QuantityUnit::getId,
+        Object::equals,
+        ids -> {
+          ArrayList<QuantityUnit> items = new ArrayList<>();
+          for (int id : ids) {
+            if (localItems.containsKey(id)) {
+              items.add(localItems.get(id));
+            }
+          }
+          return Single.just(items);
+        },
+        Single.just(new ArrayList<>(localItems.keySet())),
+        items -> {
+          upserted.addAll(items);
+          return Single.just(Collections.nCopies(items.size(), 0L));
+        },
+        ids -> {
+          deletedIds.addAll(ids);
+          return Single.just(ids.size());
+        },
+        transactionRunner
+    );
+
+    // 54 renamed and 6 new ones
+    assertEquals(600, stats.getRowsTotal());
+    assertEquals(60, stats.getRowsUpserted());
+    assertEquals(540, stats.getRowsUnchanged());
+    assertEquals(5, stats.getRowsDeleted());
+    assertEquals(60, upserted.size());
+    Collections.sort(deletedIds);
+    assertEquals(Arrays.asList(601, 602, 603, 604, 605), deletedIds);
+    // 3 batches and the deletions
+    assertEquals(4, transactionRunner.transactions);
+  }
+
+  @Test
+  public void syncStreamed_brokenStream_deletesNothing() {
+    Gson gson = new Gson();
+    ArrayList<QuantityUnit> serverItems = new ArrayList<>();
+    for (int id = 1; id <= 600; id++) {
+      serverItems.add(new QuantityUnit(id, "Unit " + id));
+    }
+    String json = gson.toJson(serverItems);
+    ArrayList<QuantityUnit> upserted = new ArrayList<>();
+    ArrayList<Integer> deletedIds = new ArrayList<>();
+
+    try {
+      DeltaSyncHelper.syncStreamed(
+          "quantity units",
+          new StringReader(json.substring(0, json.length() / 2)),
+          gson,
+          QuantityUnit.class,
+          null,
+          QuantityUnit::getId,
+          Object::equals,
+          ids -> Single.just(new ArrayList<>()),
+          Single.just(Collections.singletonList(1000)),
+          items -> {
+            upserted.addAll(items);
+            return Single.just(Collections.nCopies(items.size(), 0L));
+          },
+          ids -> {
+            deletedIds.addAll(ids);
+            return Single.just(ids.size());
+          },
+          new CountingTransactionRunner()
+      );
+      fail();
+    } catch (IOException | RuntimeException expected) {
+      // the first complete batch is kept, the local row is not deleted
+      assertEquals(250, upserted.size());
+      assertTrue(deletedIds.isEmpty());
+    }
+  }
+}
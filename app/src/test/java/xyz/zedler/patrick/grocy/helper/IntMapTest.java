@@ -0,0 +1,133 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class IntMapTest {
+
+  @Test
+  public void of_mapsItemsByKey() {
+    List<String> items = Arrays.asList("a", "bb", "ccc");
+    IntMap<String> map = IntMap.of(items, String::length);
+    assertEquals(3, map.size());
+    assertEquals("a", map.get(1));
+    assertEquals("ccc", map.get(3));
+    assertNull(map.get(4));
+    assertTrue(map.containsKey(2));
+    assertFalse(map.containsKey(0));
+  }
+
+  @Test
+  public void of_nullList_isEmpty() {
+    IntMap<String> map = IntMap.of(null, String::length);
+    assertEquals(0, map.size());
+    assertTrue(map.isEmpty());
+    assertNull(map.get(0));
+  }
+
+  @Test
+  public void of_valueFunction() {
+    IntMap<Integer> map = IntMap.of(Arrays.asList("a", "bb"), String::length, String::hashCode);
+    assertEquals("bb".hashCode(), (int) map.get(2));
+  }
+
+  @Test
+  public void builder_laterValueReplacesEarlier_nullValuesSkipped() {
+    IntMap<String> map = new IntMap.Builder<String>(0)
+        .put(5, "first")
+        .put(5, "second")
+        .put(6, null)
+        .build();
+    assertEquals(1, map.size());
+    assertEquals("second", map.get(5));
+    assertFalse(map.containsKey(6));
+  }
+
+  @Test
+  public void builder_zeroNegativeAndExtremeKeys() {
+    int[] keys = {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 16, 32, 48};
+    IntMap.Builder<Integer> builder = new IntMap.Builder<>(0);
+    for (int key : keys) {
+      builder.put(key, key);
+    }
+    IntMap<Integer> map = builder.build();
+    assertEquals(keys.length, map.size());
+    for (int key : keys) {
+      assertEquals(key, (int) map.get(key));
+    }
+    assertFalse(map.containsKey(1));
+  }
+
+  @Test
+  public void builder_growsBeyondExpectedSize() {
+    IntMap.Builder<Integer> builder = new IntMap.Builder<>(2);
+    for (int i = 0; i < 10000; i++) {
+      builder.put(i * 7, i);
+    }
+    IntMap<Integer> map = builder.build();
+    assertEquals(10000, map.size());
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(i, (int) map.get(i * 7));
+    }
+    assertNull(map.get(1));
+  }
+
+  @Test
+  public void map_equalsHashMapWithBoxedKeys() {
+    List<Integer> ids = new ArrayList<>();
+    Map<Integer, String> expected = new HashMap<>();
+    for (int i = -50; i < 50; i++) {
+      ids.add(i * 31);
+      expected.put(i * 31, "item" + i * 31);
+    }
+    IntMap<String> map = IntMap.of(ids, id -> id, id -> "item" + id);
+    assertEquals(expected, map);
+    assertEquals(map, expected);
+    assertEquals(expected.hashCode(), map.hashCode());
+    assertEquals(expected.keySet(), map.keySet());
+    assertEquals("item31", map.get((Object) 31));
+    assertTrue(map.containsKey((Object) 31));
+    assertNull(map.get("31"));
+    assertFalse(map.containsKey("31"));
+  }
+
+  @Test
+  public void map_isReadOnly() {
+    IntMap<String> map = IntMap.of(Arrays.asList("a"), String::length);
+    try {
+      map.put(2, "bb");
+      fail();
+    } catch (UnsupportedOperationException expected) {
+      assertEquals(1, map.size());
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import xyz.zedler.patrick.grocy.model.Product;
+
+/**
+ * Products for the helper tests, with the same purchase and stock unit and no conversion
+ * factor between them.
+ */
+final class ProductFixtures {
+
+  private ProductFixtures() {
+  }
+
+  static Product product(int id, String name) {
+    return product(id, name, 1);
+  }
+
+  static Product product(int id, int quIdStock) {
+    return product(id, null, quIdStock);
+  }
+
+  static Product product(int id, String name, int quIdStock) {
+    Product product = new Product();
+    product.setId(id);
+    product.setName(name);
+    product.setQuIdStock(quIdStock);
+    product.setQuIdPurchase(quIdStock);
+    product.setQuFactorPurchaseToStock(1);
+    return product;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static xyz.zedler.patrick.grocy.helper.ProductFixtures.product;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProductSearchIndexTest {
+
+  private ProductSearchIndex index;
+
+  @Before
+  public void setUp() {
+    index = new ProductSearchIndex();
+    index.setProducts(Arrays.asList(
+        product(1, "Buttermilk"),
+        product(2, "Milk chocolate"),
+        product(3, "Milk"),
+        product(4, "Oat milk"),
+        product(5, "Käse"),
+        product(6, "Tomatoes")
+    ));
+  }
+
+  @Test
+  public void normalize_lowercaseWithoutDiacritics() {
+    assertEquals("apfel grun", ProductSearchIndex.normalize("  Äpfel   Grün "));
+    assertEquals("", ProductSearchIndex.normalize(null));
+  }
+
+  @Test
+  public void search_bestMatchFirst() {
+    // exact, starts with, word prefix, contains
+    assertEquals(Arrays.asList(3, 2, 4, 1), index.search("milk", 0));
+  }
+
+  @Test
+  public void search_ignoresCaseAndDiacritics() {
+    assertEquals(Collections.singletonList(5), index.search("KASE", 0));
+    assertEquals(Collections.singletonList(5), index.search("käse", 0));
+  }
+
+  @Test
+  public void search_fuzzy() {
+    List<ProductSearchIndex.Match> matches = index.searchScored("tomatos", 0);
+    assertEquals(1, matches.size());
+    assertEquals(6, matches.get(0).productId);
+    assertTrue(matches.get(0).score >= ProductSearchIndex.MIN_SCORE);
+  }
+
+  @Test
+  public void search_shortQuery() {
+    assertEquals(Collections.singletonList(4), index.search("oa", 0));
+    assertEquals(Collections.singletonList(1), index.search("tt", 0));
+  }
+
+  @Test
+  public void search_allWordsHaveToMatch() {
+    assertEquals(Collections.singletonList(2), index.search("choc mil", 0));
+  }
+
+  @Test
+  public void search_limit() {
+    assertEquals(Arrays.asList(3, 2), index.search("milk", 2));
+  }
+
+  @Test
+  public void search_emptyQuery() {
+    assertTrue(index.search("  ", 0).isEmpty());
+  }
+
+  @Test
+  public void putProducts_renamesAndAdds() {
+    index.putProducts(Arrays.asList(product(6, "Potatoes"), product(7, "Tomato sauce")));
+    assertEquals(7, index.size());
+    assertEquals(Collections.singletonList(6), index.search("potatoes", 0));
+    assertEquals(7, (int) index.search("tomato", 0).get(0));
+  }
+
+  @Test
+  public void removeProduct() {
+    index.removeProduct(3);
+    assertEquals(5, index.size());
+    assertEquals(Arrays.asList(2, 4, 1), index.search("milk", 0));
+  }
+
+  @Test
+  public void setProducts_replacesAll() {
+    index.setProducts(Collections.singletonList(product(8, "Milk")));
+    assertEquals(1, index.size());
+    assertEquals(Collections.singletonList(8), index.search("milk", 0));
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static xyz.zedler.patrick.grocy.helper.ProductFixtures.product;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+
+public class QuantityUnitConversionGraphTest {
+
+  private final static double DELTA = 1e-9;
+
+  private static QuantityUnitConversion conversion(int from, int to, double factor) {
+    QuantityUnitConversion conversion = new QuantityUnitConversion();
+    conversion.setFromQuId(from);
+    conversion.setToQuId(to);
+    conversion.setFactor(factor);
+    return conversion;
+  }
+
+  private static QuantityUnitConversion conversion(
+      int productId, int from, int to, double factor
+  ) {
+    QuantityUnitConversion conversion = conversion(from, to, factor);
+    conversion.setProductId(String.valueOf(productId));
+    return conversion;
+  }
+
+  private static IntMap<Double> factors(List<QuantityUnitConversion> conversions, Product product) {
+    return new QuantityUnitConversionGraph(conversions).getFactorsFromStock(product);
+  }
+
+  @Test
+  public void stockUnitOnly_withoutConversions() {
+    IntMap<Double> factors = factors(Collections.emptyList(), product(1, 1));
+    assertEquals(1, factors.size());
+    assertEquals(1, factors.get(1), DELTA);
+  }
+
+  @Test
+  public void conversionsAreTransitive() {
+    List<QuantityUnitConversion> conversions = Arrays.asList(
+        conversion(1, 2, 10), conversion(2, 3, 100), conversion(4, 5, 2)
+    );
+    IntMap<Double> factors = factors(conversions, product(1, 1));
+    assertEquals(3, factors.size());
+    assertEquals(10, factors.get(2), DELTA);
+    assertEquals(1000, factors.get(3), DELTA);
+    assertFalse(factors.containsKey(4));
+  }
+
+  @Test
+  public void inverseConversionsAreTransitive() {
+    List<QuantityUnitConversion> conversions = Arrays.asList(
+        conversion(1, 2, 10), conversion(2, 3, 100)
+    );
+    IntMap<Double> factors = factors(conversions, product(1, 3));
+    assertEquals(1, factors.get(3), DELTA);
+    assertEquals(0.01, factors.get(2), DELTA);
+    assertEquals(0.001, factors.get(1), DELTA);
+  }
+
+  @Test
+  public void cyclicConversions_terminateAndShortestPathWins() {
+    List<QuantityUnitConversion> conversions = Arrays.asList(
+        conversion(1, 2, 2), conversion(2, 3, 3), conversion(3, 1, 5)
+    );
+    IntMap<Double> factors = factors(conversions, product(1, 1));
+    assertEquals(3, factors.size());
+    assertEquals(1, factors.get(1), DELTA);
+    assertEquals(2, factors.get(2), DELTA);
+    assertEquals(0.2, factors.get(3), DELTA); // inverse of 3 -> 1, not 1 -> 2 -> 3
+  }
+
+  @Test
+  public void givenConversionWinsOverInverse() {
+    List<QuantityUnitConversion> conversions = Arrays.asList(
+        conversion(2, 1, 0.2), conversion(1, 2, 10)
+    );
+    assertEquals(10, factors(conversions, product(1, 1)).get(2), DELTA);
+  }
+
+  @Test
+  public void zeroFactorsAreIgnored() {
+    List<QuantityUnitConversion> conversions = Arrays.asList(
+        conversion(1, 2, 0), conversion(7, 1, 3, 0)
+    );
+    IntMap<Double> factors = factors(conversions, product(7, 1));
+    assertEquals(1, factors.size());
+  }
+
+  @Test
+  public void productConversionWinsOverStandard() {
+    List<QuantityUnitConversion> conversions = Arrays.asList(
+        conversion(1, 2, 10), conversion(7, 1, 2, 12)
+    );
+    QuantityUnitConversionGraph graph = new QuantityUnitConversionGraph(conversions);
+    assertEquals(12, graph.getFactorsFromStock(product(7, 1)).get(2), DELTA);
+    assertEquals(10, graph.getFactorsFromStock(product(8, 1)).get(2), DELTA);
+  }
+
+  @Test
+  public void productConversionContinuesWithStandard() {
+    List<QuantityUnitConversion> conversions = Arrays.asList(
+        conversion(7, 1, 2, 4), conversion(2, 3, 1000)
+    );
+    IntMap<Double> factors = factors(conversions, product(7, 1));
+    assertEquals(4000, factors.get(3), DELTA);
+  }
+
+  @Test
+  public void purchaseFactor() {
+    Product product = product(1, 1);
+    product.setQuIdPurchase(4);
+    product.setQuFactorPurchaseToStock(6); // 1 purchase unit equals 6 stock units
+    List<QuantityUnitConversion> conversions = Collections.singletonList(
+        conversion(4, 5, 10)
+    );
+    IntMap<Double> factors = factors(conversions, product);
+    assertEquals(1 / 6d, factors.get(4), DELTA);
+    assertEquals(10 / 6d, factors.get(5), DELTA);
+  }
+
+  @Test
+  public void productConversionWinsOverPurchaseFactor() {
+    Product product = product(7, 1);
+    product.setQuIdPurchase(4);
+    product.setQuFactorPurchaseToStock(6);
+    List<QuantityUnitConversion> conversions = Collections.singletonList(
+        conversion(7, 4, 1, 5)
+    );
+    assertEquals(0.2, factors(conversions, product).get(4), DELTA);
+  }
+
+  @Test
+  public void factorsAreMemoizedUntilProductUnitsChange() {
+    QuantityUnitConversionGraph graph = new QuantityUnitConversionGraph(
+        Collections.singletonList(conversion(1, 2, 10))
+    );
+    Product product = product(1, 1);
+    IntMap<Double> factors = graph.getFactorsFromStock(product);
+    assertSame(factors, graph.getFactorsFromStock(product));
+    product.setQuIdStock(2);
+    product.setQuIdPurchase(2);
+    IntMap<Double> changed = graph.getFactorsFromStock(product);
+    assertNotSame(factors, changed);
+    assertEquals(0.1, changed.get(1), DELTA);
+  }
+}
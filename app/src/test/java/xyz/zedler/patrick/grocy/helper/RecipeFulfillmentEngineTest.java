@@ -0,0 +1,294 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static xyz.zedler.patrick.grocy.helper.ProductFixtures.product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipePosition;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
+import xyz.zedler.patrick.grocy.model.StockItem;
+
+public class RecipeFulfillmentEngineTest {
+
+  private final static double DELTA = 1e-9;
+  private final static int GRAM = 1;
+  private final static int KILOGRAM = 2;
+
+  private RecipeFulfillmentEngine engine;
+  private List<Recipe> recipes;
+  private List<RecipePosition> positions;
+  private List<Product> products;
+  private List<QuantityUnitConversion> conversions;
+  private List<ProductLastPurchased> prices;
+
+  private static Recipe recipe(int id) {
+    Recipe recipe = new Recipe();
+    recipe.setId(id);
+    recipe.setName("Recipe " + id);
+    return recipe;
+  }
+
+  private static RecipePosition position(int recipeId, int productId, double amount, int quId) {
+    RecipePosition position = new RecipePosition();
+    position.setRecipeId(recipeId);
+    position.setProductId(productId);
+    position.setAmount(amount);
+    position.setQuantityUnitId(quId);
+    return position;
+  }
+
+  private static StockItem stock(int productId, double amount) {
+    StockItem stockItem = new StockItem();
+    stockItem.setProductId(productId);
+    stockItem.setAmountAggregated(amount);
+    return stockItem;
+  }
+
+  private static ShoppingListItem shoppingListItem(int productId, double amount, int done) {
+    ShoppingListItem item = new ShoppingListItem();
+    item.setProductId(String.valueOf(productId));
+    item.setAmount(amount);
+    item.setDone(done);
+    return item;
+  }
+
+  private static RecipeFulfillment serverFulfillment(int recipeId, int dueScore, String names) {
+    RecipeFulfillment fulfillment = new RecipeFulfillment();
+    fulfillment.setRecipeId(recipeId);
+    fulfillment.setDueScore(dueScore);
+    fulfillment.setProductNamesCommaSeparated(names);
+    return fulfillment;
+  }
+
+  private static RecipeFulfillment get(List<RecipeFulfillment> fulfillments, int recipeId) {
+    for (RecipeFulfillment fulfillment : fulfillments) {
+      if (fulfillment.getRecipeId() == recipeId) {
+        return fulfillment;
+      }
+    }
+    throw new AssertionError("no fulfillment for recipe " + recipeId);
+  }
+
+  @Before
+  public void setUp() {
+    engine = new RecipeFulfillmentEngine();
+    // recipe 1 needs 200 g flour, recipe 2 needs 0.5 kg sugar
+    recipes = Arrays.asList(recipe(1), recipe(2));
+    positions = Arrays.asList(position(1, 1, 200, GRAM), position(2, 2, 0.5, KILOGRAM));
+    products = Arrays.asList(product(1, "Flour", GRAM), product(2, "Sugar", GRAM));
+    QuantityUnitConversion kilogramToGram = new QuantityUnitConversion();
+    kilogramToGram.setFromQuId(KILOGRAM);
+    kilogramToGram.setToQuId(GRAM);
+    kilogramToGram.setFactor(1000);
+    conversions = Collections.singletonList(kilogramToGram);
+    ProductLastPurchased flourPrice = new ProductLastPurchased();
+    flourPrice.setProductId(1);
+    flourPrice.setPrice("0.5");
+    prices = Collections.singletonList(flourPrice);
+  }
+
+  private List<RecipeFulfillment> update(
+      List<RecipeFulfillment> serverFulfillments,
+      List<StockItem> stockItems,
+      List<ShoppingListItem> shoppingListItems
+  ) {
+    return engine.update(
+        recipes, positions, products, conversions, prices,
+        serverFulfillments, stockItems, shoppingListItems
+    );
+  }
+
+  @Test
+  public void fulfilledByStock() {
+    List<RecipeFulfillment> fulfillments = update(
+        Collections.emptyList(),
+        Arrays.asList(stock(1, 200), stock(2, 500)),
+        Collections.emptyList()
+    );
+    assertEquals(2, fulfillments.size());
+    for (RecipeFulfillment fulfillment : fulfillments) {
+      assertTrue(fulfillment.isNeedFulfilled());
+      assertTrue(fulfillment.isNeedFulfilledWithShoppingList());
+      assertEquals(0, fulfillment.getMissingProductsCount());
+    }
+  }
+
+  @Test
+  public void missingAmountConvertedToStockUnit() {
+    List<RecipeFulfillment> fulfillments = update(
+        Collections.emptyList(),
+        Arrays.asList(stock(1, 200), stock(2, 499)),
+        Collections.emptyList()
+    );
+    assertTrue(get(fulfillments, 1).isNeedFulfilled());
+    RecipeFulfillment sugar = get(fulfillments, 2);
+    assertFalse(sugar.isNeedFulfilled());
+    assertFalse(sugar.isNeedFulfilledWithShoppingList());
+    assertEquals(1, sugar.getMissingProductsCount());
+  }
+
+  @Test
+  public void undoneShoppingListItemsCount() {
+    List<RecipeFulfillment> fulfillments = update(
+        Collections.emptyList(),
+        Collections.singletonList(stock(1, 100)),
+        Arrays.asList(
+            shoppingListItem(1, 100, 0), shoppingListItem(2, 400, 0), shoppingListItem(2, 100, 1)
+        )
+    );
+    RecipeFulfillment flour = get(fulfillments, 1);
+    assertFalse(flour.isNeedFulfilled());
+    assertTrue(flour.isNeedFulfilledWithShoppingList());
+    assertFalse(get(fulfillments, 2).isNeedFulfilledWithShoppingList());
+  }
+
+  @Test
+  public void shoppingListIgnoredIfNotChecked() {
+    recipes.get(0).setNotCheckShoppingList(1);
+    List<RecipeFulfillment> fulfillments = update(
+        Collections.emptyList(),
+        Collections.singletonList(stock(1, 100)),
+        Collections.singletonList(shoppingListItem(1, 100, 0))
+    );
+    assertFalse(get(fulfillments, 1).isNeedFulfilledWithShoppingList());
+  }
+
+  @Test
+  public void servingsScaleAmountsCostsAndCalories() {
+    Recipe flourRecipe = recipes.get(0);
+    flourRecipe.setBaseServings(2d);
+    flourRecipe.setDesiredServings(4d);
+    products.get(0).setCalories("3");
+    RecipeFulfillment flour = get(update(
+        Collections.emptyList(),
+        Collections.singletonList(stock(1, 399)),
+        Collections.emptyList()
+    ), 1);
+    assertFalse(flour.isNeedFulfilled()); // 400 g needed
+    assertEquals(200, flour.getCosts(), DELTA);
+    assertEquals(50, flour.getCostsPerServing(), DELTA);
+    assertEquals(1200, flour.getCalories(), DELTA);
+  }
+
+  @Test
+  public void singleUnitAndUncheckedPositions() {
+    positions.get(0).setOnlyCheckSingleUnitInStock(1);
+    positions.get(1).setNotCheckStockFulfillment(1);
+    List<RecipeFulfillment> fulfillments = update(
+        Collections.emptyList(),
+        Collections.singletonList(stock(1, 1)),
+        Collections.emptyList()
+    );
+    assertTrue(get(fulfillments, 1).isNeedFulfilled());
+    assertTrue(get(fulfillments, 2).isNeedFulfilled());
+  }
+
+  @Test
+  public void serverFieldsWinOverPositionNames() {
+    List<RecipeFulfillment> fulfillments = update(
+        Collections.singletonList(serverFulfillment(1, 42, "Flour (server)")),
+        Collections.emptyList(),
+        Collections.emptyList()
+    );
+    assertEquals(42, get(fulfillments, 1).getDueScore());
+    assertEquals("Flour (server)", get(fulfillments, 1).getProductNamesCommaSeparated());
+    assertEquals(0, get(fulfillments, 2).getDueScore());
+    assertEquals("Sugar", get(fulfillments, 2).getProductNamesCommaSeparated());
+  }
+
+  @Test
+  public void stockChange_computesOnlyAffectedRecipes() {
+    List<RecipeFulfillment> first = update(
+        Collections.emptyList(),
+        Arrays.asList(stock(1, 200), stock(2, 100)),
+        Collections.emptyList()
+    );
+    List<RecipeFulfillment> second = update(
+        Collections.emptyList(),
+        Arrays.asList(stock(1, 200), stock(2, 500)),
+        Collections.emptyList()
+    );
+    assertSame(get(first, 1), get(second, 1));
+    assertNotSame(get(first, 2), get(second, 2));
+    assertTrue(get(second, 2).isNeedFulfilled());
+
+    // removed from stock
+    List<RecipeFulfillment> third = update(
+        Collections.emptyList(),
+        Collections.singletonList(stock(2, 500)),
+        Collections.emptyList()
+    );
+    assertFalse(get(third, 1).isNeedFulfilled());
+    assertSame(get(second, 2), get(third, 2));
+  }
+
+  @Test
+  public void serverFieldChange_computesOnlyAffectedRecipes() {
+    List<RecipeFulfillment> first = update(
+        Arrays.asList(serverFulfillment(1, 1, "Flour"), serverFulfillment(2, 1, "Sugar")),
+        Collections.emptyList(),
+        Collections.emptyList()
+    );
+    // other fields of the server are not compared
+    RecipeFulfillment unchanged = serverFulfillment(1, 1, "Flour");
+    unchanged.setCosts(10);
+    List<RecipeFulfillment> second = update(
+        Arrays.asList(unchanged, serverFulfillment(2, 5, "Sugar")),
+        Collections.emptyList(),
+        Collections.emptyList()
+    );
+    assertSame(get(first, 1), get(second, 1));
+    assertEquals(5, get(second, 2).getDueScore());
+  }
+
+  @Test
+  public void definitionChange_computesAllRecipes() {
+    List<RecipeFulfillment> first = update(
+        Collections.emptyList(),
+        Arrays.asList(stock(1, 200), stock(2, 500)),
+        Collections.emptyList()
+    );
+    positions = new ArrayList<>(positions);
+    positions.add(position(2, 1, 100, GRAM));
+    List<RecipeFulfillment> second = update(
+        Collections.emptyList(),
+        Arrays.asList(stock(1, 200), stock(2, 500)),
+        Collections.emptyList()
+    );
+    assertNotSame(get(first, 1), get(second, 1));
+    assertEquals("Sugar, Flour", get(second, 2).getProductNamesCommaSeparated());
+  }
+}
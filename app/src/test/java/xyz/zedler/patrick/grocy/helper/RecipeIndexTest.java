@@ -0,0 +1,135 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static xyz.zedler.patrick.grocy.helper.ProductFixtures.product;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipePosition;
+
+public class RecipeIndexTest {
+
+  private Product flour;
+  private Product milk;
+  private QuantityUnit gram;
+  private RecipeFulfillment pancakesFulfillment;
+  private RecipeIndex index;
+
+  private static Recipe recipe(int id, String name) {
+    Recipe recipe = new Recipe();
+    recipe.setId(id);
+    recipe.setName(name);
+    return recipe;
+  }
+
+  private static RecipePosition position(int id, int recipeId, int productId, int quId) {
+    RecipePosition position = new RecipePosition();
+    position.setId(id);
+    position.setRecipeId(recipeId);
+    position.setProductId(productId);
+    position.setQuantityUnitId(quId);
+    return position;
+  }
+
+  @Before
+  public void setUp() {
+    flour = product(1, "Flour");
+    milk = product(2, "Milk");
+    gram = new QuantityUnit(1, "Gram");
+    pancakesFulfillment = new RecipeFulfillment();
+    pancakesFulfillment.setRecipeId(1);
+    pancakesFulfillment.setProductNamesCommaSeparated("Flour, Eggs");
+    index = RecipeIndex.build(
+        Arrays.asList(recipe(1, "Pancakes"), recipe(2, "Hot Chocolate"), recipe(3, null)),
+        Collections.singletonList(pancakesFulfillment),
+        Arrays.asList(
+            position(1, 1, 1, 1),
+            position(2, 2, 2, 2),
+            position(3, 2, 99, 1),
+            position(4, 1, 2, 1)
+        ),
+        Arrays.asList(flour, milk),
+        Collections.singletonList(gram)
+    );
+  }
+
+  @Test
+  public void getFulfillment_byRecipeId() {
+    assertSame(pancakesFulfillment, index.getFulfillment(1));
+    assertNull(index.getFulfillment(2));
+    assertEquals(1, index.getFulfillments().size());
+  }
+
+  @Test
+  public void getPositions_groupedByRecipeInOrder() {
+    List<RecipePosition> positions = index.getPositions(1);
+    assertEquals(2, positions.size());
+    assertEquals(1, positions.get(0).getId());
+    assertEquals(4, positions.get(1).getId());
+    assertEquals(2, index.getPositions(2).size());
+    assertTrue(index.getPositions(3).isEmpty());
+  }
+
+  @Test
+  public void getProductsAndQuantityUnits_skipMissing() {
+    List<RecipePosition> positions = index.getPositions(2);
+    assertEquals(Collections.singletonList(milk), index.getProductsForPositions(positions));
+    assertEquals(Collections.singletonList(gram), index.getQuantityUnitsForPositions(positions));
+    assertSame(flour, index.getProduct(1));
+    assertNull(index.getProduct(99));
+    assertSame(gram, index.getQuantityUnit(1));
+    assertNull(index.getQuantityUnit(2));
+  }
+
+  @Test
+  public void matchesSearch_nameAndFulfillmentProductNames() {
+    assertTrue(index.matchesSearch(1, "pancake"));
+    assertTrue(index.matchesSearch(1, "eggs"));
+    // product names of the fulfillment are used instead of the positions
+    assertFalse(index.matchesSearch(1, "milk"));
+  }
+
+  @Test
+  public void matchesSearch_positionProductNamesWithoutFulfillment() {
+    assertTrue(index.matchesSearch(2, "hot choc"));
+    assertTrue(index.matchesSearch(2, "milk"));
+    assertFalse(index.matchesSearch(2, "flour"));
+  }
+
+  @Test
+  public void matchesSearch_missingNameAndUnknownRecipe() {
+    assertTrue(index.matchesSearch(3, ""));
+    assertFalse(index.matchesSearch(3, "a"));
+    assertFalse(index.matchesSearch(4, ""));
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.Test;
+
+public class DateUtilTest {
+
+  @Test
+  public void getEpochDay_parsesDates() {
+    assertEquals(0, DateUtil.getEpochDay("1970-01-01"));
+    assertEquals(-1, DateUtil.getEpochDay("1969-12-31"));
+    assertEquals(19417, DateUtil.getEpochDay("2023-03-01"));
+    assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), DateUtil.getEpochDay("2024-02-29"));
+    assertEquals(LocalDate.of(2999, 12, 31).toEpochDay(), DateUtil.getEpochDay("2999-12-31"));
+  }
+
+  @Test
+  public void getEpochDay_ignoresTime() {
+    assertEquals(
+        DateUtil.getEpochDay("2023-03-01"), DateUtil.getEpochDay("2023-03-01 23:59:59")
+    );
+  }
+
+  @Test
+  public void getEpochDay_matchesLocalDateAroundLeapYear2000() {
+    for (LocalDate date = LocalDate.of(1999, 1, 1); date.getYear() < 2002;
+        date = date.plusDays(1)) {
+      assertEquals(date.toEpochDay(), DateUtil.getEpochDay(date.toString()));
+    }
+  }
+
+  @Test
+  public void getEpochDay_invalidDates() {
+    assertEquals(DateUtil.NO_EPOCH_DAY, DateUtil.getEpochDay(null));
+    assertEquals(DateUtil.NO_EPOCH_DAY, DateUtil.getEpochDay(""));
+    assertEquals(DateUtil.NO_EPOCH_DAY, DateUtil.getEpochDay("2023-3-1"));
+    assertEquals(DateUtil.NO_EPOCH_DAY, DateUtil.getEpochDay("2023/03/01"));
+    assertEquals(DateUtil.NO_EPOCH_DAY, DateUtil.getEpochDay("2023-0a-01"));
+    assertEquals(DateUtil.NO_EPOCH_DAY, DateUtil.getEpochDay("2023-13-01"));
+    assertEquals(DateUtil.NO_EPOCH_DAY, DateUtil.getEpochDay("2023-02-29"));
+  }
+
+  @Test
+  public void getEpochSecond_parsesDateTimes() {
+    assertEquals(0, DateUtil.getEpochSecond("1970-01-01 00:00:00"));
+    assertEquals(
+        LocalDateTime.of(2023, 3, 1, 13, 45, 30).toEpochSecond(ZoneOffset.UTC),
+        DateUtil.getEpochSecond("2023-03-01 13:45:30")
+    );
+    assertEquals(
+        DateUtil.getEpochDay("2023-03-01") * 86400L + 86399,
+        DateUtil.getEpochSecond("2023-03-01 23:59:59")
+    );
+  }
+
+  @Test
+  public void getEpochSecond_invalidDateTimes() {
+    assertEquals(DateUtil.NO_EPOCH_SECOND, DateUtil.getEpochSecond(null));
+    assertEquals(DateUtil.NO_EPOCH_SECOND, DateUtil.getEpochSecond("2023-03-01"));
+    assertEquals(DateUtil.NO_EPOCH_SECOND, DateUtil.getEpochSecond("2023-03-01 13:45"));
+    assertEquals(DateUtil.NO_EPOCH_SECOND, DateUtil.getEpochSecond("2023-03-01 13-45-30"));
+    assertEquals(DateUtil.NO_EPOCH_SECOND, DateUtil.getEpochSecond("2023-03-01 1a:45:30"));
+    assertEquals(DateUtil.NO_EPOCH_SECOND, DateUtil.getEpochSecond("2023-02-30 13:45:30"));
+  }
+
+  @Test
+  public void getDaysFromToday_countsFromLocalToday() {
+    assertEquals(0, DateUtil.getDaysFromToday(DateUtil.NO_EPOCH_DAY));
+    assertEquals(0, DateUtil.getDaysFromNow(LocalDate.now().toString()));
+    assertEquals(3, DateUtil.getDaysFromNow(LocalDate.now().plusDays(3).toString()));
+    assertEquals(-2, DateUtil.getDaysFromNow(LocalDate.now().minusDays(2).toString()));
+  }
+
+  @Test
+  public void getDaysFromTodayWithTime_truncatesPartialDays() {
+    LocalDate today = LocalDate.now();
+    assertEquals(0, DateUtil.getDaysFromTodayWithTime(DateUtil.NO_EPOCH_SECOND));
+    assertEquals(0, DateUtil.getDaysFromNowWithTime(today + " 23:59:59"));
+    assertEquals(1, DateUtil.getDaysFromNowWithTime(today.plusDays(1) + " 12:00:00"));
+    assertEquals(0, DateUtil.getDaysFromNowWithTime(today.minusDays(1) + " 12:00:00"));
+    assertEquals(-1, DateUtil.getDaysFromNowWithTime(today.minusDays(1) + " 00:00:00"));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.adapter;
+
+import android.content.Context;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import xyz.zedler.patrick.grocy.benchmark.BenchmarkContext;
+import xyz.zedler.patrick.grocy.benchmark.BenchmarkFixtures;
+import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockGrouping;
+import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStockSort;
+import xyz.zedler.patrick.grocy.model.GroupedListItem;
+import xyz.zedler.patrick.grocy.model.StockItem;
+
+/**
+ * Grouping and sorting of the stock overview items before they are diffed by the adapter.
+ */
+@State(Scope.Benchmark)
+public class StockOverviewGroupingBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int size;
+
+  private Context context;
+  private BenchmarkFixtures fixtures;
+
+  @Setup
+  public void setUp() {
+    context = new BenchmarkContext();
+    fixtures = new BenchmarkFixtures(size);
+  }
+
+  @Benchmark
+  public List<GroupedListItem> groupByNothing() {
+    return getGroupedListItems(FilterChipLiveDataStockGrouping.GROUPING_NONE);
+  }
+
+  @Benchmark
+  public List<GroupedListItem> groupByProductGroup() {
+    return getGroupedListItems(FilterChipLiveDataStockGrouping.GROUPING_PRODUCT_GROUP);
+  }
+
+  private List<GroupedListItem> getGroupedListItems(String groupingMode) {
+    // the items are sorted in place
+    return StockOverviewItemAdapter.getGroupedListItems(
+        context,
+        new ArrayList<>(fixtures.stockItems),
+        fixtures.productGroupHashMap,
+        fixtures.productHashMap,
+        new HashMap<>(),
+        "EUR",
+        null,
+        FilterChipLiveDataStockSort.SORT_NAME,
+        true,
+        groupingMode
+    );
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.benchmark;
+
+import android.content.ContextWrapper;
+import android.content.SharedPreferences;
+import androidx.annotation.Nullable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import xyz.zedler.patrick.grocy.util.Constants.SETTINGS.APPEARANCE;
+
+/**
+ * The parts of a Context which the measured code uses: the default preferences with a fixed
+ * language, so sorting doesn't depend on the machine, and empty strings for resources.
+ */
+public class BenchmarkContext extends ContextWrapper {
+
+  private final Preferences sharedPrefs = new Preferences();
+
+  public BenchmarkContext() {
+    super(null);
+    sharedPrefs.values.put(APPEARANCE.LANGUAGE, "en");
+  }
+
+  @Override
+  public String getPackageName() {
+    return "xyz.zedler.patrick.grocy";
+  }
+
+  @Override
+  public SharedPreferences getSharedPreferences(String name, int mode) {
+    return sharedPrefs;
+  }
+
+  @Override
+  public String getString(int resId) {
+    return "";
+  }
+
+  private static class Preferences implements SharedPreferences {
+
+    private final HashMap<String, Object> values = new HashMap<>();
+
+    @Override
+    public Map<String, ?> getAll() {
+      return new HashMap<>(values);
+    }
+
+    @Nullable
+    @Override
+    public String getString(String key, @Nullable String defValue) {
+      Object value = values.get(key);
+      return value != null ? (String) value : defValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    @Override
+    public Set<String> getStringSet(String key, @Nullable Set<String> defValues) {
+      Object value = values.get(key);
+      return value != null ? (Set<String>) value : defValues;
+    }
+
+    @Override
+    public int getInt(String key, int defValue) {
+      Object value = values.get(key);
+      return value != null ? (int) value : defValue;
+    }
+
+    @Override
+    public long getLong(String key, long defValue) {
+      Object value = values.get(key);
+      return value != null ? (long) value : defValue;
+    }
+
+    @Override
+    public float getFloat(String key, float defValue) {
+      Object value = values.get(key);
+      return value != null ? (float) value : defValue;
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defValue) {
+      Object value = values.get(key);
+      return value != null ? (boolean) value : defValue;
+    }
+
+    @Override
+    public boolean contains(String key) {
+      return values.containsKey(key);
+    }
+
+    @Override
+    public Editor edit() {
+      return new Editor() {
+        private final HashMap<String, Object> changes = new HashMap<>();
+        private boolean clear;
+
+        @Override
+        public Editor putString(String key, @Nullable String value) {
+          changes.put(key, value);
+          return this;
+        }
+
+        @Override
+        public Editor putStringSet(String key, @Nullable Set<String> values) {
+          changes.put(key, values != null ? new HashSet<>(values) : null);
+          return this;
+        }
+
+        @Override
+        public Editor putInt(String key, int value) {
+          changes.put(key, value);
+          return this;
+        }
+
+        @Override
+        public Editor putLong(String key, long value) {
+          changes.put(key, value);
+          return this;
+        }
+
+        @Override
+        public Editor putFloat(String key, float value) {
+          changes.put(key, value);
+          return this;
+        }
+
+        @Override
+        public Editor putBoolean(String key, boolean value) {
+          changes.put(key, value);
+          return this;
+        }
+
+        @Override
+        public Editor remove(String key) {
+          changes.put(key, null);
+          return this;
+        }
+
+        @Override
+        public Editor clear() {
+          clear = true;
+          return this;
+        }
+
+        @Override
+        public boolean commit() {
+          apply();
+          return true;
+        }
+
+        @Override
+        public void apply() {
+          if (clear) {
+            values.clear();
+          }
+          for (Map.Entry<String, Object> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+              values.remove(change.getKey());
+            } else {
+              values.put(change.getKey(), change.getValue());
+            }
+          }
+        }
+      };
+    }
+
+    @Override
+    public void registerOnSharedPreferenceChangeListener(
+        OnSharedPreferenceChangeListener listener
+    ) {
+    }
+
+    @Override
+    public void unregisterOnSharedPreferenceChangeListener(
+        OnSharedPreferenceChangeListener listener
+    ) {
+    }
+  }
+}
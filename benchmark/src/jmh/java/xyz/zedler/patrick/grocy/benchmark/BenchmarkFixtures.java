@@ -0,0 +1,183 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductGroup;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.StockItem;
+
+/**
+ * Synthetic datasets in the format of the Grocy API, built from the recorded objects in
+ * resources/fixtures. Names, groups, units and due dates vary with a fixed seed, so every run
+ * measures the same data. The JSON is parsed with the same Gson setup as the app.
+ */
+public class BenchmarkFixtures {
+
+  public final static int QUANTITY_UNIT_COUNT = 20;
+  public final static int PRODUCT_GROUP_COUNT = 15;
+  public final static int LOCATION_COUNT = 10;
+
+  private final static String[] WORDS = {
+      "Apfel", "apple", "Äpfel", "banana", "Brot", "butter", "Café", "cheese", "Chips", "cookies",
+      "Eier", "flour", "Gurke", "honey", "Joghurt", "ketchup", "Käse", "milk", "Möhren", "noodles",
+      "Öl", "oats", "Paprika", "pasta", "Quark", "rice", "Salz", "sugar", "Tee", "tomatoes",
+      "Überraschung", "vinegar", "Wurst", "yeast", "Zucker", "zucchini"
+  };
+
+  public final String productsJson;
+  public final String stockJson;
+  public final List<Product> products;
+  public final List<StockItem> stockItems;
+  public final List<QuantityUnitConversion> unitConversions;
+  public final HashMap<Integer, Product> productHashMap = new HashMap<>();
+  public final HashMap<Integer, ProductGroup> productGroupHashMap = new HashMap<>();
+  public final HashMap<Integer, QuantityUnit> quantityUnitHashMap = new HashMap<>();
+
+  /**
+   * @param size number of products, about 80 percent of them are in stock
+   */
+  public BenchmarkFixtures(int size) {
+    Gson gson = new Gson();
+    Random random = new Random(size);
+
+    JsonArray productsArray = new JsonArray();
+    JsonArray stockArray = new JsonArray();
+    JsonObject productTemplate = readFixture("product.json");
+    JsonObject stockItemTemplate = readFixture("stock_item.json");
+    for (int id = 1; id <= size; id++) {
+      JsonObject product = productTemplate.deepCopy();
+      product.addProperty("id", id);
+      product.addProperty("name", WORDS[random.nextInt(WORDS.length)] + " "
+          + WORDS[random.nextInt(WORDS.length)] + " " + id);
+      if (random.nextInt(10) == 0) {
+        product.add("product_group_id", JsonNull.INSTANCE);
+      } else {
+        product.addProperty("product_group_id", 1 + random.nextInt(PRODUCT_GROUP_COUNT));
+      }
+      product.addProperty("location_id", 1 + random.nextInt(LOCATION_COUNT));
+      int quIdStock = 1 + random.nextInt(QUANTITY_UNIT_COUNT);
+      product.addProperty("qu_id_stock", quIdStock);
+      if (random.nextInt(3) == 0) {
+        product.addProperty("qu_id_purchase", 1 + random.nextInt(QUANTITY_UNIT_COUNT));
+        product.addProperty("qu_factor_purchase_to_stock", 1 + random.nextInt(12));
+      } else {
+        product.addProperty("qu_id_purchase", quIdStock);
+      }
+      product.addProperty("min_stock_amount", random.nextInt(4));
+      productsArray.add(product);
+
+      if (random.nextInt(5) == 0) {
+        continue;
+      }
+      JsonObject stockItem = stockItemTemplate.deepCopy();
+      int amount = 1 + random.nextInt(20);
+      stockItem.addProperty("amount", amount);
+      stockItem.addProperty("amount_aggregated", amount);
+      stockItem.addProperty("amount_opened", random.nextInt(amount + 1));
+      stockItem.addProperty("amount_opened_aggregated", stockItem.get("amount_opened").getAsInt());
+      stockItem.addProperty("value", random.nextInt(5000) / 100.0);
+      stockItem.addProperty("best_before_date", String.format(
+          Locale.ENGLISH, "%d-%02d-%02d",
+          2022 + random.nextInt(3), 1 + random.nextInt(12), 1 + random.nextInt(28)
+      ));
+      stockItem.addProperty("product_id", id);
+      stockItem.add("product", product);
+      stockArray.add(stockItem);
+    }
+    productsJson = gson.toJson(productsArray);
+    stockJson = gson.toJson(stockArray);
+
+    // chains of default conversions, so factors are resolved transitively,
+    // and product specific conversions for every tenth product
+    JsonArray conversionsArray = new JsonArray();
+    JsonObject conversionTemplate = readFixture("quantity_unit_conversion.json");
+    for (int quId = 1; quId < QUANTITY_UNIT_COUNT; quId++) {
+      JsonObject conversion = conversionTemplate.deepCopy();
+      conversion.addProperty("id", conversionsArray.size() + 1);
+      conversion.addProperty("from_qu_id", quId);
+      conversion.addProperty("to_qu_id", quId + 1);
+      conversion.addProperty("factor", 2 + random.nextInt(9));
+      conversionsArray.add(conversion);
+    }
+    for (int id = 10; id <= size; id += 10) {
+      JsonObject conversion = conversionTemplate.deepCopy();
+      conversion.addProperty("id", conversionsArray.size() + 1);
+      conversion.addProperty("from_qu_id", 1 + random.nextInt(QUANTITY_UNIT_COUNT));
+      conversion.addProperty("to_qu_id", 1 + random.nextInt(QUANTITY_UNIT_COUNT));
+      conversion.addProperty("factor", 2 + random.nextInt(9));
+      conversion.addProperty("product_id", id);
+      conversionsArray.add(conversion);
+    }
+
+    JsonObject quantityUnitTemplate = readFixture("quantity_unit.json");
+    for (int quId = 1; quId <= QUANTITY_UNIT_COUNT; quId++) {
+      JsonObject quantityUnit = quantityUnitTemplate.deepCopy();
+      quantityUnit.addProperty("id", quId);
+      quantityUnit.addProperty("name", "Unit " + quId);
+      quantityUnit.addProperty("name_plural", "Units " + quId);
+      QuantityUnit parsed = gson.fromJson(quantityUnit, QuantityUnit.class);
+      quantityUnitHashMap.put(parsed.getId(), parsed);
+    }
+    JsonObject productGroupTemplate = readFixture("product_group.json");
+    for (int groupId = 1; groupId <= PRODUCT_GROUP_COUNT; groupId++) {
+      JsonObject productGroup = productGroupTemplate.deepCopy();
+      productGroup.addProperty("id", groupId);
+      productGroup.addProperty("name", WORDS[random.nextInt(WORDS.length)] + " " + groupId);
+      ProductGroup parsed = gson.fromJson(productGroup, ProductGroup.class);
+      productGroupHashMap.put(parsed.getId(), parsed);
+    }
+
+    products = gson.fromJson(productsJson, new TypeToken<ArrayList<Product>>(){}.getType());
+    stockItems = gson.fromJson(stockJson, new TypeToken<ArrayList<StockItem>>(){}.getType());
+    unitConversions = gson.fromJson(
+        conversionsArray, new TypeToken<ArrayList<QuantityUnitConversion>>(){}.getType()
+    );
+    for (Product product : products) {
+      productHashMap.put(product.getId(), product);
+    }
+  }
+
+  private static JsonObject readFixture(String fileName) {
+    try (Reader reader = new InputStreamReader(
+        BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + fileName),
+        StandardCharsets.UTF_8
+    )) {
+      return JsonParser.parseReader(reader).getAsJsonObject();
+    } catch (Exception e) {
+      throw new IllegalStateException("Fixture " + fileName + " can't be read", e);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.reactivex.rxjava3.core.Single;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import xyz.zedler.patrick.grocy.benchmark.BenchmarkFixtures;
+import xyz.zedler.patrick.grocy.helper.DeltaSyncHelper.SyncStats;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.StockItem;
+
+/**
+ * Streamed parsing of the product and stock lists and the diff against an offline database
+ * which is one sync behind. The database is kept in memory and isn't written, so every
+ * invocation diffs the same changes.
+ */
+@State(Scope.Benchmark)
+public class DeltaSyncBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int size;
+
+  private Gson gson;
+  private String productsJson;
+  private String stockJson;
+  private HashMap<Integer, Product> localProducts;
+  private List<Integer> localProductIds;
+  private HashMap<Integer, StockItem> localStockItems;
+  private List<Integer> localStockItemIds;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures fixtures = new BenchmarkFixtures(size);
+    gson = new Gson();
+    productsJson = fixtures.productsJson;
+    stockJson = fixtures.stockJson;
+
+    // every tenth product was renamed on the server, every twentieth is new
+    // and the ones after the last id were deleted
+    List<Product> products = gson.fromJson(
+        productsJson, new TypeToken<ArrayList<Product>>(){}.getType()
+    );
+    localProducts = new HashMap<>();
+    for (Product product : products) {
+      if (product.getId() % 20 == 0) {
+        continue;
+      }
+      if (product.getId() % 10 == 0) {
+        product.setName(product.getName() + " old");
+      }
+      localProducts.put(product.getId(), product);
+    }
+    for (int id = size + 1; id <= size + size / 20; id++) {
+      Product product = new Product();
+      product.setId(id);
+      product.setName("Deleted " + id);
+      localProducts.put(id, product);
+    }
+    localProductIds = new ArrayList<>(localProducts.keySet());
+
+    // the amounts of every tenth stock item have changed
+    List<StockItem> stockItems = gson.fromJson(
+        stockJson, new TypeToken<ArrayList<StockItem>>(){}.getType()
+    );
+    localStockItems = new HashMap<>();
+    for (StockItem stockItem : stockItems) {
+      if (stockItem.getProductId() % 10 == 0) {
+        stockItem.setAmount(stockItem.getAmount() + 1);
+      }
+      localStockItems.put(stockItem.getProductId(), stockItem);
+    }
+    localStockItemIds = new ArrayList<>(localStockItems.keySet());
+  }
+
+  @Benchmark
+  public List<Product> parseProducts() throws IOException {
+    ArrayList<Product> products = new ArrayList<>();
+    DeltaSyncHelper.parseStreamed(
+        "products", new StringReader(productsJson), gson, Product.class, products
+    );
+    return products;
+  }
+
+  @Benchmark
+  public SyncStats syncProducts() throws IOException {
+    return DeltaSyncHelper.syncStreamed(
+        "products",
+        new StringReader(productsJson),
+        gson,
+        Product.class,
+        null,
+        Product::getId,
+        Object::equals,
+        ids -> Single.just(getLocalItems(localProducts, ids)),
+        Single.just(localProductIds),
+        items -> Single.just(Collections.nCopies(items.size(), 0L)),
+        ids -> Single.just(ids.size()),
+        DeltaSyncBenchmark::runDirectly
+    );
+  }
+
+  @Benchmark
+  public List<StockItem> parseStockItems() throws IOException {
+    ArrayList<StockItem> stockItems = new ArrayList<>();
+    DeltaSyncHelper.parseStreamed(
+        "stock items", new StringReader(stockJson), gson, StockItem.class, stockItems
+    );
+    return stockItems;
+  }
+
+  @Benchmark
+  public SyncStats syncStockItems() throws IOException {
+    return DeltaSyncHelper.syncStreamed(
+        "stock items",
+        new StringReader(stockJson),
+        gson,
+        StockItem.class,
+        null,
+        StockItem::getProductId,
+        StockItem::hasSameStockValues,
+        ids -> Single.just(getLocalItems(localStockItems, ids)),
+        Single.just(localStockItemIds),
+        items -> Single.just(Collections.nCopies(items.size(), 0L)),
+        ids -> Single.just(ids.size()),
+        DeltaSyncBenchmark::runDirectly
+    );
+  }
+
+  // without a database, the transactions are only the calls
+  private static <V> V runDirectly(Callable<V> callable) {
+    try {
+      return callable.call();
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static <T> List<T> getLocalItems(HashMap<Integer, T> localItems, List<Integer> ids) {
+    ArrayList<T> items = new ArrayList<>(ids.size());
+    for (Integer id : ids) {
+      T item = localItems.get(id);
+      if (item != null) {
+        items.add(item);
+      }
+    }
+    return items;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import java.util.HashMap;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.zedler.patrick.grocy.benchmark.BenchmarkFixtures;
+import xyz.zedler.patrick.grocy.helper.QuantityUnitConversionGraph;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+
+/**
+ * Unit factors of every product. The conversion graph keeps the resolved factors like in the
+ * view models, the rebuilt variant builds a new graph like after a reload of the conversions,
+ * so every product is resolved again.
+ */
+@State(Scope.Benchmark)
+public class QuantityUnitConversionBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int size;
+
+  private List<Product> products;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private List<QuantityUnitConversion> unitConversions;
+  private QuantityUnitConversionGraph unitConversionGraph;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures fixtures = new BenchmarkFixtures(size);
+    products = fixtures.products;
+    quantityUnitHashMap = fixtures.quantityUnitHashMap;
+    unitConversions = fixtures.unitConversions;
+    unitConversionGraph = new QuantityUnitConversionGraph(unitConversions);
+  }
+
+  @Benchmark
+  public void getUnitFactors(Blackhole blackhole) {
+    getUnitFactorsOfAllProducts(unitConversionGraph, blackhole);
+  }
+
+  @Benchmark
+  public void getUnitFactorsRebuilt(Blackhole blackhole) {
+    getUnitFactorsOfAllProducts(new QuantityUnitConversionGraph(unitConversions), blackhole);
+  }
+
+  private void getUnitFactorsOfAllProducts(
+      QuantityUnitConversionGraph conversionGraph,
+      Blackhole blackhole
+  ) {
+    for (Product product : products) {
+      // the context is only used for the error if a unit is missing
+      blackhole.consume(QuantityUnitConversionUtil.getUnitFactors(
+          null, quantityUnitHashMap, conversionGraph, product
+      ));
+    }
+  }
+}
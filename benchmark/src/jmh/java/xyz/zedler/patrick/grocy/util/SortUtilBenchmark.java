@@ -0,0 +1,74 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.content.Context;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import xyz.zedler.patrick.grocy.benchmark.BenchmarkContext;
+import xyz.zedler.patrick.grocy.benchmark.BenchmarkFixtures;
+import xyz.zedler.patrick.grocy.model.StockItem;
+
+/**
+ * Sorting of the stock overview. The cached variant reuses the collation keys of the product
+ * names like repeated sorts of the same list do, the uncached one computes them again.
+ */
+@State(Scope.Benchmark)
+public class SortUtilBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int size;
+
+  private Context context;
+  private List<StockItem> stockItems;
+
+  @Setup
+  public void setUp() {
+    context = new BenchmarkContext();
+    stockItems = new BenchmarkFixtures(size).stockItems;
+  }
+
+  @Benchmark
+  public List<StockItem> sortStockItemsByName() {
+    ArrayList<StockItem> items = new ArrayList<>(stockItems);
+    SortUtil.sortStockItemsByName(context, items, true);
+    return items;
+  }
+
+  @Benchmark
+  public List<StockItem> sortStockItemsByNameUncached() {
+    SortUtil.invalidateProductNameKeys();
+    ArrayList<StockItem> items = new ArrayList<>(stockItems);
+    SortUtil.sortStockItemsByName(context, items, true);
+    return items;
+  }
+
+  @Benchmark
+  public List<StockItem> sortStockItemsByDueDate() {
+    ArrayList<StockItem> items = new ArrayList<>(stockItems);
+    SortUtil.sortStockItemsByBBD(items, true);
+    return items;
+  }
+}
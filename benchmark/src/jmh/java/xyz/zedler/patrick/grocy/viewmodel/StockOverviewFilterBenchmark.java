@@ -0,0 +1,76 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2022 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.viewmodel;
+
+import java.util.HashSet;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import xyz.zedler.patrick.grocy.benchmark.BenchmarkFixtures;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.StockItem;
+
+/**
+ * Filtering of the stock overview items by the product ids which match the filter chips,
+ * with and without search results.
+ */
+@State(Scope.Benchmark)
+public class StockOverviewFilterBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int size;
+
+  private List<StockItem> stockItems;
+  private HashSet<Integer> filteredProductIds;
+  private HashSet<Integer> searchResultIds;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures fixtures = new BenchmarkFixtures(size);
+    stockItems = fixtures.stockItems;
+    filteredProductIds = new HashSet<>();
+    searchResultIds = new HashSet<>();
+    for (Product product : fixtures.products) {
+      if (product.getId() % 3 != 0) {
+        filteredProductIds.add(product.getId());
+      }
+      if (product.getId() % 7 == 0) {
+        searchResultIds.add(product.getId());
+      }
+    }
+  }
+
+  @Benchmark
+  public List<StockItem> filterStockItems() {
+    return StockOverviewViewModel.filterStockItems(
+        stockItems, filteredProductIds, null, null, () -> {}
+    );
+  }
+
+  @Benchmark
+  public List<StockItem> filterStockItemsWithSearch() {
+    return StockOverviewViewModel.filterStockItems(
+        stockItems, filteredProductIds, searchResultIds, null, () -> {}
+    );
+  }
+}